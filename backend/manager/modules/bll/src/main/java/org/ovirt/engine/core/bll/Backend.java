@@ -70,6 +70,7 @@ import org.ovirt.engine.core.compat.DateTime;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.DbConnectionUtil;
 import org.ovirt.engine.core.dal.dbbroker.DbFacade;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogWriter;
 import org.ovirt.engine.core.dal.dbbroker.generic.DBConfigUtils;
 import org.ovirt.engine.core.dal.job.ExecutionMessageDirector;
 import org.ovirt.engine.core.dal.utils.CacheManager;
@@ -254,6 +255,8 @@ public class Backend implements BackendInternal, BackendCommandObjectsHandler {
         Config.setConfigUtils(new DBConfigUtils());
         // we need to initialize os-info before the compensations take place because of VmPoolCommandBase#osRepository
         initOsRepository();
+        // resolve the classes of the actions and queries once, before the first command is created
+        CommandsFactory.initialize();
 
         // When getting a proxy to this bean using JBoss embedded, the initialize method is called for each method
         // invocation on the proxy, as it is called by setup method which is @PostConstruct - the initialized flag
@@ -268,6 +271,7 @@ public class Backend implements BackendInternal, BackendCommandObjectsHandler {
         log.info("Running ovirt-engine {}", Config.<String>getValue(ConfigValues.ProductRPMVersion));
 
         serviceLoader.load(CpuFlagsManagerHandler.class);
+        serviceLoader.load(AuditLogWriter.class);
         serviceLoader.load(AuditLogCleanupManager.class);
         serviceLoader.load(CommandEntityCleanupManager.class);
 
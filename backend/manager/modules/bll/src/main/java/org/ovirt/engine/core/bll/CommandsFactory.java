@@ -4,8 +4,7 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.text.MessageFormat;
 import java.util.Arrays;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.List;
 
 import org.ovirt.engine.core.bll.context.CommandContext;
 import org.ovirt.engine.core.bll.context.EngineContext;
@@ -15,6 +14,7 @@ import org.ovirt.engine.core.common.queries.VdcQueryParametersBase;
 import org.ovirt.engine.core.common.queries.VdcQueryType;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.di.Injector;
+import org.ovirt.engine.core.utils.CommandConstructorRegistry;
 import org.ovirt.engine.core.utils.ReflectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -74,8 +74,28 @@ public final class CommandsFactory {
         return COMMAND_PACKAGES;
     }
 
-    private static ConcurrentMap<String, Class<CommandBase<? extends VdcActionParametersBase>>> commandsCache =
-            new ConcurrentHashMap<>(VdcActionType.values().length);
+    private static final CommandConstructorRegistry<VdcActionType, CommandBase<?>> actionConstructors =
+            new CommandConstructorRegistry<>(VdcActionType.class,
+                    action -> action == VdcActionType.Unknown ? null : findClass(action.name(), COMMAND_SUFFIX));
+
+    private static final CommandConstructorRegistry<VdcQueryType, QueriesCommandBase<?>> queryConstructors =
+            new CommandConstructorRegistry<>(VdcQueryType.class, CommandsFactory::getQueryCommandClass);
+
+    /**
+     * Resolves the classes of all the actions and queries, so they aren't looked up when the commands are created,
+     * and reports the ones which have no class. The {@code Unknown} action and query have none by design.
+     */
+    public static void initialize() {
+        reportMissingClasses(actionConstructors.resolveAll(), VdcActionType.Unknown);
+        reportMissingClasses(queryConstructors.resolveAll(), VdcQueryType.Unknown);
+    }
+
+    private static <E extends Enum<E>> void reportMissingClasses(List<E> missing, E unknown) {
+        missing.remove(unknown);
+        if (!missing.isEmpty()) {
+            log.error("Unable to find the classes of the following commands: {}", missing);
+        }
+    }
 
     public static <P extends VdcActionParametersBase> CommandBase<P> createCommand(VdcActionType action, P parameters) {
         return createCommand(action, parameters, null);
@@ -84,8 +104,8 @@ public final class CommandsFactory {
     public static <P extends VdcActionParametersBase> CommandBase<P> createCommand(VdcActionType action, P parameters,
             CommandContext commandContext) {
         try {
-            Constructor<CommandBase<? extends VdcActionParametersBase>> commandConstructor =
-                    findCommandConstructor(getCommandClass(action.name()), parameters.getClass(), CommandContext.class);
+            Constructor<? extends CommandBase<?>> commandConstructor =
+                    findCommandConstructor(actionConstructors, action, parameters.getClass(), CommandContext.class);
 
             if (commandContext == null) {
                 commandContext = CommandContext.createContext(parameters.getSessionId());
@@ -140,61 +160,69 @@ public final class CommandsFactory {
     }
 
     public static QueriesCommandBase<?> createQueryCommand(VdcQueryType query, VdcQueryParametersBase parameters, EngineContext engineContext) {
-        Class<?> type = null;
         try {
-            type = getQueryClass(query.name());
             QueriesCommandBase<?> result;
             if (engineContext == null) {
-                result =
-                        (QueriesCommandBase<?>) findCommandConstructor(type, parameters.getClass()).newInstance(parameters);
+                result = findCommandConstructor(queryConstructors, query, parameters.getClass())
+                        .newInstance(parameters);
             } else {
-                result =
-                        (QueriesCommandBase<?>) findCommandConstructor(type, parameters.getClass(), EngineContext.class).newInstance(parameters,
-                                engineContext);
-
+                result = findCommandConstructor(queryConstructors, query, parameters.getClass(), EngineContext.class)
+                        .newInstance(parameters, engineContext);
             }
             return Injector.injectMembers(result);
         } catch (Exception e) {
-            log.error("Command Factory: Failed to create command '{}' using reflection: {}", type, e.getMessage());
+            log.error("Command Factory: Failed to create command '{}' using reflection: {}",
+                    queryConstructors.getType(query),
+                    e.getMessage());
             log.error("Exception", e);
             throw new RuntimeException(e);
         }
     }
 
+    @SuppressWarnings("unchecked")
     public static Class<CommandBase<? extends VdcActionParametersBase>> getCommandClass(String name) {
-        return getCommandClass(name, COMMAND_SUFFIX);
+        return (Class<CommandBase<? extends VdcActionParametersBase>>) warnIfMissing(
+                actionConstructors.getType(VdcActionType.valueOf(name)), name + COMMAND_SUFFIX);
     }
 
+    @SuppressWarnings("unchecked")
     public static Class<CommandBase<? extends VdcActionParametersBase>> getQueryClass(String name) {
-        return getCommandClass(name, QUERY_SUFFIX);
+        return (Class<CommandBase<? extends VdcActionParametersBase>>) warnIfMissing(
+                queryConstructors.getType(VdcQueryType.valueOf(name)), name + QUERY_SUFFIX);
     }
 
-    private static Class<CommandBase<? extends VdcActionParametersBase>> getCommandClass(String name, String suffix) {
-        // try the cache first
-        String key = name + suffix;
-        Class<CommandBase<? extends VdcActionParametersBase>> clazz = commandsCache.get(key);
-        if (clazz != null) {
-            return clazz;
+    private static Class<?> warnIfMissing(Class<?> type, String className) {
+        if (type == null) {
+            log.warn("Unable to find class for action '{}'", className);
         }
+        return type;
+    }
 
+    private static Class<CommandBase<? extends VdcActionParametersBase>> findClass(String name, String suffix) {
         for (String commandPackage : COMMAND_PACKAGES) {
             String className = String.format(CLASS_NAME_FORMAT, commandPackage, name, suffix);
             Class<CommandBase<? extends VdcActionParametersBase>> type = loadClass(className);
             if (type != null) {
-                Class<CommandBase<? extends VdcActionParametersBase>> cachedType = commandsCache.putIfAbsent(key, type); // update cache
-                return cachedType == null ? type : cachedType;
+                return type;
             }
         }
-
-        // nothing found
-        log.warn("Unable to find class for action '{}'", key);
         return null;
     }
 
+    @SuppressWarnings("unchecked")
+    private static Class<? extends QueriesCommandBase<?>> getQueryCommandClass(VdcQueryType query) {
+        return query == VdcQueryType.Unknown
+                ? null
+                : (Class<? extends QueriesCommandBase<?>>) (Class<?>) findClass(query.name(), QUERY_SUFFIX);
+    }
+
     @SuppressWarnings("unchecked")
     private static Class<CommandBase<? extends VdcActionParametersBase>> loadClass(String className) {
         try {
-            return (Class<CommandBase<? extends VdcActionParametersBase>>) Class.forName(className);
+            // the class is initialized when the first command is created rather than when it's resolved
+            return (Class<CommandBase<? extends VdcActionParametersBase>>) Class.forName(className,
+                    false,
+                    CommandsFactory.class.getClassLoader());
         } catch (ClassNotFoundException e) {
             return null;
         }
@@ -203,10 +231,14 @@ public final class CommandsFactory {
     /**
      * Return the constructor for the command.
      *
+     * @param <E>
+     *            The enum of the command types.
      * @param <T>
+     *            The base type of the commands.
+     * @param registry
+     *            The registry of the constructors of the command types.
+     * @param commandType
      *            The command type to look for.
-     * @param type
-     *            A class representing the command type to look for.
      * @param expectedParams
      *            The parameters which the constructor is expected to have (can
      *            be empty).
@@ -217,11 +249,14 @@ public final class CommandsFactory {
      *
      * @see ReflectionUtils#findConstructor(Class, Class...)
      */
-    private static <T> Constructor<T> findCommandConstructor(Class<T> type, Class<?>... expectedParams) {
-        Constructor<T> constructor = ReflectionUtils.findConstructor(type, expectedParams);
+    private static <E extends Enum<E>, T> Constructor<? extends T> findCommandConstructor(
+            CommandConstructorRegistry<E, T> registry, E commandType, Class<?>... expectedParams) {
+        Constructor<? extends T> constructor = registry.getConstructor(commandType, expectedParams);
 
         if (constructor == null) {
-            log.error(CTOR_NOT_FOUND_FOR_PARAMETERS, type.getName(), Arrays.toString(expectedParams));
+            Class<? extends T> type = registry.getType(commandType);
+            log.error(CTOR_NOT_FOUND_FOR_PARAMETERS, type == null ? commandType : type.getName(),
+                    Arrays.toString(expectedParams));
             throw new RuntimeException(MessageFormat.format(CTOR_MISMATCH, type));
         }
 
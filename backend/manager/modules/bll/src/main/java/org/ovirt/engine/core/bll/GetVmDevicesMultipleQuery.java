@@ -0,0 +1,66 @@
+package org.ovirt.engine.core.bll;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+
+import org.ovirt.engine.core.bll.context.EngineContext;
+import org.ovirt.engine.core.common.businessentities.VmDevice;
+import org.ovirt.engine.core.common.businessentities.VmDeviceGeneralType;
+import org.ovirt.engine.core.common.businessentities.VmPayload;
+import org.ovirt.engine.core.common.queries.IdsQueryParameters;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.VmDeviceDao;
+
+/**
+ * Returns the devices of several VMs or templates at once, mapped by the id of their VM or template, so the devices
+ * of a whole listing are read by a single query instead of a few queries per entity.
+ *
+ * As with {@link GetVmPayloadQuery}, the payload disks are returned to admin users only.
+ */
+public class GetVmDevicesMultipleQuery<P extends IdsQueryParameters> extends QueriesCommandBase<P> {
+    @Inject
+    private VmDeviceDao vmDeviceDao;
+
+    public GetVmDevicesMultipleQuery(P parameters) {
+        super(parameters);
+    }
+
+    public GetVmDevicesMultipleQuery(P parameters, EngineContext context) {
+        super(parameters, context);
+    }
+
+    protected boolean isAdminUser() {
+        return MultiLevelAdministrationHandler.isAdminUser(getUser());
+    }
+
+    @Override
+    protected void executeQueryCommand() {
+        List<Guid> ids = getParameters().getIds();
+        log.debug("Retrieving devices for '{}' vms", ids.size());
+        List<VmDevice> devices = vmDeviceDao.getVmDevicesByVmIds(ids, getUserID(), getParameters().isFiltered());
+
+        Boolean adminUser = null;
+        Map<Guid, List<VmDevice>> result = new HashMap<>();
+        for (VmDevice device : devices) {
+            if (isPayload(device)) {
+                if (adminUser == null) {
+                    adminUser = isAdminUser();
+                }
+                if (!adminUser) {
+                    continue;
+                }
+            }
+            result.computeIfAbsent(device.getVmId(), guid -> new ArrayList<>()).add(device);
+        }
+
+        setReturnValue(result);
+    }
+
+    private static boolean isPayload(VmDevice device) {
+        return device.getType() == VmDeviceGeneralType.DISK && VmPayload.isPayload(device.getSpecParams());
+    }
+}
@@ -1,22 +1,41 @@
 package org.ovirt.engine.core.bll;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
 import org.ovirt.engine.core.bll.context.CommandContext;
+import org.ovirt.engine.core.bll.scheduling.SchedulingManager;
+import org.ovirt.engine.core.common.action.RunVmParams.RunVmFlow;
 import org.ovirt.engine.core.common.action.VdcActionParametersBase;
 import org.ovirt.engine.core.common.action.VdcActionType;
+import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dao.VmStaticDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class RunVMActionRunner extends SortedMultipleActionsRunnerBase {
 
+    private static final Logger log = LoggerFactory.getLogger(RunVMActionRunner.class);
+
     @Inject
     private VmStaticDao vmStaticDao;
 
+    @Inject
+    private SchedulingManager schedulingManager;
+
+    /**
+     * The VMs placed before the commands are run, whose reserved hosts are released once the commands are executed.
+     */
+    private List<VM> scheduledVms = Collections.emptyList();
+
     public RunVMActionRunner(VdcActionType actionType, ArrayList<VdcActionParametersBase> parameters, CommandContext commandContext, boolean isInternal) {
         super(actionType, parameters, commandContext, isInternal);
     }
@@ -41,6 +60,70 @@ public class RunVMActionRunner extends SortedMultipleActionsRunnerBase {
             commandsList.add(runVmCommandsMap.get(guid));
         }
 
+        // the VMs are placed in the order they are run in
+        scheduledVms = scheduleVms();
+    }
+
+    @Override
+    protected void runCommands() {
+        try {
+            super.runCommands();
+        } finally {
+            schedulingManager.releaseReservedHosts(scheduledVms);
+        }
     }
 
+    /**
+     * Places the VMs that are run right away in a single scheduling pass for each cluster, so each command gets the
+     * host reserved for its VM instead of scheduling the VM on its own. VMs started in other flows, like stateless
+     * VMs, are scheduled when they are actually run. If the pass of a cluster fails, its VMs are scheduled when they
+     * are run as well.
+     *
+     * @return the VMs that were scheduled
+     */
+    private List<VM> scheduleVms() {
+        Map<Guid, List<RunVmCommand<?>>> commandsByCluster = new LinkedHashMap<>();
+        for (CommandBase<?> command : getCommands()) {
+            if (command.getReturnValue().isValid() && command instanceof RunVmCommand) {
+                RunVmCommand<?> runVmCommand = (RunVmCommand<?>) command;
+                if (runVmCommand.getFlow() == RunVmFlow.RUN) {
+                    commandsByCluster.computeIfAbsent(runVmCommand.getVm().getClusterId(), id -> new ArrayList<>())
+                            .add(runVmCommand);
+                }
+            }
+        }
+
+        List<VM> scheduledVms = new ArrayList<>();
+        for (List<RunVmCommand<?>> commands : commandsByCluster.values()) {
+            if (commands.size() < 2) {
+                continue;
+            }
+
+            List<VM> vms = commands.stream().map(RunVmCommand::getVm).collect(Collectors.toList());
+            Map<Guid, List<String>> messages = new HashMap<>();
+            Map<Guid, Guid> placements;
+            try {
+                placements = schedulingManager.scheduleMany(commands.get(0).getCluster(),
+                        vms,
+                        messages,
+                        commands.get(0).getCorrelationId());
+            } catch (RuntimeException e) {
+                // The commands hold their locks until they are executed, so they must run even if the pass failed,
+                // each VM is then scheduled on its own
+                log.error("Failed to schedule {} VMs together, scheduling them one by one: {}",
+                        vms.size(),
+                        e.getMessage());
+                log.debug("Exception", e);
+                continue;
+            }
+            scheduledVms.addAll(vms);
+
+            for (VM vm : vms) {
+                if (!placements.containsKey(vm.getId())) {
+                    log.debug("Couldn't reserve a host for VM '{}': {}", vm.getName(), messages.get(vm.getId()));
+                }
+            }
+        }
+        return scheduledVms;
+    }
 }
@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -55,7 +54,6 @@ import org.ovirt.engine.core.common.queries.SearchParameters;
 import org.ovirt.engine.core.common.queries.VdcQueryParametersBase;
 import org.ovirt.engine.core.common.queries.VdcQueryType;
 import org.ovirt.engine.core.compat.DateTime;
-import org.ovirt.engine.core.compat.TimeSpan;
 import org.ovirt.engine.core.compat.Version;
 import org.ovirt.engine.core.dao.AuditLogDao;
 import org.ovirt.engine.core.dao.ClusterDao;
@@ -82,7 +80,6 @@ import org.ovirt.engine.core.searchbackend.SyntaxContainer;
 import org.ovirt.engine.core.searchbackend.SyntaxError;
 
 public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<P> {
-    private static final HashMap<String, QueryData> queriesCache = new HashMap<>();
     public static final String LDAP = "LDAP";
 
     @Inject
@@ -97,6 +94,9 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
     @Inject
     private VmHandler vmHandler;
 
+    @Inject
+    private SearchQueryCache searchQueryCache;
+
     @Inject
     private VmDao vmDao;
 
@@ -239,12 +239,7 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
         }
 
         List<VM> vms = vmDao.getAllUsingQuery(data.getQuery());
-        for (VM vm : vms) {
-            vmHandler.updateVmGuestAgentVersion(vm);
-            vmHandler.updateVmLock(vm);
-            vmHandler.updateOperationProgress(vm);
-            vmHandler.updateVmStatistics(vm);
-        }
+        vmHandler.updateVmsForDisplay(vms);
         return vms;
     }
 
@@ -436,10 +431,7 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
                     StringUtils.join(AD_SEARCH_TYPES, "|")));
 
     private QueryData initQueryData(boolean useCache) {
-        final String ASTR = "*";
         QueryData data = null;
-        boolean isExistsValue = false;
-        boolean IsFromYesterday = false;
         boolean isSafe = false;
         String searchKey = "";
         try {
@@ -447,24 +439,20 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
                 throw new RuntimeException(String.format("Illegal max count value for query : %s", getParameters().getMaxCount()));
             }
             String searchText = getParameters().getSearchPattern();
-            // do not cache expressions with '*' since it is translated to specific IDs that might be changed
-            useCache = useCache && !searchText.contains(ASTR);
+            // do not cache the searches continued after an entity, since each of them is used for a single page
+            useCache = useCache && getParameters().getSearchAfter() == null;
             if (useCache) {
                 // first lets check the cache of queries.
-                searchKey = String.format("%1$s,%2$s,%3$s", searchText, getParameters().getMaxCount(), getParameters().getCaseSensitive());
-                data = queriesCache.get(searchKey);
-                isExistsValue = data != null;
-
-                if (isExistsValue) {
-                    TimeSpan span = DateTime.getNow().subtract(new Date(data.getDate()));
-                    if (span.Days >= 1) {
-                        IsFromYesterday = true;
-                    }
-                }
+                searchKey = String.format("%1$s,%2$s,%3$s,%4$s",
+                        searchText,
+                        getParameters().getMaxCount(),
+                        getParameters().getCaseSensitive(),
+                        getParameters().getSearchFrom());
+                data = searchQueryCache.get(searchKey);
             }
             // query not in cache or the cached entry is too old, process the
             // search text.
-            if (!isExistsValue || IsFromYesterday) {
+            if (data == null) {
                 log.debug("ResourceManager::searchBusinessObjects(''{}'') - entered", searchText);
                 final char AT='@';
                 String queryAuthz = null;
@@ -520,6 +508,7 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
                 searchObj.setMaxCount(Math.min(Integer.MAX_VALUE, getParameters().getMaxCount()));
                 // setting FromSearch value
                 searchObj.setSearchFrom(getParameters().getSearchFrom());
+                searchObj.setSearchAfter(getParameters().getSearchAfter());
                 if (searchObj.getError() != SyntaxError.NO_ERROR) {
                     log.info("ResourceManager::searchBusinessObjects - erroneous search text - ''{}''",
                             searchText);
@@ -551,12 +540,12 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
                         new QueryData(curSyntaxChecker.generateQueryFromSyntaxContainer(searchObj, isSafe),
                                 DateTime.getNow().getTime(),
                                 queryAuthz, queryNamespace);
-                // when looking for tags , the query contains all parent children tag id's
+                // when looking for tags , the query contains all parent children tag names or id's
                 // statically, therefore , in order to reflect changes in the parent tree
                 // we should not rely on the cached query in such case and have to build the
                 // query from scratch.
-                if (!containsStaticInValues(data.getQuery())) {
-                    queriesCache.put(searchKey, data);
+                if (useCache && !containsStaticInValues(data.getQuery())) {
+                    searchQueryCache.put(searchKey, data);
                 }
             }
         } catch (SearchEngineIllegalCharacterException e) {
@@ -579,6 +568,8 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
 
     private static boolean containsStaticInValues(String query) {
         final String MATCH_IN_TAG_ID_CLAUSE = "with_tags.tag_id in";
-        return query.toLowerCase().contains(MATCH_IN_TAG_ID_CLAUSE);
+        final String MATCH_IN_TAG_NAME_CLAUSE = "with_tags.tag_name in";
+        String lowerCaseQuery = query.toLowerCase();
+        return lowerCaseQuery.contains(MATCH_IN_TAG_ID_CLAUSE) || lowerCaseQuery.contains(MATCH_IN_TAG_NAME_CLAUSE);
     }
 }
@@ -0,0 +1,147 @@
+package org.ovirt.engine.core.bll;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ovirt.engine.core.aaa.QueryData;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the queries compiled from search expressions, so the searches which are repeated over and over, such as the
+ * ones refreshing the grids of the clients, aren't analyzed and translated on every run.
+ *
+ * The cache holds up to {@code SearchQueryCacheSize} searches and drops the least recently used one when it's full. A
+ * compiled query is used for a day since it was compiled, after which it's compiled again.
+ */
+@Singleton
+public class SearchQueryCache implements SearchQueryCacheMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchQueryCache.class);
+
+    private final Map<String, QueryData> queries;
+    private final int maxSize;
+    private final long maxAgeMillis;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private ObjectName objectName;
+    private MBeanServer platformMBeanServer;
+
+    public SearchQueryCache() {
+        this(Config.<Integer> getValue(ConfigValues.SearchQueryCacheSize), TimeUnit.DAYS.toMillis(1));
+    }
+
+    SearchQueryCache(int maxSize, long maxAgeMillis) {
+        this.maxSize = maxSize;
+        this.maxAgeMillis = maxAgeMillis;
+        queries = new LinkedHashMap<String, QueryData>(16, 0.75f, true) {
+            private static final long serialVersionUID = 6405232468218442405L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, QueryData> eldest) {
+                if (size() > SearchQueryCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @PostConstruct
+    private void registerInJMX() {
+        try {
+            objectName = new ObjectName("SearchQueryCache:type=" + getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            log.warn("Failed to register the search query cache in JMX: {}", e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    @PreDestroy
+    private void unregisterFromJMX() {
+        try {
+            if (platformMBeanServer != null) {
+                platformMBeanServer.unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            log.debug("Failed to unregister the search query cache from JMX: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the query compiled for the given search, or <code>null</code> if it isn't cached or has expired
+     */
+    public QueryData get(String searchKey) {
+        QueryData data;
+        synchronized (queries) {
+            data = queries.get(searchKey);
+            if (data != null && DateTime.getNow().getTime() - data.getDate() >= maxAgeMillis) {
+                queries.remove(searchKey);
+                data = null;
+            }
+        }
+        if (data == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return data;
+    }
+
+    public void put(String searchKey, QueryData data) {
+        synchronized (queries) {
+            queries.put(searchKey, data);
+        }
+    }
+
+    @Override
+    public int getSize() {
+        synchronized (queries) {
+            return queries.size();
+        }
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public void invalidateAll() {
+        synchronized (queries) {
+            queries.clear();
+        }
+    }
+}
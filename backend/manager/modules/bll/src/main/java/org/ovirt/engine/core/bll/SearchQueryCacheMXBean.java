@@ -0,0 +1,37 @@
+package org.ovirt.engine.core.bll;
+
+/**
+ * JMX view of the {@link SearchQueryCache}
+ */
+public interface SearchQueryCacheMXBean {
+
+    /**
+     * @return number of compiled searches currently cached
+     */
+    int getSize();
+
+    /**
+     * @return maximum number of compiled searches cached
+     */
+    int getMaxSize();
+
+    /**
+     * @return number of searches whose compiled query was taken from the cache
+     */
+    long getHits();
+
+    /**
+     * @return number of searches which had to be compiled, including the ones whose cached query expired
+     */
+    long getMisses();
+
+    /**
+     * @return number of compiled searches dropped to keep the cache within its maximum size
+     */
+    long getEvictions();
+
+    /**
+     * Drops all the cached searches, so each of them is compiled again on its next use
+     */
+    void invalidateAll();
+}
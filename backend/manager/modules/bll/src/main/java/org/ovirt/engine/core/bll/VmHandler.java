@@ -518,11 +518,17 @@ public class VmHandler implements BackendService {
      *            the VM
      */
     public void updateVmGuestAgentVersion(final VM vm) {
+        updateVmGuestAgentVersion(vm,
+                Config.getValue(ConfigValues.AgentAppName),
+                Config.getValue(ConfigValues.SpiceDriverNameInGuest));
+    }
+
+    private void updateVmGuestAgentVersion(final VM vm,
+            final List<String> possibleAgentAppNames,
+            final Map<String, String> spiceDriversInGuest) {
         if (vm.getAppList() != null) {
             final String[] parts = vm.getAppList().split("[,]", -1);
             if (parts.length != 0) {
-                final List<String> possibleAgentAppNames = Config.getValue(ConfigValues.AgentAppName);
-                final Map<String, String> spiceDriversInGuest = Config.getValue(ConfigValues.SpiceDriverNameInGuest);
                 final String spiceDriverInGuest =
                         spiceDriversInGuest.get(osRepository.getOsFamily(vm.getOs()).toLowerCase());
 
@@ -545,7 +551,10 @@ public class VmHandler implements BackendService {
     }
 
     public void updateOperationProgress(final VM vm) {
-        VmManager vmManager = resourceManager.getVmManager(vm.getId(), false);
+        updateOperationProgress(vm, resourceManager.getVmManager(vm.getId(), false));
+    }
+
+    private void updateOperationProgress(final VM vm, VmManager vmManager) {
         if (vmManager != null) {
             vm.setBackgroundOperationDescription(vmManager.getConvertOperationDescription());
             vm.setBackgroundOperationProgress(vmManager.getConvertOperationProgress());
@@ -556,12 +565,31 @@ public class VmHandler implements BackendService {
     }
 
     public void updateVmStatistics(final VM vm) {
-        VmManager vmManager = resourceManager.getVmManager(vm.getId(), false);
+        updateVmStatistics(vm, resourceManager.getVmManager(vm.getId(), false));
+    }
+
+    private void updateVmStatistics(final VM vm, VmManager vmManager) {
         if (vmManager != null) {
             vm.setStatisticsData(vmManager.getStatistics());
         }
     }
 
+    /**
+     * Updates the guest agent version, the lock, the background operation and the statistics of all the given VMs,
+     * reading the configuration they depend on once and looking up the manager of each VM once.
+     */
+    public void updateVmsForDisplay(final List<VM> vms) {
+        final List<String> possibleAgentAppNames = Config.getValue(ConfigValues.AgentAppName);
+        final Map<String, String> spiceDriversInGuest = Config.getValue(ConfigValues.SpiceDriverNameInGuest);
+        for (VM vm : vms) {
+            updateVmGuestAgentVersion(vm, possibleAgentAppNames, spiceDriversInGuest);
+            updateVmLock(vm);
+            VmManager vmManager = resourceManager.getVmManager(vm.getId(), false);
+            updateOperationProgress(vm, vmManager);
+            updateVmStatistics(vm, vmManager);
+        }
+    }
+
     /**
      * Checks the validity of the given memory size according to OS type.
      *
@@ -115,6 +115,13 @@ public class VmPoolHandler implements BackendService {
         return acquireLock(lock) ? vmId : Guid.Empty;
     }
 
+    /**
+     * Releases the lock of a VM acquired by {@link #acquireVm(Guid, boolean)}, for a VM that wasn't run after all.
+     */
+    public void releaseVm(Guid vmId) {
+        lockManager.releaseLock(createLock(vmId));
+    }
+
     private Stream<Guid> selectVms(Guid vmPoolId, VMStatus vmStatus, Predicate<Guid> vmIdFilter, boolean leaveLocked) {
         List<VmPoolMap> vmPoolMaps = vmPoolDao.getVmMapsInVmPoolByVmPoolIdAndStatus(vmPoolId, vmStatus);
         if (vmPoolMaps == null) {
@@ -1,12 +1,18 @@
 package org.ovirt.engine.core.bll;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
@@ -14,6 +20,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.ovirt.engine.core.bll.job.ExecutionHandler;
+import org.ovirt.engine.core.bll.scheduling.SchedulingManager;
 import org.ovirt.engine.core.common.AuditLogType;
 import org.ovirt.engine.core.common.BackendService;
 import org.ovirt.engine.core.common.VdcObjectType;
@@ -30,6 +37,7 @@ import org.ovirt.engine.core.common.errors.EngineMessage;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableBase;
+import org.ovirt.engine.core.dao.ClusterDao;
 import org.ovirt.engine.core.dao.VmDao;
 import org.ovirt.engine.core.dao.VmPoolDao;
 import org.ovirt.engine.core.dao.VmStaticDao;
@@ -55,6 +63,10 @@ public class VmPoolMonitor implements BackendService {
     private VmDao vmDao;
     @Inject
     private VmStaticDao vmStaticDao;
+    @Inject
+    private ClusterDao clusterDao;
+    @Inject
+    private SchedulingManager schedulingManager;
 
     @PostConstruct
     private void init() {
@@ -131,15 +143,32 @@ public class VmPoolMonitor implements BackendService {
                         .selectNonPrestartedVms(vmPool.getVmPoolId(),
                                 (vmId, messages) -> collectVmPrestartFailureReasons(vmId, failureReasons, messages))
                         .iterator();
-        while (failedAttempts < maxFailedAttempts && prestartedVms < numOfVmsToPrestart
-                && iterator.hasNext()) {
-            Guid vmId = iterator.next();
-            if (prestartVm(vmId, !vmPool.isStateful(), vmPool.getName())) {
-                prestartedVms++;
-                failedAttempts = 0;
-            } else {
-                failedAttempts++;
+
+        // The VMs of stateful pools are run right away, so the first VMs to prestart are placed together. The VMs of
+        // stateless pools are placed only once their stateless snapshots are created.
+        Deque<Guid> selectedVmIds = new ArrayDeque<>();
+        List<VM> scheduledVms = Collections.emptyList();
+        try {
+            if (vmPool.isStateful()) {
+                while (selectedVmIds.size() < numOfVmsToPrestart && iterator.hasNext()) {
+                    selectedVmIds.add(iterator.next());
+                }
+                scheduledVms = scheduleVms(vmPool, selectedVmIds);
+            }
+
+            while (failedAttempts < maxFailedAttempts && prestartedVms < numOfVmsToPrestart
+                    && (!selectedVmIds.isEmpty() || iterator.hasNext())) {
+                Guid vmId = selectedVmIds.isEmpty() ? iterator.next() : selectedVmIds.poll();
+                if (prestartVm(vmId, !vmPool.isStateful(), vmPool.getName())) {
+                    prestartedVms++;
+                    failedAttempts = 0;
+                } else {
+                    failedAttempts++;
+                }
             }
+        } finally {
+            selectedVmIds.forEach(vmPoolHandler::releaseVm);
+            schedulingManager.releaseReservedHosts(scheduledVms);
         }
 
         logResultOfPrestartVms(prestartedVms,
@@ -152,6 +181,45 @@ public class VmPoolMonitor implements BackendService {
         }
     }
 
+    /**
+     * Places the given VMs of the pool in a single scheduling pass, reserving a host for each VM that can run.
+     *
+     * @return the VMs that were scheduled, whose reserved hosts must be released once the VMs are run
+     */
+    private List<VM> scheduleVms(VmPool vmPool, Collection<Guid> vmIds) {
+        if (vmIds.size() < 2) {
+            return Collections.emptyList();
+        }
+
+        List<VM> vms;
+        Map<Guid, List<String>> messages = new HashMap<>();
+        Map<Guid, Guid> placements;
+        try {
+            Map<Guid, VM> vmsInPool = vmDao.getAllForVmPool(vmPool.getVmPoolId())
+                    .stream()
+                    .collect(Collectors.toMap(VM::getId, Function.identity()));
+            vms = vmIds.stream().map(vmsInPool::get).filter(Objects::nonNull).collect(Collectors.toList());
+            placements = schedulingManager.scheduleMany(clusterDao.get(vmPool.getClusterId()), vms, messages, null);
+        } catch (RuntimeException e) {
+            // The VMs are then scheduled one by one when they are run
+            log.error("Failed to schedule the VMs to prestart in VmPool '{}' together: {}",
+                    vmPool.getVmPoolId(),
+                    e.getMessage());
+            log.debug("Exception", e);
+            return Collections.emptyList();
+        }
+        log.debug("Reserved hosts for {} VMs out of {} in VmPool '{}'",
+                placements.size(),
+                vms.size(),
+                vmPool.getVmPoolId());
+        for (VM vm : vms) {
+            if (!placements.containsKey(vm.getId())) {
+                log.debug("Couldn't reserve a host for VM '{}': {}", vm.getName(), messages.get(vm.getId()));
+            }
+        }
+        return vms;
+    }
+
     private void collectVmPrestartFailureReasons(Guid vmId, Map<String, Set<Guid>> failureReasons, List<String> messages) {
         String reason = messages.stream()
                 .filter(EngineMessage::contains)
@@ -2,6 +2,7 @@ package org.ovirt.engine.core.bll.lock;
 
 import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -13,6 +14,7 @@ import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -36,6 +38,11 @@ import org.slf4j.LoggerFactory;
 
 /**
  * The following class an implementation of internal locking mechanism
+ *
+ * The locks are kept in a fixed set of stripes, each guarded by its own lock and holding the locks of the keys which
+ * hash to it, so operations on unrelated keys don't contend. An operation on an {@link EngineLock} holds the stripes
+ * of all its keys, taken in ascending order so concurrent operations can't deadlock. A thread waiting for a lock waits
+ * on the stripe of the key it failed on, and is woken only by releases of keys in that stripe.
  */
 @Startup
 @Singleton(name = "LockManager")
@@ -45,17 +52,29 @@ import org.slf4j.LoggerFactory;
 public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBean {
 
     private static final Pair<Boolean, Set<String>> LOCK_INSERT_SUCCESS_RESULT = new Pair<>(Boolean.TRUE, Collections.<String>emptySet());
-    /** A map which is contains all internal representation of locks **/
-    private final Map<String, InternalLockView> locks = new HashMap<>();
-    /** A lock which is used to synchronized acquireLock(), acquireLockWait() and releaseLock() operations **/
-    private final Lock globalLock = new ReentrantLock();
-    /** A condition which is used in order to notify for waiting threads that some lock was released**/
-    private final Condition releasedLock = globalLock.newCondition();
+    private static final int DEFAULT_STRIPES = 256;
+    /** The stripes which contain all internal representation of locks **/
+    private final Stripe[] stripes;
 
     private MBeanServer platformMBeanServer;
     private ObjectName objectName = null;
     private static final Logger log = LoggerFactory.getLogger(InMemoryLockManager.class);
 
+    public InMemoryLockManager() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param stripes
+     *            - the number of stripes the locks are kept in, 1 serializes all the operations on a single lock
+     */
+    public InMemoryLockManager(int stripes) {
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
     @PostConstruct
     public void registerInJMX() {
         try {
@@ -79,11 +98,12 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
     @Override
     public Pair<Boolean, Set<String>> acquireLock(EngineLock lock) {
         log.debug("Before acquiring lock '{}'", lock);
-        globalLock.lock();
+        int[] lockStripes = getStripeIndexes(lock);
+        lockStripes(lockStripes);
         try {
-            return acquireLockInternal(lock);
+            return acquireLockInternal(lock).getResult();
         } finally {
-            globalLock.unlock();
+            unlockStripes(lockStripes);
         }
     }
 
@@ -91,16 +111,38 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
     public void acquireLockWait(EngineLock lock) {
         log.debug("Before acquiring and wait lock '{}'", lock);
         validateLockForAcquireAndWait(lock);
-        globalLock.lock();
+        int[] lockStripes = getStripeIndexes(lock);
         try {
-            while (!acquireLockInternal(lock).getFirst()) {
-                log.info("Failed to acquire lock and wait lock '{}'", lock);
-                releasedLock.await();
+            while (true) {
+                lockStripes(lockStripes);
+                AcquireResult result;
+                try {
+                    result = acquireLockInternal(lock);
+                } catch (RuntimeException e) {
+                    unlockStripes(lockStripes);
+                    throw e;
+                }
+                if (result.getResult().getFirst()) {
+                    unlockStripes(lockStripes);
+                    return;
+                }
+
+                // only the stripe of the conflicting key is held while waiting, so its release can't be missed
+                Stripe stripe = getStripe(result.getConflictingKey());
+                for (int i = lockStripes.length - 1; i >= 0; i--) {
+                    if (stripes[lockStripes[i]] != stripe) {
+                        stripes[lockStripes[i]].lock.unlock();
+                    }
+                }
+                try {
+                    log.info("Failed to acquire lock and wait lock '{}'", lock);
+                    stripe.releasedLock.await();
+                } finally {
+                    stripe.lock.unlock();
+                }
             }
         } catch (InterruptedException ignore) {
 
-        } finally {
-            globalLock.unlock();
         }
     }
 
@@ -114,7 +156,8 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
     @Override
     public void releaseLock(EngineLock lock) {
         log.debug("Before releasing a lock '{}'", lock);
-        globalLock.lock();
+        int[] lockStripes = getStripeIndexes(lock);
+        lockStripes(lockStripes);
         try {
             if (lock.getSharedLocks() != null) {
                 for (Entry<String, Pair<String, String>> entry : lock.getSharedLocks().entrySet()) {
@@ -126,21 +169,26 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
                     releaseExclusiveLock(buildHashMapKey(entry));
                 }
             }
-            releasedLock.signalAll();
+            for (int index : lockStripes) {
+                stripes[index].releasedLock.signalAll();
+            }
         } finally {
-            globalLock.unlock();
+            unlockStripes(lockStripes);
         }
     }
 
     @Override
     public void clear() {
         log.warn("Cleaning all in memory locks");
-        globalLock.lock();
+        int[] allStripes = getAllStripeIndexes();
+        lockStripes(allStripes);
         try {
-            locks.clear();
-            releasedLock.signalAll();
+            for (Stripe stripe : stripes) {
+                stripe.locks.clear();
+                stripe.releasedLock.signalAll();
+            }
         } finally {
-            globalLock.unlock();
+            unlockStripes(allStripes);
         }
     }
 
@@ -149,9 +197,10 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
         log.warn("The following lock is going to be released via external call, lockId '{}', error message can be"
                 + " left for shared lock",
                 lockId);
-        globalLock.lock();
+        Stripe stripe = getStripe(lockId);
+        stripe.lock.lock();
         try {
-            InternalLockView lock = locks.get(lockId);
+            InternalLockView lock = stripe.locks.get(lockId);
             if (lock == null) {
                 log.warn("Lock with id '{}' does not exist and can not be released via external call", lockId);
                 return false;
@@ -161,9 +210,9 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
             } else {
                 releaseSharedLock(lockId, null);
             }
-            releasedLock.signalAll();
+            stripe.releasedLock.signalAll();
         } finally {
-            globalLock.unlock();
+            stripe.lock.unlock();
         }
         log.warn("Lock '{}' was released via external call", lockId);
         return true;
@@ -172,15 +221,69 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
     @Override
     public List<String> showAllLocks() {
         log.debug("All in memory locks will be shown");
-        globalLock.lock();
+        int[] allStripes = getAllStripeIndexes();
+        lockStripes(allStripes);
         try {
-            return locks.entrySet().stream().map(this::createLockDescription).collect(Collectors.toList());
+            return Arrays.stream(stripes)
+                    .flatMap(stripe -> stripe.locks.entrySet().stream())
+                    .map(this::createLockDescription)
+                    .collect(Collectors.toList());
         } finally {
-            globalLock.unlock();
+            unlockStripes(allStripes);
             log.debug("All in memory locks were shown");
         }
     }
 
+    private Stripe getStripe(String key) {
+        return stripes[getStripeIndex(key)];
+    }
+
+    private int getStripeIndex(String key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % stripes.length;
+    }
+
+    /**
+     * Returns the indexes of the stripes of all the keys of the given lock, in ascending order and without repetitions
+     */
+    private int[] getStripeIndexes(EngineLock lock) {
+        Map<String, Pair<String, String>> sharedLocks = lock.getSharedLocks();
+        Map<String, Pair<String, String>> exclusiveLocks = lock.getExclusiveLocks();
+        int[] indexes = new int[(sharedLocks == null ? 0 : sharedLocks.size())
+                + (exclusiveLocks == null ? 0 : exclusiveLocks.size())];
+        int count = 0;
+        for (Map<String, Pair<String, String>> locks : Arrays.asList(sharedLocks, exclusiveLocks)) {
+            if (locks != null) {
+                for (Entry<String, Pair<String, String>> entry : locks.entrySet()) {
+                    indexes[count++] = getStripeIndex(buildHashMapKey(entry));
+                }
+            }
+        }
+        Arrays.sort(indexes);
+        int distinct = 0;
+        for (int i = 0; i < indexes.length; i++) {
+            if (i == 0 || indexes[i] != indexes[i - 1]) {
+                indexes[distinct++] = indexes[i];
+            }
+        }
+        return distinct == indexes.length ? indexes : Arrays.copyOf(indexes, distinct);
+    }
+
+    private int[] getAllStripeIndexes() {
+        return IntStream.range(0, stripes.length).toArray();
+    }
+
+    private void lockStripes(int[] indexes) {
+        for (int index : indexes) {
+            stripes[index].lock.lock();
+        }
+    }
+
+    private void unlockStripes(int[] indexes) {
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            stripes[indexes[i]].lock.unlock();
+        }
+    }
+
     private String createLockDescription(Entry<String, InternalLockView> e) {
         return new StringBuilder("The object id is : ")
                 .append(e.getKey())
@@ -200,37 +303,39 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
      * 1. The lock can be acquired
      * 2. If the first step successes acquire a lock
      */
-    private Pair<Boolean, Set<String>> acquireLockInternal(EngineLock lock) {
+    private AcquireResult acquireLockInternal(EngineLock lock) {
         boolean checkOnly = true;
         for (int i = 0; i < 2; i++) {
             if (lock.getSharedLocks() != null) {
                 for (Entry<String, Pair<String, String>> entry : lock.getSharedLocks().entrySet()) {
+                    String key = buildHashMapKey(entry);
                     Pair<Boolean, Set<String>> result =
-                            insertSharedLock(buildHashMapKey(entry), entry.getValue().getSecond(), checkOnly);
+                            insertSharedLock(key, entry.getValue().getSecond(), checkOnly);
                     if (!result.getFirst()) {
                         log.debug("Failed to acquire lock. Shared lock is taken for key '{}', value '{}'",
                                 entry.getKey(),
                                 entry.getValue().getFirst());
-                        return result;
+                        return new AcquireResult(result, key);
                     }
                 }
             }
             if (lock.getExclusiveLocks() != null) {
                 for (Entry<String, Pair<String, String>> entry : lock.getExclusiveLocks().entrySet()) {
+                    String key = buildHashMapKey(entry);
                     Pair<Boolean, Set<String>> result =
-                            insertExclusiveLock(buildHashMapKey(entry), entry.getValue().getSecond(), checkOnly);
+                            insertExclusiveLock(key, entry.getValue().getSecond(), checkOnly);
                     if (!result.getFirst()) {
                         log.debug("Failed to acquire lock. Exclusive lock is taken for key '{}', value '{}'",
                                 entry.getKey(),
                                 entry.getValue().getFirst());
-                        return result;
+                        return new AcquireResult(result, key);
                     }
                 }
             }
             checkOnly = false;
         }
         log.debug("Success acquiring lock '{}' succeeded ", lock);
-        return LOCK_INSERT_SUCCESS_RESULT;
+        return AcquireResult.SUCCESS;
     }
 
     /**
@@ -241,6 +346,7 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
      *            - is insert or check if lock can be inserted
      */
     private Pair<Boolean, Set<String>> insertSharedLock(String key, String message, boolean isCheckOnly) {
+        Map<String, InternalLockView> locks = getStripe(key).locks;
         InternalLockView lock = locks.get(key);
         if (lock != null) {
             if (!isCheckOnly) {
@@ -260,6 +366,7 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
      * added only if there is not exist any shared or exclusive lock for given key
      */
     private Pair<Boolean, Set<String>> insertExclusiveLock(String key, String message, boolean isCheckOnly) {
+        Map<String, InternalLockView> locks = getStripe(key).locks;
         InternalLockView lock = locks.get(key);
         if (lock != null) {
             return new Pair<>(Boolean.FALSE, lock.getMessages());
@@ -271,6 +378,7 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
     }
 
     private void releaseExclusiveLock(String key) {
+        Map<String, InternalLockView> locks = getStripe(key).locks;
         InternalLockView lock = locks.get(key);
         if (lock != null && lock.getExclusive()) {
             locks.remove(key);
@@ -283,6 +391,7 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
     }
 
     private void releaseSharedLock(String key, String message) {
+        Map<String, InternalLockView> locks = getStripe(key).locks;
         InternalLockView lock = locks.get(key);
         if (lock != null) {
             if (lock.getCount() > 0) {
@@ -304,12 +413,20 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
 
     @Override
     public LockInfo getLockInfo(String key) {
-        InternalLockView internalLockView = locks.get(key);
-        if (internalLockView == null) {
-            return null;
+        Stripe stripe = getStripe(key);
+        InternalLockView internalLockView;
+        Set<String> messages;
+        stripe.lock.lock();
+        try {
+            internalLockView = stripe.locks.get(key);
+            if (internalLockView == null) {
+                return null;
+            }
+            messages = internalLockView.getMessages();
+        } finally {
+            stripe.lock.unlock();
         }
 
-        Set<String> messages = internalLockView.getMessages();
         messages.remove(EngineMessage.ACTION_TYPE_FAILED_OBJECT_LOCKED.name());
         if (messages.isEmpty()) {
             // EngineMessage.ACTION_TYPE_FAILED_OBJECT_LOCKED should only be used for
@@ -321,6 +438,38 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
         return new LockInfo(internalLockView.getExclusive(), messages);
     }
 
+    /**
+     * A part of the locks, along with the lock guarding them and the condition signalled when one of them is released
+     */
+    private static class Stripe {
+        private final Lock lock = new ReentrantLock();
+        private final Condition releasedLock = lock.newCondition();
+        private final Map<String, InternalLockView> locks = new HashMap<>();
+    }
+
+    /**
+     * The result of an attempt to acquire a lock, along with the key which prevented it if it failed
+     */
+    private static class AcquireResult {
+        private static final AcquireResult SUCCESS = new AcquireResult(LOCK_INSERT_SUCCESS_RESULT, null);
+
+        private final Pair<Boolean, Set<String>> result;
+        private final String conflictingKey;
+
+        AcquireResult(Pair<Boolean, Set<String>> result, String conflictingKey) {
+            this.result = result;
+            this.conflictingKey = conflictingKey;
+        }
+
+        Pair<Boolean, Set<String>> getResult() {
+            return result;
+        }
+
+        String getConflictingKey() {
+            return conflictingKey;
+        }
+    }
+
     /**
      * The following class represents different locks which are kept inside InMemoryLockManager
      */
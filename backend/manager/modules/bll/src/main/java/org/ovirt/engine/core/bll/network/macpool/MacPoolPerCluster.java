@@ -76,9 +76,7 @@ public class MacPoolPerCluster {
 
         final MacPool pool = createPoolInternal(macPool);
         log.debug("Initializing {} with macs: {}", pool, macsForMacPool);
-        for (String mac : macsForMacPool) {
-            pool.forceAddMac(mac);
-        }
+        pool.forceAddMacs(macsForMacPool);
     }
 
     /**
@@ -118,9 +118,11 @@ public final class MacPoolUsingRanges implements MacPool {
 
     @Override
     public void forceAddMacs(List<String> macs) {
+        log.debug("Forcibly allocating custom mac addresses {} from {}", macs, this);
         for (String mac : macs) {
-            forceAddMac(mac);
+            macsStorage.useMacNoDuplicityCheck(MacAddressRangeUtils.macToLong(mac));
         }
+        logWhenMacPoolIsEmpty();
     }
 
     @Override
@@ -141,7 +143,7 @@ public final class MacPoolUsingRanges implements MacPool {
     @Override
     public List<String> allocateMacAddresses(int numberOfAddresses) {
         log.debug("Allocating {} mac addresses from {}.", numberOfAddresses, this);
-        List<Long> macs = macsStorage.allocateAvailableMacs(numberOfAddresses);
+        long[] macs = macsStorage.allocateAvailableMacs(numberOfAddresses);
         List<String> result = MacAddressRangeUtils.macAddressesToStrings(macs);
 
         log.debug("Allocated mac addresses: {} from {}.", result, this);
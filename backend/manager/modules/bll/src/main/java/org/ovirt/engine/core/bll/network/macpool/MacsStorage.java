@@ -1,18 +1,27 @@
 package org.ovirt.engine.core.bll.network.macpool;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 import org.apache.commons.lang.Validate;
 import org.ovirt.engine.core.common.errors.EngineError;
 import org.ovirt.engine.core.common.errors.EngineException;
 
+/**
+ * Holds the MACs of a pool. The ranges are disjoint, so the range including a MAC is looked up by the greatest range
+ * start which is not greater than the MAC. The ranges are also kept in the order they were added, which is the order
+ * they serve the allocation requests in.
+ */
 class MacsStorage {
     private final boolean allowDuplicates;
-    private List<Range> ranges = new LinkedList<>();
+    private List<Range> ranges = new ArrayList<>();
+    private NavigableMap<Long, Range> rangesByStart = new TreeMap<>();
     private ObjectCounter<Long> customMacs;
     private int startIndexForEmptyRangeSearch = 0;
+    private int availableMacsCount = 0;
 
     public MacsStorage(boolean allowDuplicates) {
         this.allowDuplicates = allowDuplicates;
@@ -24,7 +33,13 @@ class MacsStorage {
     }
 
     Range addRange(Range range) {
+        Map.Entry<Long, Range> floorEntry = rangesByStart.floorEntry(range.getRangeEnd());
+        Validate.isTrue(floorEntry == null || floorEntry.getValue().getRangeEnd() < range.getRangeStart(),
+                "Range overlaps a range which was already added.");
+
         ranges.add(range);
+        rangesByStart.put(range.getRangeStart(), range);
+        availableMacsCount += range.getAvailableCount();
         return range;
     }
 
@@ -37,7 +52,10 @@ class MacsStorage {
         if (range == null) {
             return customMacs.increase(mac, allowDuplicates);
         } else {
-            return range.use(mac, allowDuplicates);
+            int availableCountBefore = range.getAvailableCount();
+            boolean used = range.use(mac, allowDuplicates);
+            availableMacsCount += range.getAvailableCount() - availableCountBefore;
+            return used;
         }
     }
 
@@ -55,40 +73,47 @@ class MacsStorage {
         if (range == null) {
             customMacs.decrease(mac);
         } else {
+            int availableCountBefore = range.getAvailableCount();
             range.freeMac(mac);
+            availableMacsCount += range.getAvailableCount() - availableCountBefore;
         }
     }
 
     public boolean availableMacExist() {
-        return getRangeWithAvailableMac() != null;
+        return availableMacsCount > 0;
     }
 
-    public List<Long> allocateAvailableMacs(int numberOfMacs) {
+    public long[] allocateAvailableMacs(int numberOfMacs) {
         if (getAvailableMacsCount() < numberOfMacs) {
             throw new EngineException(EngineError.MAC_POOL_NO_MACS_LEFT);
         }
 
-        final List<Long> result = new ArrayList<>(numberOfMacs);
+        final long[] result = new long[numberOfMacs];
         int remainingMacs = numberOfMacs;
         while (remainingMacs > 0) {
             final Range rangeWithAvailableMac = getRangeWithAvailableMac();
             Validate.notNull(rangeWithAvailableMac);
 
-            final int availableMacsCount = rangeWithAvailableMac.getAvailableCount();
-            int allocatingMacsCount = availableMacsCount < remainingMacs
-                    ? availableMacsCount
+            final int availableMacsInRange = rangeWithAvailableMac.getAvailableCount();
+            int allocatingMacsCount = availableMacsInRange < remainingMacs
+                    ? availableMacsInRange
                     : remainingMacs;
 
-            final List<Long> allocatedMacs = rangeWithAvailableMac.allocateMacs(allocatingMacsCount);
+            final long[] allocatedMacs = rangeWithAvailableMac.allocateMacs(allocatingMacsCount);
 
-            remainingMacs -= allocatedMacs.size();
-            result.addAll(allocatedMacs);
+            System.arraycopy(allocatedMacs, 0, result, numberOfMacs - remainingMacs, allocatedMacs.length);
+            availableMacsCount -= allocatedMacs.length;
+            remainingMacs -= allocatedMacs.length;
         }
 
         return result;
     }
 
     Range getRangeWithAvailableMac() {
+        if (availableMacsCount == 0) {
+            return null;
+        }
+
         int numberOfRanges = ranges.size();
         Range range = findRangeWithAvailableMac(startIndexForEmptyRangeSearch, numberOfRanges, numberOfRanges);
         if (range != null) {
@@ -113,20 +138,17 @@ class MacsStorage {
     }
 
     public int getAvailableMacsCount() {
-        int count = 0;
-        for (Range range : ranges) {
-            count += range.getAvailableCount();
-        }
-        return count;
+        return availableMacsCount;
     }
 
     private Range findIncludingRange(long mac) {
-        for (Range range : ranges) {
-            if (range.contains(mac)) {
-                return range;
-            }
+        Map.Entry<Long, Range> floorEntry = rangesByStart.floorEntry(mac);
+        if (floorEntry == null) {
+            return null;
         }
-        return null;
+
+        Range range = floorEntry.getValue();
+        return range.contains(mac) ? range : null;
     }
 
     boolean isMacInRange(Long mac) {
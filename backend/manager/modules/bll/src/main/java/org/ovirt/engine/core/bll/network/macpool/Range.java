@@ -1,8 +1,6 @@
 package org.ovirt.engine.core.bll.network.macpool;
 
-import java.util.ArrayList;
 import java.util.BitSet;
-import java.util.List;
 
 import org.apache.commons.lang.Validate;
 
@@ -12,9 +10,10 @@ class Range {
     private final int numberOfMacsInRange;
 
     /**
-     * object counter, which holds number of MACs duplicates.
+     * object counter, which holds number of MACs duplicates. It's created only when the first duplicate is used, and
+     * holds only MACs used more than once, so ranges without duplicates don't pay for it.
      */
-    private final ObjectCounter<Integer> macDuplicityCount = new ObjectCounter<>(true);
+    private ObjectCounter<Integer> macDuplicityCount;
     private int availableMacsCount;
 
     private BitSet usedMacs;
@@ -35,6 +34,14 @@ class Range {
         this.usedMacs = new BitSet(numberOfMacsInRange);
     }
 
+    public long getRangeStart() {
+        return rangeStart;
+    }
+
+    public long getRangeEnd() {
+        return rangeEnd;
+    }
+
     public boolean contains(long mac) {
         return rangeStart <= mac && rangeEnd >= mac;
     }
@@ -62,6 +69,9 @@ class Range {
         }
 
         if (allowDuplicates) {
+            if (macDuplicityCount == null) {
+                macDuplicityCount = new ObjectCounter<>(true);
+            }
             return macDuplicityCount.increase(arrayIndex);
         } else {
             return false;
@@ -85,7 +95,7 @@ class Range {
             return;
         }
 
-        final boolean duplicatesExist = macDuplicityCount.count(arrayIndex) != 0;
+        final boolean duplicatesExist = macDuplicityCount != null && macDuplicityCount.count(arrayIndex) != 0;
         if (duplicatesExist) {
             macDuplicityCount.decrease(arrayIndex);
         } else {
@@ -98,33 +108,42 @@ class Range {
         return availableMacsCount;
     }
 
-    public List<Long> allocateMacs(int numberOfMacs) {
+    /**
+     * Allocates the given number of unused MACs, continuing the search where the previous allocation stopped. Whole
+     * runs of unused MACs are marked as used at once.
+     *
+     * @return allocated MACs
+     */
+    public long[] allocateMacs(int numberOfMacs) {
         if (numberOfMacs > getAvailableCount()) {
             throw new IllegalStateException("Insufficient amount of free MACs.");
         }
 
-        List<Long> result = new ArrayList<>(numberOfMacs);
-
-        for (int count = 0; count < numberOfMacs; count++) {
-            final long mac = findUnusedMac();
-
-            // Well duplicates may be allowed, but we're using unallocated mac.
-            use(mac, false);
-            result.add(mac);
+        long[] result = new long[numberOfMacs];
+        int allocated = 0;
+        int searchFrom = startingLocationWhenSearchingForUnusedMac;
+        while (allocated < numberOfMacs) {
+            int runStart = usedMacs.nextClearBit(searchFrom);
+            if (runStart >= numberOfMacsInRange) {
+                searchFrom = 0;
+                continue;
+            }
+
+            int runEnd = usedMacs.nextSetBit(runStart);
+            if (runEnd < 0) {
+                runEnd = numberOfMacsInRange;
+            }
+            runEnd = Math.min(runEnd, runStart + numberOfMacs - allocated);
+
+            usedMacs.set(runStart, runEnd);
+            for (int index = runStart; index < runEnd; index++) {
+                result[allocated++] = rangeStart + index;
+            }
+            searchFrom = runEnd;
         }
 
+        availableMacsCount -= numberOfMacs;
+        startingLocationWhenSearchingForUnusedMac = searchFrom % numberOfMacsInRange;
         return result;
     }
-
-    private long findUnusedMac() {
-        int index = usedMacs.nextClearBit(startingLocationWhenSearchingForUnusedMac);
-        boolean notFound = index == numberOfMacsInRange;
-        if (notFound) {
-            index = usedMacs.nextClearBit(0);
-        }
-        startingLocationWhenSearchingForUnusedMac = (index + 1) % numberOfMacsInRange;
-
-        return rangeStart + index;
-    }
-
 }
@@ -5,7 +5,11 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.annotation.PostConstruct;
@@ -35,15 +39,26 @@ import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Keeps the quotas of the storage pools in memory, and accounts their consumption.
+ *
+ * The read lock of {@link #lock} is held while the cache is used, and its write lock while quotas or whole storage
+ * pools are added to the cache or removed from it. The consumption of a quota is guarded by a lock taken from a fixed
+ * set of stripes by the quota id, so the check and the reservation of a request are atomic for the quotas it uses,
+ * while requests using other quotas, even in the same storage pool, proceed in parallel. A request that uses several
+ * quotas takes their stripes in ascending order, so it can't deadlock with another one.
+ */
 @Singleton
 public class QuotaManager implements BackendService {
+    private static final int LOCK_STRIPES = 64;
+
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock[] quotaLocks = new ReentrantLock[LOCK_STRIPES];
     private final Logger log = LoggerFactory.getLogger(QuotaManager.class);
     private HashMap<Guid, Map<Guid, Quota>> storagePoolQuotaMap = new HashMap<>();
     private HashMap<Guid, Guid> storagePoolDefaultQuotaIdMap = new HashMap<>();
 
     private final QuotaManagerAuditLogger quotaManagerAuditLogger = new QuotaManagerAuditLogger();
-    private final List<QuotaConsumptionParameter> corruptedParameters = new ArrayList<>();
     private final List<Integer> nonCountableQutoaVmStatusesList = new ArrayList<>();
     @Inject
     private SchedulerUtilQuartzImpl schedulerUtil;
@@ -56,6 +71,9 @@ public class QuotaManager implements BackendService {
 
     // constructor is exposed only for Java test. //TODO remove it when arquillian test used.
     protected QuotaManager() {
+        for (int i = 0; i < quotaLocks.length; i++) {
+            quotaLocks[i] = new ReentrantLock();
+        }
     }
 
     @PostConstruct
@@ -89,11 +107,9 @@ public class QuotaManager implements BackendService {
             if (!storagePoolQuotaMap.containsKey(storagePoolId)) {
                 return;
             }
-            synchronized (storagePoolQuotaMap.get(storagePoolId)) {
-                Map<Guid, Quota> map = storagePoolQuotaMap.get(storagePoolId);
-                for (Guid quotaId : quotaList) {
-                    map.remove(quotaId);
-                }
+            Map<Guid, Quota> map = storagePoolQuotaMap.get(storagePoolId);
+            for (Guid quotaId : quotaList) {
+                map.remove(quotaId);
             }
         } finally {
             lock.writeLock().unlock();
@@ -116,13 +132,15 @@ public class QuotaManager implements BackendService {
 
     private boolean validateAndSetStorageQuotaHelper(QuotaConsumptionParametersWrapper parameters,
             Pair<AuditLogType, AuditLogableBase> auditLogPair) {
-        Map<Guid, Quota> quotaMap = storagePoolQuotaMap.get(parameters.getStoragePoolId());
+        // The quotas are taken from the parameters rather than from the cache, as a quota may be dropped from the
+        // cache by a concurrent request while this one waits for its lock
+        Map<Guid, Quota> quotaMap = new HashMap<>();
         Map<Guid, Map<Guid, Double>> desiredStorageSizeQuotaMap = new HashMap<>();
 
         Map<Guid, Double> newUsedGlobalStorageSize = new HashMap<>();
         Map<Guid, Map<Guid, Double>> newUsedSpecificStorageSize = new HashMap<>();
 
-        generateDesiredStorageSizeQuotaMap(parameters, desiredStorageSizeQuotaMap);
+        generateDesiredStorageSizeQuotaMap(parameters, desiredStorageSizeQuotaMap, quotaMap);
 
         for (Guid quotaId : desiredStorageSizeQuotaMap.keySet()) {
             Quota quota = quotaMap.get(quotaId);
@@ -146,7 +164,10 @@ public class QuotaManager implements BackendService {
                 }
             }
         }
-        saveNewConsumptionValues(quotaMap, newUsedGlobalStorageSize, newUsedSpecificStorageSize);
+        saveNewConsumptionValues(storagePoolQuotaMap.get(parameters.getStoragePoolId()),
+                quotaMap,
+                newUsedGlobalStorageSize,
+                newUsedSpecificStorageSize);
         return true;
     }
 
@@ -228,7 +249,8 @@ public class QuotaManager implements BackendService {
         return true;
     }
 
-    private void saveNewConsumptionValues(Map<Guid, Quota> quotaMap,
+    private void saveNewConsumptionValues(Map<Guid, Quota> cachedQuotaMap,
+            Map<Guid, Quota> quotaMap,
             Map<Guid, Double> newUsedGlobalStorageSize,
             Map<Guid, Map<Guid, Double>> newUsedSpecificStorageSize) {
         // cache new storage size.
@@ -237,7 +259,7 @@ public class QuotaManager implements BackendService {
             double value = entry.getValue();
             if (value < 0) {
                 log.error("Quota id '{}' cached storage size is negative, removing from cache", entry.getKey());
-                quotaMap.remove(entry.getKey());
+                cachedQuotaMap.remove(entry.getKey(), quota);
                 continue;
             }
             quota.getGlobalQuotaStorage().setStorageSizeGBUsage(value);
@@ -251,7 +273,7 @@ public class QuotaManager implements BackendService {
                     if (value < 0) {
                         log.error("Quota id '{}' cached storage size is negative, removing from cache",
                                 quotaStorageEntry.getKey());
-                        quotaMap.remove(quotaStorageEntry.getKey());
+                        cachedQuotaMap.remove(quotaStorageEntry.getKey(), quota);
                         continue;
                     }
                     quotaStorage.setStorageSizeGBUsage(value);
@@ -261,7 +283,8 @@ public class QuotaManager implements BackendService {
     }
 
     private void generateDesiredStorageSizeQuotaMap(QuotaConsumptionParametersWrapper parameters,
-            Map<Guid, Map<Guid, Double>> desiredStorageSizeQuotaMap) {
+            Map<Guid, Map<Guid, Double>> desiredStorageSizeQuotaMap,
+            Map<Guid, Quota> quotaMap) {
 
         for (QuotaConsumptionParameter param : parameters.getParameters()) {
             QuotaStorageConsumptionParameter storageConsumptionParameter;
@@ -272,6 +295,7 @@ public class QuotaManager implements BackendService {
             }
             if (!desiredStorageSizeQuotaMap.containsKey(param.getQuotaGuid())) {
                 desiredStorageSizeQuotaMap.put(param.getQuotaGuid(), new HashMap<>());
+                quotaMap.put(param.getQuotaGuid(), param.getQuota());
             }
             Map<Guid, Double> quotaStorageMap = desiredStorageSizeQuotaMap.get(param.getQuotaGuid());
             if (!quotaStorageMap.containsKey(storageConsumptionParameter.getStorageDomainId())) {
@@ -532,7 +556,7 @@ public class QuotaManager implements BackendService {
             return;
         }
 
-        storagePoolQuotaMap.put(storagePoolId, new HashMap<>());
+        storagePoolQuotaMap.put(storagePoolId, new ConcurrentHashMap<>());
         Quota defaultQuota = getQuotaDao().getDefaultQuotaForStoragePool(storagePoolId);
         storagePoolDefaultQuotaIdMap.put(storagePoolId, defaultQuota.getId());
     }
@@ -621,9 +645,14 @@ public class QuotaManager implements BackendService {
         lock.readLock().lock();
         try {
             if (parameters.getStoragePool().getQuotaEnforcementType() != QuotaEnforcementTypeEnum.DISABLED) {
-                synchronized (storagePoolQuotaMap.get(storagePool.getId())) {
-                    return validateAndCompleteParameters(parameters, auditLogPair)
-                            && internalConsumeAndReleaseHandler(parameters, auditLogPair);
+                if (!validateAndCompleteParameters(parameters, auditLogPair)) {
+                    return false;
+                }
+                List<ReentrantLock> locks = lockQuotas(parameters);
+                try {
+                    return internalConsumeAndReleaseHandler(parameters, auditLogPair);
+                } finally {
+                    unlockQuotas(locks);
                 }
             }
         } finally {
@@ -634,6 +663,34 @@ public class QuotaManager implements BackendService {
         return true;
     }
 
+    /**
+     * Takes the locks of the quotas used by the parameters, in ascending order of their stripes.
+     *
+     * @return the locks taken, to be released by {@link #unlockQuotas(List)}
+     */
+    private List<ReentrantLock> lockQuotas(QuotaConsumptionParametersWrapper parameters) {
+        SortedSet<Integer> stripes = new TreeSet<>();
+        for (QuotaConsumptionParameter parameter : parameters.getParameters()) {
+            if (parameter.getQuotaGuid() != null) {
+                stripes.add((parameter.getQuotaGuid().hashCode() & Integer.MAX_VALUE) % quotaLocks.length);
+            }
+        }
+
+        List<ReentrantLock> locks = new ArrayList<>(stripes.size());
+        for (int stripe : stripes) {
+            ReentrantLock quotaLock = quotaLocks[stripe];
+            quotaLock.lock();
+            locks.add(quotaLock);
+        }
+        return locks;
+    }
+
+    private void unlockQuotas(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
     /**
      * This is the start point for all quota consumption and release. This method is called after the parameters were
      * validated and competed, and the cache was updated to support all the requests in the parameters.
@@ -693,11 +750,12 @@ public class QuotaManager implements BackendService {
 
         boolean hardEnforcement =
                 QuotaEnforcementTypeEnum.HARD_ENFORCEMENT == parameters.getAuditLogable().getStoragePool().getQuotaEnforcementType();
+        List<QuotaConsumptionParameter> corruptedParameters = new ArrayList<>();
 
         // for each parameter - check and complete
         for (QuotaConsumptionParameter param : parameters.getParameters()) {
             // check that quota id is valid and fetch the quota from db (or cache). add the quota to the param
-            boolean validQuotaId = checkAndFetchQuota(parameters, param, auditLogPair);
+            boolean validQuotaId = checkAndFetchQuota(parameters, param, auditLogPair, corruptedParameters);
             boolean validCluster = true;
             boolean  validStorageDomain = true;
 
@@ -728,14 +786,13 @@ public class QuotaManager implements BackendService {
             }
         }
         parameters.getParameters().removeAll(corruptedParameters);
-        corruptedParameters.clear();
 
         return true;
     }
 
     // check that quota id is valid and fetch the quota from db (or cache). add the quota to the param
     private boolean checkAndFetchQuota(QuotaConsumptionParametersWrapper parameters, QuotaConsumptionParameter param,
-            Pair<AuditLogType, AuditLogableBase> auditLogPair)
+            Pair<AuditLogType, AuditLogableBase> auditLogPair, List<QuotaConsumptionParameter> corruptedParameters)
             throws InvalidQuotaParametersException {
 
         if(param.getQuotaGuid() == null || Guid.Empty.equals(param.getQuotaGuid())) {
@@ -839,9 +896,12 @@ public class QuotaManager implements BackendService {
         if (quota == null) {
             quota = getQuotaDao().getById(quotaId);
             if (quota != null) {
-                // cache in quota map
+                // cache in quota map, unless a concurrent request has already cached it
                 if (storagePoolId.equals(quota.getStoragePoolId())) {
-                    quotaMap.put(quotaId, quota);
+                    Quota cachedQuota = quotaMap.putIfAbsent(quotaId, quota);
+                    if (cachedQuota != null) {
+                        quota = cachedQuota;
+                    }
                 } else {
                     throw new InvalidQuotaParametersException(
                             String.format("Quota %s does not match storage pool %s", quotaId.toString()
@@ -1092,7 +1152,7 @@ public class QuotaManager implements BackendService {
 
         for (Quota quota : allQuotaIncludingConsumption) {
             if (!newStoragePoolQuotaMap.containsKey(quota.getStoragePoolId())) {
-                newStoragePoolQuotaMap.put(quota.getStoragePoolId(), new HashMap<>());
+                newStoragePoolQuotaMap.put(quota.getStoragePoolId(), new ConcurrentHashMap<>());
             }
             newStoragePoolQuotaMap.get(quota.getStoragePoolId()).put(quota.getId(), quota);
 
@@ -0,0 +1,174 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.ovirt.engine.core.bll.scheduling.external.BalanceResult;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.VmDao;
+import org.ovirt.engine.core.dao.VmStatisticsDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Plans the migrations balancing a cluster in one load balancing pass.
+ *
+ * The balance unit of the cluster is asked for a migration, the load it moves from the source host to the destination
+ * host is simulated on the hosts, and the unit is asked again with the simulated hosts, until it finds nothing more to
+ * migrate or a limit is reached. The limits are the number of migrations planned for the cluster and the number of
+ * planned migrations each host takes part in, as their source or destination. A host that reached its limit isn't
+ * given to the unit anymore, and isn't kept as a candidate destination of the planned migrations.
+ *
+ * The destination of a simulated migration is the candidate host with the lowest CPU usage; the scheduler still
+ * selects the actual destination among the candidates when the migration is run.
+ */
+public class BalancingPlanner {
+    private static final Logger log = LoggerFactory.getLogger(BalancingPlanner.class);
+
+    private final VmDao vmDao;
+
+    private final VmStatisticsDao vmStatisticsDao;
+
+    private final int maxMigrations;
+
+    private final int maxHostMigrations;
+
+    /**
+     * @param maxMigrations the largest number of migrations planned for a cluster
+     * @param maxHostMigrations the largest number of planned migrations a host takes part in
+     */
+    public BalancingPlanner(VmDao vmDao, VmStatisticsDao vmStatisticsDao, int maxMigrations, int maxHostMigrations) {
+        this.vmDao = vmDao;
+        this.vmStatisticsDao = vmStatisticsDao;
+        this.maxMigrations = maxMigrations;
+        this.maxHostMigrations = Math.max(1, maxHostMigrations);
+    }
+
+    /**
+     * Plans the migrations balancing the given cluster.
+     *
+     * @param hosts the hosts to balance, they are modified to carry the simulated load of the plan
+     * @return the planned migrations, in the order they should be run
+     */
+    public List<BalanceResult> plan(PolicyUnitImpl balanceUnit,
+            Cluster cluster,
+            List<VDS> hosts,
+            Map<String, String> parameters) {
+        Map<Guid, VDS> hostsById = hosts.stream().collect(Collectors.toMap(VDS::getId, host -> host));
+        List<VDS> availableHosts = new ArrayList<>(hosts);
+        Map<Guid, Integer> hostMigrations = new HashMap<>();
+        Set<Guid> plannedVms = new HashSet<>();
+        List<BalanceResult> plan = new ArrayList<>();
+        List<Guid> destinations = new ArrayList<>();
+
+        while (plan.size() < maxMigrations && availableHosts.size() > 1) {
+            Optional<BalanceResult> balanceResult =
+                    balanceUnit.balance(cluster, availableHosts, parameters, new ArrayList<>(), plannedVms);
+            if (!balanceResult.isPresent() || !balanceResult.get().isValid()
+                    || plannedVms.contains(balanceResult.get().getVmToMigrate())) {
+                break;
+            }
+
+            BalanceResult migration = balanceResult.get();
+            plan.add(migration);
+            plannedVms.add(migration.getVmToMigrate());
+
+            VM vm = getVm(migration.getVmToMigrate());
+            VDS source = vm != null ? hostsById.get(vm.getRunOnVds()) : null;
+            Optional<VDS> destination = migration.getCandidateHosts()
+                    .stream()
+                    .filter(hostId -> source == null || !hostId.equals(source.getId()))
+                    .map(hostsById::get)
+                    .filter(Objects::nonNull)
+                    .min(Comparator.comparing(VDS::getUsageCpuPercent, Comparator.nullsFirst(Integer::compare)));
+            if (source == null || !destination.isPresent()) {
+                // The load it moves is unknown, so the rest of the plan could make it worse
+                break;
+            }
+
+            moveVm(cluster, vm, source, destination.get());
+            destinations.add(destination.get().getId());
+            for (VDS host : new VDS[] { source, destination.get() }) {
+                if (hostMigrations.merge(host.getId(), 1, Integer::sum) >= maxHostMigrations) {
+                    availableHosts.remove(host);
+                }
+            }
+        }
+
+        // A host that reached its limit later in the plan isn't a destination of the earlier migrations anymore,
+        // unless it's their simulated destination or the current host of the VM, that the balance unit adds so the
+        // scheduler may keep the VM where it is
+        for (int i = 0; i < plan.size(); i++) {
+            BalanceResult migration = plan.get(i);
+            Guid destinationId = i < destinations.size() ? destinations.get(i) : null;
+            migration.getCandidateHosts().removeIf(hostId -> !hostId.equals(migration.getCurrentHost())
+                    && !hostId.equals(destinationId)
+                    && hostMigrations.getOrDefault(hostId, 0) >= maxHostMigrations);
+        }
+
+        if (plan.size() > 1) {
+            log.debug("Planned {} migrations to balance cluster '{}'", plan.size(), cluster.getName());
+        }
+        return plan;
+    }
+
+    private VM getVm(Guid vmId) {
+        VM vm = vmDao.get(vmId);
+        if (vm != null) {
+            vm.setStatisticsData(vmStatisticsDao.get(vmId));
+        }
+        return vm;
+    }
+
+    /**
+     * Simulates the load the given VM moves from the source host to the destination host, as the balance units see
+     * it: the CPU usage, the scheduling memory and the number of VMs.
+     */
+    private void moveVm(Cluster cluster, VM vm, VDS source, VDS destination) {
+        source.setUsageCpuPercent(Math.max(0, usageCpuPercent(source) - predictedVmCpu(cluster, vm, source)));
+        destination.setUsageCpuPercent(usageCpuPercent(destination) + predictedVmCpu(cluster, vm, destination));
+
+        source.setMemCommited(Math.max(0, memCommited(source) - vm.getMemSizeMb()));
+        destination.setMemCommited(memCommited(destination) + vm.getMemSizeMb());
+
+        source.setVmCount(Math.max(0, source.getVmCount() - 1));
+        destination.setVmCount(destination.getVmCount() + 1);
+        source.setVmActive(Math.max(0, vmActive(source) - 1));
+        destination.setVmActive(vmActive(destination) + 1);
+    }
+
+    /**
+     * @return the CPU usage of the given VM on the given host, in percents of the host, the way the balance units
+     * predict it
+     */
+    private static int predictedVmCpu(Cluster cluster, VM vm, VDS host) {
+        Integer effectiveCpuCores = SlaValidator.getEffectiveCpuCores(host, cluster.getCountThreadsAsCores());
+        if (vm.getUsageCpuPercent() != null && effectiveCpuCores != null && effectiveCpuCores > 0) {
+            return vm.getUsageCpuPercent() * vm.getNumOfCpus() / effectiveCpuCores;
+        }
+        return 0;
+    }
+
+    private static int usageCpuPercent(VDS host) {
+        return host.getUsageCpuPercent() != null ? host.getUsageCpuPercent() : 0;
+    }
+
+    private static int memCommited(VDS host) {
+        return host.getMemCommited() != null ? host.getMemCommited() : 0;
+    }
+
+    private static int vmActive(VDS host) {
+        return host.getVmActive() != null ? host.getVmActive() : 0;
+    }
+}
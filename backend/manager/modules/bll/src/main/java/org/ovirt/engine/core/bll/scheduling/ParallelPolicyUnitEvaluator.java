@@ -0,0 +1,115 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.scheduling.PerHostMessages;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * Evaluates the internal policy units of a scheduling pass on a bounded fork/join pool.
+ *
+ * The weight units are run concurrently with each other. The hosts given to a unit that evaluates each host on its
+ * own, see {@link SchedulingUnit#hostIndependent()}, are also split into partitions that are evaluated concurrently.
+ * The results are merged in the order of the units and of the hosts, so they are the same as the results of running
+ * the units one after the other on all the hosts, and so is the host selected for the VM.
+ */
+public class ParallelPolicyUnitEvaluator {
+
+    private final ForkJoinPool pool;
+
+    private final int parallelism;
+
+    private final int minHostsPerPartition;
+
+    /**
+     * @param parallelism the number of threads evaluating the policy units
+     * @param minHostsPerPartition the least number of hosts evaluated by a single task, so small clusters aren't
+     * split into tasks that cost more to run than they save
+     */
+    public ParallelPolicyUnitEvaluator(int parallelism, int minHostsPerPartition) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.parallelism = parallelism;
+        this.minHostsPerPartition = Math.max(1, minHostsPerPartition);
+    }
+
+    /**
+     * Runs the filter of the given unit, splitting the hosts between several tasks if the unit evaluates each host on
+     * its own.
+     */
+    public List<VDS> filter(PolicyUnitImpl unit,
+            SchedulingContext context,
+            List<VDS> hosts,
+            VM vm,
+            PerHostMessages messages) {
+        List<List<VDS>> partitions = partition(unit, hosts);
+        if (partitions.size() == 1) {
+            return unit.filter(context, hosts, vm, messages);
+        }
+
+        List<ForkJoinTask<Pair<List<VDS>, PerHostMessages>>> tasks = new ArrayList<>();
+        for (List<VDS> partition : partitions) {
+            tasks.add(pool.submit(() -> {
+                PerHostMessages partitionMessages = new PerHostMessages();
+                return new Pair<>(unit.filter(context, partition, vm, partitionMessages), partitionMessages);
+            }));
+        }
+
+        List<VDS> result = new ArrayList<>();
+        for (ForkJoinTask<Pair<List<VDS>, PerHostMessages>> task : tasks) {
+            Pair<List<VDS>, PerHostMessages> partitionResult = task.join();
+            result.addAll(partitionResult.getFirst());
+            partitionResult.getSecond().getMessages().forEach(messages::addMessages);
+        }
+        return result;
+    }
+
+    /**
+     * Runs the weights of the given units concurrently.
+     *
+     * @return the scores of the hosts, for each unit in the given order
+     */
+    public List<List<Pair<Guid, Integer>>> score(List<PolicyUnitImpl> units,
+            SchedulingContext context,
+            List<VDS> hosts,
+            VM vm) {
+        List<List<ForkJoinTask<List<Pair<Guid, Integer>>>>> tasks = new ArrayList<>();
+        for (PolicyUnitImpl unit : units) {
+            List<ForkJoinTask<List<Pair<Guid, Integer>>>> unitTasks = new ArrayList<>();
+            for (List<VDS> partition : partition(unit, hosts)) {
+                unitTasks.add(pool.submit(() -> unit.score(context, partition, vm)));
+            }
+            tasks.add(unitTasks);
+        }
+
+        List<List<Pair<Guid, Integer>>> scores = new ArrayList<>();
+        for (List<ForkJoinTask<List<Pair<Guid, Integer>>>> unitTasks : tasks) {
+            List<Pair<Guid, Integer>> unitScores = new ArrayList<>();
+            for (ForkJoinTask<List<Pair<Guid, Integer>>> task : unitTasks) {
+                unitScores.addAll(task.join());
+            }
+            scores.add(unitScores);
+        }
+        return scores;
+    }
+
+    private List<List<VDS>> partition(PolicyUnitImpl unit, List<VDS> hosts) {
+        int partitions = Math.min(parallelism, hosts.size() / minHostsPerPartition);
+        if (!unit.isHostIndependent() || partitions < 2) {
+            return Collections.singletonList(hosts);
+        }
+
+        List<List<VDS>> result = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            result.add(new ArrayList<>(hosts.subList(i * hosts.size() / partitions,
+                    (i + 1) * hosts.size() / partitions)));
+        }
+        return result;
+    }
+}
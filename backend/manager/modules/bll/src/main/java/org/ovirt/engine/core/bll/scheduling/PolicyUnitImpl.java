@@ -66,12 +66,12 @@ public abstract class PolicyUnitImpl {
         this.pendingResourceManager = pendingResourceManager;
     }
 
-    public List<VDS> filter(Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters, PerHostMessages messages) {
+    public List<VDS> filter(SchedulingContext context, List<VDS> hosts, VM vm, PerHostMessages messages) {
         log.error("Policy unit '{}' filter is not implemented", getPolicyUnit().getName());
         return hosts;
     }
 
-    public List<Pair<Guid, Integer>> score( Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters) {
+    public List<Pair<Guid, Integer>> score(SchedulingContext context, List<VDS> hosts, VM vm) {
         log.error("Policy unit '{}' function is not implemented", getPolicyUnit().getName());
 
         return hosts.stream().map(host -> new Pair<>(host.getId(), 1)).collect(Collectors.toList());
@@ -85,6 +85,22 @@ public abstract class PolicyUnitImpl {
         return Optional.empty();
     }
 
+    /**
+     * Finds the next migration of a balancing plan, see {@link BalancingPlanner}.
+     *
+     * The given hosts already carry the simulated load of the migrations planned so far. The units that can't take
+     * that into account plan only the first migration, which is the default.
+     *
+     * @param plannedVms the VMs the plan already migrates, they must not be returned again
+     */
+    public Optional<BalanceResult> balance(Cluster cluster,
+            List<VDS> hosts,
+            Map<String, String> parameters,
+            ArrayList<String> messages,
+            Set<Guid> plannedVms) {
+        return plannedVms.isEmpty() ? balance(cluster, hosts, parameters, messages) : Optional.empty();
+    }
+
     public SelectorInstance selector(Map<String, String> parameters) {
         log.error("Policy unit '{}' selector is not implemented", getPolicyUnit().getName());
         return null;
@@ -103,6 +119,14 @@ public abstract class PolicyUnitImpl {
         return pendingResourceManager;
     }
 
+    /**
+     * @return whether the unit evaluates each host on its own, see {@link SchedulingUnit#hostIndependent()}
+     */
+    public boolean isHostIndependent() {
+        SchedulingUnit unit = getClass().getAnnotation(SchedulingUnit.class);
+        return getPolicyUnit().isInternal() && unit != null && unit.hostIndependent();
+    }
+
     // The following methods are only used when instantiating an internal policy unit
 
     protected String getName() {
@@ -0,0 +1,170 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.VdsNumaNode;
+import org.ovirt.engine.core.common.businessentities.network.Network;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkInterface;
+import org.ovirt.engine.core.common.scheduling.AffinityGroup;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.dbbroker.DbFacade;
+import org.ovirt.engine.core.utils.NetworkUtils;
+
+/**
+ * The state of a cluster seen by all the policy units during one scheduling pass.
+ *
+ * Each part of the state is loaded for the whole cluster with a single query, the first time a policy unit asks for
+ * it, and then it's shared by the rest of the policy units and hosts of the pass, instead of each of them querying the
+ * database on its own. The loaded state isn't refreshed during the pass and must not be modified by the policy units.
+ */
+public class SchedulingContext {
+    private final Cluster cluster;
+    private final Map<String, String> policyParameters;
+
+    private final Supplier<Map<Guid, VDS>> hosts;
+    private final Supplier<Map<Guid, List<VdsNumaNode>>> numaNodes;
+    private final Supplier<Map<Guid, VM>> runningVms;
+    private final Supplier<List<AffinityGroup>> affinityGroups;
+    private final Supplier<List<Network>> networks;
+    private final Supplier<Map<Guid, List<String>>> hostNetworks;
+    private final Supplier<Map<Guid, VdsNetworkInterface>> displayNics;
+
+    public SchedulingContext(Cluster cluster, Map<String, String> policyParameters) {
+        this.cluster = cluster;
+        this.policyParameters = Collections.unmodifiableMap(policyParameters);
+
+        hosts = lazy(() -> toMap(getDbFacade().getVdsDao().getAllForCluster(cluster.getId()), VDS::getId));
+        numaNodes = lazy(() -> getDbFacade().getVdsNumaNodeDao().getAllVdsNumaNodeByClusterId(cluster.getId()));
+        runningVms = lazy(() -> toMap(getDbFacade().getVmDao().getAllRunningByCluster(cluster.getId()), VM::getId));
+        affinityGroups = lazy(() ->
+                getDbFacade().getAffinityGroupDao().getAllAffinityGroupsByClusterId(cluster.getId()));
+        networks = lazy(() -> getDbFacade().getNetworkDao().getAllForCluster(cluster.getId()));
+        hostNetworks = lazy(() -> getDbFacade().getInterfaceDao().getHostNetworksByCluster(cluster.getId()));
+        displayNics = lazy(this::loadDisplayNics);
+    }
+
+    public Cluster getCluster() {
+        return cluster;
+    }
+
+    public Map<String, String> getPolicyParameters() {
+        return policyParameters;
+    }
+
+    /**
+     * @return all the hosts of the cluster, whatever their status is
+     */
+    public Map<Guid, VDS> getHosts() {
+        return hosts.get();
+    }
+
+    /**
+     * @return the host of the cluster with the given id, or {@code null} if it isn't in the cluster
+     */
+    public VDS getHost(Guid hostId) {
+        return getHosts().get(hostId);
+    }
+
+    /**
+     * @return the NUMA nodes of the given host, empty if it doesn't report any
+     */
+    public List<VdsNumaNode> getNumaNodes(Guid hostId) {
+        return numaNodes.get().getOrDefault(hostId, Collections.emptyList());
+    }
+
+    /**
+     * @return the VMs running in the cluster, by id
+     */
+    public Map<Guid, VM> getRunningVms() {
+        return runningVms.get();
+    }
+
+    public List<AffinityGroup> getAffinityGroups() {
+        return affinityGroups.get();
+    }
+
+    /**
+     * @return the networks attached to the cluster
+     */
+    public List<Network> getNetworks() {
+        return networks.get();
+    }
+
+    /**
+     * @return the names of the networks attached to each host of the cluster, by host id
+     */
+    public Map<Guid, List<String>> getHostNetworks() {
+        return hostNetworks.get();
+    }
+
+    /**
+     * @return the interfaces the display network of the cluster is attached to, by host id
+     */
+    public Map<Guid, VdsNetworkInterface> getDisplayNics() {
+        return displayNics.get();
+    }
+
+    private Map<Guid, VdsNetworkInterface> loadDisplayNics() {
+        Map<Guid, VdsNetworkInterface> nics = new HashMap<>();
+        Network displayNetwork = NetworkUtils.getDisplayNetwork(getNetworks());
+        if (displayNetwork != null) {
+            for (VdsNetworkInterface nic : getDbFacade().getInterfaceDao()
+                    .getVdsInterfacesByNetworkId(displayNetwork.getId())) {
+                nics.put(nic.getVdsId(), nic);
+            }
+        }
+        return nics;
+    }
+
+    private static <T> Map<Guid, T> toMap(List<T> entities, Function<T, Guid> id) {
+        Map<Guid, T> map = new HashMap<>();
+        for (T entity : entities) {
+            map.put(id.apply(entity), entity);
+        }
+        return map;
+    }
+
+    private static DbFacade getDbFacade() {
+        return DbFacade.getInstance();
+    }
+
+    private static <T> Supplier<T> lazy(Supplier<T> loader) {
+        return new LazyValue<>(loader);
+    }
+
+    /**
+     * Loads its value the first time it's requested, only once even if several threads request it at the same time.
+     */
+    private static class LazyValue<T> implements Supplier<T> {
+        private Supplier<T> loader;
+        private volatile T value;
+
+        private LazyValue(Supplier<T> loader) {
+            this.loader = loader;
+        }
+
+        @Override
+        public T get() {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = loader.get();
+                        value = result;
+                        loader = null;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -16,6 +16,10 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -113,12 +117,27 @@ public class SchedulingManager implements BackendService {
 
     private final ConcurrentHashMap<Guid, Semaphore> clusterLockMap = new ConcurrentHashMap<>();
 
+    /**
+     * [VM id, host id] map of the hosts reserved by {@link #scheduleMany} for the VMs that weren't scheduled yet
+     */
+    private final ConcurrentHashMap<Guid, Guid> reservedHosts = new ConcurrentHashMap<>();
+
     private final VdsFreeMemoryChecker noWaitingMemoryChecker = new VdsFreeMemoryChecker(new NonWaitingDelayer());
 
     private final Map<Guid, Boolean> clusterId2isHaReservationSafe = new HashMap<>();
 
     private final Guid defaultSelectorGuid = InternalPolicyUnits.getGuid(RankSelectorPolicyUnit.class);
 
+    /**
+     * Evaluates the internal policy units concurrently, {@code null} if they are evaluated by the scheduling thread
+     */
+    private ParallelPolicyUnitEvaluator parallelEvaluator;
+
+    /**
+     * Plans the load balancing of the clusters concurrently, {@code null} if they are planned one after the other
+     */
+    private ForkJoinPool balancingPool;
+
     private PendingResourceManager getPendingResourceManager() {
         return pendingResourceManager;
     }
@@ -133,6 +152,7 @@ public class SchedulingManager implements BackendService {
     public void init() {
         log.info("Initializing Scheduling manager");
         initializePendingResourceManager();
+        initializeParallelEvaluator();
         loadPolicyUnits();
         loadClusterPolicies();
         loadExternalScheduler();
@@ -141,6 +161,14 @@ public class SchedulingManager implements BackendService {
         log.info("Initialized Scheduling manager");
     }
 
+    private void initializeParallelEvaluator() {
+        if (Config.<Boolean> getValue(ConfigValues.SchedulerParallelEvaluation)) {
+            parallelEvaluator = new ParallelPolicyUnitEvaluator(
+                    Config.<Integer> getValue(ConfigValues.SchedulerParallelEvaluationThreads),
+                    Config.<Integer> getValue(ConfigValues.SchedulerParallelEvaluationMinHosts));
+        }
+    }
+
     private void initializePendingResourceManager() {
         pendingResourceManager = new PendingResourceManager(resourceManager);
     }
@@ -298,6 +326,7 @@ public class SchedulingManager implements BackendService {
             List<String> messages,
             VdsFreeMemoryChecker memoryChecker,
             String correlationId) {
+        Future<List<WeightResultEntry>> externalScores = null;
         prepareClusterLock(cluster.getId());
         try {
             log.debug("Scheduling started, correlation Id: {}", correlationId);
@@ -307,16 +336,36 @@ public class SchedulingManager implements BackendService {
                     .getAllForClusterWithStatus(cluster.getId(), VDSStatus.Up);
             vdsList = removeBlacklistedHosts(vdsList, hostBlackList);
             vdsList = keepOnlyWhitelistedHosts(vdsList, hostWhiteList);
+
+            Guid reservedHostId = reservedHosts.remove(vm.getId());
+            if (reservedHostId != null) {
+                // The pending resources of the VM were already added when the host was reserved, and the host had
+                // the memory for them then, so the given memory checker isn't applied: it would count the VM twice
+                if (destHostIdList.isEmpty() && toIdSet(vdsList).contains(reservedHostId)) {
+                    log.debug("Using host '{}' reserved for VM '{}', correlation Id: {}",
+                            reservedHostId, vm.getId(), correlationId);
+                    return Optional.of(reservedHostId);
+                }
+                releaseReservedHost(vm.getStaticData(), reservedHostId);
+            }
+
             refreshCachedPendingValues(vdsList);
             ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
-            Map<String, String> parameters = createClusterPolicyParameters(cluster);
+            SchedulingContext context = new SchedulingContext(cluster, createClusterPolicyParameters(cluster));
+
+            // The external weights don't depend on the filters, so they run on all the hosts at the same time as the
+            // filters, and the scores of the hosts that don't pass the filters are ignored. They are only requested
+            // when the hosts may be weighed, not when a single host is left or the destination is already chosen.
+            List<Pair<PolicyUnitImpl, Integer>> externalFunctions = getExternalFunctions(policy.getFunctions());
+            if (!externalFunctions.isEmpty() && vdsList.size() > 1 && destHostIdList.isEmpty()) {
+                externalScores = runExternalFunctions(externalFunctions, vdsList, vm, context.getPolicyParameters());
+            }
 
             vdsList =
                     runFilters(policy.getFilters(),
-                            cluster,
+                            context,
                             vdsList,
                             vm,
-                            parameters,
                             policy.getFilterPositionMap(),
                             messages,
                             memoryChecker,
@@ -327,19 +376,9 @@ public class SchedulingManager implements BackendService {
                 return Optional.empty();
             }
 
-            Optional<Guid> bestHost = selectBestHost(cluster, vm, destHostIdList, vdsList, policy, parameters);
+            Optional<Guid> bestHost = selectBestHost(context, vm, destHostIdList, vdsList, policy, externalScores);
             if (bestHost.isPresent() && !bestHost.get().equals(vm.getRunOnVds())) {
-                Guid bestHostId = bestHost.get();
-                getPendingResourceManager().addPending(new PendingCpuCores(bestHostId, vm, vm.getNumOfCpus()));
-
-                VDS bestHostEntity = vdsList.stream().filter(vds -> vds.getId().equals(bestHostId)).findFirst().get();
-
-                getPendingResourceManager().addPending(new PendingMemory(bestHostId, vm, bestHostEntity.getGuestOverhead()));
-                getPendingResourceManager().addPending(new PendingOvercommitMemory(bestHostId, vm, vm.getMemSizeMb()));
-                getPendingResourceManager().addPending(new PendingVM(bestHostId, vm));
-                getPendingResourceManager().notifyHostManagers(bestHostId);
-
-                markVfsAsUsedByVm(vm, bestHostId);
+                addPendingResources(vm, vdsList, bestHost.get());
             }
 
             return bestHost;
@@ -348,12 +387,143 @@ public class SchedulingManager implements BackendService {
             log.debug("Exception: ", e);
             return Optional.empty();
         } finally {
+            if (externalScores != null) {
+                externalScores.cancel(true);
+            }
             releaseCluster(cluster.getId());
 
             log.debug("Scheduling ended, correlation Id: {}", correlationId);
         }
     }
 
+    /**
+     * Places several VMs of the cluster in a single scheduling pass. The cluster is locked, its hosts are loaded and
+     * the state shared by the policy units is created once for all the VMs, instead of once for each of them.
+     *
+     * The VMs are placed one after the other, in the given order, and each of them is placed with the pending
+     * resources of the VMs placed before it. The hosts are reserved for the VMs: {@link #schedule} returns the reserved
+     * host of a VM without running the policy units again, as long as the host is still up and allowed for the VM.
+     * The reservations that aren't used must be released with {@link #releaseReservedHosts}. If the pass fails, none
+     * of the VMs is placed.
+     *
+     * The filters don't wait for the pending memory of the hosts to be released. A VM that doesn't fit on any host
+     * isn't placed, and {@link #schedule} places it in full, with the memory checker it's given.
+     *
+     * @param messages filled with the reasons each VM was rejected by the hosts, by VM id
+     * @return the hosts reserved for the VMs, by VM id; the VMs that couldn't be placed are missing
+     */
+    public Map<Guid, Guid> scheduleMany(Cluster cluster,
+            List<VM> vms,
+            Map<Guid, List<String>> messages,
+            String correlationId) {
+        Map<Guid, Guid> placements = new HashMap<>();
+        boolean completed = false;
+        prepareClusterLock(cluster.getId());
+        try {
+            log.debug("Scheduling of {} VMs started, correlation Id: {}", vms.size(), correlationId);
+            checkAllowOverbooking(cluster);
+            lockCluster(cluster.getId());
+            List<VDS> vdsList = getVdsDao()
+                    .getAllForClusterWithStatus(cluster.getId(), VDSStatus.Up);
+            ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
+            SchedulingContext context = new SchedulingContext(cluster, createClusterPolicyParameters(cluster));
+
+            for (VM vm : vms) {
+                refreshCachedPendingValues(vdsList);
+                List<String> vmMessages = new ArrayList<>();
+                messages.put(vm.getId(), vmMessages);
+
+                // The filters may modify the list they get
+                List<VDS> hosts =
+                        runFilters(policy.getFilters(),
+                                context,
+                                new ArrayList<>(vdsList),
+                                vm,
+                                policy.getFilterPositionMap(),
+                                vmMessages,
+                                noWaitingMemoryChecker,
+                                true,
+                                correlationId);
+                if (hosts.isEmpty()) {
+                    continue;
+                }
+
+                Optional<Guid> bestHost = selectBestHost(context, vm, Collections.emptyList(), hosts, policy, null);
+                if (bestHost.isPresent()) {
+                    placements.put(vm.getId(), bestHost.get());
+                    addPendingResources(vm, hosts, bestHost.get());
+                }
+            }
+
+            reservedHosts.putAll(placements);
+            completed = true;
+            return placements;
+        } catch (InterruptedException e) {
+            log.error("scheduling interrupted, correlation Id: {}: {}", correlationId, e.getMessage());
+            log.debug("Exception: ", e);
+            return Collections.emptyMap();
+        } finally {
+            if (!completed) {
+                for (VM vm : vms) {
+                    if (placements.containsKey(vm.getId())) {
+                        releaseReservedHost(vm.getStaticData(), placements.get(vm.getId()));
+                    }
+                }
+            }
+            releaseCluster(cluster.getId());
+
+            log.debug("Scheduling of {} VMs ended, {} placed, correlation Id: {}",
+                    vms.size(),
+                    completed ? placements.size() : 0,
+                    correlationId);
+        }
+    }
+
+    /**
+     * Releases the hosts reserved by {@link #scheduleMany} for the given VMs, together with their pending resources,
+     * unless the VMs were already scheduled on them.
+     */
+    public void releaseReservedHosts(Collection<VM> vms) {
+        for (VM vm : vms) {
+            Guid cluster = vm.getClusterId();
+            prepareClusterLock(cluster);
+            try {
+                lockCluster(cluster);
+                Guid reservedHostId = reservedHosts.remove(vm.getId());
+                if (reservedHostId != null) {
+                    releaseReservedHost(vm.getStaticData(), reservedHostId);
+                }
+            } catch (InterruptedException e) {
+                log.warn("Interrupted.. pending counters can be out of sync");
+            } finally {
+                releaseCluster(cluster);
+            }
+        }
+    }
+
+    private void releaseReservedHost(VmStatic vm, Guid hostId) {
+        getPendingResourceManager().clearVm(vm);
+
+        Map<Guid, String> passthroughVnicToVfMap = vfScheduler.getVnicToVfMap(vm.getId(), hostId);
+        if (passthroughVnicToVfMap != null && !passthroughVnicToVfMap.isEmpty()) {
+            networkDeviceHelper.setVmIdOnVfs(hostId, null, new HashSet<>(passthroughVnicToVfMap.values()));
+        }
+        vfScheduler.cleanVmData(vm.getId());
+    }
+
+    private void addPendingResources(VM vm, List<VDS> vdsList, Guid bestHostId) {
+        getPendingResourceManager().addPending(new PendingCpuCores(bestHostId, vm, vm.getNumOfCpus()));
+
+        VDS bestHostEntity = vdsList.stream().filter(vds -> vds.getId().equals(bestHostId)).findFirst().get();
+
+        getPendingResourceManager().addPending(new PendingMemory(bestHostId, vm, bestHostEntity.getGuestOverhead()));
+        getPendingResourceManager().addPending(new PendingOvercommitMemory(bestHostId, vm, vm.getMemSizeMb()));
+        getPendingResourceManager().addPending(new PendingVM(bestHostId, vm));
+        getPendingResourceManager().notifyHostManagers(bestHostId);
+
+        markVfsAsUsedByVm(vm, bestHostId);
+    }
+
     private void releaseCluster(Guid cluster) {
         // ensuring setting the semaphore permits to 1
         synchronized (clusterLockMap.get(cluster)) {
@@ -409,13 +579,14 @@ public class SchedulingManager implements BackendService {
     /**
      * @param destHostIdList - used for RunAt preselection, overrides the ordering in vdsList
      * @param availableVdsList - presorted list of hosts (better hosts first) that are available
+     * @param externalScores - the scores of the external weights if they were already requested, or null
      */
-    private Optional<Guid> selectBestHost(Cluster cluster,
+    private Optional<Guid> selectBestHost(SchedulingContext context,
             VM vm,
             List<Guid> destHostIdList,
             List<VDS> availableVdsList,
             ClusterPolicy policy,
-            Map<String, String> parameters) {
+            Future<List<WeightResultEntry>> externalScores) {
         // in case a default destination host was specified and
         // it passed filters, return the first found
         List<VDS> runnableHosts = new LinkedList<>();
@@ -446,15 +617,15 @@ public class SchedulingManager implements BackendService {
             List<Pair<Guid, Integer>> functions = policy.getFunctions();
             Guid selector = Optional.of(policy).map(ClusterPolicy::getSelector).orElse(defaultSelectorGuid);
             PolicyUnitImpl selectorUnit = policyUnits.get(selector);
-            SelectorInstance selectorInstance = selectorUnit.selector(parameters);
+            SelectorInstance selectorInstance = selectorUnit.selector(context.getPolicyParameters());
 
             List<Guid> runnableGuids = runnableHosts.stream().map(VDS::getId).collect(Collectors.toList());
             selectorInstance.init(functions, runnableGuids);
 
             if (!functions.isEmpty()
-                    && shouldWeighClusterHosts(cluster, runnableHosts)) {
-                Optional<Guid> bestHostByFunctions = runFunctions(selectorInstance, functions, cluster,
-                        runnableHosts, vm, parameters);
+                    && shouldWeighClusterHosts(context.getCluster(), runnableHosts)) {
+                Optional<Guid> bestHostByFunctions = runFunctions(selectorInstance, functions, context,
+                        runnableHosts, vm, externalScores);
                 if (bestHostByFunctions.isPresent()) {
                     return bestHostByFunctions;
                 }
@@ -518,16 +689,22 @@ public class SchedulingManager implements BackendService {
                 .getAllForClusterWithStatus(cluster.getId(), VDSStatus.Up);
         vdsList = removeBlacklistedHosts(vdsList, vdsBlackList);
         vdsList = keepOnlyWhitelistedHosts(vdsList, vdsWhiteList);
+
+        // The host reserved for the VM already passed the filters, with the pending resources of the VM itself
+        Guid reservedHostId = reservedHosts.get(vm.getId());
+        if (reservedHostId != null && toIdSet(vdsList).contains(reservedHostId)) {
+            return true;
+        }
+
         refreshCachedPendingValues(vdsList);
         ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
-        Map<String, String> parameters = createClusterPolicyParameters(cluster);
+        SchedulingContext context = new SchedulingContext(cluster, createClusterPolicyParameters(cluster));
 
         vdsList =
                 runFilters(policy.getFilters(),
-                        cluster,
+                        context,
                         vdsList,
                         vm,
-                        parameters,
                         policy.getFilterPositionMap(),
                         messages,
                         noWaitingMemoryChecker,
@@ -586,10 +763,9 @@ public class SchedulingManager implements BackendService {
     }
 
     private List<VDS> runFilters(ArrayList<Guid> filters,
-            Cluster cluster,
+            SchedulingContext context,
             List<VDS> hostList,
             VM vm,
-            Map<String, String> parameters,
             Map<Guid, Integer> filterPositionMap,
             List<String> messages,
             VdsFreeMemoryChecker memoryChecker,
@@ -621,15 +797,31 @@ public class SchedulingManager implements BackendService {
             return hostList;
         }
 
+        // The external filters run on all the hosts at the same time as the internal filters
+        List<String> externalFilterNames = externalFilters.stream()
+                .map(f -> f.getPolicyUnit().getName())
+                .collect(Collectors.toList());
+        Future<List<Guid>> externalFilterResult = null;
+        if (shouldRunExternalFilters
+                && Config.<Boolean>getValue(ConfigValues.ExternalSchedulerEnabled)
+                && !externalFilters.isEmpty()) {
+            externalFilterResult = externalBroker.runFiltersAsync(externalFilterNames,
+                    toIdList(hostList),
+                    vm.getId(),
+                    context.getPolicyParameters());
+        }
+
         hostList =
-                runInternalFilters(internalFilters, cluster, hostList, vm, parameters, filterPositionMap,
+                runInternalFilters(internalFilters, context, hostList, vm, filterPositionMap,
                         memoryChecker, correlationId, result);
 
-        if (shouldRunExternalFilters
-                && Config.<Boolean>getValue(ConfigValues.ExternalSchedulerEnabled)
-                && !externalFilters.isEmpty()
-                && !hostList.isEmpty()) {
-            hostList = runExternalFilters(externalFilters, hostList, vm, parameters, messages, correlationId, result);
+        if (externalFilterResult != null) {
+            if (hostList.isEmpty()) {
+                externalFilterResult.cancel(true);
+            } else {
+                hostList = runExternalFilters(externalFilterNames, externalFilterResult, hostList, correlationId,
+                        result);
+            }
         }
 
         if (hostList.isEmpty()) {
@@ -640,10 +832,9 @@ public class SchedulingManager implements BackendService {
     }
 
     private List<VDS> runInternalFilters(ArrayList<PolicyUnitImpl> filters,
-            Cluster cluster,
+            SchedulingContext context,
             List<VDS> hostList,
             VM vm,
-            Map<String, String> parameters,
             Map<Guid, Integer> filterPositionMap,
             VdsFreeMemoryChecker memoryChecker,
             String correlationId,
@@ -654,7 +845,11 @@ public class SchedulingManager implements BackendService {
             }
             filterPolicyUnit.setMemoryChecker(memoryChecker);
             List<VDS> currentHostList = new ArrayList<>(hostList);
-            hostList = filterPolicyUnit.filter(cluster, hostList, vm, parameters, result.getDetails());
+            if (parallelEvaluator != null) {
+                hostList = parallelEvaluator.filter(filterPolicyUnit, context, hostList, vm, result.getDetails());
+            } else {
+                hostList = filterPolicyUnit.filter(context, hostList, vm, result.getDetails());
+            }
             logFilterActions(currentHostList,
                     toIdSet(hostList),
                     EngineMessage.VAR__FILTERTYPE__INTERNAL,
@@ -688,23 +883,12 @@ public class SchedulingManager implements BackendService {
         }
     }
 
-    private List<VDS> runExternalFilters(ArrayList<PolicyUnitImpl> filters,
+    private List<VDS> runExternalFilters(List<String> filterNames,
+            Future<List<Guid>> filterResult,
             List<VDS> hostList,
-            VM vm,
-            Map<String, String> parameters,
-            List<String> messages,
             String correlationId,
             SchedulingResult result) {
-
-        List<Guid> hostIDs = hostList.stream().map(VDS::getId).collect(Collectors.toList());
-
-        List<String> filterNames = filters.stream()
-                .filter(f -> !f.getPolicyUnit().isInternal())
-                .map(f -> f.getPolicyUnit().getName())
-                .collect(Collectors.toList());
-
-        List<Guid> filteredIDs =
-                externalBroker.runFilters(filterNames, hostIDs, vm.getId(), parameters);
+        List<Guid> filteredIDs = getExternalResult(filterResult, toIdList(hostList));
         logFilterActions(hostList,
                 new HashSet<>(filteredIDs),
                 EngineMessage.VAR__FILTERTYPE__EXTERNAL,
@@ -716,6 +900,27 @@ public class SchedulingManager implements BackendService {
         return hostList;
     }
 
+    /**
+     * Waits for the result of a call to the external scheduler. The broker enforces the deadline of the call and
+     * replaces the result of a failed call, so the fallback is only used if the scheduling thread is interrupted.
+     */
+    private <T> T getExternalResult(Future<T> future, T fallback) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        } catch (ExecutionException e) {
+            log.error("Failed to get the result of the external scheduler: {}", e.getMessage());
+            log.debug("Exception: ", e);
+            return fallback;
+        }
+    }
+
+    private List<Guid> toIdList(List<VDS> hostList) {
+        return hostList.stream().map(VDS::getId).collect(Collectors.toList());
+    }
+
     private List<VDS> intersectHosts(List<VDS> hosts, List<Guid> IDs) {
         Set<Guid> idSet = new HashSet<>(IDs);
         return hosts.stream().filter(host -> idSet.contains(host.getId())).collect(Collectors.toList());
@@ -739,81 +944,109 @@ public class SchedulingManager implements BackendService {
         });
     }
 
+    /**
+     * @param externalScores - the scores of the external weights if they were already requested, or null
+     */
     private Optional<Guid> runFunctions(SelectorInstance selector,
             List<Pair<Guid, Integer>> functions,
-            Cluster cluster,
+            SchedulingContext context,
             List<VDS> hostList,
             VM vm,
-            Map<String, String> parameters) {
+            Future<List<WeightResultEntry>> externalScores) {
         List<Pair<PolicyUnitImpl, Integer>> internalScoreFunctions = new ArrayList<>();
-        List<Pair<PolicyUnitImpl, Integer>> externalScoreFunctions = new ArrayList<>();
 
         for (Pair<Guid, Integer> pair : functions) {
             PolicyUnitImpl currentPolicy = policyUnits.get(pair.getFirst());
             if (currentPolicy.getPolicyUnit().isInternal()) {
                 internalScoreFunctions.add(new Pair<>(currentPolicy, pair.getSecond()));
-            } else {
-                if (currentPolicy.getPolicyUnit().isEnabled()) {
-                    externalScoreFunctions.add(new Pair<>(currentPolicy, pair.getSecond()));
-                }
             }
         }
+        List<Pair<PolicyUnitImpl, Integer>> externalScoreFunctions = getExternalFunctions(functions);
+
+        // The external weights run at the same time as the internal ones
+        if (externalScores == null && !externalScoreFunctions.isEmpty()) {
+            externalScores = runExternalFunctions(externalScoreFunctions, hostList, vm, context.getPolicyParameters());
+        }
 
-        runInternalFunctions(selector, internalScoreFunctions, cluster, hostList,
-                vm, parameters);
+        runInternalFunctions(selector, internalScoreFunctions, context, hostList, vm);
 
-        if (Config.<Boolean>getValue(ConfigValues.ExternalSchedulerEnabled) && !externalScoreFunctions.isEmpty()) {
-            runExternalFunctions(selector, externalScoreFunctions, hostList, vm, parameters);
+        if (externalScores != null) {
+            Map<String, Guid> nameToGuidMap = externalScoreFunctions.stream()
+                    .collect(Collectors.toMap(pair -> pair.getFirst().getPolicyUnit().getName(),
+                            pair -> pair.getFirst().getPolicyUnit().getId()));
+            sumScoreResults(selector,
+                    nameToGuidMap,
+                    toIdSet(hostList),
+                    getExternalResult(externalScores, Collections.emptyList()));
         }
 
         return selector.best();
     }
 
+    /**
+     * @return the enabled external weights of the given functions, none if the external scheduler is disabled
+     */
+    private List<Pair<PolicyUnitImpl, Integer>> getExternalFunctions(List<Pair<Guid, Integer>> functions) {
+        List<Pair<PolicyUnitImpl, Integer>> externalScoreFunctions = new ArrayList<>();
+        if (!Config.<Boolean>getValue(ConfigValues.ExternalSchedulerEnabled)) {
+            return externalScoreFunctions;
+        }
+
+        for (Pair<Guid, Integer> pair : functions) {
+            PolicyUnitImpl currentPolicy = policyUnits.get(pair.getFirst());
+            if (!currentPolicy.getPolicyUnit().isInternal() && currentPolicy.getPolicyUnit().isEnabled()) {
+                externalScoreFunctions.add(new Pair<>(currentPolicy, pair.getSecond()));
+            }
+        }
+        return externalScoreFunctions;
+    }
+
     private void runInternalFunctions(SelectorInstance selector,
             List<Pair<PolicyUnitImpl, Integer>> functions,
-            Cluster cluster,
+            SchedulingContext context,
             List<VDS> hostList,
-            VM vm,
-            Map<String, String> parameters) {
+            VM vm) {
+        if (parallelEvaluator != null) {
+            List<PolicyUnitImpl> units = functions.stream().map(Pair::getFirst).collect(Collectors.toList());
+            List<List<Pair<Guid, Integer>>> scoreResults = parallelEvaluator.score(units, context, hostList, vm);
+            for (int i = 0; i < units.size(); i++) {
+                for (Pair<Guid, Integer> result : scoreResults.get(i)) {
+                    selector.record(units.get(i).getGuid(), result.getFirst(), result.getSecond());
+                }
+            }
+            return;
+        }
 
         for (Pair<PolicyUnitImpl, Integer> pair : functions) {
-            List<Pair<Guid, Integer>> scoreResult = pair.getFirst().score(cluster, hostList, vm, parameters);
+            List<Pair<Guid, Integer>> scoreResult = pair.getFirst().score(context, hostList, vm);
             for (Pair<Guid, Integer> result : scoreResult) {
                 selector.record(pair.getFirst().getGuid(), result.getFirst(), result.getSecond());
             }
         }
     }
 
-    private void runExternalFunctions(SelectorInstance selector,
-            List<Pair<PolicyUnitImpl, Integer>> functions,
+    private Future<List<WeightResultEntry>> runExternalFunctions(List<Pair<PolicyUnitImpl, Integer>> functions,
             List<VDS> hostList,
             VM vm,
             Map<String, String> parameters) {
-        List<Guid> hostIDs = hostList.stream().map(VDS::getId).collect(Collectors.toList());
-
         List<Pair<String, Integer>> scoreNameAndWeight = functions.stream()
-                .filter(pair -> !pair.getFirst().getPolicyUnit().isInternal())
                 .map(pair -> new Pair<>(pair.getFirst().getName(), pair.getSecond()))
                 .collect(Collectors.toList());
 
-        Map<String, Guid> nameToGuidMap = functions.stream()
-                .filter(pair -> !pair.getFirst().getPolicyUnit().isInternal())
-                .collect(Collectors.toMap(pair -> pair.getFirst().getPolicyUnit().getName(),
-                        pair -> pair.getFirst().getPolicyUnit().getId()));
-
-        List<WeightResultEntry> externalScores =
-                externalBroker.runScores(scoreNameAndWeight,
-                        hostIDs,
-                        vm.getId(),
-                        parameters);
-
-        sumScoreResults(selector, nameToGuidMap, externalScores);
+        return externalBroker.runScoresAsync(scoreNameAndWeight,
+                toIdList(hostList),
+                vm.getId(),
+                parameters);
     }
 
     private void sumScoreResults(SelectorInstance selector,
             Map<String, Guid> nametoGuidMap,
+            Set<Guid> hostIds,
             List<WeightResultEntry> externalScores) {
         for (WeightResultEntry resultEntry : externalScores) {
+            if (!hostIds.contains(resultEntry.getHost())) {
+                continue;
+            }
             // The old external scheduler returns summed up data without policy unit identification, treat
             // it as a single policy unit with id null
             selector.record(nametoGuidMap.getOrDefault(resultEntry.getWeightUnit(), null),
@@ -875,6 +1108,10 @@ public class SchedulingManager implements BackendService {
     private void enableLoadBalancer() {
         if (Config.<Boolean>getValue(ConfigValues.EnableVdsLoadBalancing)) {
             log.info("Start scheduling to enable vds load balancer");
+            int balancingThreads = Config.<Integer> getValue(ConfigValues.VdsLoadBalancingThreads);
+            if (balancingThreads > 1) {
+                balancingPool = new ForkJoinPool(balancingThreads);
+            }
             Injector.get(SchedulerUtilQuartzImpl.class).scheduleAFixedDelayJob(
                     this,
                     "performLoadBalancing",
@@ -955,34 +1192,62 @@ public class SchedulingManager implements BackendService {
     public void performLoadBalancing() {
         log.debug("Load Balancer timer entered.");
         List<Cluster> clusters = getClusterDao().getAll();
-        for (Cluster cluster : clusters) {
-            ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
-            PolicyUnitImpl policyUnit = policyUnits.get(policy.getBalance());
-            Optional<BalanceResult> balanceResult = Optional.empty();
-            if (policyUnit.getPolicyUnit().isEnabled()) {
-                List<VDS> hosts = getVdsDao().getAllForClusterWithoutMigrating(cluster.getId());
-                if (policyUnit.getPolicyUnit().isInternal()) {
-                    balanceResult = internalRunBalance(policyUnit, cluster, hosts);
-                } else if (Config.<Boolean> getValue(ConfigValues.ExternalSchedulerEnabled)) {
-                    balanceResult = externalRunBalance(policyUnit, cluster, hosts);
-                }
+        BalancingPlanner planner = new BalancingPlanner(dbFacade.getVmDao(),
+                dbFacade.getVmStatisticsDao(),
+                Config.<Integer> getValue(ConfigValues.VdsLoadBalancingMaxMigrationsPerCluster),
+                Config.<Integer> getValue(ConfigValues.VdsLoadBalancingMaxMigrationsPerHost));
+
+        List<List<BalanceResult>> plans = new ArrayList<>();
+        if (balancingPool != null) {
+            List<ForkJoinTask<List<BalanceResult>>> tasks = new ArrayList<>();
+            for (Cluster cluster : clusters) {
+                tasks.add(balancingPool.submit(() -> planLoadBalancing(planner, cluster)));
+            }
+            for (ForkJoinTask<List<BalanceResult>> task : tasks) {
+                plans.add(task.join());
             }
+        } else {
+            for (Cluster cluster : clusters) {
+                plans.add(planLoadBalancing(planner, cluster));
+            }
+        }
 
-            if (balanceResult.isPresent() && balanceResult.get().isValid()) {
-                migrationHandler.migrateVM(balanceResult.get().getCandidateHosts(),
-                        balanceResult.get().getVmToMigrate(),
-                        AuditLogDirector.getMessage(AuditLogType.MIGRATION_REASON_LOAD_BALANCING));
+        // Start the first migration of every cluster before the next ones, so a cluster with a long plan doesn't
+        // hold back the others
+        int steps = plans.stream().mapToInt(List::size).max().orElse(0);
+        for (int step = 0; step < steps; step++) {
+            for (List<BalanceResult> plan : plans) {
+                if (step < plan.size()) {
+                    migrationHandler.migrateVM(plan.get(step).getCandidateHosts(),
+                            plan.get(step).getVmToMigrate(),
+                            AuditLogDirector.getMessage(AuditLogType.MIGRATION_REASON_LOAD_BALANCING));
+                }
             }
         }
     }
 
-    private Optional<BalanceResult> internalRunBalance(PolicyUnitImpl policyUnit,
-            Cluster cluster,
-            List<VDS> hosts) {
-        return policyUnit.balance(cluster,
-                hosts,
-                cluster.getClusterPolicyProperties(),
-                new ArrayList<>());
+    private List<BalanceResult> planLoadBalancing(BalancingPlanner planner, Cluster cluster) {
+        try {
+            ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
+            PolicyUnitImpl policyUnit = policyUnits.get(policy.getBalance());
+            if (!policyUnit.getPolicyUnit().isEnabled()) {
+                return Collections.emptyList();
+            }
+
+            List<VDS> hosts = getVdsDao().getAllForClusterWithoutMigrating(cluster.getId());
+            if (policyUnit.getPolicyUnit().isInternal()) {
+                return planner.plan(policyUnit, cluster, hosts, cluster.getClusterPolicyProperties());
+            } else if (Config.<Boolean> getValue(ConfigValues.ExternalSchedulerEnabled)) {
+                return externalRunBalance(policyUnit, cluster, hosts)
+                        .filter(BalanceResult::isValid)
+                        .map(Collections::singletonList)
+                        .orElse(Collections.emptyList());
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to balance cluster '{}': {}", cluster.getName(), e.getMessage());
+            log.debug("Exception: ", e);
+        }
+        return Collections.emptyList();
     }
 
     private Optional<BalanceResult> externalRunBalance(PolicyUnitImpl policyUnit,
@@ -1087,6 +1352,7 @@ public class SchedulingManager implements BackendService {
         prepareClusterLock(vm.getClusterId());
         try {
             lockCluster(vm.getClusterId());
+            reservedHosts.remove(vm.getId());
             getPendingResourceManager().clearVm(vm);
         } catch (InterruptedException e) {
             log.warn("Interrupted.. pending counters can be out of sync");
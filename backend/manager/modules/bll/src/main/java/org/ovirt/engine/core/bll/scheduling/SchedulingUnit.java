@@ -15,4 +15,13 @@ public @interface SchedulingUnit {
     PolicyUnitType type() default PolicyUnitType.FILTER;
     String description() default "";
     PolicyUnitParameter[] parameters() default {};
+
+    /**
+     * Whether the unit evaluates each host on its own, regardless of the other hosts it's given, so the hosts can be
+     * split between several calls of the unit.
+     *
+     * The calls run on the threads of the evaluator shared by all the clusters, so units that may wait, like the memory
+     * filter, or that load data of the VM on each call aren't marked, and run on the scheduling thread.
+     */
+    boolean hostIndependent() default false;
 }
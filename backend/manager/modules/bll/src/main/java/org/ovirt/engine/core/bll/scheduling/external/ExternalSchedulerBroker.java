@@ -3,6 +3,7 @@ package org.ovirt.engine.core.bll.scheduling.external;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Future;
 
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
@@ -13,11 +14,30 @@ public interface ExternalSchedulerBroker {
     List<Guid> runFilters(List<String> filterNames,
             List<Guid> hostIDs, Guid vmID, Map<String, String> propertiesMap);
 
+    /**
+     * Starts the external filters without waiting for them, see {@link #runFilters}.
+     *
+     * @return the hosts that passed the filters, or all the given hosts if the external scheduler fails or doesn't
+     * respond in time
+     */
+    Future<List<Guid>> runFiltersAsync(List<String> filterNames,
+            List<Guid> hostIDs, Guid vmID, Map<String, String> propertiesMap);
+
     List<WeightResultEntry> runScores(List<Pair<String, Integer>> scoreNameAndWeight,
             List<Guid> hostIDs,
             Guid vmID,
             Map<String, String> propertiesMap);
 
+    /**
+     * Starts the external weights without waiting for them, see {@link #runScores}.
+     *
+     * @return the scores of the hosts, or no scores if the external scheduler fails or doesn't respond in time
+     */
+    Future<List<WeightResultEntry>> runScoresAsync(List<Pair<String, Integer>> scoreNameAndWeight,
+            List<Guid> hostIDs,
+            Guid vmID,
+            Map<String, String> propertiesMap);
+
     Optional<BalanceResult> runBalance(String balanceName, List<Guid> hostIDs, Map<String, String> propertiesMap);
 
 }
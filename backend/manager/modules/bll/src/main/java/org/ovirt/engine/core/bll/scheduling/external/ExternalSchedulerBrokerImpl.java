@@ -6,6 +6,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
 import javax.inject.Singleton;
 
@@ -23,6 +26,27 @@ import org.ovirt.engine.core.di.Injector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.netflix.hystrix.HystrixCommand;
+import com.netflix.hystrix.HystrixCommandGroupKey;
+import com.netflix.hystrix.HystrixCommandKey;
+import com.netflix.hystrix.HystrixCommandProperties;
+import com.netflix.hystrix.HystrixThreadPoolKey;
+import com.netflix.hystrix.HystrixThreadPoolProperties;
+
+/**
+ * Calls the external scheduler proxy over XML-RPC.
+ *
+ * Each call is a Hystrix command run on a dedicated thread pool, so the filters and the weights can be requested at
+ * the same time, and with a deadline. The pool has {@code ExternalSchedulerThreads} threads, and up to
+ * {@code ExternalSchedulerQueueSize} calls wait for one of them, within their deadline. A call that fails, misses the
+ * deadline or finds the queue full returns the result the scheduler would get without the external units: all the
+ * hosts for the filters and no scores for the weights. When too many of the recent calls of a kind failed, the circuit
+ * breaker of that kind opens and the calls return that result at once, until a trial call succeeds again. Hystrix
+ * records the latency and the outcome of every call, by kind.
+ *
+ * The discovery of the external units isn't on the scheduling path. It has no circuit breaker, and it's only bounded by
+ * the response timeout of the proxy, so a slow proxy is still discovered.
+ */
 @Singleton
 public class ExternalSchedulerBrokerImpl implements ExternalSchedulerBroker {
 
@@ -33,10 +57,23 @@ public class ExternalSchedulerBrokerImpl implements ExternalSchedulerBroker {
 
     private static final Object[] EMPTY = new Object[] {};
 
+    private static final String HYSTRIX_KEY = "ExternalScheduler";
+
+    /**
+     * Least number of calls of a kind in the rolling window of the metrics for the circuit breaker to open
+     */
+    private static final int CIRCUIT_BREAKER_REQUEST_VOLUME = 10;
+
     private static final Logger log = LoggerFactory.getLogger(ExternalSchedulerBrokerImpl.class);
 
     private XmlRpcClientConfigImpl config = null;
 
+    private final HystrixCommandProperties.Setter commandProperties;
+
+    private final HystrixCommandProperties.Setter discoverProperties;
+
+    private final HystrixThreadPoolProperties.Setter threadPoolProperties;
+
     public ExternalSchedulerBrokerImpl() {
         String extSchedUrl = Config.getValue(ConfigValues.ExternalSchedulerServiceURL);
         config = new XmlRpcClientConfigImpl();
@@ -49,21 +86,52 @@ public class ExternalSchedulerBrokerImpl implements ExternalSchedulerBroker {
             log.error("External scheduler got bad url: {}", e.getMessage());
             log.debug("Exception", e);
         }
+
+        commandProperties = HystrixCommandProperties.Setter()
+                .withExecutionIsolationStrategy(HystrixCommandProperties.ExecutionIsolationStrategy.THREAD)
+                .withExecutionTimeoutEnabled(true)
+                .withExecutionTimeoutInMilliseconds(Config.getValue(ConfigValues.ExternalSchedulerDeadline))
+                .withCircuitBreakerEnabled(true)
+                .withCircuitBreakerRequestVolumeThreshold(CIRCUIT_BREAKER_REQUEST_VOLUME)
+                .withCircuitBreakerErrorThresholdPercentage(
+                        Config.getValue(ConfigValues.ExternalSchedulerCircuitBreakerErrorPercentage))
+                .withCircuitBreakerSleepWindowInMilliseconds(
+                        Config.getValue(ConfigValues.ExternalSchedulerCircuitBreakerSleepWindow))
+                .withFallbackEnabled(true)
+                .withMetricsRollingStatisticalWindowInMilliseconds(60000)
+                .withMetricsRollingStatisticalWindowBuckets(60);
+
+        discoverProperties = HystrixCommandProperties.Setter()
+                .withExecutionIsolationStrategy(HystrixCommandProperties.ExecutionIsolationStrategy.THREAD)
+                .withExecutionTimeoutEnabled(true)
+                .withExecutionTimeoutInMilliseconds(Config.getValue(ConfigValues.ExternalSchedulerResponseTimeout))
+                .withCircuitBreakerEnabled(false)
+                .withFallbackEnabled(true);
+
+        int queueSize = Config.<Integer> getValue(ConfigValues.ExternalSchedulerQueueSize);
+        threadPoolProperties = HystrixThreadPoolProperties.Setter()
+                .withCoreSize(Config.getValue(ConfigValues.ExternalSchedulerThreads))
+                .withMaxQueueSize(queueSize)
+                .withQueueSizeRejectionThreshold(queueSize);
+    }
+
+    /**
+     * Runs the given method of the external scheduler proxy and waits for its result.
+     */
+    protected Object execute(String method, Object[] args) throws XmlRpcException {
+        XmlRpcClient client = new XmlRpcClient();
+        client.setConfig(config);
+        return client.execute(method, args);
     }
 
     @Override
     public Optional<ExternalSchedulerDiscoveryResult> runDiscover() {
-        try {
-            XmlRpcClient client = new XmlRpcClient();
-            client.setConfig(config);
-            Object result = client.execute(DISCOVER, EMPTY);
-            return parseDiscoverResults(result);
-
-        } catch (XmlRpcException e) {
-            log.error("Error communicating with the external scheduler while discovering: {}", e.getMessage());
-            log.debug("Exception", e);
-            return Optional.empty();
-        }
+        return new ExternalSchedulerCall<Optional<ExternalSchedulerDiscoveryResult>>(DISCOVER,
+                "discovering",
+                () -> parseDiscoverResults(execute(DISCOVER, EMPTY)),
+                Optional.empty(),
+                discoverProperties,
+                false).execute();
     }
 
     private Optional<ExternalSchedulerDiscoveryResult> parseDiscoverResults(Object result) {
@@ -79,26 +147,39 @@ public class ExternalSchedulerBrokerImpl implements ExternalSchedulerBroker {
             List<Guid> hostIDs,
             Guid vmID,
             Map<String, String> propertiesMap) {
-        try {
-            // Do not call the scheduler when there is no operation requested from it
-            if (filterNames.isEmpty()) {
-                return hostIDs;
-            }
-
-            XmlRpcClient client = new XmlRpcClient();
-            client.setConfig(config);
-            Object xmlRpcStruct = client.execute(FILTER, createFilterArgs(filterNames, hostIDs, vmID, propertiesMap));
-            return ExternalSchedulerBrokerObjectBuilder.getFilteringResult(xmlRpcStruct).getHosts();
-
-        } catch (XmlRpcException e) {
-            log.error("Error communicating with the external scheduler while filtering: {}", e.getMessage());
-            log.debug("Exception", e);
-            auditLogFailedToConnect();
+        // Do not call the scheduler when there is no operation requested from it
+        if (filterNames.isEmpty()) {
             return hostIDs;
         }
+        return createFilterCall(filterNames, hostIDs, vmID, propertiesMap).execute();
     }
 
-    private void auditLogFailedToConnect() {
+    @Override
+    public Future<List<Guid>> runFiltersAsync(List<String> filterNames,
+            List<Guid> hostIDs,
+            Guid vmID,
+            Map<String, String> propertiesMap) {
+        // Do not call the scheduler when there is no operation requested from it
+        if (filterNames.isEmpty()) {
+            return CompletableFuture.completedFuture(hostIDs);
+        }
+        return createFilterCall(filterNames, hostIDs, vmID, propertiesMap).queue();
+    }
+
+    private ExternalSchedulerCall<List<Guid>> createFilterCall(List<String> filterNames,
+            List<Guid> hostIDs,
+            Guid vmID,
+            Map<String, String> propertiesMap) {
+        Object[] args = createFilterArgs(filterNames, hostIDs, vmID, propertiesMap);
+        return new ExternalSchedulerCall<>(FILTER,
+                "filtering",
+                () -> ExternalSchedulerBrokerObjectBuilder.getFilteringResult(execute(FILTER, args)).getHosts(),
+                hostIDs,
+                commandProperties,
+                true);
+    }
+
+    protected void auditLogFailedToConnect() {
         AuditLogableBase loggable = Injector.injectMembers(new AuditLogableBase());
         new AuditLogDirector().log(loggable, AuditLogType.FAILED_TO_CONNECT_TO_SCHEDULER_PROXY);
     }
@@ -128,24 +209,37 @@ public class ExternalSchedulerBrokerImpl implements ExternalSchedulerBroker {
             List<Guid> hostIDs,
             Guid vmID,
             Map<String, String> propertiesMap) {
-        try {
-            // Do not call the scheduler when there is no operation requested from it
-            if (scoreNameAndWeight.isEmpty()) {
-                return Collections.emptyList();
-            }
-
-            XmlRpcClient client = new XmlRpcClient();
-            client.setConfig(config);
-            Object result = client.execute(SCORE, createScoreArgs(scoreNameAndWeight, hostIDs, vmID, propertiesMap));
-            return ExternalSchedulerBrokerObjectBuilder.getScoreResult(result).getHosts();
-
-        } catch (XmlRpcException e) {
-            log.error("Error communicating with the external scheduler while running weight modules: {}",
-                    e.getMessage());
-            log.debug("Exception", e);
-            auditLogFailedToConnect();
+        // Do not call the scheduler when there is no operation requested from it
+        if (scoreNameAndWeight.isEmpty()) {
             return Collections.emptyList();
         }
+        return createScoreCall(scoreNameAndWeight, hostIDs, vmID, propertiesMap).execute();
+    }
+
+    @Override
+    public Future<List<WeightResultEntry>> runScoresAsync(List<Pair<String, Integer>> scoreNameAndWeight,
+            List<Guid> hostIDs,
+            Guid vmID,
+            Map<String, String> propertiesMap) {
+        // Do not call the scheduler when there is no operation requested from it
+        if (scoreNameAndWeight.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        return createScoreCall(scoreNameAndWeight, hostIDs, vmID, propertiesMap).queue();
+    }
+
+    private ExternalSchedulerCall<List<WeightResultEntry>> createScoreCall(
+            List<Pair<String, Integer>> scoreNameAndWeight,
+            List<Guid> hostIDs,
+            Guid vmID,
+            Map<String, String> propertiesMap) {
+        Object[] args = createScoreArgs(scoreNameAndWeight, hostIDs, vmID, propertiesMap);
+        return new ExternalSchedulerCall<>(SCORE,
+                "running weight modules",
+                () -> ExternalSchedulerBrokerObjectBuilder.getScoreResult(execute(SCORE, args)).getHosts(),
+                Collections.emptyList(),
+                commandProperties,
+                true);
     }
 
     private Object[] createScoreArgs(List<Pair<String, Integer>> scoreNameAndWeight,
@@ -178,19 +272,13 @@ public class ExternalSchedulerBrokerImpl implements ExternalSchedulerBroker {
 
     @Override
     public Optional<BalanceResult> runBalance(String balanceName, List<Guid> hostIDs, Map<String, String> propertiesMap) {
-        try {
-            XmlRpcClient client = new XmlRpcClient();
-            client.setConfig(config);
-            Object result =
-                    client.execute(BALANCE, createBalanceArgs(balanceName, hostIDs, propertiesMap));
-            return Optional.of(ExternalSchedulerBrokerObjectBuilder.getBalanceResult(result));
-
-        } catch (XmlRpcException e) {
-            log.error("Error communicating with the external scheduler while balancing: {}", e.getMessage());
-            log.debug("Exception", e);
-            auditLogFailedToConnect();
-            return Optional.empty();
-        }
+        Object[] args = createBalanceArgs(balanceName, hostIDs, propertiesMap);
+        return new ExternalSchedulerCall<Optional<BalanceResult>>(BALANCE,
+                "balancing",
+                () -> Optional.of(ExternalSchedulerBrokerObjectBuilder.getBalanceResult(execute(BALANCE, args))),
+                Optional.empty(),
+                commandProperties,
+                true).execute();
     }
 
     private Object[] createBalanceArgs(String balanceName, List<Guid> hostIDs, Map<String, String> propertiesMap) {
@@ -208,4 +296,72 @@ public class ExternalSchedulerBrokerImpl implements ExternalSchedulerBroker {
 
         return sentObject;
     }
+
+    /**
+     * A call to the external scheduler, it returns the given fallback result when the call fails, misses the
+     * deadline, finds the queue of the threads full or isn't made because the circuit breaker of its kind is open.
+     */
+    private class ExternalSchedulerCall<T> extends HystrixCommand<T> {
+        private final String operation;
+        private final Callable<T> call;
+        private final T fallback;
+        private final boolean auditFailure;
+
+        /**
+         * @param method the method of the proxy, used as the kind of the call
+         * @param operation what the call does, for the logs
+         * @param properties the deadline and the circuit breaker of the kind of the call
+         * @param auditFailure whether a failure of the proxy is reported in the audit log
+         */
+        private ExternalSchedulerCall(String method,
+                String operation,
+                Callable<T> call,
+                T fallback,
+                HystrixCommandProperties.Setter properties,
+                boolean auditFailure) {
+            super(HystrixCommand.Setter.withGroupKey(HystrixCommandGroupKey.Factory.asKey(HYSTRIX_KEY))
+                    .andCommandKey(HystrixCommandKey.Factory.asKey(HYSTRIX_KEY + "." + method))
+                    .andThreadPoolKey(HystrixThreadPoolKey.Factory.asKey(HYSTRIX_KEY))
+                    .andThreadPoolPropertiesDefaults(threadPoolProperties)
+                    .andCommandPropertiesDefaults(properties));
+            this.operation = operation;
+            this.call = call;
+            this.fallback = fallback;
+            this.auditFailure = auditFailure;
+        }
+
+        @Override
+        protected T run() throws Exception {
+            return call.call();
+        }
+
+        @Override
+        protected T getFallback() {
+            if (isResponseShortCircuited()) {
+                log.debug("The external scheduler isn't called while {}, too many of its recent calls failed",
+                        operation);
+                return fallback;
+            }
+
+            if (isResponseRejected()) {
+                // the engine ran out of threads to call the proxy with, which says nothing about its connection
+                log.warn("Too many concurrent calls to the external scheduler while {}, not calling it", operation);
+                return fallback;
+            }
+
+            if (isResponseTimedOut()) {
+                log.error("The external scheduler didn't respond in time while {}", operation);
+            } else {
+                Throwable e = getFailedExecutionException();
+                log.error("Error communicating with the external scheduler while {}: {}",
+                        operation,
+                        e != null ? e.getMessage() : null);
+                log.debug("Exception", e);
+            }
+            if (auditFailure) {
+                auditLogFailedToConnect();
+            }
+            return fallback;
+        }
+    }
 }
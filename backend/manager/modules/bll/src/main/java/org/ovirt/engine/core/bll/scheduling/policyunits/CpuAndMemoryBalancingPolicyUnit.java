@@ -27,6 +27,7 @@ import org.ovirt.engine.core.common.businessentities.VdsSpmStatus;
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.scheduling.PolicyUnit;
+import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.DbFacade;
 import org.ovirt.engine.core.dao.ClusterDao;
 import org.ovirt.engine.core.dao.VdsDao;
@@ -62,6 +63,27 @@ public abstract class CpuAndMemoryBalancingPolicyUnit extends PolicyUnitImpl {
             List<VDS> hosts,
             Map<String, String> parameters,
             ArrayList<String> messages) {
+        return findBalance(cluster, hosts, parameters, Collections.emptySet());
+    }
+
+    @Override
+    public Optional<BalanceResult> balance(Cluster cluster,
+            List<VDS> hosts,
+            Map<String, String> parameters,
+            ArrayList<String> messages,
+            Set<Guid> plannedVms) {
+        // The first migration of a plan goes through the overridable balance, so the side effects of the
+        // subclasses, like the power management of the power saving policy, are done once per plan
+        if (plannedVms.isEmpty()) {
+            return balance(cluster, hosts, parameters, messages);
+        }
+        return findBalance(cluster, hosts, parameters, plannedVms);
+    }
+
+    private Optional<BalanceResult> findBalance(final Cluster cluster,
+            List<VDS> hosts,
+            Map<String, String> parameters,
+            Set<Guid> excludedVms) {
 
         Objects.requireNonNull(hosts);
         Objects.requireNonNull(cluster);
@@ -96,7 +118,7 @@ public abstract class CpuAndMemoryBalancingPolicyUnit extends PolicyUnitImpl {
                                 + " based on the CPU usage, will try memory based approach",
                         cluster.getName());
             } else {
-                result = getBalance(findVmAndDestinations, overUtilizedPrimaryHosts, underUtilizedHosts);
+                result = getBalance(findVmAndDestinations, overUtilizedPrimaryHosts, underUtilizedHosts, excludedVms);
             }
         }
 
@@ -113,7 +135,7 @@ public abstract class CpuAndMemoryBalancingPolicyUnit extends PolicyUnitImpl {
                 return Optional.empty();
             }
 
-            result = getBalance(findVmAndDestinations, overUtilizedSecondaryHosts, underUtilizedHosts);
+            result = getBalance(findVmAndDestinations, overUtilizedSecondaryHosts, underUtilizedHosts, excludedVms);
         }
 
         // add the current host, it is possible it is the best host after all,
@@ -129,9 +151,11 @@ public abstract class CpuAndMemoryBalancingPolicyUnit extends PolicyUnitImpl {
 
     private Optional<BalanceResult> getBalance(FindVmAndDestinations findVmAndDestinations,
             final List<VDS> overUtilizedHosts,
-            final List<VDS> underUtilizedHosts) {
+            final List<VDS> underUtilizedHosts,
+            Set<Guid> excludedVms) {
 
-        return findVmAndDestinations.invoke(overUtilizedHosts, underUtilizedHosts, getVmDao(), getVmStatisticsDao())
+        return findVmAndDestinations.invoke(overUtilizedHosts, underUtilizedHosts, getVmDao(), getVmStatisticsDao(),
+                excludedVms)
                 .map(res -> new BalanceResult(res.getVmToMigrate().getId(),
                         res.getDestinationHosts().stream()
                                 .map(VDS::getId)
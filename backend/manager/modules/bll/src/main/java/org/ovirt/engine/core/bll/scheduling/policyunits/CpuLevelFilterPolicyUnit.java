@@ -2,16 +2,15 @@ package org.ovirt.engine.core.bll.scheduling.policyunits;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import javax.inject.Inject;
 
 import org.apache.commons.lang.StringUtils;
 import org.ovirt.engine.core.bll.CpuFlagsManagerHandler;
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
-import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.ServerCpu;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
@@ -27,7 +26,8 @@ import org.slf4j.LoggerFactory;
         guid = "438b052c-90ab-40e8-9be0-a22560202ea6",
         name = "CPU-Level",
         type = PolicyUnitType.FILTER,
-        description = "Runs VMs only on hosts with a proper CPU level"
+        description = "Runs VMs only on hosts with a proper CPU level",
+        hostIndependent = true
 )
 public class CpuLevelFilterPolicyUnit extends PolicyUnitImpl {
     private static final Logger log = LoggerFactory.getLogger(CpuLevelFilterPolicyUnit.class);
@@ -41,7 +41,7 @@ public class CpuLevelFilterPolicyUnit extends PolicyUnitImpl {
     }
 
     @Override
-    public List<VDS> filter(Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters, PerHostMessages messages) {
+    public List<VDS> filter(SchedulingContext context, List<VDS> hosts, VM vm, PerHostMessages messages) {
         List<VDS> hostsToRunOn = new ArrayList<>();
         String customCpu; // full name of the vm cpu
         Version latestVer = cpuFlagsManagerHandler.getLatestDictionaryVersion();
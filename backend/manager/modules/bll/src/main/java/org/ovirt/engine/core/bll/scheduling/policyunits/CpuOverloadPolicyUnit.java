@@ -3,16 +3,15 @@ package org.ovirt.engine.core.bll.scheduling.policyunits;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.math.NumberUtils;
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitParameter;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
 import org.ovirt.engine.core.bll.scheduling.SlaValidator;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
-import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.config.Config;
@@ -43,19 +42,20 @@ public class CpuOverloadPolicyUnit extends PolicyUnitImpl {
     }
 
     @Override
-    public List<VDS> filter(Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters, PerHostMessages messages) {
+    public List<VDS> filter(SchedulingContext context, List<VDS> hosts, VM vm, PerHostMessages messages) {
         List<VDS> list = new ArrayList<>();
 
-        final int highUtilization = NumberUtils.toInt(parameters.get(PolicyUnitParameter.HIGH_UTILIZATION.getDbName()),
+        final int highUtilization = NumberUtils.toInt(
+                context.getPolicyParameters().get(PolicyUnitParameter.HIGH_UTILIZATION.getDbName()),
                 getHighUtilizationDefaultValue());
-        final int cpuOverCommitDurationMinutes =
-                NumberUtils.toInt(parameters.get(PolicyUnitParameter.CPU_OVERCOMMIT_DURATION_MINUTES.getDbName()),
-                        Config.<Integer>getValue(ConfigValues.CpuOverCommitDurationMinutes));
+        final int cpuOverCommitDurationMinutes = NumberUtils.toInt(
+                context.getPolicyParameters().get(PolicyUnitParameter.CPU_OVERCOMMIT_DURATION_MINUTES.getDbName()),
+                Config.<Integer>getValue(ConfigValues.CpuOverCommitDurationMinutes));
 
         for (VDS vds : hosts) {
             // Check the core count
             Integer cores = SlaValidator.getEffectiveCpuCores(vds,
-                    cluster != null && cluster.getCountThreadsAsCores());
+                    context.getCluster() != null && context.getCluster().getCountThreadsAsCores());
 
             if (cores == null) {
                 log.warn("Unknown number of cores for host {}.", vds.getName());
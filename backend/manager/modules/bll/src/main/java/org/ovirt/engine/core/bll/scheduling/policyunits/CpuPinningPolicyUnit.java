@@ -3,17 +3,16 @@ package org.ovirt.engine.core.bll.scheduling.policyunits;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
 import org.ovirt.engine.core.bll.scheduling.SlaValidator;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
 import org.ovirt.engine.core.bll.scheduling.utils.CpuPinningHelper;
-import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.errors.EngineMessage;
@@ -30,7 +29,8 @@ import org.slf4j.LoggerFactory;
         guid = "6d636bf6-a35c-4f9d-b68d-0731f731cddc",
         name = "CpuPinning",
         type = PolicyUnitType.FILTER,
-        description = "Filters out hosts which do not satisfy a VMs cpu pinning constraints"
+        description = "Filters out hosts which do not satisfy a VMs cpu pinning constraints",
+        hostIndependent = true
 )
 public class CpuPinningPolicyUnit extends PolicyUnitImpl {
 
@@ -42,10 +42,7 @@ public class CpuPinningPolicyUnit extends PolicyUnitImpl {
     }
 
     @Override
-    public List<VDS> filter(Cluster cluster, final List<VDS> hosts,
-            final VM vm,
-            final Map<String, String> parameters,
-            final PerHostMessages messages) {
+    public List<VDS> filter(SchedulingContext context, List<VDS> hosts, VM vm, PerHostMessages messages) {
         final String cpuPinning = vm.getCpuPinning();
 
         // return all hosts when no host pinning is requested
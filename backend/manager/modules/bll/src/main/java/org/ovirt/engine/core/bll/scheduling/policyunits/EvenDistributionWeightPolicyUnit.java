@@ -2,11 +2,10 @@ package org.ovirt.engine.core.bll.scheduling.policyunits;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
-import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.scheduling.PolicyUnit;
@@ -21,9 +20,9 @@ public abstract class EvenDistributionWeightPolicyUnit extends PolicyUnitImpl {
     }
 
     @Override
-    public List<Pair<Guid, Integer>> score(Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters) {
+    public List<Pair<Guid, Integer>> score(SchedulingContext context, List<VDS> hosts, VM vm) {
         float maxMemoryOfVdsInCluster = getMaxMemoryOfVdsInCluster(hosts);
-        boolean countThreadsAsCores = cluster.getCountThreadsAsCores();
+        boolean countThreadsAsCores = context.getCluster().getCountThreadsAsCores();
         List<Pair<Guid, Integer>> scores = new ArrayList<>();
         for (VDS vds : hosts) {
             scores.add(new Pair<>(vds.getId(),
@@ -32,16 +31,18 @@ public abstract class EvenDistributionWeightPolicyUnit extends PolicyUnitImpl {
         return scores;
     }
 
-    public List<Pair<Guid, Integer>> reverseEvenDistributionScore(Cluster cluster,
+    public List<Pair<Guid, Integer>> reverseEvenDistributionScore(SchedulingContext context,
             List<VDS> hosts,
-            VM vm,
-            Map<String, String> parameters) {
+            VM vm) {
         float maxMemoryOfVdsInCluster = getMaxMemoryOfVdsInCluster(hosts);
         List<Pair<Guid, Integer>> scores = new ArrayList<>();
         for (VDS vds : hosts) {
             int score = MaxSchedulerWeight - 1;
             if (vds.getVmCount() > 0) {
-                score -= calcEvenDistributionScore(maxMemoryOfVdsInCluster, vds, vm, cluster.getCountThreadsAsCores());
+                score -= calcEvenDistributionScore(maxMemoryOfVdsInCluster,
+                        vds,
+                        vm,
+                        context.getCluster().getCountThreadsAsCores());
             }
             scores.add(new Pair<>(vds.getId(), score));
         }
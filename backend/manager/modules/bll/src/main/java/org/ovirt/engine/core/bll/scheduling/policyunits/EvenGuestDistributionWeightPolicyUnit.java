@@ -7,10 +7,10 @@ import java.util.Map;
 import org.apache.commons.lang.math.NumberUtils;
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitParameter;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingVM;
-import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.config.Config;
@@ -26,7 +26,8 @@ import org.ovirt.engine.core.compat.Guid;
         type = PolicyUnitType.WEIGHT,
         parameters = {
                 PolicyUnitParameter.SPM_VM_GRACE
-        }
+        },
+        hostIndependent = true
 )
 public class EvenGuestDistributionWeightPolicyUnit extends PolicyUnitImpl {
     final int spmVmGrace;
@@ -54,10 +55,10 @@ public class EvenGuestDistributionWeightPolicyUnit extends PolicyUnitImpl {
     }
 
     @Override
-    public List<Pair<Guid, Integer>> score(Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters) {
+    public List<Pair<Guid, Integer>> score(SchedulingContext context, List<VDS> hosts, VM vm) {
         List<Pair<Guid, Integer>> scores = new ArrayList<>();
         for (VDS vds : hosts) {
-            scores.add(new Pair<>(vds.getId(), calcEvenGuestDistributionScore(vds, parameters)));
+            scores.add(new Pair<>(vds.getId(), calcEvenGuestDistributionScore(vds, context.getPolicyParameters())));
         }
         return scores;
     }
@@ -6,11 +6,11 @@ import java.util.List;
 import java.util.Map;
 
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
 import org.ovirt.engine.core.bll.scheduling.SlaValidator;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingMemory;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
-import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.NumaTuneMode;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
@@ -40,7 +40,7 @@ public class MemoryPolicyUnit extends PolicyUnitImpl {
     }
 
     @Override
-    public List<VDS> filter(Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters, PerHostMessages messages) {
+    public List<VDS> filter(SchedulingContext context, List<VDS> hosts, VM vm, PerHostMessages messages) {
         List<VDS> list = new ArrayList<>();
         // If Vm in Paused mode - no additional memory allocation needed
         if (vm.getStatus() == VMStatus.Paused) {
@@ -83,7 +83,7 @@ public class MemoryPolicyUnit extends PolicyUnitImpl {
             // * host support NUMA configuration
             // * there isn't enough memory for pinned vNode in pNode
             if (vm.getNumaTuneMode() == NumaTuneMode.STRICT && isVmNumaPinned(vmNumaNodes)
-                    && (!vds.isNumaSupport() || !canVmNumaPinnedToVds(vm, vmNumaNodes, vds))) {
+                    && (!vds.isNumaSupport() || !canVmNumaPinnedToVds(context, vmNumaNodes, vds))) {
                 log.debug("Host '{}' cannot accommodate memory of VM's pinned virtual NUMA nodes within host's physical NUMA nodes",
                         vds.getName());
                 messages.addMessage(vds.getId(), EngineMessage.VAR__DETAIL__NOT_MEMORY_PINNED_NUMA.toString());
@@ -94,9 +94,9 @@ public class MemoryPolicyUnit extends PolicyUnitImpl {
         return list;
     }
 
-    private boolean canVmNumaPinnedToVds(VM vm, List<VmNumaNode> nodes, VDS vds) {
-        List<VdsNumaNode> pNodes = DbFacade.getInstance().getVdsNumaNodeDao().getAllVdsNumaNodeByVdsId(vds.getId());
-        if (pNodes == null || pNodes.isEmpty()) {
+    private boolean canVmNumaPinnedToVds(SchedulingContext context, List<VmNumaNode> nodes, VDS vds) {
+        List<VdsNumaNode> pNodes = context.getNumaNodes(vds.getId());
+        if (pNodes.isEmpty()) {
             return false;
         }
         Map<Integer, VdsNumaNode> indexMap = toMap(pNodes);
@@ -4,12 +4,11 @@ import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
-import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.errors.EngineMessage;
@@ -75,11 +74,15 @@ public class MigrationPolicyUnit extends PolicyUnitImpl {
     }
 
     @Override
-    public List<VDS> filter(Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters, PerHostMessages messages) {
+    public List<VDS> filter(SchedulingContext context, List<VDS> hosts, VM vm, PerHostMessages messages) {
 
         if (vm.getRunOnVds() != null) {
             List<VDS> hostsToRunOn = new ArrayList<>();
-            VDS srcVds = getVdsDao().get(vm.getRunOnVds());
+            VDS srcVds = context.getHost(vm.getRunOnVds());
+            if (srcVds == null) {
+                // The VM is migrated from another cluster
+                srcVds = getVdsDao().get(vm.getRunOnVds());
+            }
 
             for (VDS host : hosts) {
                 if (host.getId().equals(vm.getRunOnVds())) {
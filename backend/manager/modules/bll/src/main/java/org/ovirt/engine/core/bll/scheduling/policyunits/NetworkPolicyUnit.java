@@ -1,7 +1,6 @@
 package org.ovirt.engine.core.bll.scheduling.policyunits;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -9,9 +8,9 @@ import org.apache.commons.lang.StringUtils;
 import org.ovirt.engine.core.bll.ValidationResult;
 import org.ovirt.engine.core.bll.network.host.VfScheduler;
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
-import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.Entities;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
@@ -27,8 +26,6 @@ import org.ovirt.engine.core.common.scheduling.PolicyUnit;
 import org.ovirt.engine.core.common.scheduling.PolicyUnitType;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.DbFacade;
-import org.ovirt.engine.core.dao.network.InterfaceDao;
-import org.ovirt.engine.core.dao.network.NetworkDao;
 import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
 import org.ovirt.engine.core.di.Injector;
 import org.ovirt.engine.core.utils.NetworkUtils;
@@ -50,19 +47,18 @@ public class NetworkPolicyUnit extends PolicyUnitImpl {
     }
 
     @Override
-    public List<VDS> filter(Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters, PerHostMessages messages) {
+    public List<VDS> filter(SchedulingContext context, List<VDS> hosts, VM vm, PerHostMessages messages) {
         if (hosts == null || hosts.isEmpty()) {
             return null;
         }
 
         List<VDS> toRemoveHostList = new ArrayList<>();
         List<VmNetworkInterface> vmNICs = getVmNetworkInterfaceDao().getAllForVm(vm.getId());
-        Guid clusterId = hosts.get(0).getClusterId();
-        List<Network> clusterNetworks = getNetworkDao().getAllForCluster(clusterId);
+        List<Network> clusterNetworks = context.getNetworks();
         Map<String, Network> networksByName = Entities.entitiesByName(clusterNetworks);
-        Map<Guid, List<String>> hostNics = getInterfaceDao().getHostNetworksByCluster(clusterId);
+        Map<Guid, List<String>> hostNics = context.getHostNetworks();
         Network displayNetwork = NetworkUtils.getDisplayNetwork(clusterNetworks);
-        Map<Guid, VdsNetworkInterface> hostDisplayNics = getDisplayNics(displayNetwork);
+        Map<Guid, VdsNetworkInterface> hostDisplayNics = context.getDisplayNics();
 
         for (VDS host : hosts) {
             ValidationResult result =
@@ -88,18 +84,6 @@ public class NetworkPolicyUnit extends PolicyUnitImpl {
         return hosts;
     }
 
-    public Map<Guid, VdsNetworkInterface> getDisplayNics(Network displayNetwork) {
-        Map<Guid, VdsNetworkInterface> displayNics = new HashMap<>();
-        if (displayNetwork != null) {
-            List<VdsNetworkInterface> nics = getInterfaceDao().getVdsInterfacesByNetworkId(displayNetwork.getId());
-            for (VdsNetworkInterface nic : nics) {
-                displayNics.put(nic.getVdsId(), nic);
-            }
-        }
-
-        return displayNics;
-    }
-
     /**
      * Determine whether all required Networks are attached to the Host's Nics. A required Network, depending on
      * ConfigValue.OnlyRequiredNetworksMandatoryForVdsSelection, is defined as: 1. false: any network that is defined on
@@ -244,12 +228,4 @@ public class NetworkPolicyUnit extends PolicyUnitImpl {
     private VmNetworkInterfaceDao getVmNetworkInterfaceDao() {
         return DbFacade.getInstance().getVmNetworkInterfaceDao();
     }
-
-    private InterfaceDao getInterfaceDao() {
-        return DbFacade.getInstance().getInterfaceDao();
-    }
-
-    private NetworkDao getNetworkDao() {
-        return DbFacade.getInstance().getNetworkDao();
-    }
 }
@@ -1,11 +1,10 @@
 package org.ovirt.engine.core.bll.scheduling.policyunits;
 
 import java.util.List;
-import java.util.Map;
 
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
-import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.scheduling.PolicyUnit;
@@ -29,7 +28,7 @@ public class PowerSavingMemoryWeightPolicyUnit extends EvenDistributionMemoryWei
     }
 
     @Override
-    public List<Pair<Guid, Integer>> score(Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters) {
-        return reverseEvenDistributionScore(cluster, hosts, vm, parameters);
+    public List<Pair<Guid, Integer>> score(SchedulingContext context, List<VDS> hosts, VM vm) {
+        return reverseEvenDistributionScore(context, hosts, vm);
     }
 }
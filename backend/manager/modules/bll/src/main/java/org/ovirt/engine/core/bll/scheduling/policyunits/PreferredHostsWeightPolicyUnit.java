@@ -4,13 +4,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
-import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.scheduling.PolicyUnit;
@@ -24,7 +23,8 @@ import org.slf4j.LoggerFactory;
         guid = "591cdb81-ba67-45b4-9642-e28f61a97d57",
         name = "PreferredHosts",
         description = "Prioritize preferred hosts during VM startup.",
-        type = PolicyUnitType.WEIGHT
+        type = PolicyUnitType.WEIGHT,
+        hostIndependent = true
 )
 public class PreferredHostsWeightPolicyUnit extends PolicyUnitImpl {
     private static final Logger log = LoggerFactory.getLogger(PreferredHostsWeightPolicyUnit.class);
@@ -34,7 +34,7 @@ public class PreferredHostsWeightPolicyUnit extends PolicyUnitImpl {
     }
 
     @Override
-    public List<Pair<Guid, Integer>> score(Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters) {
+    public List<Pair<Guid, Integer>> score(SchedulingContext context, List<VDS> hosts, VM vm) {
         // Preferred hosts are only used during VM startup
         if (!vm.isDown()) {
             return Collections.emptyList();
@@ -2,14 +2,13 @@ package org.ovirt.engine.core.bll.scheduling.policyunits;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.commons.lang.math.NumberUtils;
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitParameter;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
-import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.businessentities.VMStatus;
@@ -40,11 +39,7 @@ public class SwapFilterPolicyUnit extends PolicyUnitImpl {
     }
 
     @Override
-    public List<VDS> filter(Cluster cluster,
-            List<VDS> hosts,
-            VM vm,
-            Map<String, String> parameters,
-            PerHostMessages messages) {
+    public List<VDS> filter(SchedulingContext context, List<VDS> hosts, VM vm, PerHostMessages messages) {
 
         if (!Config.<Boolean> getValue(ConfigValues.EnableSwapCheck)) {
             return hosts; // Ignore swap usage
@@ -57,9 +52,9 @@ public class SwapFilterPolicyUnit extends PolicyUnitImpl {
 
         List<VDS> goodHosts = new ArrayList<>();
 
-        final int allowedSwapUsage =
-                NumberUtils.toInt(parameters.get(PolicyUnitParameter.MAX_ALLOWED_SWAP_USAGE.getDbName()),
-                        Config.<Integer>getValue(ConfigValues.BlockMigrationOnSwapUsagePercentage));
+        final int allowedSwapUsage = NumberUtils.toInt(
+                context.getPolicyParameters().get(PolicyUnitParameter.MAX_ALLOWED_SWAP_USAGE.getDbName()),
+                Config.<Integer>getValue(ConfigValues.BlockMigrationOnSwapUsagePercentage));
 
         for (VDS vds : hosts) {
             if (isHostSwapping(vds, allowedSwapUsage)) {
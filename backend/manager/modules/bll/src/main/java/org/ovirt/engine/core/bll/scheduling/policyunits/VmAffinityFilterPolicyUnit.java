@@ -6,12 +6,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingVM;
-import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.errors.EngineMessage;
@@ -43,16 +44,24 @@ public class VmAffinityFilterPolicyUnit extends PolicyUnitImpl {
     }
 
     @Override
-    public List<VDS> filter(Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters, PerHostMessages messages) {
-        return getAcceptableHosts(true, hosts, vm, messages, getPendingResourceManager());
+    public List<VDS> filter(SchedulingContext context, List<VDS> hosts, VM vm, PerHostMessages messages) {
+        return getAcceptableHosts(true, context, hosts, vm, messages, getPendingResourceManager());
     }
 
     public static List<VDS> getAcceptableHosts(boolean enforcing,
+            SchedulingContext context,
             List<VDS> hosts,
             VM vm,
             PerHostMessages messages,
             PendingResourceManager pendingResourceManager) {
-        List<AffinityGroup> affinityGroups = getAffinityGroupDao().getAllAffinityGroupsByVmId(vm.getId());
+        // The affinity groups and the running VMs of the cluster of the VM are already in the scheduling context,
+        // unless the VM is migrated from another cluster
+        boolean vmInCluster = context.getCluster().getId().equals(vm.getClusterId());
+        List<AffinityGroup> affinityGroups = vmInCluster
+                ? context.getAffinityGroups().stream()
+                        .filter(affinityGroup -> affinityGroup.getVmIds().contains(vm.getId()))
+                        .collect(Collectors.toList())
+                : getAffinityGroupDao().getAllAffinityGroupsByVmId(vm.getId());
         // no affinity groups found for VM return all hosts
         if (affinityGroups.isEmpty()) {
             return hosts;
@@ -85,8 +94,12 @@ public class VmAffinityFilterPolicyUnit extends PolicyUnitImpl {
 
         // Get all running VMs in cluster
         Map<Guid, VM> runningVMsMap = new HashMap<>();
-        for (VM iter : getVmDao().getAllRunningByCluster(vm.getClusterId())) {
-            runningVMsMap.put(iter.getId(), iter);
+        if (vmInCluster) {
+            runningVMsMap.putAll(context.getRunningVms());
+        } else {
+            for (VM iter : getVmDao().getAllRunningByCluster(vm.getClusterId())) {
+                runningVMsMap.put(iter.getId(), iter);
+            }
         }
 
         // Update the VM list with pending VMs
@@ -4,9 +4,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
-import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.scheduling.PerHostMessages;
@@ -30,11 +30,7 @@ public class VmToHostAffinityFilterPolicyUnit extends VmToHostAffinityPolicyUnit
     }
 
     @Override
-    public List<VDS> filter(Cluster cluster,
-            List<VDS> hosts,
-            VM vm,
-            Map<String, String> parameters,
-            PerHostMessages messages) {
+    public List<VDS> filter(SchedulingContext context, List<VDS> hosts, VM vm, PerHostMessages messages) {
 
         Map<Guid, Integer> hostViolations = getHostViolationCount(true, hosts, vm, messages);
 
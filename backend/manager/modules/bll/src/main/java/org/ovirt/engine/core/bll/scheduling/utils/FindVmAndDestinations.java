@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.ovirt.engine.core.bll.scheduling.SlaValidator;
@@ -57,11 +58,24 @@ public class FindVmAndDestinations {
             List<VDS> destinationHosts,
             VmDao vmDao,
             VmStatisticsDao vmStatisticsDao) {
+        return invoke(sourceHosts, destinationHosts, vmDao, vmStatisticsDao, Collections.emptySet());
+    }
+
+    /**
+     * Same as {@link #invoke(List, List, VmDao, VmStatisticsDao)}, but never selects one of the excluded VMs, like
+     * the ones already planned to be migrated.
+     */
+    public Optional<Result> invoke(List<VDS> sourceHosts,
+            List<VDS> destinationHosts,
+            VmDao vmDao,
+            VmStatisticsDao vmStatisticsDao,
+            Set<Guid> excludedVms) {
 
         // Iterate over source hosts until you find valid vm to migrate, hosts sorted by cpu usage
         for (VDS sourceHost : sourceHosts){
             // Get list of all migratable vms on host
             List<VM> migratableVmsOnHost = getMigratableVmsRunningOnVds(vmDao, sourceHost.getId());
+            migratableVmsOnHost.removeIf(vm -> excludedVms.contains(vm.getId()));
             if (migratableVmsOnHost.isEmpty()) {
                 continue;
             }
@@ -2,36 +2,95 @@ package org.ovirt.engine.core.bll.tasks;
 
 import java.io.Serializable;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.transaction.Transaction;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.ovirt.engine.core.common.businessentities.AsyncTask;
 import org.ovirt.engine.core.common.businessentities.CommandAssociatedEntity;
 import org.ovirt.engine.core.common.businessentities.CommandEntity;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.compat.CommandStatus;
 import org.ovirt.engine.core.compat.DateTime;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.AsyncTaskDao;
 import org.ovirt.engine.core.dao.CommandEntityDao;
+import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
+import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Keeps the command entities in memory and writes their changes to the database.
+ *
+ * The entities are held in a concurrent map, and the changes of each command are serialized by a lock taken from a
+ * fixed set of stripes, so the state in memory and the order of the writes of a command are consistent while changes
+ * to different commands proceed in parallel.
+ *
+ * The changes which restart recovery depends on are written synchronously: adding a command, any change of its status,
+ * and the data, executed and notified flags. Setting a command to the status it already has is recorded in a journal
+ * instead, so repeated re-writes of the same command are coalesced into a single write made within
+ * {@code CommandStatusWriteDelayInMillis}. Any synchronous write of a command supersedes its pending one, and the
+ * pending write is made before a flag of the command is, so the flags are never ahead of the status in the database.
+ */
 @Singleton
 public class CommandsCacheImpl implements CommandsCache {
 
-    private Map<Guid, CommandEntity> commandMap;
+    private static final Logger log = LoggerFactory.getLogger(CommandsCacheImpl.class);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final Map<Guid, CommandEntity> commandMap = new ConcurrentHashMap<>();
+    private final Set<Guid> pendingStatusWrites = ConcurrentHashMap.newKeySet();
+    private final Object[] locks = new Object[LOCK_STRIPES];
     private volatile boolean cacheInitialized;
     private Object LOCK = new Object();
+    private long statusWriteDelay;
 
     @Inject
     private CommandEntityDao commandEntityDao;
 
+    @Inject
+    private AsyncTaskDao asyncTaskDao;
+
+    @Inject
+    private SchedulerUtilQuartzImpl schedulerUtil;
+
     public CommandsCacheImpl() {
-        commandMap = new HashMap<>();
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        statusWriteDelay = Config.<Integer> getValue(ConfigValues.CommandStatusWriteDelayInMillis);
+        if (statusWriteDelay > 0) {
+            schedulerUtil.scheduleAFixedDelayJob(this,
+                    "flushPendingStatusWrites",
+                    new Class[] {},
+                    new Object[] {},
+                    statusWriteDelay,
+                    statusWriteDelay,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushPendingStatusWrites();
     }
 
     private void initializeCache() {
@@ -48,6 +107,10 @@ public class CommandsCacheImpl implements CommandsCache {
         }
     }
 
+    private Object getLock(Guid commandId) {
+        return locks[(commandId.hashCode() & Integer.MAX_VALUE) % locks.length];
+    }
+
     @Override
     public Set<Guid> keySet() {
         initializeCache();
@@ -62,29 +125,99 @@ public class CommandsCacheImpl implements CommandsCache {
 
     @Override
     public void remove(final Guid commandId) {
-        commandMap.remove(commandId);
-        commandEntityDao.remove(commandId);
+        synchronized (getLock(commandId)) {
+            pendingStatusWrites.remove(commandId);
+            commandMap.remove(commandId);
+            commandEntityDao.remove(commandId);
+        }
     }
 
     @Override
     public void put(final CommandEntity cmdEntity) {
-        commandMap.put(cmdEntity.getId(), cmdEntity);
-        saveOrUpdateWithoutTransaction(cmdEntity);
+        synchronized (getLock(cmdEntity.getId())) {
+            commandMap.put(cmdEntity.getId(), cmdEntity);
+            saveOrUpdateWithoutTransaction(cmdEntity);
+        }
     }
 
+    /**
+     * Removes the commands created before the given date, except the ones which still have async tasks, as it's
+     * done in the database, without reloading the remaining ones.
+     */
     @Override
     public void removeAllCommandsBeforeDate(DateTime cutoff) {
         commandEntityDao.removeAllBeforeDate(cutoff);
-        cacheInitialized = false;
-        initializeCache();
+        if (!cacheInitialized) {
+            // the commands are loaded once they're needed, and only the remaining ones will be
+            return;
+        }
+
+        Set<Guid> commandsWithTasks = asyncTaskDao.getAll()
+                .stream()
+                .map(AsyncTask::getCommandId)
+                .collect(Collectors.toSet());
+        for (CommandEntity cmdEntity : commandMap.values()) {
+            if (cmdEntity.getCreatedAt() != null
+                    && cmdEntity.getCreatedAt().before(cutoff)
+                    && !commandsWithTasks.contains(cmdEntity.getId())) {
+                synchronized (getLock(cmdEntity.getId())) {
+                    pendingStatusWrites.remove(cmdEntity.getId());
+                    commandMap.remove(cmdEntity.getId(), cmdEntity);
+                }
+            }
+        }
     }
 
     @Override
     public void updateCommandStatus(Guid commandId, CommandStatus status) {
         final CommandEntity cmdEntity = get(commandId);
         if (cmdEntity != null) {
-            cmdEntity.setCommandStatus(status);
-            saveOrUpdateWithoutTransaction(cmdEntity);
+            synchronized (getLock(commandId)) {
+                CommandStatus previousStatus = cmdEntity.getCommandStatus();
+                cmdEntity.setCommandStatus(status);
+                if (isStatusWriteDeferrable(previousStatus, status)) {
+                    pendingStatusWrites.add(commandId);
+                } else {
+                    saveOrUpdateWithoutTransaction(cmdEntity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Only a re-write of the status the command already has may be deferred, as restart recovery and the callbacks act
+     * on the status found in the database, so any change of it must be there before the engine goes on.
+     */
+    private boolean isStatusWriteDeferrable(CommandStatus previousStatus, CommandStatus status) {
+        return statusWriteDelay > 0 && previousStatus != null && previousStatus == status;
+    }
+
+    /**
+     * Writes the commands whose status changes were deferred.
+     */
+    @OnTimerMethodAnnotation("flushPendingStatusWrites")
+    public void flushPendingStatusWrites() {
+        for (Guid commandId : pendingStatusWrites) {
+            flushPendingStatusWrite(commandId);
+        }
+    }
+
+    private void flushPendingStatusWrite(Guid commandId) {
+        synchronized (getLock(commandId)) {
+            if (!pendingStatusWrites.remove(commandId)) {
+                return;
+            }
+            CommandEntity cmdEntity = commandMap.get(commandId);
+            if (cmdEntity == null) {
+                return;
+            }
+            try {
+                saveOrUpdateWithoutTransaction(cmdEntity);
+            } catch (RuntimeException e) {
+                log.error("Failed to write the status of command '{}': {}", commandId, e.getMessage());
+                log.debug("Exception", e);
+                pendingStatusWrites.add(commandId);
+            }
         }
     }
 
@@ -92,8 +225,10 @@ public class CommandsCacheImpl implements CommandsCache {
     public void updateCommandData(Guid commandId, Map<String, Serializable> data) {
         final CommandEntity cmdEntity = get(commandId);
         if (cmdEntity != null) {
-            cmdEntity.setData(data);
-            saveOrUpdateWithoutTransaction(cmdEntity);
+            synchronized (getLock(commandId)) {
+                cmdEntity.setData(data);
+                saveOrUpdateWithoutTransaction(cmdEntity);
+            }
         }
     }
 
@@ -101,12 +236,28 @@ public class CommandsCacheImpl implements CommandsCache {
     public void updateCommandExecuted(final Guid commandId) {
         CommandEntity cmdEntity = get(commandId);
         if (cmdEntity != null) {
-            cmdEntity.setExecuted(true);
-            commandEntityDao.updateExecuted(commandId);
+            synchronized (getLock(commandId)) {
+                writePendingStatus(cmdEntity);
+                cmdEntity.setExecuted(true);
+                commandEntityDao.updateExecuted(commandId);
+            }
+        }
+    }
+
+    /**
+     * Writes the status of the command if its write is still pending, before a flag of it is written.
+     */
+    private void writePendingStatus(CommandEntity cmdEntity) {
+        if (pendingStatusWrites.contains(cmdEntity.getId())) {
+            saveOrUpdateWithoutTransaction(cmdEntity);
         }
     }
 
+    /**
+     * Writes the whole command, which covers any status change of it which is still pending.
+     */
     public void saveOrUpdateWithoutTransaction(CommandEntity cmdEntity) {
+        pendingStatusWrites.remove(cmdEntity.getId());
         Transaction transaction = TransactionSupport.suspend();
         try {
             commandEntityDao.saveOrUpdate(cmdEntity);
@@ -121,8 +272,11 @@ public class CommandsCacheImpl implements CommandsCache {
     public void updateCallbackNotified(final Guid commandId) {
         CommandEntity cmdEntity = get(commandId);
         if (cmdEntity != null) {
-            cmdEntity.setCallbackNotified(true);
-            commandEntityDao.updateNotified(commandId);
+            synchronized (getLock(commandId)) {
+                writePendingStatus(cmdEntity);
+                cmdEntity.setCallbackNotified(true);
+                commandEntityDao.updateNotified(commandId);
+            }
         }
     }
 
@@ -152,8 +306,17 @@ public class CommandsCacheImpl implements CommandsCache {
         return commandEntityDao.getCommandIdsByEntity(entityId);
     }
 
+    /**
+     * Reads the child commands from the database, so their deferred status changes are written first.
+     */
     @Override
     public List<CommandEntity> getChildCmdsByParentCmdId(Guid cmdId) {
+        for (Guid commandId : pendingStatusWrites) {
+            CommandEntity cmdEntity = commandMap.get(commandId);
+            if (cmdEntity != null && cmdId.equals(cmdEntity.getParentCommandId())) {
+                flushPendingStatusWrite(commandId);
+            }
+        }
         return commandEntityDao.getCmdEntitiesByParentCmdId(cmdId);
     }
 }
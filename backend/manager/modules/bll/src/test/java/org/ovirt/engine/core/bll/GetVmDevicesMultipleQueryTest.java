@@ -0,0 +1,102 @@
+package org.ovirt.engine.core.bll;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.ovirt.engine.core.common.businessentities.VmDevice;
+import org.ovirt.engine.core.common.businessentities.VmDeviceGeneralType;
+import org.ovirt.engine.core.common.businessentities.VmDeviceId;
+import org.ovirt.engine.core.common.businessentities.VmPayload;
+import org.ovirt.engine.core.common.queries.IdsQueryParameters;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.VmDeviceDao;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GetVmDevicesMultipleQueryTest
+        extends AbstractUserQueryTest<IdsQueryParameters, GetVmDevicesMultipleQuery<IdsQueryParameters>> {
+
+    @Mock
+    private VmDeviceDao vmDeviceDao;
+
+    private Guid vmId1 = Guid.newGuid();
+    private Guid vmId2 = Guid.newGuid();
+    private VmDevice console = createDevice(vmId1, VmDeviceGeneralType.CONSOLE);
+    private VmDevice sound = createDevice(vmId1, VmDeviceGeneralType.SOUND);
+    private VmDevice rng = createDevice(vmId2, VmDeviceGeneralType.RNG);
+    private VmDevice payload = createPayload(vmId2);
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        List<Guid> ids = Arrays.asList(vmId1, vmId2);
+        when(getQueryParameters().getIds()).thenReturn(ids);
+        when(vmDeviceDao.getVmDevicesByVmIds(ids, getUser().getId(), true))
+                .thenReturn(Arrays.asList(console, sound, rng, payload));
+    }
+
+    private static VmDevice createDevice(Guid vmId, VmDeviceGeneralType type) {
+        VmDevice device = new VmDevice();
+        device.setId(new VmDeviceId(Guid.newGuid(), vmId));
+        device.setType(type);
+        return device;
+    }
+
+    private static VmDevice createPayload(Guid vmId) {
+        VmPayload vmPayload = new VmPayload();
+        vmPayload.getFiles().put("file", "Y29udGVudA==");
+        VmDevice device = createDevice(vmId, VmDeviceGeneralType.DISK);
+        device.setSpecParams(vmPayload.getSpecParams());
+        return device;
+    }
+
+    @Test
+    public void devicesAreMappedByVm() {
+        doReturn(true).when(getQuery()).isAdminUser();
+
+        Map<Guid, List<VmDevice>> result = runQuery();
+
+        assertEquals(Arrays.asList(console, sound), result.get(vmId1));
+        assertEquals(Arrays.asList(rng, payload), result.get(vmId2));
+    }
+
+    @Test
+    public void payloadIsHiddenFromNonAdminUsers() {
+        doReturn(false).when(getQuery()).isAdminUser();
+
+        Map<Guid, List<VmDevice>> result = runQuery();
+
+        assertEquals(Collections.singletonList(rng), result.get(vmId2));
+    }
+
+    @Test
+    public void adminRolesAreNotCheckedWithoutPayload() {
+        when(vmDeviceDao.getVmDevicesByVmIds(any(), any(), anyBoolean())).thenReturn(Arrays.asList(console, sound));
+
+        Map<Guid, List<VmDevice>> result = runQuery();
+
+        assertFalse(result.containsKey(vmId2));
+        verify(getQuery(), never()).isAdminUser();
+    }
+
+    private Map<Guid, List<VmDevice>> runQuery() {
+        getQuery().executeQueryCommand();
+        return getQuery().getQueryReturnValue().getReturnValue();
+    }
+}
@@ -0,0 +1,73 @@
+package org.ovirt.engine.core.bll;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ovirt.engine.core.aaa.QueryData;
+import org.ovirt.engine.core.compat.DateTime;
+
+public class SearchQueryCacheTest {
+
+    private static final int MAX_SIZE = 2;
+    private static final long MAX_AGE = 60000;
+
+    private SearchQueryCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new SearchQueryCache(MAX_SIZE, MAX_AGE);
+    }
+
+    private static QueryData compile(String query) {
+        return compile(query, DateTime.getNow().getTime());
+    }
+
+    private static QueryData compile(String query, long date) {
+        return new QueryData(query, date, null, null);
+    }
+
+    @Test
+    public void cachedQueryIsReturned() {
+        QueryData data = compile("vms");
+        cache.put("Vms:", data);
+
+        assertSame(data, cache.get("Vms:"));
+        assertNull(cache.get("Hosts:"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void leastRecentlyUsedQueryIsEvicted() {
+        cache.put("Vms:", compile("vms"));
+        cache.put("Hosts:", compile("vds"));
+        cache.get("Vms:");
+        cache.put("Events:", compile("audit_log"));
+
+        assertNull(cache.get("Hosts:"));
+        assertEquals("vms", cache.get("Vms:").getQuery());
+        assertEquals("audit_log", cache.get("Events:").getQuery());
+        assertEquals(MAX_SIZE, cache.getSize());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void expiredQueryIsDropped() {
+        cache.put("Vms:", compile("vms", DateTime.getNow().getTime() - MAX_AGE));
+
+        assertNull(cache.get("Vms:"));
+        assertEquals(0, cache.getSize());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void invalidateAllDropsQueries() {
+        cache.put("Vms:", compile("vms"));
+        cache.invalidateAll();
+
+        assertNull(cache.get("Vms:"));
+    }
+}
@@ -2,17 +2,20 @@ package org.ovirt.engine.core.bll;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.matches;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.ovirt.engine.core.utils.MockConfigRule.mockConfig;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.ovirt.engine.core.bll.quota.QuotaManager;
 import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.Quota;
@@ -75,6 +78,10 @@ public class SearchQueryTest extends AbstractQueryTest<SearchParameters, SearchQ
     private GlusterVolumeDao glusterVolumeDao;
     @Mock
     private NetworkViewDao networkViewDao;
+    @Mock
+    private VmHandler vmHandler;
+    @Spy
+    private SearchQueryCache searchQueryCache = new SearchQueryCache(100, TimeUnit.DAYS.toMillis(1));
 
     List<Disk> diskImageResultList = new ArrayList<>();
     List<Quota> quotaResultList = new ArrayList<>();
@@ -375,6 +382,7 @@ public class SearchQueryTest extends AbstractQueryTest<SearchParameters, SearchQ
         when(getQueryParameters().getSearchTypeValue()).thenReturn(SearchType.VM);
         getQuery().executeQueryCommand();
         assertEquals(vmResultList, getQuery().getQueryReturnValue().getReturnValue());
+        verify(vmHandler).updateVmsForDisplay(vmResultList);
     }
 
     @Test
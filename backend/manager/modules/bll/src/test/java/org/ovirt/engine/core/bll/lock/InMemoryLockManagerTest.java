@@ -7,6 +7,8 @@ import static org.junit.Assert.assertTrue;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -122,4 +124,21 @@ public class InMemoryLockManagerTest {
         lockManager.clear();
         assertTrue(lockManager.showAllLocks().isEmpty());
     }
+
+    @Test
+    public void checkAcquireLockWaitIsWokenByRelease() throws Exception {
+        assertTrue(lockManager.acquireLock(lockLock1).getFirst());
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            lockManager.acquireLockWait(failLockLock);
+            acquired.countDown();
+        });
+        waiter.start();
+
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        lockManager.releaseLock(lockLock1);
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        assertFalse(lockManager.acquireLock(lockLock1).getFirst());
+        lockManager.releaseLock(failLockLock);
+    }
 }
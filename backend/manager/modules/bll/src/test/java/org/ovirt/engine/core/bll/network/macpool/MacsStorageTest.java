@@ -1,6 +1,9 @@
 package org.ovirt.engine.core.bll.network.macpool;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -23,6 +26,57 @@ public class MacsStorageTest {
         assertRangeAltering(5, Arrays.asList(0, 3, 4), Arrays.asList(1, 2, 1, 2));
     }
 
+    @Test
+    public void macsAreFoundInTheirRanges() {
+        MacsStorage macsStorage = new MacsStorage(false);
+        macsStorage.addRange(100, 199);
+        macsStorage.addRange(0, 9);
+        macsStorage.addRange(50, 59);
+
+        assertTrue(macsStorage.useMac(5));
+        assertTrue(macsStorage.useMac(150));
+        assertTrue(macsStorage.useMac(30));
+
+        assertTrue(macsStorage.isMacInRange(5L));
+        assertTrue(macsStorage.isMacInRange(59L));
+        assertFalse(macsStorage.isMacInRange(30L));
+        assertFalse(macsStorage.isMacInRange(200L));
+        assertTrue(macsStorage.isMacInUse(5));
+        assertTrue(macsStorage.isMacInUse(30));
+        assertFalse(macsStorage.isMacInUse(6));
+        assertEquals(118, macsStorage.getAvailableMacsCount());
+    }
+
+    @Test
+    public void availableMacsCountIsMaintained() {
+        MacsStorage macsStorage = new MacsStorage(true);
+        macsStorage.addRange(0, 9);
+        macsStorage.addRange(20, 29);
+        assertEquals(20, macsStorage.getAvailableMacsCount());
+
+        long[] macs = macsStorage.allocateAvailableMacs(15);
+        assertEquals(15, macs.length);
+        assertEquals(5, macsStorage.getAvailableMacsCount());
+
+        macsStorage.useMac(macs[0]);
+        assertEquals(5, macsStorage.getAvailableMacsCount());
+        macsStorage.freeMac(macs[0]);
+        assertEquals(5, macsStorage.getAvailableMacsCount());
+        macsStorage.freeMac(macs[0]);
+        assertEquals(6, macsStorage.getAvailableMacsCount());
+
+        macsStorage.allocateAvailableMacs(6);
+        assertEquals(0, macsStorage.getAvailableMacsCount());
+        assertFalse(macsStorage.availableMacExist());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void overlappingRangesAreRejected() {
+        MacsStorage macsStorage = new MacsStorage(false);
+        macsStorage.addRange(10, 19);
+        macsStorage.addRange(0, 10);
+    }
+
     private void assertRangeAltering(int numberOfRanges,
             List<Integer> rangesWithoutAvailableMacs, List<Integer> expectedRangeIndices) {
         List<Range> ranges = createMockedRanges(numberOfRanges);
@@ -60,7 +114,10 @@ public class MacsStorageTest {
     private List<Range> createMockedRanges(int count) {
         List<Range> result = new ArrayList<>(count);
         for(int i = 0; i < count; i++) {
-            result.add(mock(Range.class));
+            Range range = mock(Range.class);
+            when(range.getRangeStart()).thenReturn(i * 10L);
+            when(range.getRangeEnd()).thenReturn(i * 10L + 9);
+            result.add(range);
         }
         return result;
     }
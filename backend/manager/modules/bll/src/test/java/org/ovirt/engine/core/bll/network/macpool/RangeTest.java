@@ -74,12 +74,12 @@ public class RangeTest {
 
     @Test
     public void testFreeMac() throws Exception {
-        final List<Long> allocatedMacs = rangeOf10Macs.allocateMacs(NUMBER_OF_MACS);
-        assertThat(allocatedMacs.size(), is(NUMBER_OF_MACS));
+        final long[] allocatedMacs = rangeOf10Macs.allocateMacs(NUMBER_OF_MACS);
+        assertThat(allocatedMacs.length, is(NUMBER_OF_MACS));
         assertThat(rangeOf10Macs.getAvailableCount(), is(0));
 
         for(int i = 1; i <= NUMBER_OF_MACS; i++) {
-            rangeOf10Macs.freeMac(allocatedMacs.remove(0));
+            rangeOf10Macs.freeMac(allocatedMacs[i - 1]);
             assertThat(rangeOf10Macs.getAvailableCount(), is(i));
         }
     }
@@ -101,9 +101,22 @@ public class RangeTest {
 
     @Test
     public void testAllocateMac() throws Exception {
-        assertThat(rangeOf10Macs.allocateMacs(5).size(), is(5));
+        assertThat(rangeOf10Macs.allocateMacs(5).length, is(5));
         assertThat(rangeOf10Macs.getAvailableCount(), is(5));
-        assertThat(rangeOf10Macs.allocateMacs(5).size(), is(5));
+        assertThat(rangeOf10Macs.allocateMacs(5).length, is(5));
+        assertThat(rangeOf10Macs.getAvailableCount(), is(0));
+    }
+
+    @Test
+    public void testAllocateMacsSkipsUsedMacsAndWrapsAround() throws Exception {
+        assertThat(rangeOf10Macs.allocateMacs(3)[0], is((long) RANGE_FROM));
+        rangeOf10Macs.use(RANGE_FROM + 5, false);
+        rangeOf10Macs.use(RANGE_FROM + 6, false);
+        rangeOf10Macs.freeMac(RANGE_FROM + 1);
+
+        final long[] allocatedMacs = rangeOf10Macs.allocateMacs(4);
+        assertThat(allocatedMacs, is(new long[] { RANGE_FROM + 3, RANGE_FROM + 4, RANGE_FROM + 7, RANGE_FROM + 8 }));
+        assertThat(rangeOf10Macs.allocateMacs(2), is(new long[] { RANGE_FROM + 9, RANGE_FROM + 1 }));
         assertThat(rangeOf10Macs.getAvailableCount(), is(0));
     }
 
@@ -165,7 +178,7 @@ public class RangeTest {
      * @param expectedMac mac, which we expect to be returned from {@code range.allocateMacs(1)}
      */
     private void allocateAndFreeMacAndExpectGivenMac(Range range, long expectedMac) {
-        Long mac = range.allocateMacs(1).get(0);
+        long mac = range.allocateMacs(1)[0];
         assertThat(mac, is(expectedMac));
         range.freeMac(mac);
     }
@@ -12,7 +12,12 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Before;
 import org.junit.ClassRule;
@@ -88,6 +93,8 @@ public class QuotaManagerTest {
     private QuotaConsumptionParametersWrapper parametersWrapper;
     private int dbCalls = 0;
     private static final String EXPECTED_NUMBER_OF_DB_CALLS = "%d DB calls were expected. %d invoked";
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 50;
 
     @Before
     public void setUp() {
@@ -451,6 +458,70 @@ public class QuotaManagerTest {
         assertAuditLogNotWritten();
     }
 
+    @Test
+    public void testConcurrentConsumptionDoesNotExceedGrace() throws Exception {
+        // 18 out of 100 VCPUs are used and the grace is 20%, so 102 requests for a single VCPU can be approved
+        int approved = countApproved(runConcurrently(() -> quotaManager.consume(
+                createParameters(createVdsParameter(VCPU_QUOTA_GLOBAL_NOT_EXCEEDED)))));
+
+        assertEquals(102, approved);
+        assertEquals(120, getVirtualCpuUsage(VCPU_QUOTA_GLOBAL_NOT_EXCEEDED));
+    }
+
+    @Test
+    public void testConcurrentConsumptionIsRolledBack() throws Exception {
+        // the second quota is over its grace, so the consumption from the first one must always be rolled back
+        int approved = countApproved(runConcurrently(() -> quotaManager.consume(
+                createParameters(createVdsParameter(VCPU_QUOTA_GLOBAL_NOT_EXCEEDED),
+                        createVdsParameter(VCPU_QUOTA_GLOBAL_OVER_GRACE)))));
+
+        assertEquals(0, approved);
+        assertEquals(18, getVirtualCpuUsage(VCPU_QUOTA_GLOBAL_NOT_EXCEEDED));
+    }
+
+    private QuotaConsumptionParametersWrapper createParameters(QuotaConsumptionParameter... parameters) {
+        AuditLogableBase auditLogable = new AuditLogableBase();
+        auditLogable.setStoragePool(storage_pool);
+        QuotaConsumptionParametersWrapper wrapper =
+                new QuotaConsumptionParametersWrapper(auditLogable, new ArrayList<>());
+        wrapper.setParameters(new ArrayList<>());
+        Collections.addAll(wrapper.getParameters(), parameters);
+        return wrapper;
+    }
+
+    private QuotaClusterConsumptionParameter createVdsParameter(Guid quotaId) {
+        return new QuotaClusterConsumptionParameter(
+                quotaId, null, QuotaConsumptionParameter.QuotaAction.CONSUME, DESTINATION_GUID, 1, 1);
+    }
+
+    private List<Future<Boolean>> runConcurrently(Callable<Boolean> request) throws InterruptedException {
+        List<Callable<Boolean>> requests = Collections.nCopies(THREADS * REQUESTS_PER_THREAD, request);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            return executor.invokeAll(requests);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static int countApproved(List<Future<Boolean>> results) throws Exception {
+        int approved = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                approved++;
+            }
+        }
+        return approved;
+    }
+
+    private int getVirtualCpuUsage(Guid quotaId) {
+        Quota quota = new Quota();
+        quota.setId(quotaId);
+        quota.setStoragePoolId(storage_pool.getId());
+        quotaManager.updateUsage(Collections.singletonList(quota));
+        return quota.getGlobalQuotaCluster().getVirtualCpuUsage();
+    }
+
     /**
      * Mock a basic quota. Only the basic data (Id, name, threshold, grace...) is set.
      *
@@ -0,0 +1,203 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.ovirt.engine.core.utils.MockConfigRule.mockConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.ovirt.engine.core.bll.scheduling.external.BalanceResult;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.scheduling.PolicyUnitType;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.VmDao;
+import org.ovirt.engine.core.dao.VmStatisticsDao;
+import org.ovirt.engine.core.utils.MockConfigRule;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BalancingPlannerTest {
+
+    @ClassRule
+    public static MockConfigRule configRule = new MockConfigRule(mockConfig(ConfigValues.MaxSchedulerWeight, 1000));
+
+    @Mock
+    private VmDao vmDao;
+
+    @Mock
+    private VmStatisticsDao vmStatisticsDao;
+
+    private Cluster cluster = new Cluster();
+
+    private VDS busyHost;
+    private VDS idleHost;
+    private VDS quietHost;
+    private List<VDS> hosts;
+    private List<VM> vms;
+
+    @Before
+    public void setUp() {
+        busyHost = createHost(90);
+        idleHost = createHost(10);
+        quietHost = createHost(20);
+        hosts = Arrays.asList(busyHost, idleHost, quietHost);
+
+        vms = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            VM vm = new VM();
+            vm.setId(Guid.newGuid());
+            vm.setRunOnVds(busyHost.getId());
+            vm.setNumOfSockets(2);
+            vm.setCpuPerSocket(1);
+            vm.setThreadsPerCpu(1);
+            vm.setUsageCpuPercent(40);
+            vm.setVmMemSizeMb(1024);
+            vms.add(vm);
+            doReturn(vm).when(vmDao).get(vm.getId());
+            doReturn(vm.getStatisticsData()).when(vmStatisticsDao).get(vm.getId());
+        }
+        busyHost.setVmCount(vms.size());
+    }
+
+    @Test
+    public void testPlanSimulatesTheMigrations() {
+        BalancingPlanner planner = new BalancingPlanner(vmDao, vmStatisticsDao, 10, 10);
+
+        List<BalanceResult> plan = planner.plan(new OverloadBalance(), cluster, hosts, new HashMap<>());
+
+        // Each VM takes 20% of a host: the busy host sheds one to the least loaded host until it's under 50%
+        assertThat(plan).extracting(BalanceResult::getVmToMigrate)
+                .containsExactly(vms.get(0).getId(), vms.get(1).getId(), vms.get(2).getId());
+        assertThat(busyHost.getUsageCpuPercent()).isEqualTo(30);
+        assertThat(idleHost.getUsageCpuPercent()).isEqualTo(50);
+        assertThat(quietHost.getUsageCpuPercent()).isEqualTo(40);
+        assertThat(busyHost.getVmCount()).isEqualTo(0);
+        assertThat(idleHost.getVmCount()).isEqualTo(2);
+        assertThat(busyHost.getMemCommited()).isEqualTo(0);
+        assertThat(idleHost.getMemCommited()).isEqualTo(2048);
+    }
+
+    @Test
+    public void testPlanRespectsTheHostLimit() {
+        BalancingPlanner planner = new BalancingPlanner(vmDao, vmStatisticsDao, 10, 2);
+
+        List<BalanceResult> plan = planner.plan(new OverloadBalance(), cluster, hosts, new HashMap<>());
+
+        // The busy host takes part in two migrations, so it isn't balanced anymore
+        assertThat(plan).extracting(BalanceResult::getVmToMigrate)
+                .containsExactly(vms.get(0).getId(), vms.get(1).getId());
+        assertThat(busyHost.getUsageCpuPercent()).isEqualTo(50);
+    }
+
+    @Test
+    public void testPlanRespectsTheClusterLimit() {
+        BalancingPlanner planner = new BalancingPlanner(vmDao, vmStatisticsDao, 1, 2);
+
+        List<BalanceResult> plan = planner.plan(new OverloadBalance(), cluster, hosts, new HashMap<>());
+
+        assertThat(plan).extracting(BalanceResult::getVmToMigrate).containsExactly(vms.get(0).getId());
+        assertThat(plan.get(0).getCandidateHosts())
+                .containsExactly(idleHost.getId(), quietHost.getId(), busyHost.getId());
+    }
+
+    @Test
+    public void testUnitWithoutPlanningMigratesOneVm() {
+        BalancingPlanner planner = new BalancingPlanner(vmDao, vmStatisticsDao, 10, 10);
+
+        List<BalanceResult> plan = planner.plan(new SingleOverloadBalance(), cluster, hosts, new HashMap<>());
+
+        assertThat(plan).extracting(BalanceResult::getVmToMigrate).containsExactly(vms.get(0).getId());
+    }
+
+    private static VDS createHost(int usageCpuPercent) {
+        VDS host = new VDS();
+        host.setId(Guid.newGuid());
+        host.setCpuCores(4);
+        host.setUsageCpuPercent(usageCpuPercent);
+        host.setVmCount(0);
+        host.setMemCommited(0);
+        return host;
+    }
+
+    /**
+     * Migrates a VM of the most loaded host over 50% of CPU to the hosts under 50%.
+     */
+    private Optional<BalanceResult> balanceOverload(List<VDS> hosts, Set<Guid> plannedVms) {
+        Optional<VDS> source = hosts.stream()
+                .filter(host -> host.getUsageCpuPercent() >= 50)
+                .max(Comparator.comparing(VDS::getUsageCpuPercent));
+        List<Guid> destinations = hosts.stream()
+                .filter(host -> host.getUsageCpuPercent() < 50)
+                .map(VDS::getId)
+                .collect(Collectors.toList());
+        Optional<VM> vm = source.flatMap(host -> vms.stream()
+                .filter(v -> v.getRunOnVds().equals(host.getId()) && !plannedVms.contains(v.getId()))
+                .findFirst());
+        if (!vm.isPresent() || destinations.isEmpty()) {
+            return Optional.empty();
+        }
+
+        destinations.add(source.get().getId());
+        return Optional.of(new BalanceResult(vm.get().getId(), destinations, source.get().getId()));
+    }
+
+    @SchedulingUnit(
+            guid = "b2b1f7b4-5c3e-4f6a-9d0e-7e8f4a1c2d35",
+            name = "TestOverloadBalance",
+            type = PolicyUnitType.LOAD_BALANCING
+    )
+    private class OverloadBalance extends PolicyUnitImpl {
+        private OverloadBalance() {
+            super(null, new PendingResourceManager());
+        }
+
+        @Override
+        public Optional<BalanceResult> balance(Cluster cluster,
+                List<VDS> hosts,
+                Map<String, String> parameters,
+                ArrayList<String> messages,
+                Set<Guid> plannedVms) {
+            return balanceOverload(hosts, plannedVms);
+        }
+    }
+
+    /**
+     * Doesn't take the migrations planned before into account, like the HA reservation balance unit.
+     */
+    @SchedulingUnit(
+            guid = "4f3c9d62-0b8e-4e1a-a7d5-91c2e6b8f047",
+            name = "TestSingleOverloadBalance",
+            type = PolicyUnitType.LOAD_BALANCING
+    )
+    private class SingleOverloadBalance extends PolicyUnitImpl {
+        private SingleOverloadBalance() {
+            super(null, new PendingResourceManager());
+        }
+
+        @Override
+        public Optional<BalanceResult> balance(Cluster cluster,
+                List<VDS> hosts,
+                Map<String, String> parameters,
+                ArrayList<String> messages) {
+            return balanceOverload(hosts, Collections.emptySet());
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.ovirt.engine.core.utils.MockConfigRule.mockConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.scheduling.PerHostMessages;
+import org.ovirt.engine.core.common.scheduling.PolicyUnitType;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.MockConfigRule;
+
+public class ParallelPolicyUnitEvaluatorTest {
+
+    @ClassRule
+    public static MockConfigRule configRule = new MockConfigRule(mockConfig(ConfigValues.MaxSchedulerWeight, 1000));
+
+    private static final int HOST_COUNT = 1000;
+
+    private ParallelPolicyUnitEvaluator evaluator = new ParallelPolicyUnitEvaluator(4, 100);
+
+    private SchedulingContext context = new SchedulingContext(new Cluster(), new HashMap<>());
+
+    private VM vm = new VM();
+
+    private List<VDS> hosts;
+
+    @Before
+    public void setUp() {
+        hosts = createHosts(HOST_COUNT);
+    }
+
+    @Test
+    public void testFilterMatchesSequentialFilter() {
+        CoresFilter unit = new CoresFilter();
+        PerHostMessages expectedMessages = new PerHostMessages();
+        List<VDS> expected = unit.filter(context, hosts, vm, expectedMessages);
+
+        PerHostMessages messages = new PerHostMessages();
+        List<VDS> result = evaluator.filter(unit, context, hosts, vm, messages);
+
+        assertThat(result).containsExactlyElementsOf(expected);
+        assertThat(messages.getMessages()).isEqualTo(expectedMessages.getMessages());
+        assertThat(unit.calls.get()).isEqualTo(1 + 4);
+    }
+
+    @Test
+    public void testScoresMatchSequentialScores() {
+        CoresWeight independentUnit = new CoresWeight();
+        RelativeCoresWeight relativeUnit = new RelativeCoresWeight();
+        List<List<Pair<Guid, Integer>>> expected = Arrays.asList(independentUnit.score(context, hosts, vm),
+                relativeUnit.score(context, hosts, vm));
+
+        List<List<Pair<Guid, Integer>>> result =
+                evaluator.score(Arrays.asList(independentUnit, relativeUnit), context, hosts, vm);
+
+        assertThat(result).isEqualTo(expected);
+        assertThat(independentUnit.calls.get()).isEqualTo(1 + 4);
+        // The relative weight depends on all the hosts, so it must not be split
+        assertThat(relativeUnit.calls.get()).isEqualTo(1 + 1);
+    }
+
+    @Test
+    public void testSmallClusterIsNotSplit() {
+        CoresFilter unit = new CoresFilter();
+        List<VDS> smallCluster = createHosts(160);
+
+        List<VDS> result = evaluator.filter(unit, context, smallCluster, vm, new PerHostMessages());
+
+        assertThat(result).hasSize(80);
+        assertThat(unit.calls.get()).isEqualTo(1);
+    }
+
+    private static List<VDS> createHosts(int count) {
+        List<VDS> hosts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            VDS host = new VDS();
+            host.setId(Guid.newGuid());
+            host.setCpuCores(i % 8);
+            hosts.add(host);
+        }
+        return hosts;
+    }
+
+    @SchedulingUnit(
+            guid = "5d7bcc9c-3f0b-4a58-8e26-a8d3fa0c34a1",
+            name = "TestCores",
+            type = PolicyUnitType.FILTER,
+            hostIndependent = true
+    )
+    private static class CoresFilter extends PolicyUnitImpl {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private CoresFilter() {
+            super(null, new PendingResourceManager());
+        }
+
+        @Override
+        public List<VDS> filter(SchedulingContext context, List<VDS> hosts, VM vm, PerHostMessages messages) {
+            calls.incrementAndGet();
+            List<VDS> result = new ArrayList<>();
+            for (VDS host : hosts) {
+                if (host.getCpuCores() >= 4) {
+                    result.add(host);
+                } else {
+                    messages.addMessage(host.getId(), "cores " + host.getCpuCores());
+                }
+            }
+            return result;
+        }
+    }
+
+    @SchedulingUnit(
+            guid = "0e43c3e4-1c7a-4f2e-9e38-6a6f9d2f2a51",
+            name = "TestCoresWeight",
+            type = PolicyUnitType.WEIGHT,
+            hostIndependent = true
+    )
+    private static class CoresWeight extends PolicyUnitImpl {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private CoresWeight() {
+            super(null, new PendingResourceManager());
+        }
+
+        @Override
+        public List<Pair<Guid, Integer>> score(SchedulingContext context, List<VDS> hosts, VM vm) {
+            calls.incrementAndGet();
+            List<Pair<Guid, Integer>> scores = new ArrayList<>();
+            for (VDS host : hosts) {
+                scores.add(new Pair<>(host.getId(), 8 - host.getCpuCores()));
+            }
+            return scores;
+        }
+    }
+
+    @SchedulingUnit(
+            guid = "a4b0f1d2-63f5-4c8e-b1b5-2c6e0d9d7e13",
+            name = "TestRelativeCoresWeight",
+            type = PolicyUnitType.WEIGHT
+    )
+    private static class RelativeCoresWeight extends PolicyUnitImpl {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private RelativeCoresWeight() {
+            super(null, new PendingResourceManager());
+        }
+
+        @Override
+        public List<Pair<Guid, Integer>> score(SchedulingContext context, List<VDS> hosts, VM vm) {
+            calls.incrementAndGet();
+            int maxCores = hosts.stream().mapToInt(VDS::getCpuCores).max().orElse(0);
+            List<Pair<Guid, Integer>> scores = new ArrayList<>();
+            for (VDS host : hosts) {
+                scores.add(new Pair<>(host.getId(), maxCores - host.getCpuCores()));
+            }
+            return scores;
+        }
+    }
+}
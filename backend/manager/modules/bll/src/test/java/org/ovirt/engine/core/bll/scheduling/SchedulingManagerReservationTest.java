@@ -0,0 +1,307 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.ovirt.engine.core.utils.MockConfigRule.mockConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.ovirt.engine.core.bll.network.host.VfScheduler;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingCpuCores;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
+import org.ovirt.engine.core.bll.scheduling.policyunits.RankSelectorPolicyUnit;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VDSStatus;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.errors.EngineMessage;
+import org.ovirt.engine.core.common.scheduling.ClusterPolicy;
+import org.ovirt.engine.core.common.scheduling.PerHostMessages;
+import org.ovirt.engine.core.common.scheduling.PolicyUnitType;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.dbbroker.DbFacade;
+import org.ovirt.engine.core.dao.VdsDao;
+import org.ovirt.engine.core.dao.scheduling.ClusterPolicyDao;
+import org.ovirt.engine.core.utils.MockConfigRule;
+
+/**
+ * Tests the placement of several VMs in one pass by {@link SchedulingManager#scheduleMany}, and the use of the hosts
+ * it reserves by {@link SchedulingManager#schedule} and {@link SchedulingManager#canSchedule}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SchedulingManagerReservationTest {
+
+    @ClassRule
+    public static MockConfigRule configRule = new MockConfigRule(
+            mockConfig(ConfigValues.MaxSchedulerWeight, 1000),
+            mockConfig(ConfigValues.ExternalSchedulerEnabled, false));
+
+    @Mock
+    private DbFacade dbFacade;
+
+    @Mock
+    private VdsDao vdsDao;
+
+    @Mock
+    private ClusterPolicyDao clusterPolicyDao;
+
+    @Mock
+    private VfScheduler vfScheduler;
+
+    @Spy
+    private PendingResourceManager pendingResourceManager = new PendingResourceManager();
+
+    @InjectMocks
+    private SchedulingManager schedulingManager;
+
+    private CoresFilter filter = new CoresFilter();
+
+    private Cluster cluster;
+
+    private List<VDS> hosts;
+
+    @Before
+    public void setUp() {
+        cluster = new Cluster();
+        cluster.setId(Guid.newGuid());
+
+        ClusterPolicy policy = new ClusterPolicy();
+        policy.setId(Guid.newGuid());
+        policy.setFilters(new ArrayList<>(Collections.singletonList(filter.getGuid())));
+        policy.setFilterPositionMap(new HashMap<>());
+        policy.setFunctions(new ArrayList<>());
+        cluster.setClusterPolicyId(policy.getId());
+
+        when(dbFacade.getClusterPolicyDao()).thenReturn(clusterPolicyDao);
+        schedulingManager.addClusterPolicy(policy);
+        schedulingManager.getPolicyUnitsMap().put(filter.getGuid(), filter);
+        RankSelectorPolicyUnit selector = new RankSelectorPolicyUnit(null, pendingResourceManager);
+        schedulingManager.getPolicyUnitsMap().put(selector.getGuid(), selector);
+
+        // each host has room for a single VM
+        hosts = Arrays.asList(createHost(), createHost());
+        when(dbFacade.getVdsDao()).thenReturn(vdsDao);
+        when(vdsDao.getAllForClusterWithStatus(cluster.getId(), VDSStatus.Up))
+                .thenAnswer(invocation -> new ArrayList<>(hosts));
+    }
+
+    @After
+    public void tearDown() {
+        // an interrupted pass leaves the flag set
+        Thread.interrupted();
+    }
+
+    @Test
+    public void testPendingResourcesAreAddedBetweenPlacements() {
+        VM first = createVm();
+        VM second = createVm();
+        VM third = createVm();
+
+        Map<Guid, List<String>> messages = new HashMap<>();
+        Map<Guid, Guid> placements = schedulingManager.scheduleMany(cluster,
+                Arrays.asList(first, second, third), messages, null);
+
+        assertThat(placements).containsEntry(first.getId(), hosts.get(0).getId());
+        assertThat(placements).containsEntry(second.getId(), hosts.get(1).getId());
+        assertThat(placements).doesNotContainKey(third.getId());
+        assertThat(pendingCores(hosts.get(0))).isEqualTo(1);
+        assertThat(pendingCores(hosts.get(1))).isEqualTo(1);
+    }
+
+    @Test
+    public void testMessagesAreFilledPerVm() {
+        VM first = createVm();
+        VM second = createVm();
+        VM third = createVm();
+
+        Map<Guid, List<String>> messages = new HashMap<>();
+        schedulingManager.scheduleMany(cluster, Arrays.asList(first, second, third), messages, null);
+
+        assertThat(messages.get(first.getId())).isEmpty();
+        assertThat(messages.get(second.getId())).isEmpty();
+        assertThat(messages.get(third.getId()))
+                .contains(EngineMessage.SCHEDULING_ALL_HOSTS_FILTERED_OUT.name(), "no free cores");
+    }
+
+    @Test
+    public void testReservedHostIsUsed() {
+        VM first = createVm();
+        VM second = createVm();
+        schedulingManager.scheduleMany(cluster, Arrays.asList(first, second), new HashMap<>(), null);
+        int filterCalls = filter.calls;
+
+        assertThat(schedulingManager.canSchedule(cluster, second, Collections.emptyList(),
+                Collections.emptyList(), new ArrayList<>())).isTrue();
+        assertThat(schedule(second, Collections.emptyList())).isEqualTo(Optional.of(hosts.get(1).getId()));
+        assertThat(filter.calls).isEqualTo(filterCalls);
+        assertThat(pendingCores(hosts.get(1))).isEqualTo(1);
+    }
+
+    @Test
+    public void testReservedHostThatIsNotUpIsReplaced() {
+        VM first = createVm();
+        VM second = createVm();
+        schedulingManager.scheduleMany(cluster, Arrays.asList(first, second), new HashMap<>(), null);
+        VDS reservedHost = hosts.get(1);
+        VDS otherHost = createHost();
+        hosts = Arrays.asList(hosts.get(0), otherHost);
+        int filterCalls = filter.calls;
+
+        assertThat(schedule(second, Collections.emptyList())).isEqualTo(Optional.of(otherHost.getId()));
+        assertThat(filter.calls).isEqualTo(filterCalls + 1);
+        assertThat(pendingCores(reservedHost)).isEqualTo(0);
+        assertThat(pendingCores(otherHost)).isEqualTo(1);
+    }
+
+    @Test
+    public void testBlacklistedReservedHostIsReplaced() {
+        VM first = createVm();
+        VM second = createVm();
+        schedulingManager.scheduleMany(cluster, Arrays.asList(first, second), new HashMap<>(), null);
+        VDS reservedHost = hosts.get(1);
+        VDS otherHost = createHost();
+        hosts = Arrays.asList(hosts.get(0), reservedHost, otherHost);
+
+        assertThat(schedule(second, Collections.singletonList(reservedHost.getId())))
+                .isEqualTo(Optional.of(otherHost.getId()));
+        assertThat(pendingCores(reservedHost)).isEqualTo(0);
+        assertThat(pendingCores(otherHost)).isEqualTo(1);
+    }
+
+    @Test
+    public void testInterruptedPassPlacesNothing() {
+        VM first = createVm();
+        Thread.currentThread().interrupt();
+
+        Map<Guid, Guid> placements =
+                schedulingManager.scheduleMany(cluster, Collections.singletonList(first), new HashMap<>(), null);
+
+        assertThat(placements).isEmpty();
+        assertThat(Thread.interrupted()).isFalse();
+        // the VM has no reservation, so it's placed in full
+        int filterCalls = filter.calls;
+        assertThat(schedule(first, Collections.emptyList())).isEqualTo(Optional.of(hosts.get(0).getId()));
+        assertThat(filter.calls).isEqualTo(filterCalls + 1);
+    }
+
+    @Test
+    public void testFailedPassReleasesThePlacedVms() {
+        VM first = createVm();
+        VM second = createVm();
+        filter.failingVms.add(second.getId());
+
+        try {
+            schedulingManager.scheduleMany(cluster, Arrays.asList(first, second), new HashMap<>(), null);
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        filter.failingVms.clear();
+        int filterCalls = filter.calls;
+
+        assertThat(pendingCores(hosts.get(0))).isEqualTo(0);
+        // the first VM has no reservation left, so it's placed in full
+        assertThat(schedule(first, Collections.emptyList())).isEqualTo(Optional.of(hosts.get(0).getId()));
+        assertThat(filter.calls).isEqualTo(filterCalls + 1);
+    }
+
+    @Test
+    public void testReleaseKeepsUsedReservations() {
+        VM first = createVm();
+        VM second = createVm();
+        schedulingManager.scheduleMany(cluster, Arrays.asList(first, second), new HashMap<>(), null);
+        schedule(first, Collections.emptyList());
+
+        schedulingManager.releaseReservedHosts(Arrays.asList(first, second));
+
+        assertThat(pendingCores(hosts.get(0))).isEqualTo(1);
+        assertThat(pendingCores(hosts.get(1))).isEqualTo(0);
+    }
+
+    private Optional<Guid> schedule(VM vm, List<Guid> hostBlackList) {
+        return schedulingManager.schedule(cluster,
+                vm,
+                hostBlackList,
+                Collections.emptyList(),
+                Collections.emptyList(),
+                new ArrayList<>(),
+                new VdsFreeMemoryChecker(new NonWaitingDelayer()),
+                null);
+    }
+
+    private int pendingCores(VDS host) {
+        return PendingCpuCores.collectForHost(pendingResourceManager, host.getId());
+    }
+
+    private VDS createHost() {
+        VDS host = new VDS();
+        host.setId(Guid.newGuid());
+        host.setVdsName("host" + host.getId());
+        host.setClusterId(cluster.getId());
+        host.setCpuCores(1);
+        host.setGuestOverhead(0);
+        return host;
+    }
+
+    private VM createVm() {
+        VM vm = new VM();
+        vm.setId(Guid.newGuid());
+        vm.setClusterId(cluster.getId());
+        vm.setNumOfSockets(1);
+        vm.setCpuPerSocket(1);
+        vm.setThreadsPerCpu(1);
+        vm.setVmMemSizeMb(1024);
+        return vm;
+    }
+
+    /**
+     * Keeps the hosts whose cores aren't taken by the pending VMs.
+     */
+    @SchedulingUnit(
+            guid = "3c1f5a0e-8d6b-4e51-9a7c-2f4b8e6d1a90",
+            name = "TestFreeCores",
+            type = PolicyUnitType.FILTER
+    )
+    private static class CoresFilter extends PolicyUnitImpl {
+        private final Set<Guid> failingVms = new HashSet<>();
+        private int calls;
+
+        private CoresFilter() {
+            super(null, new PendingResourceManager());
+        }
+
+        @Override
+        public List<VDS> filter(SchedulingContext context, List<VDS> hosts, VM vm, PerHostMessages messages) {
+            calls++;
+            if (failingVms.contains(vm.getId())) {
+                throw new IllegalStateException();
+            }
+            List<VDS> result = new ArrayList<>();
+            for (VDS host : hosts) {
+                if (host.getPendingVcpusCount() + vm.getNumOfCpus() <= host.getCpuCores()) {
+                    result.add(host);
+                } else {
+                    messages.addMessage(host.getId(), "no free cores");
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -37,6 +37,7 @@ public class SchedulingManagerTest extends TransactionalTestBase {
     public MockConfigRule mockConfigRule = new MockConfigRule(
             mockConfig(ConfigValues.ExternalSchedulerEnabled, false),
             mockConfig(ConfigValues.EnableVdsLoadBalancing, false),
+            mockConfig(ConfigValues.SchedulerParallelEvaluation, false),
             mockConfig(ConfigValues.MaxSchedulerWeight, 381),
             mockConfig(ConfigValues.SupportedClusterLevels, new HashSet<Version>()),
             mockConfig(ConfigValues.SpmVmGraceForEvenGuestDistribute, 5),
@@ -0,0 +1,218 @@
+package org.ovirt.engine.core.bll.scheduling.external;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.ovirt.engine.core.utils.MockConfigRule.mockConfig;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.xmlrpc.XmlRpcException;
+import org.junit.After;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.MockConfigRule;
+
+import com.netflix.hystrix.Hystrix;
+import com.netflix.hystrix.HystrixCircuitBreaker;
+import com.netflix.hystrix.HystrixCommandKey;
+
+public class ExternalSchedulerBrokerImplTest {
+
+    private static final int DEADLINE = 500;
+    private static final int THREADS = 10;
+    private static final int QUEUE_SIZE = 100;
+
+    @ClassRule
+    public static MockConfigRule configRule = new MockConfigRule(
+            mockConfig(ConfigValues.ExternalSchedulerServiceURL, "http://localhost:18781/"),
+            mockConfig(ConfigValues.ExternalSchedulerConnectionTimeout, 100),
+            mockConfig(ConfigValues.ExternalSchedulerResponseTimeout, 120000),
+            mockConfig(ConfigValues.ExternalSchedulerDeadline, DEADLINE),
+            mockConfig(ConfigValues.ExternalSchedulerCircuitBreakerErrorPercentage, 50),
+            mockConfig(ConfigValues.ExternalSchedulerCircuitBreakerSleepWindow, 30000),
+            mockConfig(ConfigValues.ExternalSchedulerThreads, THREADS),
+            mockConfig(ConfigValues.ExternalSchedulerQueueSize, QUEUE_SIZE));
+
+    private final Guid host1 = Guid.newGuid();
+    private final Guid host2 = Guid.newGuid();
+    private final List<Guid> hosts = Arrays.asList(host1, host2);
+
+    @After
+    public void tearDown() {
+        // The metrics and the circuit breakers are kept by Hystrix, by kind of call
+        Hystrix.reset();
+        configRule.mockConfigValue(ConfigValues.ExternalSchedulerThreads, THREADS);
+        configRule.mockConfigValue(ConfigValues.ExternalSchedulerQueueSize, QUEUE_SIZE);
+    }
+
+    @Test
+    public void testFiltersAndScoresRunConcurrently() throws Exception {
+        CountDownLatch running = new CountDownLatch(2);
+        TestBroker broker = new TestBroker() {
+            @Override
+            protected Object execute(String method, Object[] args) throws XmlRpcException {
+                super.execute(method, args);
+                running.countDown();
+                try {
+                    // Both calls must be running to get past the latch before the deadline
+                    if (!running.await(DEADLINE, TimeUnit.MILLISECONDS)) {
+                        throw new XmlRpcException("the other call didn't start");
+                    }
+                } catch (InterruptedException e) {
+                    throw new XmlRpcException("interrupted", e);
+                }
+                return "runFilters".equals(method)
+                        ? new Object[] { host2.toString() }
+                        : new Object[] { new Object[] { host1.toString(), 7 } };
+            }
+        };
+
+        Future<List<Guid>> filtered = broker.runFiltersAsync(Collections.singletonList("filter"),
+                hosts, Guid.newGuid(), Collections.emptyMap());
+        Future<List<WeightResultEntry>> scores = broker.runScoresAsync(
+                Collections.singletonList(new Pair<>("weight", 1)), hosts, Guid.newGuid(), Collections.emptyMap());
+
+        assertThat(filtered.get()).containsExactly(host2);
+        assertThat(scores.get()).extracting(WeightResultEntry::getHost).containsExactly(host1);
+        assertThat(broker.audits.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void testLateFiltersKeepAllHosts() {
+        TestBroker broker = new TestBroker() {
+            @Override
+            protected Object execute(String method, Object[] args) throws XmlRpcException {
+                super.execute(method, args);
+                try {
+                    Thread.sleep(10 * DEADLINE);
+                } catch (InterruptedException e) {
+                    throw new XmlRpcException("interrupted", e);
+                }
+                return new Object[] {};
+            }
+        };
+
+        long start = System.nanoTime();
+        List<Guid> filtered = broker.runFilters(Collections.singletonList("filter"),
+                hosts, Guid.newGuid(), Collections.emptyMap());
+
+        assertThat(filtered).isEqualTo(hosts);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5 * DEADLINE);
+        assertThat(broker.audits.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFailingScoresOpenTheCircuit() throws Exception {
+        TestBroker broker = new TestBroker() {
+            @Override
+            protected Object execute(String method, Object[] args) throws XmlRpcException {
+                super.execute(method, args);
+                throw new XmlRpcException("connection refused");
+            }
+        };
+        List<Pair<String, Integer>> weights = Collections.singletonList(new Pair<>("weight", 1));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(broker.runScores(weights, hosts, Guid.newGuid(), Collections.emptyMap())).isEmpty();
+        }
+        // Hystrix takes snapshots of the health of the calls periodically
+        awaitOpenCircuit("ExternalScheduler.runCostFunctions");
+        assertThat(broker.runScores(weights, hosts, Guid.newGuid(), Collections.emptyMap())).isEmpty();
+        assertThat(broker.runScores(weights, hosts, Guid.newGuid(), Collections.emptyMap())).isEmpty();
+
+        assertThat(broker.calls.get()).isEqualTo(10);
+        assertThat(broker.audits.get()).isEqualTo(10);
+        // The circuits are kept by kind of call
+        assertThat(broker.runFilters(Collections.singletonList("filter"), hosts, Guid.newGuid(),
+                Collections.emptyMap())).isEqualTo(hosts);
+        assertThat(broker.calls.get()).isEqualTo(11);
+    }
+
+    @Test
+    public void testDiscoveryIsNotBoundByTheDeadline() {
+        TestBroker broker = new TestBroker() {
+            @Override
+            protected Object execute(String method, Object[] args) throws XmlRpcException {
+                super.execute(method, args);
+                try {
+                    Thread.sleep(2 * DEADLINE);
+                } catch (InterruptedException e) {
+                    throw new XmlRpcException("interrupted", e);
+                }
+                return new HashMap<>();
+            }
+        };
+
+        assertThat(broker.runDiscover().isPresent()).isTrue();
+        assertThat(broker.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRejectedCallIsNotAudited() throws Exception {
+        configRule.mockConfigValue(ConfigValues.ExternalSchedulerThreads, 1);
+        configRule.mockConfigValue(ConfigValues.ExternalSchedulerQueueSize, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        TestBroker broker = new TestBroker() {
+            @Override
+            protected Object execute(String method, Object[] args) throws XmlRpcException {
+                super.execute(method, args);
+                started.countDown();
+                try {
+                    released.await(DEADLINE, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    throw new XmlRpcException("interrupted", e);
+                }
+                return new Object[] { host2.toString() };
+            }
+        };
+
+        Future<List<Guid>> running = broker.runFiltersAsync(Collections.singletonList("filter"),
+                hosts, Guid.newGuid(), Collections.emptyMap());
+        assertThat(started.await(DEADLINE, TimeUnit.MILLISECONDS)).isTrue();
+        // The only thread is taken and no call may wait for it
+        List<Guid> rejected = broker.runFilters(Collections.singletonList("filter"),
+                hosts, Guid.newGuid(), Collections.emptyMap());
+        released.countDown();
+
+        assertThat(rejected).isEqualTo(hosts);
+        assertThat(running.get()).containsExactly(host2);
+        assertThat(broker.calls.get()).isEqualTo(1);
+        assertThat(broker.audits.get()).isEqualTo(0);
+    }
+
+    private static void awaitOpenCircuit(String commandKey) throws InterruptedException {
+        HystrixCircuitBreaker circuitBreaker =
+                HystrixCircuitBreaker.Factory.getInstance(HystrixCommandKey.Factory.asKey(commandKey));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!circuitBreaker.isOpen() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(circuitBreaker.isOpen()).isTrue();
+    }
+
+    private static class TestBroker extends ExternalSchedulerBrokerImpl {
+        protected final AtomicInteger calls = new AtomicInteger();
+        protected final AtomicInteger audits = new AtomicInteger();
+
+        @Override
+        protected Object execute(String method, Object[] args) throws XmlRpcException {
+            calls.incrementAndGet();
+            return null;
+        }
+
+        @Override
+        protected void auditLogFailedToConnect() {
+            audits.incrementAndGet();
+        }
+    }
+}
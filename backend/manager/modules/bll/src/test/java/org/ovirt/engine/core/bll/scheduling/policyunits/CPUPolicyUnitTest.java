@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 
 import org.junit.Before;
@@ -12,6 +13,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
@@ -108,10 +110,10 @@ public class CPUPolicyUnitTest {
     }
 
     private List<VDS> filter() {
-        return cpuPolicyUnit.filter(cluster,
+        return cpuPolicyUnit.filter(new SchedulingContext(cluster, new HashMap<>()),
                 Arrays.asList(vdsWithInvalidCpuInfo, vdsWithCores),
                 vm,
-                null, mock(PerHostMessages.class));
+                mock(PerHostMessages.class));
     }
 
 }
@@ -12,11 +12,13 @@ import static org.mockito.Mockito.mock;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
@@ -60,7 +62,10 @@ public class CpuPinningPolicyUnitTest {
 
     @Test
     public void shouldHandleEmptyHostList() {
-        final List<VDS> filteredHost = policyUnit.filter(cluster, new ArrayList<>(), vm, null, mock(PerHostMessages.class));
+        final List<VDS> filteredHost = policyUnit.filter(new SchedulingContext(cluster, new HashMap<>()),
+                new ArrayList<>(),
+                vm,
+                mock(PerHostMessages.class));
         assertThat(filteredHost, is(empty()));
         assertThat(messages(), is(empty()));
     }
@@ -126,7 +131,8 @@ public class CpuPinningPolicyUnitTest {
     }
 
     private List<VDS> filter() {
-        return policyUnit.filter(cluster, Arrays.asList(hostWithCpus, hostWithoutCpus), vm, null, perHostMessages);
+        return policyUnit.filter(new SchedulingContext(cluster, new HashMap<>()),
+                Arrays.asList(hostWithCpus, hostWithoutCpus), vm, perHostMessages);
     }
 
     private Collection<List<String>> messages() {
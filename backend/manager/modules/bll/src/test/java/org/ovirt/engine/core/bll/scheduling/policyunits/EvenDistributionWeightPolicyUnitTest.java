@@ -6,6 +6,7 @@ import static org.mockito.Mockito.spy;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,6 +14,7 @@ import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
 import org.ovirt.engine.core.common.businessentities.BusinessEntity;
 import org.ovirt.engine.core.common.businessentities.Cluster;
@@ -69,9 +71,8 @@ public class EvenDistributionWeightPolicyUnitTest extends AbstractPolicyUnitTest
     }
 
     protected <T extends EvenDistributionWeightPolicyUnit> Guid selectedBestHost(T unit, VM vm, ArrayList<VDS> hosts) {
-        List<Pair<Guid, Integer>> scores = unit.score(new Cluster(), hosts,
-                vm,
-                null);
+        List<Pair<Guid, Integer>> scores = unit.score(new SchedulingContext(new Cluster(), new HashMap<>()), hosts,
+                vm);
         scores.sort(Comparator.comparing(Pair::getSecond));
         return scores.get(0).getFirst();
     }
@@ -15,6 +15,7 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.ovirt.engine.core.bll.DbDependentTestBase;
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitParameter;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
 import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.OriginType;
@@ -85,20 +86,20 @@ public class HostedEngineMemoryReservationFilterPolicyUnitTest extends DbDepende
 
     @Test
     public void testNoHosts() throws Exception {
-        List<VDS> result = policyUnit.filter(cluster, new ArrayList<VDS>(), vm, parameters, messages);
+        List<VDS> result = policyUnit.filter(new SchedulingContext(cluster, parameters), new ArrayList<>(), vm, messages);
         assertEquals(0, result.size());
     }
 
     @Test
     public void testWithNoRequiredSpares() throws Exception {
-        List<VDS> result = policyUnit.filter(cluster, hosts, vm, parameters, messages);
+        List<VDS> result = policyUnit.filter(new SchedulingContext(cluster, parameters), hosts, vm, messages);
         assertEquals(5, result.size());
     }
 
     @Test
     public void testWithEnoughSpares() throws Exception {
         parameters.put(PolicyUnitParameter.HE_SPARES_COUNT.getDbName(), "5");
-        List<VDS> result = policyUnit.filter(cluster, hosts, vm, parameters, messages);
+        List<VDS> result = policyUnit.filter(new SchedulingContext(cluster, parameters), hosts, vm, messages);
         assertEquals(5, result.size());
     }
 
@@ -112,7 +113,7 @@ public class HostedEngineMemoryReservationFilterPolicyUnitTest extends DbDepende
     @Test
     public void testWithoutEnoughSpares() throws Exception {
         parameters.put(PolicyUnitParameter.HE_SPARES_COUNT.getDbName(), "6");
-        List<VDS> result = policyUnit.filter(cluster, hosts, vm, parameters, messages);
+        List<VDS> result = policyUnit.filter(new SchedulingContext(cluster, parameters), hosts, vm, messages);
         assertEquals(5, result.size());
     }
 
@@ -127,7 +128,7 @@ public class HostedEngineMemoryReservationFilterPolicyUnitTest extends DbDepende
     public void testWithoutEnoughSparesFullMemory() throws Exception {
         parameters.put(PolicyUnitParameter.HE_SPARES_COUNT.getDbName(), "5");
         hostedEngine.setVmMemSizeMb(7000);
-        List<VDS> result = policyUnit.filter(cluster, hosts, vm, parameters, messages);
+        List<VDS> result = policyUnit.filter(new SchedulingContext(cluster, parameters), hosts, vm, messages);
         assertEquals(1, result.size());
         assertEquals("A", result.get(0).getName());
     }
@@ -145,7 +146,7 @@ public class HostedEngineMemoryReservationFilterPolicyUnitTest extends DbDepende
         hostedEngine.setOrigin(OriginType.OVIRT);
         doReturn(null).when(vmDao).getHostedEngineVm();
 
-        List<VDS> result = policyUnit.filter(cluster, hosts, vm, parameters, messages);
+        List<VDS> result = policyUnit.filter(new SchedulingContext(cluster, parameters), hosts, vm, messages);
         assertEquals(5, result.size());
     }
 
@@ -161,7 +162,7 @@ public class HostedEngineMemoryReservationFilterPolicyUnitTest extends DbDepende
         parameters.put(PolicyUnitParameter.HE_SPARES_COUNT.getDbName(), "5");
         hostedEngine.setVmMemSizeMb(7000);
         hostedEngine.setClusterId(Guid.SYSTEM);
-        List<VDS> result = policyUnit.filter(cluster, hosts, vm, parameters, messages);
+        List<VDS> result = policyUnit.filter(new SchedulingContext(cluster, parameters), hosts, vm, messages);
         assertEquals(5, result.size());
     }
 
@@ -186,7 +187,7 @@ public class HostedEngineMemoryReservationFilterPolicyUnitTest extends DbDepende
         hosts.get(3).setPhysicalMemMb(2048);
         hosts.get(4).setPhysicalMemMb(2048);
 
-        List<VDS> result = policyUnit.filter(cluster, hosts, vm, parameters, messages);
+        List<VDS> result = policyUnit.filter(new SchedulingContext(cluster, parameters), hosts, vm, messages);
         assertEquals(5, result.size());
     }
 
@@ -204,7 +205,7 @@ public class HostedEngineMemoryReservationFilterPolicyUnitTest extends DbDepende
         hosts.get(3).setPhysicalMemMb(2048);
         hosts.get(4).setPhysicalMemMb(2048);
 
-        List<VDS> result = policyUnit.filter(cluster, hosts, vm, parameters, messages);
+        List<VDS> result = policyUnit.filter(new SchedulingContext(cluster, parameters), hosts, vm, messages);
         assertEquals(3, result.size());
     }
 
@@ -222,7 +223,7 @@ public class HostedEngineMemoryReservationFilterPolicyUnitTest extends DbDepende
         hosts.get(3).setPhysicalMemMb(2048);
         hosts.get(4).setPhysicalMemMb(2048);
 
-        List<VDS> result = policyUnit.filter(cluster, hosts, vm, parameters, messages);
+        List<VDS> result = policyUnit.filter(new SchedulingContext(cluster, parameters), hosts, vm, messages);
         assertEquals(3, result.size());
     }
 
@@ -242,7 +243,7 @@ public class HostedEngineMemoryReservationFilterPolicyUnitTest extends DbDepende
         hosts.get(3).setPhysicalMemMb(2048);
         hosts.get(4).setPhysicalMemMb(2048);
 
-        List<VDS> result = policyUnit.filter(cluster, hosts, vm, parameters, messages);
+        List<VDS> result = policyUnit.filter(new SchedulingContext(cluster, parameters), hosts, vm, messages);
         assertEquals(4, result.size());
     }
 
@@ -262,7 +263,7 @@ public class HostedEngineMemoryReservationFilterPolicyUnitTest extends DbDepende
         hosts.get(3).setPhysicalMemMb(2048);
         hosts.get(4).setPhysicalMemMb(2048);
 
-        List<VDS> result = policyUnit.filter(cluster, hosts, vm, parameters, messages);
+        List<VDS> result = policyUnit.filter(new SchedulingContext(cluster, parameters), hosts, vm, messages);
         assertEquals(4, result.size());
     }
 
@@ -284,7 +285,7 @@ public class HostedEngineMemoryReservationFilterPolicyUnitTest extends DbDepende
         hosts.get(3).setPhysicalMemMb(2048);
         hosts.get(4).setPhysicalMemMb(2048);
 
-        List<VDS> result = policyUnit.filter(cluster, hosts, vm, parameters, messages);
+        List<VDS> result = policyUnit.filter(new SchedulingContext(cluster, parameters), hosts, vm, messages);
         assertEquals(5, result.size());
     }
 
@@ -308,7 +309,7 @@ public class HostedEngineMemoryReservationFilterPolicyUnitTest extends DbDepende
         hosts.get(3).setPhysicalMemMb(6000);
         hosts.get(4).setPhysicalMemMb(2048);
 
-        List<VDS> result = policyUnit.filter(cluster, hosts, vm, parameters, messages);
+        List<VDS> result = policyUnit.filter(new SchedulingContext(cluster, parameters), hosts, vm, messages);
         assertEquals(4, result.size());
     }
 
@@ -332,7 +333,7 @@ public class HostedEngineMemoryReservationFilterPolicyUnitTest extends DbDepende
         hosts.get(3).setPhysicalMemMb(6000);
         hosts.get(4).setPhysicalMemMb(2048);
 
-        List<VDS> result = policyUnit.filter(cluster, hosts, vm, parameters, messages);
+        List<VDS> result = policyUnit.filter(new SchedulingContext(cluster, parameters), hosts, vm, messages);
         assertEquals(4, result.size());
     }
 
@@ -355,7 +356,7 @@ public class HostedEngineMemoryReservationFilterPolicyUnitTest extends DbDepende
         hosts.get(3).setPhysicalMemMb(7000);
         hosts.get(4).setPhysicalMemMb(2048);
 
-        List<VDS> result = policyUnit.filter(cluster, hosts, hostedEngine, parameters, messages);
+        List<VDS> result = policyUnit.filter(new SchedulingContext(cluster, parameters), hosts, hostedEngine, messages);
         assertEquals(5, result.size());
     }
 
@@ -367,7 +368,7 @@ public class HostedEngineMemoryReservationFilterPolicyUnitTest extends DbDepende
     @Test
     public void testHostInMaintenance() throws Exception {
         hosts.get(0).setHighlyAvailableLocalMaintenance(true);
-        List<VDS> result = policyUnit.filter(cluster, hosts, vm, parameters, messages);
+        List<VDS> result = policyUnit.filter(new SchedulingContext(cluster, parameters), hosts, vm, messages);
         assertEquals(5, result.size());
     }
 
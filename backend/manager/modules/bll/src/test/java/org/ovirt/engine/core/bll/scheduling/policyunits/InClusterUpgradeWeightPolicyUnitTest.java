@@ -8,6 +8,7 @@ import static org.ovirt.engine.core.bll.scheduling.policyunits.InClusterUpgradeW
 import static org.ovirt.engine.core.bll.scheduling.policyunits.InClusterUpgradeWeightPolicyUnit.BETTER_WEIGHT;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 
 import org.junit.Before;
@@ -17,6 +18,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
@@ -176,9 +178,9 @@ public class InClusterUpgradeWeightPolicyUnitTest extends TestCase {
     }
 
     private List<Pair<Guid, Integer>> filter(final VM vm, final VDS... hosts) {
-        return inClusterUpgradeWeightPolicyUnit.score(new Cluster(), Arrays.asList(hosts),
-                vm,
-                null);
+        return inClusterUpgradeWeightPolicyUnit.score(new SchedulingContext(new Cluster(), new HashMap<>()),
+                Arrays.asList(hosts),
+                vm);
     }
 
     private static Pair<Guid, Integer> weight(final VDS host, int weight) {
@@ -16,6 +16,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.Label;
 import org.ovirt.engine.core.common.businessentities.LabelBuilder;
@@ -73,7 +74,7 @@ public class LabelFilterPolicyUnitTest {
         List<Label> labels = Collections.singletonList(red);
         doReturn(labels).when(labelDao).getAllByEntityIds(any());
 
-        assertThat(unit.filter(cluster, hosts, vm, new HashMap<>(), new PerHostMessages()))
+        assertThat(unit.filter(new SchedulingContext(cluster, new HashMap<>()), hosts, vm, new PerHostMessages()))
                 .contains(host1)
                 .doesNotContain(host2);
     }
@@ -91,7 +92,7 @@ public class LabelFilterPolicyUnitTest {
         List<Label> labels = Arrays.asList(red, blue);
         doReturn(labels).when(labelDao).getAllByEntityIds(any());
 
-        assertThat(unit.filter(cluster, hosts, vm, new HashMap<>(), new PerHostMessages()))
+        assertThat(unit.filter(new SchedulingContext(cluster, new HashMap<>()), hosts, vm, new PerHostMessages()))
                 .isEmpty();
     }
 
@@ -108,7 +109,7 @@ public class LabelFilterPolicyUnitTest {
         List<Label> labels = Arrays.asList(red, blue);
         doReturn(labels).when(labelDao).getAllByEntityIds(any());
 
-        assertThat(unit.filter(cluster, hosts, vm, new HashMap<>(), new PerHostMessages()))
+        assertThat(unit.filter(new SchedulingContext(cluster, new HashMap<>()), hosts, vm, new PerHostMessages()))
                 .contains(host1)
                 .doesNotContain(host2);
     }
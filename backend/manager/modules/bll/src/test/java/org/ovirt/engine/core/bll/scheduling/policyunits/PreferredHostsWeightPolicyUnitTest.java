@@ -10,6 +10,7 @@ import java.util.Map;
 
 import org.junit.ClassRule;
 import org.junit.Test;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
@@ -46,7 +47,7 @@ public class PreferredHostsWeightPolicyUnitTest {
         hosts.add(host2);
         hosts.add(host3);
 
-        List<Pair<Guid, Integer>> weights = unit.score(cluster, hosts, vm, new HashMap<String, String>());
+        List<Pair<Guid, Integer>> weights = unit.score(new SchedulingContext(cluster, new HashMap<>()), hosts, vm);
 
         Map<Guid, Integer> results = new HashMap<>();
         for (Pair<Guid, Integer> r: weights) {
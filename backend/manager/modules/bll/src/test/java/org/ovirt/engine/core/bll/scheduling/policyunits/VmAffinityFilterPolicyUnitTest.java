@@ -0,0 +1,112 @@
+package org.ovirt.engine.core.bll.scheduling.policyunits;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.scheduling.AffinityGroup;
+import org.ovirt.engine.core.common.scheduling.EntityAffinityRule;
+import org.ovirt.engine.core.common.scheduling.PerHostMessages;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.MockConfigRule;
+
+@RunWith(MockitoJUnitRunner.class)
+public class VmAffinityFilterPolicyUnitTest {
+
+    @ClassRule
+    public static MockConfigRule configRule = new MockConfigRule();
+
+    @Mock
+    SchedulingContext context;
+
+    VmAffinityFilterPolicyUnit unit = new VmAffinityFilterPolicyUnit(null, new PendingResourceManager());
+
+    private VM vm;
+    private VM runningVm;
+    private VDS host1;
+    private VDS host2;
+    private List<VDS> hosts;
+
+    @Before
+    public void setUp() throws Exception {
+        Cluster cluster = new Cluster();
+        cluster.setId(Guid.newGuid());
+        doReturn(cluster).when(context).getCluster();
+
+        vm = new VM();
+        vm.setId(Guid.newGuid());
+        vm.setClusterId(cluster.getId());
+
+        host1 = new VDS();
+        host1.setId(Guid.newGuid());
+        host1.setClusterId(cluster.getId());
+
+        host2 = new VDS();
+        host2.setId(Guid.newGuid());
+        host2.setClusterId(cluster.getId());
+
+        hosts = Arrays.asList(host1, host2);
+
+        runningVm = new VM();
+        runningVm.setId(Guid.newGuid());
+        runningVm.setRunOnVds(host1.getId());
+    }
+
+    @Test
+    public void testNoAffinityGroups() {
+        doReturn(Collections.emptyList()).when(context).getAffinityGroups();
+
+        assertThat(unit.filter(context, hosts, vm, new PerHostMessages())).containsOnly(host1, host2);
+    }
+
+    @Test
+    public void testPositiveAffinity() {
+        doReturn(Collections.singletonList(createGroup(EntityAffinityRule.POSITIVE, vm, runningVm)))
+                .when(context).getAffinityGroups();
+        doReturn(Collections.singletonMap(runningVm.getId(), runningVm)).when(context).getRunningVms();
+
+        assertThat(unit.filter(context, hosts, vm, new PerHostMessages())).containsOnly(host1);
+    }
+
+    @Test
+    public void testNegativeAffinity() {
+        doReturn(Collections.singletonList(createGroup(EntityAffinityRule.NEGATIVE, vm, runningVm)))
+                .when(context).getAffinityGroups();
+        doReturn(Collections.singletonMap(runningVm.getId(), runningVm)).when(context).getRunningVms();
+
+        assertThat(unit.filter(context, hosts, vm, new PerHostMessages())).containsOnly(host2);
+    }
+
+    @Test
+    public void testGroupOfOtherVms() {
+        VM otherVm = new VM();
+        otherVm.setId(Guid.newGuid());
+        doReturn(Collections.singletonList(createGroup(EntityAffinityRule.POSITIVE, otherVm, runningVm)))
+                .when(context).getAffinityGroups();
+
+        assertThat(unit.filter(context, hosts, vm, new PerHostMessages())).containsOnly(host1, host2);
+    }
+
+    private AffinityGroup createGroup(EntityAffinityRule rule, VM... vms) {
+        AffinityGroup group = new AffinityGroup();
+        group.setVmAffinityRule(rule);
+        group.setVmEnforcing(true);
+        group.setVmIds(Arrays.stream(vms).map(VM::getId).collect(Collectors.toList()));
+        return group;
+    }
+}
@@ -0,0 +1,205 @@
+package org.ovirt.engine.core.bll.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.calls;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import javax.transaction.TransactionManager;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.ovirt.engine.core.common.businessentities.AsyncTask;
+import org.ovirt.engine.core.common.businessentities.CommandEntity;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.CommandStatus;
+import org.ovirt.engine.core.compat.DateTime;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.AsyncTaskDao;
+import org.ovirt.engine.core.dao.CommandEntityDao;
+import org.ovirt.engine.core.di.InjectorRule;
+import org.ovirt.engine.core.utils.MockConfigRule;
+import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CommandsCacheImplTest {
+
+    private static final int STATUS_WRITE_DELAY = 500;
+
+    @Rule
+    public MockConfigRule mcr = new MockConfigRule();
+
+    @ClassRule
+    public static InjectorRule injectorRule = new InjectorRule();
+
+    @Mock
+    private CommandEntityDao commandEntityDao;
+
+    @Mock
+    private AsyncTaskDao asyncTaskDao;
+
+    @Mock
+    private SchedulerUtilQuartzImpl schedulerUtil;
+
+    @InjectMocks
+    private CommandsCacheImpl commandsCache;
+
+    private CommandEntity command;
+
+    @Before
+    public void setUp() {
+        injectorRule.bind(TransactionManager.class, mock(TransactionManager.class));
+        mcr.mockConfigValue(ConfigValues.CommandStatusWriteDelayInMillis, STATUS_WRITE_DELAY);
+        commandsCache.init();
+
+        command = createCommand(new Date());
+        commandsCache.put(command);
+    }
+
+    private static CommandEntity createCommand(Date createdAt) {
+        CommandEntity cmdEntity = new CommandEntity();
+        cmdEntity.setId(Guid.newGuid());
+        cmdEntity.setCommandStatus(CommandStatus.ACTIVE);
+        cmdEntity.setCreatedAt(createdAt);
+        return cmdEntity;
+    }
+
+    @Test
+    public void sameStatusWritesAreCoalesced() {
+        commandsCache.updateCommandStatus(command.getId(), CommandStatus.SUCCEEDED);
+        commandsCache.updateCommandStatus(command.getId(), CommandStatus.SUCCEEDED);
+        commandsCache.updateCommandStatus(command.getId(), CommandStatus.SUCCEEDED);
+        verify(commandEntityDao, times(2)).saveOrUpdate(command);
+
+        commandsCache.flushPendingStatusWrites();
+        commandsCache.flushPendingStatusWrites();
+
+        verify(commandEntityDao, times(3)).saveOrUpdate(command);
+        assertEquals(CommandStatus.SUCCEEDED, commandsCache.get(command.getId()).getCommandStatus());
+    }
+
+    @Test
+    public void statusChangesAreWrittenImmediately() {
+        commandsCache.updateCommandStatus(command.getId(), CommandStatus.SUCCEEDED);
+        verify(commandEntityDao, times(2)).saveOrUpdate(command);
+
+        commandsCache.updateCommandStatus(command.getId(), CommandStatus.FAILED);
+        verify(commandEntityDao, times(3)).saveOrUpdate(command);
+
+        commandsCache.updateCommandStatus(command.getId(), CommandStatus.EXECUTION_FAILED);
+        verify(commandEntityDao, times(4)).saveOrUpdate(command);
+
+        commandsCache.updateCommandStatus(command.getId(), CommandStatus.ACTIVE);
+        verify(commandEntityDao, times(5)).saveOrUpdate(command);
+    }
+
+    @Test
+    public void pendingStatusIsWrittenBeforeTheFlags() {
+        commandsCache.updateCommandStatus(command.getId(), CommandStatus.ACTIVE);
+        commandsCache.updateCommandExecuted(command.getId());
+        commandsCache.updateCommandStatus(command.getId(), CommandStatus.SUCCEEDED);
+        commandsCache.updateCommandStatus(command.getId(), CommandStatus.SUCCEEDED);
+        commandsCache.updateCallbackNotified(command.getId());
+
+        InOrder inOrder = inOrder(commandEntityDao);
+        inOrder.verify(commandEntityDao, calls(2)).saveOrUpdate(command);
+        inOrder.verify(commandEntityDao).updateExecuted(command.getId());
+        inOrder.verify(commandEntityDao, calls(2)).saveOrUpdate(command);
+        inOrder.verify(commandEntityDao).updateNotified(command.getId());
+
+        commandsCache.flushPendingStatusWrites();
+
+        verify(commandEntityDao, times(4)).saveOrUpdate(command);
+    }
+
+    @Test
+    public void childStatusChangesAreWrittenBeforeReadingTheChildren() {
+        CommandEntity child = createCommand(new Date());
+        child.setParentCommandId(command.getId());
+        child.setCommandStatus(CommandStatus.SUCCEEDED);
+        CommandEntity otherCommand = createCommand(new Date());
+        otherCommand.setCommandStatus(CommandStatus.SUCCEEDED);
+        commandsCache.put(child);
+        commandsCache.put(otherCommand);
+        commandsCache.updateCommandStatus(child.getId(), CommandStatus.SUCCEEDED);
+        commandsCache.updateCommandStatus(otherCommand.getId(), CommandStatus.SUCCEEDED);
+
+        commandsCache.getChildCmdsByParentCmdId(command.getId());
+
+        verify(commandEntityDao, times(2)).saveOrUpdate(child);
+        verify(commandEntityDao).saveOrUpdate(otherCommand);
+        verify(commandEntityDao).getCmdEntitiesByParentCmdId(command.getId());
+    }
+
+    @Test
+    public void endingStatusIsWrittenImmediately() {
+        commandsCache.updateCommandStatus(command.getId(), CommandStatus.ENDED_SUCCESSFULLY);
+        commandsCache.updateCommandStatus(command.getId(), CommandStatus.ENDED_SUCCESSFULLY);
+        verify(commandEntityDao, times(2)).saveOrUpdate(command);
+        commandsCache.updateCommandStatus(command.getId(), CommandStatus.ENDED_WITH_FAILURE);
+        verify(commandEntityDao, times(3)).saveOrUpdate(command);
+
+        commandsCache.flushPendingStatusWrites();
+
+        verify(commandEntityDao, times(3)).saveOrUpdate(command);
+    }
+
+    @Test
+    public void statusChangesAreWrittenImmediatelyWithoutDelay() {
+        mcr.mockConfigValue(ConfigValues.CommandStatusWriteDelayInMillis, 0);
+        commandsCache.init();
+        commandsCache.updateCommandStatus(command.getId(), CommandStatus.ACTIVE);
+
+        verify(commandEntityDao, times(2)).saveOrUpdate(command);
+    }
+
+    @Test
+    public void removedCommandIsNotWritten() {
+        commandsCache.updateCommandStatus(command.getId(), CommandStatus.ACTIVE);
+        commandsCache.remove(command.getId());
+
+        commandsCache.flushPendingStatusWrites();
+
+        verify(commandEntityDao).saveOrUpdate(command);
+        verify(commandEntityDao).remove(command.getId());
+    }
+
+    @Test
+    public void oldCommandsAreEvictedWithoutReload() {
+        Date cutoff = command.getCreatedAt();
+        CommandEntity oldCommand = createCommand(new Date(cutoff.getTime() - 1000));
+        CommandEntity oldCommandWithTasks = createCommand(new Date(cutoff.getTime() - 1000));
+        commandsCache.put(oldCommand);
+        commandsCache.put(oldCommandWithTasks);
+        when(commandEntityDao.getAll()).thenReturn(Collections.emptyList());
+        AsyncTask task = new AsyncTask();
+        task.setCommandId(oldCommandWithTasks.getId());
+        when(asyncTaskDao.getAll()).thenReturn(Arrays.asList(task));
+        commandsCache.keySet();
+
+        DateTime cutoffTime = new DateTime(cutoff);
+        commandsCache.removeAllCommandsBeforeDate(cutoffTime);
+
+        assertNull(commandsCache.get(oldCommand.getId()));
+        assertNotNull(commandsCache.get(oldCommandWithTasks.getId()));
+        assertNotNull(commandsCache.get(command.getId()));
+        verify(commandEntityDao).removeAllBeforeDate(cutoffTime);
+        verify(commandEntityDao).getAll();
+    }
+}
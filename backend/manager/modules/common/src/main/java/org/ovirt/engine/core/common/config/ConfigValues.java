@@ -413,6 +413,30 @@ public enum ConfigValues {
     @DefaultValueAttribute("1")
     VdsLoadBalancingIntervalInMinutes,
 
+    /**
+     * Largest number of migrations the load balancer plans and starts for a cluster in one pass. With the default of
+     * 1 a single VM is migrated per cluster and pass.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("1")
+    VdsLoadBalancingMaxMigrationsPerCluster,
+
+    /**
+     * Largest number of migrations planned by the load balancer in one pass that a host takes part in, as their source
+     * or destination.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("2")
+    VdsLoadBalancingMaxMigrationsPerHost,
+
+    /**
+     * Number of threads the load balancer plans the migrations of the clusters with. With the default of 1 the
+     * clusters are balanced one after the other.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("1")
+    VdsLoadBalancingThreads,
+
     //AffinityRulesEnforcementManager
     @TypeConverterAttribute(Integer.class)
     @DefaultValueAttribute("1")
@@ -1489,6 +1513,44 @@ public enum ConfigValues {
     @DefaultValueAttribute("false")
     ExternalSchedulerEnabled,
 
+    /**
+     * Time in milliseconds a call to the external scheduler may take. A late call is abandoned and the scheduler goes
+     * on without the external units.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("10000")
+    ExternalSchedulerDeadline,
+
+    /**
+     * Percentage of the recent calls of a kind to the external scheduler that must fail or miss the deadline for the
+     * calls of that kind to be skipped.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("50")
+    ExternalSchedulerCircuitBreakerErrorPercentage,
+
+    /**
+     * Time in milliseconds the calls of a kind to the external scheduler are skipped once too many of them failed,
+     * before a call is tried again.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("30000")
+    ExternalSchedulerCircuitBreakerSleepWindow,
+
+    /**
+     * Number of threads calling the external scheduler.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("10")
+    ExternalSchedulerThreads,
+
+    /**
+     * Number of calls to the external scheduler waiting for a free thread, beyond which the calls are skipped.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("100")
+    ExternalSchedulerQueueSize,
+
     @TypeConverterAttribute(Integer.class)
     @DefaultValueAttribute("1000")
     MaxSchedulerWeight,
@@ -1529,6 +1591,29 @@ public enum ConfigValues {
     @DefaultValueAttribute("10")
     SchedulerOverBookingThreshold,
 
+    /**
+     * Whether the filters and weights of the scheduler are evaluated concurrently. The weights run at the same time,
+     * and the hosts of the units that evaluate each host on its own are split between several threads.
+     */
+    @TypeConverterAttribute(Boolean.class)
+    @DefaultValueAttribute("false")
+    SchedulerParallelEvaluation,
+
+    /**
+     * Number of threads evaluating the filters and weights of the scheduler, when SchedulerParallelEvaluation is
+     * enabled.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("4")
+    SchedulerParallelEvaluationThreads,
+
+    /**
+     * Least number of hosts evaluated by a single thread, when SchedulerParallelEvaluation is enabled.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("100")
+    SchedulerParallelEvaluationMinHosts,
+
     @TypeConverterAttribute(Boolean.class)
     @DefaultValueAttribute("true")
     GlusterSupportArbiterVolume,
@@ -2023,5 +2108,109 @@ public enum ConfigValues {
     @DefaultValueAttribute("false")
     LegacyGraphicsDisplay,
 
+    /**
+     * Whether host monitoring may skip re-reading the host from the database when no other engine component changed
+     * it since the last read.
+     */
+    @TypeConverterAttribute(Boolean.class)
+    @DefaultValueAttribute("true")
+    VdsStateCacheEnabled,
+
+    /**
+     * Maximum time in seconds host monitoring may rely on the cached host state before re-reading it from the
+     * database.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("60")
+    VdsStateCacheMaxAge,
+
+    /**
+     * Maximum number of threads analyzing the VMs reported by the hosts, 1 to analyze the VMs of each host serially.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("4")
+    VmsMonitoringAnalysisParallelism,
+
+    /**
+     * Number of VMs analyzed by a single thread. The VMs of hosts which report more VMs are analyzed in parallel.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("25")
+    VmsMonitoringAnalysisShardSize,
+
+    /**
+     * Time in milliseconds VM status events of a host are collected before the VMs they report are monitored
+     * together, 0 to monitor the VMs of each event as soon as it arrives.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("100")
+    VmStatusEventCoalescingWindowInMillis,
+
+    /**
+     * Maximum number of VM status events of a host which are collected before the VMs they report are monitored.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("32")
+    VmStatusEventMaxBatchSize,
+
+    /**
+     * Number of threads running the in-memory jobs of the timing wheel scheduler, such as the monitoring of the hosts
+     * and of the storage pools.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("50")
+    TimingWheelThreadPoolSize,
+
+    /**
+     * Whether audit log events are written to the database in batches by a background thread rather than by the
+     * thread which logs them.
+     */
+    @TypeConverterAttribute(Boolean.class)
+    @DefaultValueAttribute("false")
+    AuditLogAsyncWriteEnabled,
+
+    /**
+     * Maximum number of audit log events waiting to be written to the database.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("10000")
+    AuditLogAsyncQueueSize,
+
+    /**
+     * Maximum number of audit log events written to the database in a single batch.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("500")
+    AuditLogAsyncBatchSize,
+
+    /**
+     * Maximum time an audit log event waits for a batch to fill before it's written to the database.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("1000")
+    AuditLogAsyncFlushIntervalInMillis,
+
+    /**
+     * Time a thread logging an event waits for room in a full queue before it saves the event itself.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("100")
+    AuditLogAsyncEnqueueTimeoutInMillis,
+
+    /**
+     * Time for which status changes of executing commands are coalesced before they are written to the database,
+     * 0 writes them immediately.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("500")
+    CommandStatusWriteDelayInMillis,
+
+    /**
+     * Maximum number of compiled searches kept in memory, the least recently used ones are dropped first.
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("1000")
+    SearchQueryCacheSize,
+
     Invalid
 }
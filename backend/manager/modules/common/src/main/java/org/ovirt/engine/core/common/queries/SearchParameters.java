@@ -12,6 +12,7 @@ public class SearchParameters extends VdcQueryParametersBase implements Serializ
     private SearchType _searchType;
     private int _maxCount;
     private long searchFrom;
+    private String searchAfter;
     private boolean caseSensitive;
 
     public SearchParameters() {
@@ -53,6 +54,18 @@ public class SearchParameters extends VdcQueryParametersBase implements Serializ
         return searchFrom;
     }
 
+    /**
+     * Sets the id of the last entity of the previous page, so the search continues right after it in the default
+     * order of the searched entities instead of skipping the preceding pages.
+     */
+    public void setSearchAfter(String value) {
+        searchAfter = value;
+    }
+
+    public String getSearchAfter() {
+        return searchAfter;
+    }
+
     public boolean getCaseSensitive() {
         return caseSensitive;
     }
@@ -68,6 +81,7 @@ public class SearchParameters extends VdcQueryParametersBase implements Serializ
                 .append("searchPattern", getSearchPattern())
                 .append("caseSensitive", getCaseSensitive())
                 .append("from", getSearchFrom())
+                .append("after", getSearchAfter())
                 .append("max", getMaxCount());
     }
 }
@@ -445,6 +445,7 @@ public enum VdcQueryType implements Serializable {
     GetGraphicsDevices(VdcQueryAuthType.User),
     GetNextRunGraphicsDevices(VdcQueryAuthType.User),
     GetGraphicsDevicesMultiple(VdcQueryAuthType.User),
+    GetVmDevicesMultiple(VdcQueryAuthType.User),
 
     GetVmHostDevices,
 
@@ -3,9 +3,12 @@ package org.ovirt.engine.core.compat.backendcompat;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,6 +18,8 @@ public class TypeCompat {
 
     private static final String CLASS = "class";
     private static final Logger log = LoggerFactory.getLogger(TypeCompat.class);
+    private static final ConcurrentMap<Class<?>, Map<String, PropertyDescriptor>> lowerCasePropertyDescriptors =
+            new ConcurrentHashMap<>();
 
     public static List<PropertyInfo> getProperties(Class<?> type) {
         List<PropertyInfo> returnValue = new ArrayList<>();
@@ -39,33 +44,39 @@ public class TypeCompat {
      * @param values - a map which will contains all values of properties
      */
     public static void getPropertyValues(Object obj, Set<String> properties, Map<String, String> values) {
-        try {
-            PropertyDescriptor[] pds = Introspector.getBeanInfo(obj.getClass()).getPropertyDescriptors();
-            int hitCount = 0;
-            for (PropertyDescriptor pd : pds) {
-                String propertyName = pd.getName().toLowerCase();
-                if (properties.contains(propertyName)) {
-                    Object value = null;
-                    hitCount++;
-                    if(!values.containsKey(propertyName))  {
-                        try {
-                            value = pd.getReadMethod().invoke(obj);
-                            String stringValue = value != null ? value.toString() : null;
-                            values.put(propertyName, stringValue);
-                        } catch (Exception e) {
-                            log.warn("Unable to get value of property: '{}' for class {}: {}",
-                                    pd.getDisplayName(), obj.getClass().getName(), e.getMessage());
-                            log.debug("Exception", e);
-                        }
-                    }
-                    if (hitCount == properties.size()) {
-                        break;
-                    }
+        Map<String, PropertyDescriptor> pds = getLowerCasePropertyDescriptors(obj.getClass());
+        for (String propertyName : properties) {
+            PropertyDescriptor pd = pds.get(propertyName);
+            if (pd != null && !values.containsKey(propertyName)) {
+                try {
+                    Object value = pd.getReadMethod().invoke(obj);
+                    String stringValue = value != null ? value.toString() : null;
+                    values.put(propertyName, stringValue);
+                } catch (Exception e) {
+                    log.warn("Unable to get value of property: '{}' for class {}: {}",
+                            pd.getDisplayName(), obj.getClass().getName(), e.getMessage());
+                    log.debug("Exception", e);
                 }
             }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
         }
     }
 
+    /**
+     * @return the property descriptors of the given type by their lower-cased name. When several properties have the
+     *         same lower-cased name, the first one in the order returned by the introspector is taken.
+     */
+    private static Map<String, PropertyDescriptor> getLowerCasePropertyDescriptors(Class<?> type) {
+        return lowerCasePropertyDescriptors.computeIfAbsent(type, t -> {
+            try {
+                Map<String, PropertyDescriptor> result = new HashMap<>();
+                for (PropertyDescriptor pd : Introspector.getBeanInfo(t).getPropertyDescriptors()) {
+                    result.putIfAbsent(pd.getName().toLowerCase(), pd);
+                }
+                return result;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
 }
@@ -1,5 +1,7 @@
 package org.ovirt.engine.core.dal.dbbroker;
 
+import java.util.Collection;
+
 import javax.sql.DataSource;
 
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -23,14 +25,19 @@ public interface DbEngineDialect {
     public JdbcTemplate createJdbcTemplate(DataSource dataSource);
 
     /**
-     * Create the object used for performing function calls for querying data and returning a result/list of results.
-     * This object can't be used safely to execute other commands, since it doesn't necessarily support features
-     * such as out parameters. However, it must be used in order to query the DB correctly using a function call.
+     * Create a compiled query function call, which can be executed concurrently with different row mappers. This
+     * object can't be used to execute other commands, since it doesn't support features such as out parameters.
+     * However, it must be used in order to query the DB correctly using a function call.
      *
      * @param jdbcTemplate The JDBC template is needed for actually performing the calls.
-     * @return A {@link SimpleJdbcCallOperations} instance that can be used to call a query function in the DB.
+     * @param procedureName The name of the query function.
+     * @param parameterNames The names of the parameters passed to the function, which are needed in order to compile
+     *            its metadata.
+     * @return A {@link PrecompiledQuery} instance that can be used to call the query function in the DB.
      */
-    public SimpleJdbcCallOperations createJdbcCallForQuery(JdbcTemplate jdbcTemplate);
+    public PrecompiledQuery createPrecompiledQuery(JdbcTemplate jdbcTemplate,
+            String procedureName,
+            Collection<String> parameterNames);
 
     /**
      * Gets the engine prefix to be used for sp parameters.
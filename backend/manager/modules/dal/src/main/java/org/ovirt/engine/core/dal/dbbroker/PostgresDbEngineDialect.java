@@ -1,7 +1,9 @@
 package org.ovirt.engine.core.dal.dbbroker;
 
 import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -14,9 +16,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SqlParameter;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
-import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
 import org.springframework.jdbc.core.simple.SimpleJdbcCall;
-import org.springframework.jdbc.core.simple.SimpleJdbcCallOperations;
 
 /**
  *
@@ -78,19 +78,16 @@ public class PostgresDbEngineDialect implements DbEngineDialect {
      * instead of the usual stored procedure call: {call function()}<br>
      * It is so because the values returned are treated by PostgreSQL as a table.<br>
      * <br>
-     * The {@link SimpleJdbcCall} can't handle this, so we need a few hacks to make it work.
+     * The {@link SimpleJdbcCall} can't handle this, so it's only used to compile the function metadata and the query
+     * is executed through {@link #executeQuery(SqlParameterSource, RowMapper)}, which gets the row mapper on each
+     * execution rather than keeping it in the call, so the compiled call can be executed concurrently.
      */
-    private static class PostgresSimpleJdbcCall extends SimpleJdbcCall {
+    private static class PostgresSimpleJdbcCall extends SimpleJdbcCall implements PrecompiledQuery {
 
         /**
-         * This is the key to put in the returned map, emulating the way the {@link SimpleJdbcCallOperations} works.
+         * The query used for calling the function, generated once the call is compiled.
          */
-        private String returnedMapKey;
-
-        /**
-         * Row mapper is used to map the Result Set to POJOs.
-         */
-        private RowMapper rowMapper;
+        private String sql;
 
         public PostgresSimpleJdbcCall(JdbcTemplate jdbcTemplate) {
             super(jdbcTemplate);
@@ -106,59 +103,30 @@ public class PostgresDbEngineDialect implements DbEngineDialect {
             super.compileInternal();
         }
 
-        @SuppressWarnings({ "unchecked", "rawtypes" })
         @Override
-        protected Map<String, Object> doExecute(SqlParameterSource parameterSource) {
-            // Have only the declared parameters participate in the function metadata extraction, otherwise the
-            // CallMetaDataContext thinks that the returned column names are parameters.
-            getInParameterNames().addAll(
-                    SqlParameterSourceUtils.extractCaseInsensitiveParameterNames(parameterSource).keySet());
-            checkCompiled();
-            Map params = matchInParameterValuesWithCallParameters(parameterSource);
-            return executeCallInternal(params);
+        protected void onCompileInternal() {
+            sql = generateSql();
         }
 
-        @SuppressWarnings({ "rawtypes", "unchecked" })
         @Override
-        protected Map<String, Object> doExecute(Map<String, ?> args) {
-            // Have only the declared parameters participate in the function metadata extraction, otherwise the
-            // CallMetaDataContext thinks that the returned column names are parameters.
-            getInParameterNames().addAll(args.keySet());
+        public <T> List<T> executeQuery(SqlParameterSource parameterSource, RowMapper<T> mapper) {
             checkCompiled();
-            Map params = matchInParameterValuesWithCallParameters(args);
-            return executeCallInternal(params);
+            Map<String, Object> params = matchInParameterValuesWithCallParameters(parameterSource);
+            return getJdbcTemplate().query(sql, ps -> setParameters(ps, params), mapper);
         }
 
         /**
-         * Save the row mapper and parameter name locally to use later in the execution.
-         */
-        @SuppressWarnings("rawtypes")
-        @Override
-        public SimpleJdbcCall returningResultSet(String parameterName, RowMapper rowMapper) {
-            this.returnedMapKey = parameterName;
-            this.rowMapper = rowMapper;
-            return this;
-        }
-
-        /**
-         * Execute the call using a query instead of a procedure call.<br>
-         * <br>
-         * The way to execute correctly is to use a {@link  org.springframework.jdbc.core.PreparedStatementSetter} which
+         * The way to execute correctly is to use a {@link org.springframework.jdbc.core.PreparedStatementSetter} which
          * will set the parameters correctly, since using a PreparedStatementCreator doesn't seem to work well. The
-         * setter simply sets the parameter using the correct {@link Types} constant indicating the actual call type.
+         * setter simply sets the parameter using the correct {@link java.sql.Types} constant indicating the actual call
+         * type.
          */
-        private Map<String, Object> executeCallInternal(final Map<String, Object> params) {
-            Map<String, Object> result = new HashMap<>(1);
-            result.put(returnedMapKey, getJdbcTemplate().query(
-                    generateSql(),
-                    ps -> {
-                        List<SqlParameter> callParameters = getCallParameters();
-                        for (int i = 0; i < callParameters.size(); i++) {
-                            SqlParameter parameter = callParameters.get(i);
-                            ps.setObject(i + 1, params.get(parameter.getName()), parameter.getSqlType());
-                        }
-                    }, rowMapper));
-            return result;
+        private void setParameters(PreparedStatement ps, Map<String, Object> params) throws SQLException {
+            List<SqlParameter> callParameters = getCallParameters();
+            for (int i = 0; i < callParameters.size(); i++) {
+                SqlParameter parameter = callParameters.get(i);
+                ps.setObject(i + 1, params.get(parameter.getName()), parameter.getSqlType());
+            }
         }
 
         /**
@@ -177,8 +145,14 @@ public class PostgresDbEngineDialect implements DbEngineDialect {
     }
 
     @Override
-    public SimpleJdbcCallOperations createJdbcCallForQuery(JdbcTemplate jdbcTemplate) {
-        return new PostgresSimpleJdbcCall(jdbcTemplate);
+    public PrecompiledQuery createPrecompiledQuery(JdbcTemplate jdbcTemplate,
+            String procedureName,
+            Collection<String> parameterNames) {
+        PostgresSimpleJdbcCall call = new PostgresSimpleJdbcCall(jdbcTemplate);
+        call.withProcedureName(procedureName);
+        call.getInParameterNames().addAll(parameterNames);
+        call.compile();
+        return call;
     }
 
     @Override
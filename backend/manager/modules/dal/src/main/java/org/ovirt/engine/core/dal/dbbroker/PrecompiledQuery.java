@@ -0,0 +1,15 @@
+package org.ovirt.engine.core.dal.dbbroker;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+/**
+ * A call of a stored procedure which returns rows. Its parameters metadata and SQL are resolved once, when it's
+ * created, so it can be executed concurrently, each execution with its own row mapper.
+ */
+public interface PrecompiledQuery {
+
+    <T> List<T> executeQuery(SqlParameterSource parameterSource, RowMapper<T> mapper);
+}
@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.dal.dbbroker;
 
+import java.lang.management.ManagementFactory;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -8,9 +9,15 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -21,13 +28,18 @@ import org.springframework.jdbc.core.simple.SimpleJdbcCall;
 @Singleton
 public class SimpleJdbcCallsHandler {
 
-    private static final String RETURN_VALUE_PARAMETER = "RETURN_VALUE";
+    private static final Logger log = LoggerFactory.getLogger(SimpleJdbcCallsHandler.class);
 
     private final ConcurrentMap<String, SimpleJdbcCall> callsMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, PrecompiledQuery> queriesMap = new ConcurrentHashMap<>();
+    private final StoredProcedureStatistics statistics = new StoredProcedureStatistics();
 
     private final DbEngineDialect dialect;
     private final JdbcTemplate jdbcTemplate;
 
+    private ObjectName objectName;
+    private MBeanServer platformMBeanServer;
+
     @Inject
     public SimpleJdbcCallsHandler(
             DbEngineDialect dialect,
@@ -39,6 +51,29 @@ public class SimpleJdbcCallsHandler {
         this.jdbcTemplate = jdbcTemplate;
     }
 
+    @PostConstruct
+    private void registerInJMX() {
+        try {
+            objectName = new ObjectName("StoredProcedures:type=" + StoredProcedureStatistics.class.getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(statistics, objectName);
+        } catch (Exception e) {
+            log.warn("Failed to register the stored procedure statistics in JMX: {}", e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    @PreDestroy
+    private void unregisterFromJMX() {
+        try {
+            if (platformMBeanServer != null) {
+                platformMBeanServer.unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            log.debug("Failed to unregister the stored procedure statistics from JMX: {}", e.getMessage());
+        }
+    }
+
     private interface CallCreator {
         SimpleJdbcCall createCall();
     }
@@ -55,7 +90,12 @@ public class SimpleJdbcCallsHandler {
             final List<MapSqlParameterSource> executions)
             throws DataAccessException {
 
-        jdbcTemplate.execute(new BatchProcedureExecutionConnectionCallback(this, procName, executions));
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.execute(new BatchProcedureExecutionConnectionCallback(this, procName, executions));
+        } finally {
+            statistics.record(procName, System.nanoTime() - start);
+        }
     }
 
     /**
@@ -98,27 +138,16 @@ public class SimpleJdbcCallsHandler {
         return results.isEmpty() ? null : results.get(0);
     }
 
-    @SuppressWarnings("unchecked")
     public <T> List<T> executeReadList(final String procedureName,
             final RowMapper<T> mapper,
             final MapSqlParameterSource parameterSource) {
-        Map<String, Object> resultsMap = executeImpl(procedureName, parameterSource, createCallForRead(procedureName, mapper, parameterSource), mapper);
-        return (List<T>) resultsMap.get(RETURN_VALUE_PARAMETER);
-    }
-
-    private CallCreator createCallForRead(final String procedureName,
-            final RowMapper<?> mapper,
-            final MapSqlParameterSource parameterSource) {
-        return () -> {
-            SimpleJdbcCall call =
-                    (SimpleJdbcCall) dialect.createJdbcCallForQuery(jdbcTemplate).withProcedureName(procedureName);
-            call.returningResultSet(RETURN_VALUE_PARAMETER, mapper);
-            // Pass mapper information (only parameter names) in order to supply all the needed
-            // metadata information for compilation.
-            call.getInParameterNames().addAll(
-                    SqlParameterSourceUtils.extractCaseInsensitiveParameterNames(parameterSource).keySet());
-            return call;
-        };
+        PrecompiledQuery query = getQuery(procedureName, parameterSource);
+        long start = System.nanoTime();
+        try {
+            return query.executeQuery(parameterSource, mapper);
+        } finally {
+            statistics.record(procedureName, System.nanoTime() - start);
+        }
     }
 
     CallCreator createCallForModification(final String procedureName) {
@@ -126,13 +155,14 @@ public class SimpleJdbcCallsHandler {
     }
 
     private Map<String, Object> executeImpl(String procedureName,
-                                                MapSqlParameterSource paramsSource, CallCreator callCreatorr) {
-        return executeImpl(procedureName, paramsSource, callCreatorr, null);
-    }
-    private <T> Map<String, Object> executeImpl(String procedureName,
-            MapSqlParameterSource paramsSource, CallCreator callCreator, RowMapper<T> mapper) {
-        SimpleJdbcCall call = getCall(procedureName, callCreator, mapper);
-        return call.execute(paramsSource);
+            MapSqlParameterSource paramsSource, CallCreator callCreator) {
+        SimpleJdbcCall call = getCall(procedureName, callCreator);
+        long start = System.nanoTime();
+        try {
+            return call.execute(paramsSource);
+        } finally {
+            statistics.record(procedureName, System.nanoTime() - start);
+        }
     }
 
     /**
@@ -147,21 +177,47 @@ public class SimpleJdbcCallsHandler {
      * @return simple JDBC call object
      */
     protected SimpleJdbcCall getCall(String procedureName, CallCreator callCreator) {
-        return getCall(procedureName, callCreator, null);
-    }
-
-    protected <T> SimpleJdbcCall getCall(String procedureName, CallCreator callCreator, RowMapper<T> mapper) {
         SimpleJdbcCall call = callsMap.get(procedureName);
         if (call == null) {
             call = callCreator.createCall();
             call.compile();
-            callsMap.putIfAbsent(procedureName, call);
-        } else if (mapper != null) {
-            call.returningResultSet(RETURN_VALUE_PARAMETER, mapper);
+            SimpleJdbcCall existingCall = callsMap.putIfAbsent(procedureName, call);
+            if (existingCall != null) {
+                call = existingCall;
+            }
         }
         return call;
     }
 
+    /**
+     * Gets the compiled query of the given procedure, compiling it on its first usage. As with
+     * {@link #getCall(String, CallCreator)}, a few redundant compilations may occur on concurrent first usages. Once
+     * compiled, the query is shared by all the readers of the procedure, each of them passing its own row mapper.
+     *
+     * @param procedureName
+     *            stored procedure name
+     * @param parameterSource
+     *            parameters of the first call, which supply the parameter names needed for the compilation
+     * @return compiled query
+     */
+    private PrecompiledQuery getQuery(String procedureName, MapSqlParameterSource parameterSource) {
+        PrecompiledQuery query = queriesMap.get(procedureName);
+        if (query == null) {
+            query = dialect.createPrecompiledQuery(jdbcTemplate,
+                    procedureName,
+                    SqlParameterSourceUtils.extractCaseInsensitiveParameterNames(parameterSource).keySet());
+            PrecompiledQuery existingQuery = queriesMap.putIfAbsent(procedureName, query);
+            if (existingQuery != null) {
+                query = existingQuery;
+            }
+        }
+        return query;
+    }
+
+    public StoredProcedureStatistics getStatistics() {
+        return statistics;
+    }
+
     public DbEngineDialect getDialect() {
         return dialect;
     }
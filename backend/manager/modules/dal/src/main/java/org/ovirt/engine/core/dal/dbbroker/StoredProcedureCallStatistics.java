@@ -0,0 +1,53 @@
+package org.ovirt.engine.core.dal.dbbroker;
+
+/**
+ * Snapshot of the calls of a single stored procedure
+ */
+public class StoredProcedureCallStatistics {
+
+    private final String procedureName;
+    private final long count;
+    private final long totalTimeMicros;
+    private final long maxTimeMicros;
+    private final long[] latencyHistogram;
+
+    public StoredProcedureCallStatistics(String procedureName,
+            long count,
+            long totalTimeMicros,
+            long maxTimeMicros,
+            long[] latencyHistogram) {
+        this.procedureName = procedureName;
+        this.count = count;
+        this.totalTimeMicros = totalTimeMicros;
+        this.maxTimeMicros = maxTimeMicros;
+        this.latencyHistogram = latencyHistogram;
+    }
+
+    public String getProcedureName() {
+        return procedureName;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalTimeMicros() {
+        return totalTimeMicros;
+    }
+
+    public long getAverageTimeMicros() {
+        return count == 0 ? 0 : totalTimeMicros / count;
+    }
+
+    public long getMaxTimeMicros() {
+        return maxTimeMicros;
+    }
+
+    /**
+     * @return number of calls per latency bucket, as defined by
+     *         {@link StoredProcedureStatisticsMXBean#getLatencyBucketsMillis()}
+     */
+    public long[] getLatencyHistogram() {
+        return latencyHistogram;
+    }
+}
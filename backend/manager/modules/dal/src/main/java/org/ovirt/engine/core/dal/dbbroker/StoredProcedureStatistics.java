@@ -0,0 +1,87 @@
+package org.ovirt.engine.core.dal.dbbroker;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the calls of each stored procedure and keeps a histogram of their latencies.
+ */
+public class StoredProcedureStatistics implements StoredProcedureStatisticsMXBean {
+
+    private static final long[] LATENCY_BUCKETS_MILLIS = { 1, 5, 10, 50, 100, 500, 1000 };
+    private static final long[] LATENCY_BUCKETS_NANOS =
+            Arrays.stream(LATENCY_BUCKETS_MILLIS).map(TimeUnit.MILLISECONDS::toNanos).toArray();
+
+    private final ConcurrentMap<String, Procedure> procedures = new ConcurrentHashMap<>();
+
+    public void record(String procedureName, long nanos) {
+        procedures.computeIfAbsent(procedureName, name -> new Procedure()).add(nanos);
+    }
+
+    @Override
+    public List<StoredProcedureCallStatistics> getProcedures() {
+        return procedures.entrySet()
+                .stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparingLong(StoredProcedureCallStatistics::getTotalTimeMicros).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public StoredProcedureCallStatistics getProcedure(String procedureName) {
+        Procedure procedure = procedures.get(procedureName);
+        return procedure == null ? null : procedure.snapshot(procedureName);
+    }
+
+    @Override
+    public long[] getLatencyBucketsMillis() {
+        return LATENCY_BUCKETS_MILLIS.clone();
+    }
+
+    @Override
+    public void reset() {
+        procedures.clear();
+    }
+
+    private static class Procedure {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder[] histogram = new LongAdder[LATENCY_BUCKETS_NANOS.length + 1];
+
+        Procedure() {
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            histogram[bucketOf(nanos)].increment();
+        }
+
+        private static int bucketOf(long nanos) {
+            int bucket = 0;
+            while (bucket < LATENCY_BUCKETS_NANOS.length && nanos >= LATENCY_BUCKETS_NANOS[bucket]) {
+                bucket++;
+            }
+            return bucket;
+        }
+
+        StoredProcedureCallStatistics snapshot(String procedureName) {
+            return new StoredProcedureCallStatistics(procedureName,
+                    count.sum(),
+                    TimeUnit.NANOSECONDS.toMicros(totalNanos.sum()),
+                    TimeUnit.NANOSECONDS.toMicros(maxNanos.get()),
+                    Arrays.stream(histogram).mapToLong(LongAdder::sum).toArray());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.ovirt.engine.core.dal.dbbroker;
+
+import java.util.List;
+
+/**
+ * JMX view of the {@link StoredProcedureStatistics}
+ */
+public interface StoredProcedureStatisticsMXBean {
+
+    /**
+     * @return statistics of all the stored procedures called since the engine started or since the last reset, the
+     *         ones which took most of the time first
+     */
+    List<StoredProcedureCallStatistics> getProcedures();
+
+    /**
+     * @return upper bounds, in milliseconds, of the buckets of the latency histograms of the procedures. The last
+     *         bucket, which has no upper bound, is not included.
+     */
+    long[] getLatencyBucketsMillis();
+
+    void reset();
+}
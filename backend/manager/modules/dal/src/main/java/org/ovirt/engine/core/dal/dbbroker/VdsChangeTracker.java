@@ -0,0 +1,112 @@
+package org.ovirt.engine.core.dal.dbbroker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.Transaction;
+
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a change-version counter per host which is incremented whenever a row which is part of the host view is
+ * written through the DAOs: vds_static, vds_dynamic and vds_statistics, and the tables the view joins, the SPM id map,
+ * the fence agents and the gluster server. The interfaces of the host are tracked as well, since they are kept with the
+ * in-memory host.
+ *
+ * Writes which affect the view of all the hosts (e.g. cluster or storage pool updates) increment a global counter.
+ * The version of a host is the sum of both counters, so it changes whenever either of them changes.
+ *
+ * A write made in a transaction increments the counters again when the transaction completes, so a copy read before
+ * the write was committed is known to be stale.
+ *
+ * The tracker does not hold any host data, it only allows in-memory copies of a host to find out cheaply whether
+ * they may be stale. Writes made by the owner of such a copy, which already reflects them, can be excluded by running
+ * them through {@link #runUntracked(Guid, Runnable)}.
+ */
+@Named
+@Singleton
+public class VdsChangeTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(VdsChangeTracker.class);
+
+    private final Map<Guid, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final ThreadLocal<Guid> untrackedVdsId = new ThreadLocal<>();
+
+    /**
+     * Notifies that a row of the given host was modified.
+     */
+    public void markChanged(Guid vdsId) {
+        if (vdsId != null && !vdsId.equals(untrackedVdsId.get())) {
+            Runnable increment = () -> versions.computeIfAbsent(vdsId, id -> new AtomicLong()).incrementAndGet();
+            increment.run();
+            runOnCompletion(increment);
+        }
+    }
+
+    /**
+     * Notifies that data which is part of the view of all the hosts was modified.
+     */
+    public void markAllChanged() {
+        globalVersion.incrementAndGet();
+        runOnCompletion(globalVersion::incrementAndGet);
+    }
+
+    /**
+     * @return the current change-version of the given host
+     */
+    public long getVersion(Guid vdsId) {
+        AtomicLong version = versions.get(vdsId);
+        return globalVersion.get() + (version == null ? 0 : version.get());
+    }
+
+    /**
+     * Runs the given write of a host without changing its version.
+     */
+    public void runUntracked(Guid vdsId, Runnable write) {
+        Guid previous = untrackedVdsId.get();
+        untrackedVdsId.set(vdsId);
+        try {
+            write.run();
+        } finally {
+            untrackedVdsId.set(previous);
+        }
+    }
+
+    private static void runOnCompletion(Runnable increment) {
+        Transaction transaction = currentTransaction();
+        try {
+            if (transaction != null && transaction.getStatus() == Status.STATUS_ACTIVE) {
+                transaction.registerSynchronization(new Synchronization() {
+                    @Override
+                    public void beforeCompletion() {
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        increment.run();
+                    }
+                });
+            }
+        } catch (Exception e) {
+            log.debug("Failed to track the completion of a host change: {}", e.getMessage());
+        }
+    }
+
+    private static Transaction currentTransaction() {
+        try {
+            return TransactionSupport.current();
+        } catch (RuntimeException e) {
+            // No transaction manager, outside of the container the writes are committed on their own
+            return null;
+        }
+    }
+}
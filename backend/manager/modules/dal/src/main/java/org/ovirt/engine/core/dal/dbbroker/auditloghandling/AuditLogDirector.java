@@ -1,17 +1,15 @@
 package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
 
 import java.text.MessageFormat;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.Objects;
 import java.util.ResourceBundle;
-import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+import javax.enterprise.inject.spi.CDI;
+import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.apache.commons.lang.StringUtils;
@@ -19,7 +17,6 @@ import org.ovirt.engine.core.common.AuditLogSeverity;
 import org.ovirt.engine.core.common.AuditLogType;
 import org.ovirt.engine.core.common.businessentities.AuditLog;
 import org.ovirt.engine.core.compat.Guid;
-import org.ovirt.engine.core.compat.backendcompat.TypeCompat;
 import org.ovirt.engine.core.dal.dbbroker.DbFacade;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,13 +24,19 @@ import org.slf4j.LoggerFactory;
 @Singleton
 public class AuditLogDirector {
     private static final Logger log = LoggerFactory.getLogger(AuditLogDirector.class);
-    private static final Pattern pattern = Pattern.compile("\\$\\{\\w*\\}"); // match ${<alphanumeric>...}
     private static final int USERNAME_LENGTH = 255;
     static final String UNKNOWN_VARIABLE_VALUE = "<UNKNOWN>";
     static final String UNKNOWN_REASON_VALUE = " No reason was returned for this operation failure. See logs for further details.";
     static final String REASON_TOKEN = "reason";
     static final String OPTIONAL_REASON_TOKEN = "optionalreason";
     private static final ResourceBundle resourceBundle = getResourceBundle();
+    private static final Map<AuditLogType, AuditLogMessageTemplate> messageTemplates = compileMessageTemplates();
+
+    private static volatile AuditLogWriter containerAuditLogWriter;
+    private static volatile boolean containerAuditLogWriterLookedUp;
+
+    @Inject
+    private AuditLogWriter auditLogWriter;
 
     static ResourceBundle getResourceBundle() {
         try {
@@ -47,6 +50,31 @@ public class AuditLogDirector {
         return "bundles/AuditLogMessages";
     }
 
+    /**
+     * Parses the messages of all the log types once, so the events don't have to parse them again.
+     */
+    private static Map<AuditLogType, AuditLogMessageTemplate> compileMessageTemplates() {
+        Map<AuditLogType, AuditLogMessageTemplate> templates = new EnumMap<>(AuditLogType.class);
+        for (AuditLogType logType : AuditLogType.values()) {
+            if (resourceBundle.containsKey(logType.name())) {
+                templates.put(logType, AuditLogMessageTemplate.compile(resourceBundle.getString(logType.name())));
+            }
+        }
+        return templates;
+    }
+
+    /**
+     * @return the parsed message of the given log type, or {@code null} if it's not translated
+     */
+    public static AuditLogMessageTemplate getMessageTemplate(AuditLogType logType) {
+        AuditLogMessageTemplate template = messageTemplates.get(logType);
+        if (template == null) {
+            // logs the missing translation
+            getMessageOrNull(logType);
+        }
+        return template;
+    }
+
     public static String getMessage(AuditLogType logType) {
         return StringUtils.defaultString(getMessageOrNull(logType));
     }
@@ -92,11 +120,52 @@ public class AuditLogDirector {
             setPropertiesFromAuditLogableBase(auditLogable, auditLog);
             // truncate user name
             auditLog.setUserName(StringUtils.abbreviate(auditLog.getUserName(), USERNAME_LENGTH));
-            getDbFacadeInstance().getAuditLogDao().save(auditLog);
+            write(auditLog);
             logMessage(severity, getMessageToLog(loggerString, auditLog));
         }
     }
 
+    private void write(AuditLog auditLog) {
+        AuditLogWriter writer = getAuditLogWriter();
+        if (writer == null) {
+            getDbFacadeInstance().getAuditLogDao().save(auditLog);
+        } else {
+            writer.write(auditLog);
+        }
+    }
+
+    /**
+     * @return the injected writer, or the one of the container for the directors created by {@code new}, or
+     * {@code null} when there's no container
+     */
+    private AuditLogWriter getAuditLogWriter() {
+        if (auditLogWriter == null) {
+            auditLogWriter = getContainerAuditLogWriter();
+        }
+        return auditLogWriter;
+    }
+
+    /**
+     * Looks the writer up in the container once, so the directors created by {@code new} don't look it up again, nor
+     * fail to each time when there's no container.
+     */
+    private static AuditLogWriter getContainerAuditLogWriter() {
+        if (!containerAuditLogWriterLookedUp) {
+            synchronized (AuditLogDirector.class) {
+                if (!containerAuditLogWriterLookedUp) {
+                    try {
+                        containerAuditLogWriter = CDI.current().select(AuditLogWriter.class).get();
+                    } catch (RuntimeException e) {
+                        log.debug("Audit log writer is not available, saving the events directly: {}",
+                                e.getMessage());
+                    }
+                    containerAuditLogWriterLookedUp = true;
+                }
+            }
+        }
+        return containerAuditLogWriter;
+    }
+
     private static void setPropertiesFromAuditLogableBase(AuditLogableBase auditLogable, AuditLog auditLog) {
         auditLog.setStorageDomainId(auditLogable.getStorageDomainId());
         auditLog.setStorageDomainName(auditLogable.getStorageDomainName());
@@ -165,12 +234,12 @@ public class AuditLogDirector {
                     auditLogable.getCustomData());
         }
 
-        final String messageByType = getMessageOrNull(logType);
-        if (messageByType == null) {
+        final AuditLogMessageTemplate templateByType = getMessageTemplate(logType);
+        if (templateByType == null) {
             return null;
         } else {
             // Application log message from AuditLogMessages
-            String resolvedMessage = resolveMessage(messageByType, auditLogable);
+            String resolvedMessage = templateByType.resolve(auditLogable);
             return new AuditLog(logType, severity, resolvedMessage, auditLogable.getUserId(),
                     auditLogable.getUserName(), auditLogable.getVmIdRef(), auditLogable.getVmName(),
                     auditLogable.getVdsIdRef(), auditLogable.getVdsName(), auditLogable.getVmTemplateIdRef(),
@@ -271,8 +340,7 @@ public class AuditLogDirector {
     String resolveMessage(String message, AuditLogableBase logable) {
         String returnValue = message;
         if (logable != null) {
-            Map<String, String> map = getAvailableValues(message, logable);
-            returnValue = resolveMessage(message, map);
+            returnValue = AuditLogMessageTemplate.compile(message).resolve(logable);
         }
         return returnValue;
     }
@@ -287,61 +355,6 @@ public class AuditLogDirector {
      * @return a resolved message
      */
     public String resolveMessage(String message, Map<String, String> values) {
-        Matcher matcher = pattern.matcher(message);
-
-        StringBuffer buffer = new StringBuffer();
-        String value;
-        String token;
-        while (matcher.find()) {
-            token = matcher.group();
-
-            // remove leading ${ and trailing }
-            token = token.substring(2, token.length() - 1);
-
-            // get value from value map
-            value = values.get(token.toLowerCase());
-            if (value == null || value.isEmpty()) {
-                // replace value with UNKNOWN_VARIABLE_VALUE if value not defined
-                switch(token.toLowerCase()) {
-                    case REASON_TOKEN:
-                        value = UNKNOWN_REASON_VALUE;
-                        break;
-                    case OPTIONAL_REASON_TOKEN:
-                        value = "";
-                        break;
-                    default:
-                        value = UNKNOWN_VARIABLE_VALUE;
-                }
-            }
-            matcher.appendReplacement(buffer, Matcher.quoteReplacement(value)); // put the value into message
-        }
-
-        // append the rest of the message
-        matcher.appendTail(buffer);
-        return buffer.toString();
-    }
-
-    private Set<String> resolvePlaceHolders(String message) {
-        Set<String> result = new HashSet<>();
-        Matcher matcher = pattern.matcher(message);
-
-        String token;
-        while (matcher.find()) {
-            token = matcher.group();
-
-            // remove leading ${ and trailing }
-            token = token.substring(2, token.length() - 1);
-            result.add(token.toLowerCase());
-        }
-        return result;
-    }
-
-    private Map<String, String> getAvailableValues(String message, AuditLogableBase logable) {
-        Map<String, String> returnValue = new HashMap<>(logable.getCustomValues());
-        Set<String> attributes = resolvePlaceHolders(message);
-        if (attributes != null && attributes.size() > 0) {
-            TypeCompat.getPropertyValues(logable, attributes, returnValue);
-        }
-        return returnValue;
+        return AuditLogMessageTemplate.compile(message).resolve(values);
     }
 }
@@ -0,0 +1,136 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.ovirt.engine.core.compat.backendcompat.TypeCompat;
+
+/**
+ * An audit log message parsed into its literal segments and the place holders ({@code ${<alphanumeric>...}}) between
+ * them, so it can be resolved for many events without parsing it again.
+ */
+public final class AuditLogMessageTemplate {
+
+    private static final Pattern pattern = Pattern.compile("\\$\\{\\w*\\}"); // match ${<alphanumeric>...}
+
+    /**
+     * literal segments, {@code literals[i]} precedes {@code tokens[i]} and the last one follows the last token
+     */
+    private final String[] literals;
+
+    /**
+     * lower-cased names of the place holders, in order of appearance
+     */
+    private final String[] tokens;
+
+    private final Set<String> distinctTokens;
+    private final int literalsLength;
+
+    private AuditLogMessageTemplate(String[] literals, String[] tokens) {
+        this.literals = literals;
+        this.tokens = tokens;
+        distinctTokens = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(tokens)));
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        literalsLength = length;
+    }
+
+    public static AuditLogMessageTemplate compile(String message) {
+        List<String> literals = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = pattern.matcher(message);
+        int literalStart = 0;
+        while (matcher.find()) {
+            literals.add(message.substring(literalStart, matcher.start()));
+            // remove leading ${ and trailing }
+            tokens.add(message.substring(matcher.start() + 2, matcher.end() - 1).toLowerCase());
+            literalStart = matcher.end();
+        }
+        literals.add(message.substring(literalStart));
+
+        return new AuditLogMessageTemplate(literals.toArray(new String[literals.size()]),
+                tokens.toArray(new String[tokens.size()]));
+    }
+
+    /**
+     * @return lower-cased names of the place holders referenced by the message
+     */
+    public Set<String> getTokens() {
+        return distinctTokens;
+    }
+
+    /**
+     * Resolves the message, taking the values of its place holders from the custom values of the given logable, or
+     * else from its properties. Only the place holders referenced by the message are looked up.
+     */
+    public String resolve(AuditLogableBase logable) {
+        if (tokens.length == 0) {
+            return literals[0];
+        }
+
+        Map<String, String> customValues = logable.getCustomValues();
+        Map<String, String> values = new HashMap<>();
+        Set<String> properties = null;
+        for (String token : distinctTokens) {
+            if (customValues.containsKey(token)) {
+                values.put(token, customValues.get(token));
+            } else {
+                if (properties == null) {
+                    properties = new HashSet<>();
+                }
+                properties.add(token);
+            }
+        }
+
+        if (properties != null) {
+            TypeCompat.getPropertyValues(logable, properties, values);
+        }
+        return resolve(values);
+    }
+
+    /**
+     * Resolves the message by replacing its place holders with the values from the map.
+     *
+     * @param values
+     *            a map of the lower-cased place holder to its value
+     */
+    public String resolve(Map<String, String> values) {
+        if (tokens.length == 0) {
+            return literals[0];
+        }
+
+        StringBuilder builder = new StringBuilder(literalsLength + 16 * tokens.length);
+        for (int i = 0; i < tokens.length; i++) {
+            builder.append(literals[i]).append(valueOf(tokens[i], values));
+        }
+        return builder.append(literals[tokens.length]).toString();
+    }
+
+    private static String valueOf(String token, Map<String, String> values) {
+        String value = values.get(token);
+        if (value != null && !value.isEmpty()) {
+            return value;
+        }
+
+        // replace value with UNKNOWN_VARIABLE_VALUE if value not defined
+        switch (token) {
+        case AuditLogDirector.REASON_TOKEN:
+            return AuditLogDirector.UNKNOWN_REASON_VALUE;
+        case AuditLogDirector.OPTIONAL_REASON_TOKEN:
+            return "";
+        default:
+            return AuditLogDirector.UNKNOWN_VARIABLE_VALUE;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ovirt.engine.core.common.AuditLogSeverity;
+import org.ovirt.engine.core.common.BackendService;
+import org.ovirt.engine.core.common.businessentities.AuditLog;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.dao.AuditLogDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the events logged by the {@link AuditLogDirector} to the database.
+ *
+ * By default the events are saved by the thread which logs them. When {@code AuditLogAsyncWriteEnabled} is set, they
+ * are queued instead and saved in batches by a background thread, once a batch is full or once its first event waited
+ * for {@code AuditLogAsyncFlushIntervalInMillis}. A thread logging an event into a full queue waits up to
+ * {@code AuditLogAsyncEnqueueTimeoutInMillis} for room in it, and saves the event itself if there's still none, so
+ * events are never dropped. The queued events are written synchronously on shutdown.
+ *
+ * External events and alerts are always saved by the thread which logs them: the external events are read back by
+ * the command adding them, and the alerts are removed by the {@link AlertDirector} directly from the database, so
+ * neither may be still waiting in the queue.
+ *
+ * Events saved in the background are not part of the transaction of the thread which logged them, so they are kept
+ * even if that transaction is rolled back.
+ */
+@Singleton
+public class AuditLogWriter implements BackendService, AuditLogWriterMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogWriter.class);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final AuditLogDao auditLogDao;
+    private final boolean async;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long enqueueTimeoutMillis;
+    private final BlockingQueue<AuditLog> queue;
+
+    private final LongAdder writtenEvents = new LongAdder();
+    private final LongAdder writtenBatches = new LongAdder();
+    private final LongAdder overflowEvents = new LongAdder();
+    private final LongAdder failedEvents = new LongAdder();
+
+    private volatile boolean running;
+    private volatile boolean overflowing;
+    private Thread writerThread;
+
+    private ObjectName objectName;
+    private MBeanServer platformMBeanServer;
+
+    @Inject
+    AuditLogWriter(AuditLogDao auditLogDao) {
+        this(auditLogDao,
+                Config.<Boolean> getValue(ConfigValues.AuditLogAsyncWriteEnabled),
+                Config.<Integer> getValue(ConfigValues.AuditLogAsyncQueueSize),
+                Config.<Integer> getValue(ConfigValues.AuditLogAsyncBatchSize),
+                Config.<Integer> getValue(ConfigValues.AuditLogAsyncFlushIntervalInMillis),
+                Config.<Integer> getValue(ConfigValues.AuditLogAsyncEnqueueTimeoutInMillis));
+    }
+
+    AuditLogWriter(AuditLogDao auditLogDao,
+            boolean async,
+            int queueSize,
+            int batchSize,
+            long flushIntervalMillis,
+            long enqueueTimeoutMillis) {
+        this.auditLogDao = auditLogDao;
+        this.async = async;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.enqueueTimeoutMillis = enqueueTimeoutMillis;
+        queue = async ? new ArrayBlockingQueue<>(queueSize) : null;
+    }
+
+    @PostConstruct
+    void start() {
+        if (async) {
+            running = true;
+            writerThread = new Thread(this::writeQueuedEvents, "org.ovirt.thread.audit-log-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+            log.info("Audit log events are written in batches of up to {} events", batchSize);
+        }
+        registerInJMX();
+    }
+
+    @PreDestroy
+    void stop() {
+        unregisterFromJMX();
+        if (!async) {
+            return;
+        }
+
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+            try {
+                writerThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    private void registerInJMX() {
+        try {
+            objectName = new ObjectName("AuditLogWriter:type=" + getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            log.warn("Failed to register the audit log writer in JMX: {}", e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    private void unregisterFromJMX() {
+        try {
+            if (platformMBeanServer != null) {
+                platformMBeanServer.unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            log.debug("Failed to unregister the audit log writer from JMX: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the given event to the database, or queues it to be written when the writer is asynchronous.
+     */
+    public void write(AuditLog auditLog) {
+        if (!async || mustBeSavedNow(auditLog)) {
+            save(auditLog);
+            return;
+        }
+
+        boolean queued;
+        try {
+            queued = queue.offer(auditLog, enqueueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+
+        if (queued) {
+            overflowing = false;
+        } else {
+            overflowEvents.increment();
+            // warn once per period of a full queue
+            if (!overflowing) {
+                overflowing = true;
+                log.warn("Audit log queue is full, saving events by the threads logging them until there's room in it");
+            }
+            save(auditLog);
+        }
+    }
+
+    private static boolean mustBeSavedNow(AuditLog auditLog) {
+        return auditLog.isExternal() || auditLog.getSeverity() == AuditLogSeverity.ALERT;
+    }
+
+    private void save(AuditLog auditLog) {
+        auditLogDao.save(auditLog);
+        writtenEvents.increment();
+    }
+
+    /**
+     * Writes all the queued events to the database by the calling thread.
+     */
+    void flush() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeQueuedEvents() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                if (running) {
+                    log.warn("Audit log writer was interrupted");
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits for an event, then collects more events until the batch is full or the flush interval of its first event
+     * has passed.
+     */
+    private void collectBatch(List<AuditLog> batch) throws InterruptedException {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remainingNanos = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remainingNanos <= 0) {
+                return;
+            }
+
+            AuditLog auditLog = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+            if (auditLog == null) {
+                return;
+            }
+            batch.add(auditLog);
+        }
+    }
+
+    private void writeBatch(List<AuditLog> batch) {
+        try {
+            auditLogDao.saveAllInBatch(batch);
+            writtenEvents.add(batch.size());
+            writtenBatches.increment();
+        } catch (RuntimeException e) {
+            log.error("Failed to save a batch of {} audit log events, saving them one by one: {}",
+                    batch.size(),
+                    e.getMessage());
+            log.debug("Exception", e);
+            batch.forEach(this::writeSingle);
+        }
+    }
+
+    private void writeSingle(AuditLog auditLog) {
+        try {
+            auditLogDao.save(auditLog);
+            writtenEvents.increment();
+        } catch (RuntimeException e) {
+            failedEvents.increment();
+            log.error("Failed to save audit log event '{}': {}", auditLog.getLogType(), e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    @Override
+    public boolean isAsync() {
+        return async;
+    }
+
+    @Override
+    public int getQueuedEvents() {
+        return async ? queue.size() : 0;
+    }
+
+    @Override
+    public long getWrittenEvents() {
+        return writtenEvents.sum();
+    }
+
+    @Override
+    public long getWrittenBatches() {
+        return writtenBatches.sum();
+    }
+
+    @Override
+    public long getOverflowEvents() {
+        return overflowEvents.sum();
+    }
+
+    @Override
+    public long getFailedEvents() {
+        return failedEvents.sum();
+    }
+}
@@ -0,0 +1,37 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+/**
+ * JMX view of the {@link AuditLogWriter}
+ */
+public interface AuditLogWriterMXBean {
+
+    /**
+     * @return whether the events are written to the database by a background thread
+     */
+    boolean isAsync();
+
+    /**
+     * @return number of events waiting to be written to the database
+     */
+    int getQueuedEvents();
+
+    /**
+     * @return number of events written to the database
+     */
+    long getWrittenEvents();
+
+    /**
+     * @return number of batches written to the database
+     */
+    long getWrittenBatches();
+
+    /**
+     * @return number of events saved by the threads which logged them since the queue was full
+     */
+    long getOverflowEvents();
+
+    /**
+     * @return number of events which failed to be written to the database
+     */
+    long getFailedEvents();
+}
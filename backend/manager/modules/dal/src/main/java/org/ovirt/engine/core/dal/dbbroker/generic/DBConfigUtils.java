@@ -1,41 +1,47 @@
 package org.ovirt.engine.core.dal.dbbroker.generic;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.ovirt.engine.core.common.businessentities.VdcOption;
+import org.ovirt.engine.core.common.config.ConfigCommon;
 import org.ovirt.engine.core.common.config.ConfigValues;
-import org.ovirt.engine.core.common.config.Reloadable;
+import org.ovirt.engine.core.common.config.OptionBehaviour;
 import org.ovirt.engine.core.dal.dbbroker.DbFacade;
 import org.ovirt.engine.core.dao.VdcOptionDao;
 import org.ovirt.engine.core.utils.ConfigUtilsBase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Provides the values of the configuration options stored in the database.
+ *
+ * The values are parsed when the options are loaded, and kept in an immutable snapshot indexed by the ordinal of the
+ * option, so looking up a value doesn't hash its name. {@link #refresh()} builds a complete new snapshot and replaces
+ * the current one at once, so the values are read without locks while they are reloaded.
+ */
 public class DBConfigUtils extends ConfigUtilsBase {
     private static final Logger log = LoggerFactory.getLogger(DBConfigUtils.class);
 
-    private static final Map<String, Map<String, Object>> _vdcOptionCache = new HashMap<>();
+    /**
+     * Marks the options whose value is {@code null}, so a value is found with a single lookup.
+     */
+    private static final Object NO_VALUE = new Object();
+
+    /**
+     * The values in use by this instance. Each instance has its own, so an instance created with given options doesn't
+     * change the values read through another one.
+     */
+    private volatile ConfigSnapshot snapshot;
 
     /**
      * Refreshes the VDC option cache.
      */
     public void refresh() {
-        _vdcOptionCache.clear();
-        List<VdcOption> list = getVdcOptionDao().getAll();
-        for (VdcOption option : list) {
-            try {
-                if (!_vdcOptionCache.containsKey(option.getOptionName()) ||
-                        !_vdcOptionCache.get(option.getOptionName()).containsKey(option.getVersion()) ||
-                        isReloadable(option.getOptionName())) {
-                    updateOption(option);
-                }
-            } catch (NoSuchFieldException e) {
-                log.error("Not refreshing field '{}': does not exist in class {}.", option.getOptionName(),
-                        ConfigValues.class.getSimpleName());
-            }
-        }
+        refresh(getVdcOptionDao().getAll());
     }
 
     /**
@@ -45,51 +51,128 @@ public class DBConfigUtils extends ConfigUtilsBase {
         refresh();
     }
 
+    /**
+     * Initializes a new instance of the DBConfigUtils class with the given options instead of the ones stored in the
+     * database.
+     */
+    public DBConfigUtils(List<VdcOption> options) {
+        refresh(options);
+    }
+
+    private void refresh(List<VdcOption> options) {
+        // The options whose values depend on other options are parsed last, so the values they depend on are
+        // already in the new snapshot
+        OptionValues values = new OptionValues();
+        List<VdcOption> dependentOptions = new ArrayList<>();
+        for (VdcOption option : options) {
+            ConfigValues name = getConfigValue(option.getOptionName());
+            if (name == null) {
+                log.error("Not refreshing field '{}': does not exist in class {}.", option.getOptionName(),
+                        ConfigValues.class.getSimpleName());
+            } else if (isValueDependent(option.getOptionName())) {
+                dependentOptions.add(option);
+            } else {
+                values.add(name, option);
+            }
+        }
+        for (VdcOption option : dependentOptions) {
+            values.add(ConfigValues.valueOf(option.getOptionName()), option);
+        }
+        snapshot = new ConfigSnapshot(values.values);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <T> T getValue(ConfigValues name, String version) {
-        T returnValue;
-        Map<String, Object> values = _vdcOptionCache.get(name.toString());
-        if (values != null && values.containsKey(version)) {
-            returnValue = (T) values.get(version);
-        } else {
-            VdcOption option = new VdcOption();
-            option.setOptionName(name.toString());
-            option.setOptionValue(null);
+        ConfigSnapshot current = snapshot;
+        Map<String, Object> values = current.values[name.ordinal()];
+        Object returnValue = values != null ? values.get(version) : null;
+        if (returnValue == null) {
             // returns default value - version independent
-            returnValue = (T) getValue(option);
-
-            // If just requested version is missing, add the default value with the requested version.
-            if (values != null) {
-                values.put(version, returnValue);
-            } else {
-                // Couldn't find this value at all, adding to cache.
-                Map<String, Object> defaultValues = new HashMap<>();
-                defaultValues.put(version, returnValue);
-                _vdcOptionCache.put(option.getOptionName(), defaultValues);
-                log.debug("Adding new value to configuration cache.");
+            returnValue = current.defaultValues.get(name.ordinal());
+            if (returnValue == null) {
+                returnValue = getValue(createDefaultOption(name));
+                log.debug("Didn't find the value of '{}' in DB for version '{}' - using default: '{}'",
+                        name, version, returnValue);
+                if (returnValue == null) {
+                    returnValue = NO_VALUE;
+                }
+                current.defaultValues.compareAndSet(name.ordinal(), null, returnValue);
             }
-            log.debug("Didn't find the value of '{}' in DB for version '{}' - using default: '{}'",
-                    name, version, returnValue);
         }
+        return returnValue != NO_VALUE ? (T) returnValue : null;
+    }
 
-        return returnValue;
+    private static VdcOption createDefaultOption(ConfigValues name) {
+        VdcOption option = new VdcOption();
+        option.setOptionName(name.toString());
+        option.setOptionValue(null);
+        return option;
     }
 
     private static VdcOptionDao getVdcOptionDao() {
         return DbFacade.getInstance().getVdcOptionDao();
     }
 
-    private void updateOption(VdcOption option) {
-        Map<String, Object> values = _vdcOptionCache.get(option.getOptionName());
-        if (values == null) {
-            values = new HashMap<>();
-            _vdcOptionCache.put(option.getOptionName(), values);
+    private static ConfigValues getConfigValue(String optionName) {
+        try {
+            return ConfigValues.valueOf(optionName);
+        } catch (IllegalArgumentException e) {
+            return null;
         }
-        values.put(option.getVersion(), getValue(option));
     }
 
-    private static boolean isReloadable(String optionName) throws NoSuchFieldException {
-        return ConfigValues.class.getField(optionName).isAnnotationPresent(Reloadable.class);
+    private static boolean isValueDependent(String optionName) {
+        EnumValue enumValue = parseEnumValue(optionName);
+        return enumValue != null
+                && enumValue.getOptionBehaviour() != null
+                && enumValue.getOptionBehaviour().behaviour() == OptionBehaviour.ValueDependent;
+    }
+
+    /**
+     * The parsed values of the options, by the ordinal of the option and then by version. It's never modified once
+     * it's published.
+     */
+    private static class ConfigSnapshot {
+        private final Map<String, Object>[] values;
+
+        /**
+         * The default values of the options, parsed the first time an option is requested for a version that isn't
+         * in the database.
+         */
+        private final AtomicReferenceArray<Object> defaultValues;
+
+        private ConfigSnapshot(Map<String, Object>[] values) {
+            this.values = values;
+            this.defaultValues = new AtomicReferenceArray<>(values.length);
+        }
+    }
+
+    /**
+     * Collects the values of a new snapshot. The options that depend on other options are resolved against the values
+     * collected so far, rather than against the snapshot in use.
+     */
+    private static class OptionValues {
+        @SuppressWarnings("unchecked")
+        private final Map<String, Object>[] values = new Map[ConfigValues.values().length];
+
+        private void add(ConfigValues name, VdcOption option) {
+            Map<String, Object> versions = values[name.ordinal()];
+            if (versions == null) {
+                versions = new HashMap<>();
+                values[name.ordinal()] = versions;
+            }
+            Object value = parseOption(option, this::getValue);
+            versions.put(option.getVersion(), value != null ? value : NO_VALUE);
+        }
+
+        private Object getValue(ConfigValues name) {
+            Map<String, Object> versions = values[name.ordinal()];
+            Object value = versions != null ? versions.get(ConfigCommon.defaultConfigurationVersion) : null;
+            if (value == null) {
+                value = parseOption(createDefaultOption(name), this::getValue);
+            }
+            return value != NO_VALUE ? value : null;
+        }
     }
 }
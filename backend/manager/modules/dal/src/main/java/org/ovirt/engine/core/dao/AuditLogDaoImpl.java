@@ -1,9 +1,11 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -170,6 +172,20 @@ public class AuditLogDaoImpl extends BaseDao implements AuditLogDao {
         }
     }
 
+    @Override
+    public void saveAllInBatch(Collection<AuditLog> events) {
+        Map<Boolean, List<AuditLog>> eventsByExternal =
+                events.stream().collect(Collectors.partitioningBy(AuditLog::isExternal));
+        if (!eventsByExternal.get(false).isEmpty()) {
+            getCallsHandler().executeStoredProcAsBatch("InsertAuditLog", eventsByExternal.get(false), this::getSqlMapper);
+        }
+        if (!eventsByExternal.get(true).isEmpty()) {
+            getCallsHandler().executeStoredProcAsBatch("InsertExternalAuditLog",
+                    eventsByExternal.get(true),
+                    this::getExternalEventSqlMapper);
+        }
+    }
+
     @Override
     public void update(AuditLog event) {
         throw new UnsupportedOperationException();
@@ -2,12 +2,14 @@ package org.ovirt.engine.core.dao;
 
 import java.util.List;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.ovirt.engine.core.common.businessentities.pm.FenceAgent;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.DbFacadeUtils;
+import org.ovirt.engine.core.dal.dbbroker.VdsChangeTracker;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
@@ -15,6 +17,9 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 @Singleton
 public class FenceAgentDaoImpl extends BaseDao implements FenceAgentDao {
 
+    @Inject
+    private VdsChangeTracker vdsChangeTracker;
+
     @Override
     public List<FenceAgent> getFenceAgentsForHost(Guid hostId) {
         return getCallsHandler().executeReadList("getFenceAgentsByVdsId",
@@ -43,6 +48,7 @@ public class FenceAgentDaoImpl extends BaseDao implements FenceAgentDao {
         params.addValue("id", id); // create random ID for the new agent.
         agent.setId(id);
         getCallsHandler().executeModification("InsertFenceAgent", params);
+        vdsChangeTracker.markChanged(agent.getHostId());
     }
 
     @Override
@@ -50,18 +56,22 @@ public class FenceAgentDaoImpl extends BaseDao implements FenceAgentDao {
         MapSqlParameterSource params = getInsertOrUpdateParams(agent);
         params.addValue("guid", agent.getId());
         getCallsHandler().executeModification("UpdateFenceAgent", params);
+        vdsChangeTracker.markChanged(agent.getHostId());
     }
 
     @Override
     public void remove(Guid id) {
         getCallsHandler().executeModification("DeleteFenceAgent",
                 getCustomMapSqlParameterSource().addValue("guid", id));
+        // The host of the agent isn't known
+        vdsChangeTracker.markAllChanged();
     }
 
     @Override
     public void removeByVdsId(Guid vdsId) {
         getCallsHandler().executeModification("DeleteFenceAgentsByVdsId",
                 getCustomMapSqlParameterSource().addValue("vds_guid", vdsId));
+        vdsChangeTracker.markChanged(vdsId);
     }
 
     private MapSqlParameterSource getInsertOrUpdateParams(FenceAgent agent) {
@@ -2,6 +2,7 @@ package org.ovirt.engine.core.dao;
 
 import java.util.List;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
@@ -11,6 +12,7 @@ import org.ovirt.engine.core.common.businessentities.StorageFormatType;
 import org.ovirt.engine.core.common.businessentities.StoragePool;
 import org.ovirt.engine.core.common.businessentities.StoragePoolStatus;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.dbbroker.VdsChangeTracker;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
@@ -21,6 +23,9 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 @Singleton
 @SuppressWarnings("synthetic-access")
 public class StoragePoolDaoImpl extends BaseDao implements StoragePoolDao {
+
+    @Inject
+    private VdsChangeTracker vdsChangeTracker;
     private static final RowMapper<StoragePool> mapper = (rs, rowNum) -> {
         StoragePool entity = new StoragePool();
         entity.setdescription(rs.getString("description"));
@@ -131,6 +136,7 @@ public class StoragePoolDaoImpl extends BaseDao implements StoragePoolDao {
 
         getCallsHandler().executeModification("Insertstorage_pool",
                 parameterSource);
+        vdsChangeTracker.markAllChanged();
     }
 
     @Override
@@ -152,6 +158,7 @@ public class StoragePoolDaoImpl extends BaseDao implements StoragePoolDao {
                         pool.getQuotaEnforcementType().getValue());
 
         getCallsHandler().executeModification("Updatestorage_pool", parameterSource);
+        vdsChangeTracker.markAllChanged();
     }
 
     @Override
@@ -169,6 +176,7 @@ public class StoragePoolDaoImpl extends BaseDao implements StoragePoolDao {
                         pool.getQuotaEnforcementType().getValue());
 
         getCallsHandler().executeModification("Updatestorage_pool_partial", parameterSource);
+        vdsChangeTracker.markAllChanged();
     }
 
     @Override
@@ -177,7 +185,7 @@ public class StoragePoolDaoImpl extends BaseDao implements StoragePoolDao {
                 .addValue("id", id)
                 .addValue("status", status);
         getCallsHandler().executeModification("Updatestorage_pool_status", parameterSource);
-
+        vdsChangeTracker.markAllChanged();
     }
 
     @Override
@@ -186,6 +194,7 @@ public class StoragePoolDaoImpl extends BaseDao implements StoragePoolDao {
                 .addValue("id", id);
 
         getCallsHandler().executeModification("Deletestorage_pool", parameterSource);
+        vdsChangeTracker.markAllChanged();
     }
 
     @Override
@@ -1,7 +1,6 @@
 package org.ovirt.engine.core.dao;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 
 import javax.inject.Inject;
@@ -14,6 +13,7 @@ import org.ovirt.engine.core.dal.dbbroker.DbFacadeUtils;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
 
 @Named
 @Singleton
@@ -45,13 +45,13 @@ public class SystemStatisticsDaoImpl implements SystemStatisticsDao {
 
         RowMapper<Integer> mapper = (rs, rowNum) -> rs.getInt("val");
 
-        Map<String, Object> dbResults =
+        List<Integer> dbResults =
                 dbEngineDialect
-                        .createJdbcCallForQuery(jdbcTemplate)
-                        .withProcedureName("Getsystem_statistics")
-                        .returningResultSet("RETURN_VALUE", mapper)
-                        .execute(parameterSource);
+                        .createPrecompiledQuery(jdbcTemplate,
+                                "Getsystem_statistics",
+                                SqlParameterSourceUtils.extractCaseInsensitiveParameterNames(parameterSource).keySet())
+                        .executeQuery(parameterSource, mapper);
 
-        return (Integer) DbFacadeUtils.asSingleResult((List<?>) dbResults.get("RETURN_VALUE"));
+        return (Integer) DbFacadeUtils.asSingleResult(dbResults);
     }
 }
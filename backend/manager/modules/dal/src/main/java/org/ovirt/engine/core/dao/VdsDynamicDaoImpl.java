@@ -3,6 +3,7 @@ package org.ovirt.engine.core.dao;
 import java.util.HashMap;
 import java.util.List;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
@@ -16,6 +17,7 @@ import org.ovirt.engine.core.common.businessentities.VdsTransparentHugePagesStat
 import org.ovirt.engine.core.common.businessentities.VmRngDevice;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.compat.RpmVersion;
+import org.ovirt.engine.core.dal.dbbroker.VdsChangeTracker;
 import org.ovirt.engine.core.utils.serialization.json.JsonObjectDeserializer;
 import org.ovirt.engine.core.utils.serialization.json.JsonObjectSerializer;
 import org.slf4j.Logger;
@@ -33,6 +35,9 @@ public class VdsDynamicDaoImpl extends MassOperationsGenericDao<VdsDynamic, Guid
 
     private static final Logger log = LoggerFactory.getLogger(VdsDynamicDaoImpl.class);
 
+    @Inject
+    private VdsChangeTracker vdsChangeTracker;
+
     public VdsDynamicDaoImpl() {
         super("VdsDynamic");
     }
@@ -118,11 +123,13 @@ public class VdsDynamicDaoImpl extends MassOperationsGenericDao<VdsDynamic, Guid
     @Override
     public void save(VdsDynamic vds) {
         getCallsHandler().executeModification("InsertVdsDynamic", createFullParametersMapperForSave(vds));
+        vdsChangeTracker.markChanged(vds.getId());
     }
 
     @Override
     public void update(VdsDynamic vds) {
         getCallsHandler().executeModification("UpdateVdsDynamic", createFullParametersMapper(vds));
+        vdsChangeTracker.markChanged(vds.getId());
     }
 
     @Override
@@ -131,6 +138,7 @@ public class VdsDynamicDaoImpl extends MassOperationsGenericDao<VdsDynamic, Guid
                 .addValue("vds_id", id);
 
         getCallsHandler().executeModification("DeleteVdsDynamic", parameterSource);
+        vdsChangeTracker.markChanged(id);
     }
 
     @Override
@@ -143,6 +151,7 @@ public class VdsDynamicDaoImpl extends MassOperationsGenericDao<VdsDynamic, Guid
         MapSqlParameterSource parameterSource = getStatusSqlParameterSource(id, status);
 
         getCallsHandler().executeModification("UpdateVdsDynamicStatus", parameterSource);
+        vdsChangeTracker.markChanged(id);
     }
 
     @Override
@@ -152,6 +161,7 @@ public class VdsDynamicDaoImpl extends MassOperationsGenericDao<VdsDynamic, Guid
                 .addValue("maintenance_reason", host.getMaintenanceReason());
 
         getCallsHandler().executeModification("UpdateVdsDynamicStatusAndReasons", parameterSource);
+        vdsChangeTracker.markChanged(host.getId());
     }
 
     @Override
@@ -177,6 +187,7 @@ public class VdsDynamicDaoImpl extends MassOperationsGenericDao<VdsDynamic, Guid
                 .addValue("external_status", status);
 
         getCallsHandler().executeModification("UpdateHostExternalStatus", parameterSource);
+        vdsChangeTracker.markChanged(id);
     }
 
     @Override
@@ -186,6 +197,7 @@ public class VdsDynamicDaoImpl extends MassOperationsGenericDao<VdsDynamic, Guid
                 .addValue("net_config_dirty", netConfigDirty);
 
         getCallsHandler().executeModification("UpdateVdsDynamicNetConfigDirty", parameterSource);
+        vdsChangeTracker.markChanged(id);
     }
 
     @Override
@@ -196,7 +208,7 @@ public class VdsDynamicDaoImpl extends MassOperationsGenericDao<VdsDynamic, Guid
                 .addValue("controlled_by_pm_policy", controlledByPmPolicy);
 
         getCallsHandler().executeModification("UpdateVdsDynamicPowerManagementPolicyFlag", parameterSource);
-
+        vdsChangeTracker.markChanged(id);
     }
 
     private MapSqlParameterSource createFullParametersMapperForSave(VdsDynamic vds) {
@@ -278,6 +290,12 @@ public class VdsDynamicDaoImpl extends MassOperationsGenericDao<VdsDynamic, Guid
                 .addValue("hosted_engine_configured", vds.isHostedEngineConfigured());
     }
 
+    @Override
+    protected void update(VdsDynamic vds, String procedureName) {
+        super.update(vds, procedureName);
+        vdsChangeTracker.markChanged(vds.getId());
+    }
+
     @Override
     protected MapSqlParameterSource createIdParameterMapper(Guid id) {
         return getCustomMapSqlParameterSource().addValue("vds_id", id);
@@ -305,6 +323,7 @@ public class VdsDynamicDaoImpl extends MassOperationsGenericDao<VdsDynamic, Guid
                 getCustomMapSqlParameterSource()
                         .addValue("vds_id", id)
                         .addValue("cpu_flags", cpuFlags));
+        vdsChangeTracker.markChanged(id);
     }
 
     @Override
@@ -322,5 +341,6 @@ public class VdsDynamicDaoImpl extends MassOperationsGenericDao<VdsDynamic, Guid
                 .addValue("is_update_available", updateAvailable);
 
         getCallsHandler().executeModification("UpdateVdsDynamicIsUpdateAvailable", parameterSource);
+        vdsChangeTracker.markChanged(id);
     }
 }
@@ -1,6 +1,7 @@
 package org.ovirt.engine.core.dao;
 
 import java.util.List;
+import java.util.Map;
 
 import org.ovirt.engine.core.common.businessentities.VdsNumaNode;
 import org.ovirt.engine.core.compat.Guid;
@@ -15,6 +16,14 @@ public interface VdsNumaNodeDao extends Dao {
      */
     List<VdsNumaNode> getAllVdsNumaNodeByVdsId(Guid vdsId);
 
+    /**
+     * Get all numa nodes of the hosts in a cluster, grouped by host id
+     * @param clusterId
+     *            the id of the cluster
+     * @return the map of the host ids to their numa nodes, hosts without numa nodes aren't included
+     */
+    Map<Guid, List<VdsNumaNode>> getAllVdsNumaNodeByClusterId(Guid clusterId);
+
     /**
      * Save the given list of numa nodes using a more efficient method to save all of them at
      * once, rather than each at a time.
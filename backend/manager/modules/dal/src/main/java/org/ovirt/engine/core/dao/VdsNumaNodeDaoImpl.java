@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -12,6 +13,7 @@ import javax.inject.Singleton;
 import org.apache.commons.lang.StringUtils;
 import org.ovirt.engine.core.common.businessentities.NumaNodeStatistics;
 import org.ovirt.engine.core.common.businessentities.VdsNumaNode;
+import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -29,6 +31,22 @@ public class VdsNumaNodeDaoImpl extends NumaNodeDaoBase<VdsNumaNode> implements
                 vdsNumaNodeRowMapper, parameterSource);
     }
 
+    @Override
+    public Map<Guid, List<VdsNumaNode>> getAllVdsNumaNodeByClusterId(Guid clusterId) {
+        MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
+                .addValue("cluster_id", clusterId);
+
+        List<Pair<Guid, VdsNumaNode>> numaNodes = getCallsHandler().executeReadList("GetNumaNodeByClusterId",
+                vdsNumaNodeWithHostRowMapper, parameterSource);
+
+        Map<Guid, List<VdsNumaNode>> numaNodesByHost = new HashMap<>();
+        for (Pair<Guid, VdsNumaNode> pair : numaNodes) {
+            numaNodesByHost.computeIfAbsent(pair.getFirst(), k -> new ArrayList<>()).add(pair.getSecond());
+        }
+
+        return numaNodesByHost;
+    }
+
     @Override
     public void massSaveNumaNode(List<VdsNumaNode> numaNodes, Guid vdsId) {
         insertNodes(numaNodes, node -> createNumaNodeParametersMapper(node).addValue("vds_id", vdsId));
@@ -70,6 +88,9 @@ public class VdsNumaNodeDaoImpl extends NumaNodeDaoBase<VdsNumaNode> implements
         return entity;
     };
 
+    private static final RowMapper<Pair<Guid, VdsNumaNode>> vdsNumaNodeWithHostRowMapper = (rs, rowNum) ->
+            new Pair<>(getGuid(rs, "vds_id"), vdsNumaNodeRowMapper.mapRow(rs, rowNum));
+
     // format: (<index_id>, <distance>);*, for example: "0, 10; 2, 16"
     private static Map<Integer, Integer> getDistanceMap(String distance) {
         if (StringUtils.isBlank(distance)) {
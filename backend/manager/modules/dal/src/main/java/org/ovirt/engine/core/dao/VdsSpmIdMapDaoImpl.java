@@ -2,11 +2,13 @@ package org.ovirt.engine.core.dao;
 
 import java.util.List;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.ovirt.engine.core.common.businessentities.VdsSpmIdMap;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.dbbroker.VdsChangeTracker;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
@@ -17,6 +19,8 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 @Singleton
 public class VdsSpmIdMapDaoImpl extends BaseDao implements VdsSpmIdMapDao{
 
+    @Inject
+    private VdsChangeTracker vdsChangeTracker;
 
     @Override
     public VdsSpmIdMap get(Guid vdsId) {
@@ -33,6 +37,7 @@ public class VdsSpmIdMapDaoImpl extends BaseDao implements VdsSpmIdMapDao{
                 "vds_spm_id", vdsSpmIdMap.getVdsSpmId());
 
         getCallsHandler().executeModification("Insertvds_spm_id_map", parameterSource);
+        vdsChangeTracker.markChanged(vdsSpmIdMap.getId());
     }
 
     @Override
@@ -40,6 +45,7 @@ public class VdsSpmIdMapDaoImpl extends BaseDao implements VdsSpmIdMapDao{
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource().addValue("vds_id", vdsId);
 
         getCallsHandler().executeModification("Deletevds_spm_id_map", parameterSource);
+        vdsChangeTracker.markChanged(vdsId);
     }
 
     @Override
@@ -57,6 +63,7 @@ public class VdsSpmIdMapDaoImpl extends BaseDao implements VdsSpmIdMapDao{
                 storagePoolId);
 
         getCallsHandler().executeModification("DeleteByPoolvds_spm_id_map", parameterSource);
+        vdsChangeTracker.markChanged(vdsId);
     }
 
     @Override
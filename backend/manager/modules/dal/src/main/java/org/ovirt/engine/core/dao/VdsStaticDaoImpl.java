@@ -3,6 +3,7 @@ package org.ovirt.engine.core.dao;
 import java.io.IOException;
 import java.util.List;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
@@ -14,6 +15,7 @@ import org.ovirt.engine.core.common.businessentities.VDSType;
 import org.ovirt.engine.core.common.businessentities.VdsStatic;
 import org.ovirt.engine.core.common.utils.pm.FenceProxySourceTypeHelper;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.dbbroker.VdsChangeTracker;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SingleColumnRowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -26,6 +28,9 @@ import org.springframework.jdbc.core.simple.SimpleJdbcCall;
 @Singleton
 public class VdsStaticDaoImpl extends BaseDao implements VdsStaticDao {
 
+    @Inject
+    private VdsChangeTracker vdsChangeTracker;
+
     @Override
     public VdsStatic get(Guid id) {
         return getCallsHandler().executeRead("GetVdsStaticByVdsId",
@@ -67,6 +72,7 @@ public class VdsStaticDaoImpl extends BaseDao implements VdsStaticDao {
         }
         new SimpleJdbcCall(getJdbcTemplate()).withProcedureName("InsertVdsStatic")
                 .execute(getInsertOrUpdateParams(vds));
+        vdsChangeTracker.markChanged(id);
     }
 
     /**
@@ -76,6 +82,7 @@ public class VdsStaticDaoImpl extends BaseDao implements VdsStaticDao {
     @Override
     public void update(VdsStatic vds) {
         getCallsHandler().executeModification("UpdateVdsStatic", getInsertOrUpdateParams(vds));
+        vdsChangeTracker.markChanged(vds.getId());
     }
 
     private MapSqlParameterSource getInsertOrUpdateParams(final VdsStatic vds) {
@@ -112,6 +119,7 @@ public class VdsStaticDaoImpl extends BaseDao implements VdsStaticDao {
                 .addValue("vds_id", id);
 
         getCallsHandler().executeModification("DeleteVdsStatic", parameterSource);
+        vdsChangeTracker.markChanged(id);
     }
 
     @Override
@@ -171,6 +179,7 @@ public class VdsStaticDaoImpl extends BaseDao implements VdsStaticDao {
                 getCustomMapSqlParameterSource()
                         .addValue("vds_id", vdsStaticId)
                         .addValue("last_stored_kernel_cmdline", lastStoredKernelCmdline));
+        vdsChangeTracker.markChanged(vdsStaticId);
     }
 
     @Override
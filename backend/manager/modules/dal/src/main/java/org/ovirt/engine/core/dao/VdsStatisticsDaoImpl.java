@@ -2,12 +2,14 @@ package org.ovirt.engine.core.dao;
 
 import java.util.List;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.ovirt.engine.core.common.businessentities.VdsStatistics;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.DbFacadeUtils;
+import org.ovirt.engine.core.dal.dbbroker.VdsChangeTracker;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
@@ -19,6 +21,9 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 @Singleton
 public class VdsStatisticsDaoImpl extends BaseDao implements VdsStatisticsDao {
 
+    @Inject
+    private VdsChangeTracker vdsChangeTracker;
+
     private static final RowMapper<VdsStatistics> vdsStatisticsRowMapper = (rs, rowNum) -> {
         VdsStatistics entity = new VdsStatistics();
         entity.setCpuIdle(rs.getDouble("cpu_idle"));
@@ -88,6 +93,7 @@ public class VdsStatisticsDaoImpl extends BaseDao implements VdsStatisticsDao {
                 .addValue("cpu_over_commit_time_stamp", stats.getCpuOverCommitTimeStamp());
 
         getCallsHandler().executeModification("InsertVdsStatistics", parameterSource);
+        vdsChangeTracker.markChanged(stats.getId());
     }
 
     @Override
@@ -120,6 +126,7 @@ public class VdsStatisticsDaoImpl extends BaseDao implements VdsStatisticsDao {
                 .addValue("cpu_over_commit_time_stamp", stats.getCpuOverCommitTimeStamp());
 
         getCallsHandler().executeModification("UpdateVdsStatistics", parameterSource);
+        vdsChangeTracker.markChanged(stats.getId());
     }
 
     @Override
@@ -128,6 +135,7 @@ public class VdsStatisticsDaoImpl extends BaseDao implements VdsStatisticsDao {
                 .addValue("vds_id", id);
 
         getCallsHandler().executeModification("DeleteVdsStatistics", parameterSource);
+        vdsChangeTracker.markChanged(id);
     }
 
     @Override
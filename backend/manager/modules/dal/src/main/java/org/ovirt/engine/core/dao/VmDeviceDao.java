@@ -42,6 +42,14 @@ public interface VmDeviceDao extends GenericDao<VmDevice, VmDeviceId>, MassOpera
             Guid userID,
             boolean isFiltered);
 
+    /**
+     * Returns all the devices of the given VMs and templates.
+     *
+     * @param vmBaseIds
+     *            ids of the VMs and templates
+     */
+    List<VmDevice> getVmDevicesByVmIds(List<Guid> vmBaseIds, Guid userID, boolean isFiltered);
+
     List<VmDevice> getVmDeviceByType(VmDeviceGeneralType type);
 
     List<VmDevice> getUnmanagedDevicesByVmId(Guid vmId);
@@ -132,6 +132,18 @@ public class VmDeviceDaoImpl extends
         return getCallsHandler().executeReadList("GetVmDeviceByTypeAndDevice",
                 createEntityRowMapper(), parameterSource);
     }
+
+    @Override
+    public List<VmDevice> getVmDevicesByVmIds(List<Guid> vmBaseIds, Guid userID, boolean isFiltered) {
+        MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
+                .addValue("vm_ids", createArrayOfUUIDs(vmBaseIds))
+                .addValue("user_id", userID)
+                .addValue("is_filtered", isFiltered);
+
+        return getCallsHandler().executeReadList("GetVmDevicesByVmIds",
+                createEntityRowMapper(), parameterSource);
+    }
+
     @Override
     public List<VmDevice> getVmDeviceByType(VmDeviceGeneralType type) {
         return getCallsHandler().executeReadList("GetVmDeviceByType",
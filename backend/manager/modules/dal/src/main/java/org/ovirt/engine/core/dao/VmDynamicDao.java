@@ -38,6 +38,15 @@ public interface VmDynamicDao extends GenericDao<VmDynamic, Guid>, StatusAwareDa
     @Override
     VmDynamic get(Guid id);
 
+    /**
+     * Returns the dynamic VMs with the specified ids.
+     *
+     * @param ids
+     *            the ids
+     * @return the dynamic vms which exist, in no particular order
+     */
+    List<VmDynamic> getByIds(List<Guid> ids);
+
     /**
      * Updates the specified dynamic vm.
      *
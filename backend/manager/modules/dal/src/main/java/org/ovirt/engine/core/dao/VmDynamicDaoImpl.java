@@ -49,6 +49,13 @@ public class VmDynamicDaoImpl extends MassOperationsGenericDao<VmDynamic, Guid>
         return getCallsHandler().executeReadList("GetVmsDynamicRunningOnVds", mapper, parameterSource);
     }
 
+    @Override
+    public List<VmDynamic> getByIds(List<Guid> ids) {
+        return getCallsHandler().executeReadList("GetVmDynamicByIds",
+                createEntityRowMapper(),
+                getCustomMapSqlParameterSource().addValue("vm_ids", createArrayOfUUIDs(ids)));
+    }
+
     @Override
     public boolean isAnyVmRunOnVds(Guid vdsId) {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
@@ -12,6 +13,7 @@ import org.ovirt.engine.core.common.businessentities.gluster.GlusterServer;
 import org.ovirt.engine.core.common.businessentities.gluster.PeerStatus;
 import org.ovirt.engine.core.common.utils.EnumUtils;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.dbbroker.VdsChangeTracker;
 import org.ovirt.engine.core.dao.DefaultGenericDao;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -33,6 +35,9 @@ public class GlusterServerDaoImpl extends DefaultGenericDao<GlusterServer, Guid>
         return glusterServer;
     };
 
+    @Inject
+    private VdsChangeTracker vdsChangeTracker;
+
     public GlusterServerDaoImpl() {
         super("GlusterServer");
         setProcedureNameForGet("GetGlusterServerByServerId");
@@ -56,6 +61,25 @@ public class GlusterServerDaoImpl extends DefaultGenericDao<GlusterServer, Guid>
     public void removeByGlusterServerUuid(Guid glusterServerUuid) {
         getCallsHandler().executeModification("DeleteGlusterServerByGlusterServerUUID",
                 getCustomMapSqlParameterSource().addValue("gluster_server_uuid", glusterServerUuid));
+        vdsChangeTracker.markAllChanged();
+    }
+
+    @Override
+    public void save(GlusterServer entity) {
+        super.save(entity);
+        vdsChangeTracker.markChanged(entity.getId());
+    }
+
+    @Override
+    protected void update(GlusterServer entity, String procedureName) {
+        super.update(entity, procedureName);
+        vdsChangeTracker.markChanged(entity.getId());
+    }
+
+    @Override
+    public void remove(Guid id) {
+        super.remove(id);
+        vdsChangeTracker.markChanged(id);
     }
 
     @Override
@@ -94,5 +118,6 @@ public class GlusterServerDaoImpl extends DefaultGenericDao<GlusterServer, Guid>
         getCallsHandler().executeModification("UpdateGlusterServerPeerStatus",
                 getCustomMapSqlParameterSource().addValue("server_id", serverId)
                         .addValue("peer_status", EnumUtils.nameOrNull(peerStatus)));
+        vdsChangeTracker.markChanged(serverId);
     }
 }
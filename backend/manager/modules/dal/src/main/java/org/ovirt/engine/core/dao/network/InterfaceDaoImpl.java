@@ -28,6 +28,7 @@ import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.CustomMapSqlParameterSource;
 import org.ovirt.engine.core.dal.dbbroker.MapSqlParameterMapper;
+import org.ovirt.engine.core.dal.dbbroker.VdsChangeTracker;
 import org.ovirt.engine.core.dao.BaseDao;
 import org.ovirt.engine.core.dao.network.NetworkStatisticsDaoImpl.NetworkStatisticsParametersMapper;
 import org.ovirt.engine.core.dao.network.NetworkStatisticsDaoImpl.NetworkStatisticsRowMapper;
@@ -45,6 +46,9 @@ public class InterfaceDaoImpl extends BaseDao implements InterfaceDao {
     @Inject
     private HostNetworkQosDao hostNetworkQosDao;
 
+    @Inject
+    private VdsChangeTracker vdsChangeTracker;
+
     @Override
     public void saveStatisticsForVds(VdsNetworkStatistics stats) {
         MapSqlParameterSource parameterSource = createStatisticsParametersMapper(stats);
@@ -66,6 +70,8 @@ public class InterfaceDaoImpl extends BaseDao implements InterfaceDao {
                     return paramSource;
 
                 });
+        // The hosts of the interfaces aren't known
+        vdsChangeTracker.markAllChanged();
     }
 
     public void updateAllInBatch(String procedureName,
@@ -75,6 +81,7 @@ public class InterfaceDaoImpl extends BaseDao implements InterfaceDao {
             hostNetworkQosDao.persistQosChanges(entity.getId(), entity.getQos());
         }
         getCallsHandler().executeStoredProcAsBatch(procedureName, paramValues, mapper);
+        paramValues.stream().map(VdsNetworkInterface::getVdsId).distinct().forEach(vdsChangeTracker::markChanged);
     }
 
     @Override
@@ -82,6 +89,7 @@ public class InterfaceDaoImpl extends BaseDao implements InterfaceDao {
         hostNetworkQosDao.persistQosChanges(nic.getId(), nic.getQos());
         MapSqlParameterSource parameterSource = createInterfaceParametersMapper(nic);
         getCallsHandler().executeModification("Insertvds_interface", parameterSource);
+        vdsChangeTracker.markChanged(nic.getVdsId());
     }
 
     @Override
@@ -118,6 +126,7 @@ public class InterfaceDaoImpl extends BaseDao implements InterfaceDao {
     public void updateInterfaceForVds(VdsNetworkInterface nic) {
         hostNetworkQosDao.persistQosChanges(nic.getId(), nic.getQos());
         getCallsHandler().executeModification("Updatevds_interface", createInterfaceParametersMapper(nic));
+        vdsChangeTracker.markChanged(nic.getVdsId());
     }
 
     private MapSqlParameterSource createInterfaceParametersMapper(VdsNetworkInterface nic) {
@@ -221,6 +230,8 @@ public class InterfaceDaoImpl extends BaseDao implements InterfaceDao {
 
         networkQosDao.remove(id);
         getCallsHandler().executeModification("Deletevds_interface", parameterSource);
+        // The host of the interface isn't known
+        vdsChangeTracker.markAllChanged();
     }
 
     @Override
@@ -0,0 +1,76 @@
+package org.ovirt.engine.core.dal.dbbroker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SimpleJdbcCallsHandlerTest {
+
+    private static final String PROCEDURE_NAME = "GetVmDynamicByVmGuid";
+
+    @Mock
+    private DbEngineDialect dialect;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PrecompiledQuery query;
+
+    private SimpleJdbcCallsHandler handler;
+
+    @Before
+    public void setUp() {
+        when(dialect.createPrecompiledQuery(eq(jdbcTemplate), eq(PROCEDURE_NAME), anyCollection())).thenReturn(query);
+        handler = new SimpleJdbcCallsHandler(dialect, jdbcTemplate);
+    }
+
+    @Test
+    public void queryIsCompiledOnceAndGetsTheMapperOfEachCall() {
+        RowMapper<String> firstMapper = (rs, rowNum) -> "first";
+        RowMapper<String> secondMapper = (rs, rowNum) -> "second";
+        MapSqlParameterSource parameterSource = new MapSqlParameterSource("vm_guid", "id");
+        List<String> firstResult = Collections.singletonList("first");
+        when(query.executeQuery(parameterSource, firstMapper)).thenReturn(firstResult);
+        when(query.executeQuery(parameterSource, secondMapper)).thenReturn(Collections.singletonList("second"));
+
+        assertSame(firstResult, handler.executeReadList(PROCEDURE_NAME, firstMapper, parameterSource));
+        assertEquals("second", handler.executeRead(PROCEDURE_NAME, secondMapper, parameterSource));
+
+        verify(dialect, times(1)).createPrecompiledQuery(any(), any(), anyCollection());
+        assertEquals(2, handler.getStatistics().getProcedure(PROCEDURE_NAME).getCount());
+    }
+
+    @Test
+    public void failedCallsAreCounted() {
+        RowMapper<String> mapper = (rs, rowNum) -> null;
+        MapSqlParameterSource parameterSource = new MapSqlParameterSource();
+        when(query.executeQuery(parameterSource, mapper)).thenThrow(new IllegalStateException());
+
+        try {
+            handler.executeReadList(PROCEDURE_NAME, mapper, parameterSource);
+        } catch (IllegalStateException expected) {
+            // the call is expected to fail
+        }
+
+        assertEquals(1, handler.getStatistics().getProcedure(PROCEDURE_NAME).getCount());
+    }
+}
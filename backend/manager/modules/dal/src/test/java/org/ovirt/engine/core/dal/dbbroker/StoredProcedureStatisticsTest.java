@@ -0,0 +1,64 @@
+package org.ovirt.engine.core.dal.dbbroker;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class StoredProcedureStatisticsTest {
+
+    private StoredProcedureStatistics statistics;
+
+    @Before
+    public void setUp() {
+        statistics = new StoredProcedureStatistics();
+    }
+
+    @Test
+    public void callsAreCountedPerProcedure() {
+        statistics.record("a", TimeUnit.MICROSECONDS.toNanos(100));
+        statistics.record("a", TimeUnit.MICROSECONDS.toNanos(300));
+        statistics.record("b", TimeUnit.MICROSECONDS.toNanos(50));
+
+        StoredProcedureCallStatistics a = statistics.getProcedure("a");
+        assertEquals(2, a.getCount());
+        assertEquals(400, a.getTotalTimeMicros());
+        assertEquals(200, a.getAverageTimeMicros());
+        assertEquals(300, a.getMaxTimeMicros());
+        assertEquals(1, statistics.getProcedure("b").getCount());
+    }
+
+    @Test
+    public void latenciesAreBucketed() {
+        statistics.record("a", TimeUnit.MICROSECONDS.toNanos(500));
+        statistics.record("a", TimeUnit.MILLISECONDS.toNanos(1));
+        statistics.record("a", TimeUnit.MILLISECONDS.toNanos(70));
+        statistics.record("a", TimeUnit.SECONDS.toNanos(3));
+
+        assertArrayEquals(new long[] { 1, 1, 0, 0, 1, 0, 0, 1 }, statistics.getProcedure("a").getLatencyHistogram());
+        assertEquals(statistics.getLatencyBucketsMillis().length + 1,
+                statistics.getProcedure("a").getLatencyHistogram().length);
+    }
+
+    @Test
+    public void proceduresAreSortedByTotalTime() {
+        statistics.record("fast", TimeUnit.MICROSECONDS.toNanos(10));
+        statistics.record("slow", TimeUnit.MICROSECONDS.toNanos(1000));
+
+        List<StoredProcedureCallStatistics> procedures = statistics.getProcedures();
+        assertEquals("slow", procedures.get(0).getProcedureName());
+        assertEquals("fast", procedures.get(1).getProcedureName());
+    }
+
+    @Test
+    public void reset() {
+        statistics.record("a", 10);
+        statistics.reset();
+        assertNull(statistics.getProcedure("a"));
+    }
+}
@@ -0,0 +1,63 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+import org.ovirt.engine.core.common.AuditLogType;
+
+public class AuditLogMessageTemplateTest {
+
+    @Test
+    public void messageWithoutPlaceHolders() {
+        AuditLogMessageTemplate template = AuditLogMessageTemplate.compile("No place holders");
+        assertEquals(Collections.emptySet(), template.getTokens());
+        assertEquals("No place holders", template.resolve(Collections.emptyMap()));
+    }
+
+    @Test
+    public void placeHoldersAreLowerCasedAndDistinct() {
+        AuditLogMessageTemplate template = AuditLogMessageTemplate.compile("${VmName} on ${VdsName}, ${vmname}");
+        assertEquals(new HashSet<>(Arrays.asList("vmname", "vdsname")), template.getTokens());
+        assertEquals("vm on host, vm",
+                template.resolve(new AuditLogableBase().addCustomValue("VmName", "vm").addCustomValue("VdsName", "host")));
+    }
+
+    @Test
+    public void adjacentPlaceHoldersAndEdges() {
+        AuditLogMessageTemplate template = AuditLogMessageTemplate.compile("${a}${b} and ${c}");
+        assertEquals(String.format("12 and %s", AuditLogDirector.UNKNOWN_VARIABLE_VALUE),
+                template.resolve(new AuditLogableBase().addCustomValue("a", "1").addCustomValue("b", "2")));
+    }
+
+    @Test
+    public void reasonPlaceHolders() {
+        AuditLogMessageTemplate template = AuditLogMessageTemplate.compile("Failed.${Reason}${OptionalReason}");
+        assertEquals("Failed." + AuditLogDirector.UNKNOWN_REASON_VALUE, template.resolve(Collections.emptyMap()));
+    }
+
+    @Test
+    public void customValuesAreNotLookedUpInProperties() {
+        AuditLogableBase logable = mock(AuditLogableBase.class, RETURNS_DEFAULTS);
+        when(logable.getCustomValues()).thenReturn(Collections.singletonMap("vmname", "custom"));
+        when(logable.getVdsName()).thenReturn("host");
+
+        AuditLogMessageTemplate template = AuditLogMessageTemplate.compile("${VmName} on ${VdsName}");
+        assertEquals("custom on host", template.resolve(logable));
+        verify(logable, never()).getVmName();
+    }
+
+    @Test
+    public void templatesAreCompiledForTranslatedTypes() {
+        AuditLogMessageTemplate template = AuditLogDirector.getMessageTemplate(AuditLogType.USER_RUN_VM);
+        assertEquals(new HashSet<>(Arrays.asList("vmname", "vdsname")), template.getTokens());
+    }
+}
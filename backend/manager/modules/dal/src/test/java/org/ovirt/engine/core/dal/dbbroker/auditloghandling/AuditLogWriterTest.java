@@ -0,0 +1,158 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.ovirt.engine.core.common.AuditLogSeverity;
+import org.ovirt.engine.core.common.businessentities.AuditLog;
+import org.ovirt.engine.core.dao.AuditLogDao;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AuditLogWriterTest {
+
+    private static final long LONG_FLUSH_INTERVAL = 60000;
+
+    @Mock
+    private AuditLogDao auditLogDao;
+
+    private AuditLogWriter writer;
+
+    @After
+    public void tearDown() {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    private AuditLogWriter createWriter(boolean async, int queueSize, int batchSize, long flushIntervalMillis) {
+        return new AuditLogWriter(auditLogDao, async, queueSize, batchSize, flushIntervalMillis, 0);
+    }
+
+    @Test
+    public void syncWriterSavesOnCallingThread() {
+        writer = createWriter(false, 10, 10, LONG_FLUSH_INTERVAL);
+        AuditLog auditLog = new AuditLog();
+
+        writer.write(auditLog);
+
+        verify(auditLogDao).save(auditLog);
+        assertEquals(1, writer.getWrittenEvents());
+    }
+
+    @Test
+    public void fullBatchIsSaved() {
+        List<Collection<AuditLog>> batches = recordBatches();
+        writer = createWriter(true, 10, 3, LONG_FLUSH_INTERVAL);
+        writer.start();
+
+        for (int i = 0; i < 3; i++) {
+            writer.write(new AuditLog());
+        }
+
+        verify(auditLogDao, timeout(5000)).saveAllInBatch(anyCollection());
+        assertEquals(3, batches.get(0).size());
+        verify(auditLogDao, never()).save(any());
+    }
+
+    @Test
+    public void partialBatchIsSavedAfterFlushInterval() {
+        recordBatches();
+        writer = createWriter(true, 10, 100, 10);
+        writer.start();
+
+        writer.write(new AuditLog());
+
+        verify(auditLogDao, timeout(5000)).saveAllInBatch(anyCollection());
+        assertEquals(1, writer.getWrittenBatches());
+    }
+
+    @Test
+    public void eventsAreSavedOnCallingThreadWhenQueueIsFull() {
+        writer = createWriter(true, 2, 10, LONG_FLUSH_INTERVAL);
+
+        for (int i = 0; i < 5; i++) {
+            writer.write(new AuditLog());
+        }
+
+        assertEquals(2, writer.getQueuedEvents());
+        assertEquals(3, writer.getOverflowEvents());
+        verify(auditLogDao, times(3)).save(any());
+    }
+
+    @Test
+    public void externalEventIsSavedOnCallingThread() {
+        writer = createWriter(true, 10, 10, LONG_FLUSH_INTERVAL);
+        AuditLog auditLog = new AuditLog();
+        auditLog.setExternal(true);
+
+        writer.write(auditLog);
+
+        verify(auditLogDao).save(auditLog);
+        assertEquals(0, writer.getQueuedEvents());
+    }
+
+    @Test
+    public void alertIsSavedOnCallingThread() {
+        writer = createWriter(true, 10, 10, LONG_FLUSH_INTERVAL);
+        AuditLog auditLog = new AuditLog();
+        auditLog.setSeverity(AuditLogSeverity.ALERT);
+
+        writer.write(auditLog);
+
+        verify(auditLogDao).save(auditLog);
+        assertEquals(0, writer.getQueuedEvents());
+    }
+
+    @Test
+    public void queuedEventsAreSavedOnStop() {
+        List<Collection<AuditLog>> batches = recordBatches();
+        writer = createWriter(true, 10, 10, LONG_FLUSH_INTERVAL);
+        writer.write(new AuditLog());
+        writer.write(new AuditLog());
+
+        writer.stop();
+        writer = null;
+
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+    }
+
+    @Test
+    public void failedBatchIsSavedOneByOne() {
+        doThrow(new RuntimeException()).when(auditLogDao).saveAllInBatch(anyCollection());
+        writer = createWriter(true, 10, 10, LONG_FLUSH_INTERVAL);
+        writer.write(new AuditLog());
+        writer.write(new AuditLog());
+
+        writer.flush();
+
+        verify(auditLogDao, times(2)).save(any());
+        assertEquals(2, writer.getWrittenEvents());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Collection<AuditLog>> recordBatches() {
+        List<Collection<AuditLog>> batches = new ArrayList<>();
+        doAnswer(invocation -> {
+            batches.add(new ArrayList<>((Collection<AuditLog>) invocation.getArgument(0)));
+            return null;
+        }).when(auditLogDao).saveAllInBatch(anyCollection());
+        return batches;
+    }
+}
@@ -6,10 +6,12 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.lang.reflect.Field;
+import java.util.Arrays;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.ovirt.engine.core.common.businessentities.VdcOption;
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigCommon;
 import org.ovirt.engine.core.common.config.ConfigValues;
@@ -78,4 +80,25 @@ public class DBConfigUtilsTest extends BaseDaoTestCase {
         assertEquals
                 (Config.<String> getValue(ConfigValues.PostgresPagingType), Config.getValue(ConfigValues.DBPagingType));
     }
+
+    @Test
+    public void testValuesOfGivenOptions() {
+        Config.setConfigUtils(new DBConfigUtils(Arrays.asList(
+                createOption(ConfigValues.DBPagingType, null, ConfigCommon.defaultConfigurationVersion),
+                createOption(ConfigValues.PostgresPagingType, "Range", ConfigCommon.defaultConfigurationVersion),
+                createOption(ConfigValues.VdsRefreshRate, "5", "4.1"))));
+
+        // the dependent option is resolved against the given options, even if it comes before them
+        assertEquals("Range", Config.getValue(ConfigValues.DBPagingType));
+        assertEquals(5, Config.<Integer> getValue(ConfigValues.VdsRefreshRate, "4.1").intValue());
+        assertEquals(2, Config.<Integer> getValue(ConfigValues.VdsRefreshRate, "4.2").intValue());
+    }
+
+    private static VdcOption createOption(ConfigValues name, String value, String version) {
+        VdcOption option = new VdcOption();
+        option.setOptionName(name.name());
+        option.setOptionValue(value);
+        option.setVersion(version);
+        return option;
+    }
 }
@@ -321,6 +321,28 @@ public class AuditLogDaoTest extends BaseDaoTestCase {
         assertTrue(result.getMessage().endsWith("..."));
     }
 
+    /**
+     * Ensures that saving a batch of internal and external AuditLogs adds all of them.
+     */
+    @Test
+    public void testSaveAllInBatch() {
+        Date newAuditLogDateCuttoff = newAuditLog.getLogTime();
+        newAuditLogDateCuttoff.setTime(newAuditLogDateCuttoff.getTime() - 1);
+        int countBefore = dao.getAllAfterDate(newAuditLogDateCuttoff).size();
+
+        AuditLog newExternalAuditLog = new AuditLog(AuditLogType.EXTERNAL_EVENT_NORMAL, AuditLogSeverity.NORMAL);
+        newExternalAuditLog.setLogTime(newAuditLog.getLogTime());
+        newExternalAuditLog.setMessage("External event saved in a batch");
+        newExternalAuditLog.setExternal(true);
+        newExternalAuditLog.setOrigin("EMC");
+        newExternalAuditLog.setCustomEventId(2);
+        dao.saveAllInBatch(Arrays.asList(newAuditLog, newExternalAuditLog));
+
+        int countAfter = dao.getAllAfterDate(newAuditLogDateCuttoff).size();
+        assertEquals(countBefore + 2, countAfter);
+        assertNotNull(dao.getByOriginAndCustomEventId("EMC", 2));
+    }
+
     /**
      * Ensures that removing an AuditLog works as expected.
      */
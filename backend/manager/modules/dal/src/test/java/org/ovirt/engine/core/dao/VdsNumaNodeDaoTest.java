@@ -42,6 +42,16 @@ public class VdsNumaNodeDaoTest extends BaseDaoTestCase {
         assertEquals(2, result.size());
     }
 
+    @Test
+    public void testGetAllVdsNumaNodeByClusterId() {
+        Map<Guid, List<VdsNumaNode>> result =
+                vdsNumaNodeDao.getAllVdsNumaNodeByClusterId(FixturesTool.CLUSTER_RHEL6_ISCSI);
+
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertEquals(2, result.get(EXISTING_VDS_ID).size());
+    }
+
     @Test
     public void testMassSaveNumaNode() {
         List<VdsNumaNode> result = vdsNumaNodeDao.getAllVdsNumaNodeByVdsId(ANOTHER_EXISTING_VDS_ID);
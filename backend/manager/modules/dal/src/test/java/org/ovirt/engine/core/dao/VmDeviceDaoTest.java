@@ -4,8 +4,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -253,4 +255,32 @@ public class VmDeviceDaoTest extends BaseGenericDaoTestCase<VmDeviceId, VmDevice
                         true);
         assertTrue("A user without any permissions should not see any devices", devices.isEmpty());
     }
+
+    @Test
+    public void testGetVmDevicesByVmIdsFilteringSetToFalse() {
+        List<VmDevice> devices =
+                dao.getVmDevicesByVmIds(Arrays.asList(EXISTING_VM_ID, EXISTING_VM_ID_2), null, false);
+        Set<VmDeviceId> expected = new HashSet<>();
+        dao.getVmDeviceByVmId(EXISTING_VM_ID).forEach(device -> expected.add(device.getId()));
+        dao.getVmDeviceByVmId(EXISTING_VM_ID_2).forEach(device -> expected.add(device.getId()));
+        assertEquals(expected, devices.stream().map(VmDevice::getId).collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void testGetVmDevicesByVmIdsFilteringWithPermissions() {
+        List<VmDevice> devices =
+                dao.getVmDevicesByVmIds(Collections.singletonList(EXISTING_VM_ID),
+                        PRIVILEGED_USER_ID,
+                        true);
+        assertGetVMDeviceByIdResult(devices);
+    }
+
+    @Test
+    public void testGetVmDevicesByVmIdsFilteringWithoutPermissions() {
+        List<VmDevice> devices =
+                dao.getVmDevicesByVmIds(Collections.singletonList(EXISTING_VM_ID),
+                        UNPRIVILEGED_USER_ID,
+                        true);
+        assertTrue("A user without any permissions should not see any devices", devices.isEmpty());
+    }
 }
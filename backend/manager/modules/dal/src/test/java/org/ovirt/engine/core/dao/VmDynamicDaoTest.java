@@ -72,6 +72,17 @@ public class VmDynamicDaoTest extends BaseDaoTestCase {
         assertNull(result);
     }
 
+    /**
+     * Ensures that only the existing VMs are returned when getting several VMs by their ids.
+     */
+    @Test
+    public void testGetByIds() {
+        Guid missingId = Guid.newGuid();
+        List<VmDynamic> result = dao.getByIds(Arrays.asList(existingVm.getId(), missingId));
+        assertEquals(1, result.size());
+        assertEquals(existingVm, result.get(0));
+    }
+
     @Test
     public void testGet() {
         VmDynamic result = dao.get(existingVm.getId());
@@ -0,0 +1,135 @@
+package org.ovirt.engine.benchmarks;
+
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.common.AuditLogType;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogMessageTemplate;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableBase;
+
+/**
+ * <p> Benchmark's the resolution of the messages of frequent audit log events by their precompiled
+ * {@link AuditLogMessageTemplate}, compared to parsing the message for each event as it was done before.</p>
+ *
+ * @see AuditLogMessageTemplate
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuditLogMessageBenchmark {
+
+    @Benchmark
+    public void precompiledTemplate(BenchmarkState state, Blackhole blackhole) {
+        blackhole.consume(AuditLogDirector.getMessageTemplate(state.logType).resolve(state.logable));
+    }
+
+    @Benchmark
+    public void parsedMessage(BenchmarkState state, Blackhole blackhole) {
+        blackhole.consume(ParsedMessageResolver.resolve(AuditLogDirector.getMessage(state.logType), state.logable));
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+
+        @Param({ "USER_RUN_VM", "VM_DOWN", "VM_MIGRATION_DONE", "VDS_HIGH_MEM_USE", "VDS_LOW_DISK_SPACE" })
+        private AuditLogType logType;
+
+        private AuditLogableBase logable;
+
+        @Setup
+        public void setup() {
+            logable = new AuditLogableBase();
+            logable.setVmName("vm-1");
+            logable.setVdsName("host-1");
+            // the names are taken from the properties of the logable, the other place holders from custom values
+            for (String token : AuditLogDirector.getMessageTemplate(logType).getTokens()) {
+                if (!"vmname".equals(token) && !"vdsname".equals(token)) {
+                    logable.addCustomValue(token, token + "-value");
+                }
+            }
+        }
+    }
+
+    /**
+     * The resolution of a message which parses it for each event, as done by {@link AuditLogDirector} before the
+     * messages were precompiled.
+     */
+    private static class ParsedMessageResolver {
+
+        private static final Pattern pattern = Pattern.compile("\\$\\{\\w*\\}");
+
+        static String resolve(String message, AuditLogableBase logable) {
+            Map<String, String> values = new HashMap<>(logable.getCustomValues());
+            Set<String> attributes = resolvePlaceHolders(message);
+            if (!attributes.isEmpty()) {
+                getPropertyValues(logable, attributes, values);
+            }
+
+            Matcher matcher = pattern.matcher(message);
+            StringBuffer buffer = new StringBuffer();
+            while (matcher.find()) {
+                String token = matcher.group();
+                token = token.substring(2, token.length() - 1);
+                String value = values.get(token.toLowerCase());
+                if (value == null || value.isEmpty()) {
+                    value = "<UNKNOWN>";
+                }
+                matcher.appendReplacement(buffer, Matcher.quoteReplacement(value));
+            }
+            matcher.appendTail(buffer);
+            return buffer.toString();
+        }
+
+        private static Set<String> resolvePlaceHolders(String message) {
+            Set<String> result = new HashSet<>();
+            Matcher matcher = pattern.matcher(message);
+            while (matcher.find()) {
+                String token = matcher.group();
+                result.add(token.substring(2, token.length() - 1).toLowerCase());
+            }
+            return result;
+        }
+
+        private static void getPropertyValues(Object obj, Set<String> properties, Map<String, String> values) {
+            try {
+                PropertyDescriptor[] pds = Introspector.getBeanInfo(obj.getClass()).getPropertyDescriptors();
+                int hitCount = 0;
+                for (PropertyDescriptor pd : pds) {
+                    String propertyName = pd.getName().toLowerCase();
+                    if (properties.contains(propertyName)) {
+                        hitCount++;
+                        if (!values.containsKey(propertyName)) {
+                            Object value = pd.getReadMethod().invoke(obj);
+                            values.put(propertyName, value != null ? value.toString() : null);
+                        }
+                        if (hitCount == properties.size()) {
+                            break;
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
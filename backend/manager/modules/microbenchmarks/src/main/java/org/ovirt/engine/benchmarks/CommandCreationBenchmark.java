@@ -0,0 +1,143 @@
+package org.ovirt.engine.benchmarks;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.utils.CommandConstructorRegistry;
+import org.ovirt.engine.core.utils.ReflectionUtils;
+
+/**
+ * <p> Benchmark's the creation of commands from their command type, by looking up the class and the constructor of
+ * the command on every creation as it was done before, and by taking the constructor from a
+ * {@link CommandConstructorRegistry}.</p>
+ * <p> The commands are created the way the VDS commands are, from their class name and the class of their
+ * parameters, but the commands themselves are trivial so only the cost of the reflection is measured.</p>
+ *
+ * @see CommandConstructorRegistry
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommandCreationBenchmark {
+
+    @Benchmark
+    public void lookupOnEveryCreation(BenchmarkState state, Blackhole blackhole) throws Exception {
+        for (SampleCommandType commandType : SampleCommandType.values()) {
+            Class<?> type = Class.forName(getCommandClassName(commandType));
+            Constructor<?> constructor = ReflectionUtils.findConstructor(type, state.parameters.getClass());
+            blackhole.consume(constructor.newInstance(state.parameters));
+        }
+    }
+
+    @Benchmark
+    public void registry(BenchmarkState state, Blackhole blackhole) throws Exception {
+        for (SampleCommandType commandType : SampleCommandType.values()) {
+            Constructor<? extends SampleCommand> constructor =
+                    state.registry.getConstructor(commandType, state.parameters.getClass());
+            blackhole.consume(constructor.newInstance(state.parameters));
+        }
+    }
+
+    private static String getCommandClassName(SampleCommandType commandType) {
+        return CommandCreationBenchmark.class.getName() + "$" + commandType + "Command";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends SampleCommand> loadCommandClass(SampleCommandType commandType) {
+        try {
+            return (Class<? extends SampleCommand>) Class.forName(getCommandClassName(commandType));
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+        private CommandConstructorRegistry<SampleCommandType, SampleCommand> registry;
+        private SampleParameters parameters;
+
+        @Setup
+        public void setUp() {
+            registry = new CommandConstructorRegistry<>(SampleCommandType.class,
+                    CommandCreationBenchmark::loadCommandClass);
+            registry.resolveAll();
+            parameters = new SampleParameters();
+        }
+    }
+
+    public enum SampleCommandType {
+        Create,
+        Destroy,
+        Migrate,
+        GetStats
+    }
+
+    public static class SampleParametersBase {
+    }
+
+    public static class SampleParameters extends SampleParametersBase {
+    }
+
+    public abstract static class SampleCommand {
+        private final SampleParametersBase parameters;
+
+        protected SampleCommand(SampleParametersBase parameters) {
+            this.parameters = parameters;
+        }
+
+        public SampleParametersBase getParameters() {
+            return parameters;
+        }
+    }
+
+    public static class CreateCommand extends SampleCommand {
+        public CreateCommand(SampleParametersBase parameters) {
+            super(parameters);
+        }
+
+        public CreateCommand(SampleParametersBase parameters, Object context) {
+            super(parameters);
+        }
+    }
+
+    public static class DestroyCommand extends SampleCommand {
+        public DestroyCommand(SampleParametersBase parameters) {
+            super(parameters);
+        }
+
+        public DestroyCommand(SampleParametersBase parameters, Object context) {
+            super(parameters);
+        }
+    }
+
+    public static class MigrateCommand extends SampleCommand {
+        public MigrateCommand(SampleParametersBase parameters) {
+            super(parameters);
+        }
+
+        public MigrateCommand(SampleParametersBase parameters, Object context) {
+            super(parameters);
+        }
+    }
+
+    public static class GetStatsCommand extends SampleCommand {
+        public GetStatsCommand(SampleParametersBase parameters) {
+            super(parameters);
+        }
+
+        public GetStatsCommand(SampleParametersBase parameters, Object context) {
+            super(parameters);
+        }
+    }
+}
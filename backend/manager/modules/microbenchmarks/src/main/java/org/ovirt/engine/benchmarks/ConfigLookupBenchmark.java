@@ -0,0 +1,93 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.common.businessentities.VdcOption;
+import org.ovirt.engine.core.common.config.ConfigCommon;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.config.OptionBehaviour;
+import org.ovirt.engine.core.common.config.OptionBehaviourAttribute;
+import org.ovirt.engine.core.dal.dbbroker.generic.DBConfigUtils;
+
+/**
+ * <p> Benchmark's the lookup of configuration values in the snapshot of {@link DBConfigUtils}, indexed by the ordinal
+ * of the option, compared to the lookup by the name of the option in a map of maps, as it was done before.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConfigLookupBenchmark {
+
+    private static final String[] VERSIONS = { ConfigCommon.defaultConfigurationVersion, "4.0", "4.1", "4.2" };
+
+    @Benchmark
+    public void snapshot(BenchmarkState state, Blackhole blackhole) {
+        blackhole.consume(state.configUtils.<Object> getValue(state.name, state.version));
+    }
+
+    @Benchmark
+    public void nameKeyedMap(BenchmarkState state, Blackhole blackhole) {
+        Map<String, Object> values = state.valuesByName.get(state.name.toString());
+        if (values != null && values.containsKey(state.version)) {
+            blackhole.consume(values.get(state.version));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+
+        @Param({ "VdsRefreshRate", "NumberVmRefreshesBeforeSave", "MaxSchedulerWeight" })
+        private ConfigValues name;
+
+        @Param({ ConfigCommon.defaultConfigurationVersion, "4.2" })
+        private String version;
+
+        private DBConfigUtils configUtils;
+
+        private Map<String, Map<String, Object>> valuesByName;
+
+        @Setup
+        public void setup() throws NoSuchFieldException {
+            // All the options with their default values, except the passwords, which can't be decrypted here
+            List<VdcOption> options = new ArrayList<>();
+            for (ConfigValues value : ConfigValues.values()) {
+                OptionBehaviourAttribute behaviour =
+                        ConfigValues.class.getField(value.name()).getAnnotation(OptionBehaviourAttribute.class);
+                if (value == ConfigValues.Invalid
+                        || behaviour != null && behaviour.behaviour() == OptionBehaviour.Password) {
+                    continue;
+                }
+                for (String optionVersion : VERSIONS) {
+                    VdcOption option = new VdcOption();
+                    option.setOptionName(value.name());
+                    option.setVersion(optionVersion);
+                    options.add(option);
+                }
+            }
+            configUtils = new DBConfigUtils(options);
+
+            valuesByName = new HashMap<>();
+            for (VdcOption option : options) {
+                ConfigValues optionName = ConfigValues.valueOf(option.getOptionName());
+                valuesByName.computeIfAbsent(option.getOptionName(), k -> new HashMap<>())
+                        .put(option.getVersion(), configUtils.getValue(optionName, option.getVersion()));
+            }
+        }
+    }
+}
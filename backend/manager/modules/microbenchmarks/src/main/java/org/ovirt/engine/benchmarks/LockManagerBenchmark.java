@@ -0,0 +1,105 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.bll.lock.InMemoryLockManager;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.lock.EngineLock;
+
+/**
+ * <p> Benchmark's the {@link InMemoryLockManager} under contention: many threads acquire and release locks the way
+ * commands do, an exclusive lock on an entity of their own along with shared locks on a few entities which all the
+ * threads share, such as the cluster or the storage domain of a VM.</p>
+ * <p> A single stripe serializes all the operations on one global lock, so comparing it
+ * with the default number of stripes shows the gain of striping.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(64)
+public class LockManagerBenchmark {
+
+    private static final int ENTITIES = 4096;
+    private static final int SHARED_ENTITIES = 16;
+    private static final int LOCKS_PER_THREAD = 64;
+    private static final String[] ENTITY_IDS = new String[ENTITIES];
+
+    static {
+        for (int i = 0; i < ENTITY_IDS.length; i++) {
+            ENTITY_IDS[i] = Guid.newGuid().toString();
+        }
+    }
+
+    @Benchmark
+    public void acquireAndRelease(LockManagerState lockManagerState, ThreadState threadState, Blackhole blackhole) {
+        EngineLock lock = threadState.nextLock();
+        Pair<Boolean, ?> result = lockManagerState.lockManager.acquireLock(lock);
+        blackhole.consume(result);
+        if (result.getFirst()) {
+            lockManagerState.lockManager.releaseLock(lock);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LockManagerState {
+        @Param({ "1", "256" })
+        private int stripes;
+
+        private InMemoryLockManager lockManager;
+
+        @Setup
+        public void setUp() {
+            lockManager = new InMemoryLockManager(stripes);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private EngineLock[] locks;
+        private int next;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random();
+            locks = new EngineLock[LOCKS_PER_THREAD];
+            for (int i = 0; i < locks.length; i++) {
+                locks[i] = createLock(ENTITY_IDS, random);
+            }
+        }
+
+        private static EngineLock createLock(String[] entities, Random random) {
+            Map<String, Pair<String, String>> exclusiveLocks = new HashMap<>();
+            exclusiveLocks.put(entities[SHARED_ENTITIES + random.nextInt(entities.length - SHARED_ENTITIES)],
+                    new Pair<>("VM", "ACTION_TYPE_FAILED_OBJECT_LOCKED"));
+            Map<String, Pair<String, String>> sharedLocks = new HashMap<>();
+            int sharedCount = random.nextInt(3);
+            for (int i = 0; i < sharedCount; i++) {
+                sharedLocks.put(entities[random.nextInt(SHARED_ENTITIES)],
+                        new Pair<>("CLUSTER", "ACTION_TYPE_FAILED_OBJECT_LOCKED"));
+            }
+            return new EngineLock(exclusiveLocks, sharedLocks.isEmpty() ? null : sharedLocks);
+        }
+
+        EngineLock nextLock() {
+            next = (next + 1) % locks.length;
+            return locks[next];
+        }
+    }
+}
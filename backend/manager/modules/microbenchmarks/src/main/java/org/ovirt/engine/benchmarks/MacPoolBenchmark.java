@@ -0,0 +1,125 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.math.LongRange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.bll.network.macpool.MacPool;
+import org.ovirt.engine.core.bll.network.macpool.MacPoolUsingRanges;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.MacAddressRangeUtils;
+
+/**
+ * <p> Benchmark's the MAC pool {@link MacPoolUsingRanges} for pools made of a single range and of many small
+ * ranges.</p>
+ * <p> All the pools hold the same number of MACs, half of them in use, so the benchmarks measure the cost of
+ * finding the range of a MAC and of finding ranges with available MACs rather than the size of the pool. The
+ * initialization benchmark rebuilds such a pool as it's done on engine startup.</p>
+ *
+ * @see MacPoolUsingRanges
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MacPoolBenchmark {
+
+    @Benchmark
+    public void initialize(BenchmarkState state, Blackhole blackhole) {
+        MacPool macPool = new MacPoolUsingRanges(Guid.newGuid(), state.ranges, false);
+        macPool.forceAddMacs(state.usedMacs);
+        blackhole.consume(macPool);
+    }
+
+    @Benchmark
+    public void allocateAndFree(BenchmarkState state, Blackhole blackhole) {
+        List<String> macs = state.macPool.allocateMacAddresses(1);
+        state.macPool.freeMacs(macs);
+        blackhole.consume(macs);
+    }
+
+    @Benchmark
+    public void allocateBulkAndFree(BenchmarkState state, Blackhole blackhole) {
+        List<String> macs = state.macPool.allocateMacAddresses(BenchmarkState.BULK_SIZE);
+        state.macPool.freeMacs(macs);
+        blackhole.consume(macs);
+    }
+
+    @Benchmark
+    public void addAndFree(BenchmarkState state, Blackhole blackhole) {
+        String mac = state.nextMac();
+        if (state.macPool.addMac(mac)) {
+            state.macPool.freeMac(mac);
+        }
+        blackhole.consume(mac);
+    }
+
+    @Benchmark
+    public void isMacInUse(BenchmarkState state, Blackhole blackhole) {
+        blackhole.consume(state.macPool.isMacInUse(state.nextMac()));
+    }
+
+    @Benchmark
+    public void availableMacsCount(BenchmarkState state, Blackhole blackhole) {
+        blackhole.consume(state.macPool.getAvailableMacsCount());
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+
+        private static final int MACS_IN_POOL = 1 << 20;
+        private static final int BULK_SIZE = 10_000;
+        private static final int LOOKED_UP_MACS = 1 << 16;
+
+        @Param({ "1", "100", "10000" })
+        private int numberOfRanges;
+
+        private Collection<LongRange> ranges;
+        private List<String> usedMacs;
+        private MacPool macPool;
+        private String[] lookedUpMacs;
+        private int lookedUpMacIndex;
+
+        @Setup
+        public void setup() {
+            long firstMac = MacAddressRangeUtils.macToLong("00:1a:4a:00:00:00");
+            int macsInRange = MACS_IN_POOL / numberOfRanges;
+
+            ranges = new ArrayList<>(numberOfRanges);
+            for (int i = 0; i < numberOfRanges; i++) {
+                // leave gaps between the ranges, as in pools which are made of distinct ranges
+                long rangeStart = firstMac + 2L * i * macsInRange;
+                ranges.add(new LongRange(rangeStart, rangeStart + macsInRange - 1));
+            }
+            macPool = new MacPoolUsingRanges(Guid.newGuid(), ranges, false);
+            usedMacs = macPool.allocateMacAddresses(MACS_IN_POOL / 2);
+
+            Random random = new Random(0);
+            long lastMac = firstMac + 2L * numberOfRanges * macsInRange;
+            lookedUpMacs = new String[LOOKED_UP_MACS];
+            for (int i = 0; i < LOOKED_UP_MACS; i++) {
+                long mac = firstMac + (long) (random.nextDouble() * (lastMac - firstMac));
+                lookedUpMacs[i] = MacAddressRangeUtils.macToString(mac);
+            }
+        }
+
+        private String nextMac() {
+            lookedUpMacIndex = (lookedUpMacIndex + 1) % LOOKED_UP_MACS;
+            return lookedUpMacs[lookedUpMacIndex];
+        }
+    }
+}
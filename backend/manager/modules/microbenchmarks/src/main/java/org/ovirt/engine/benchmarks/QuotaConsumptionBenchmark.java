@@ -0,0 +1,198 @@
+package org.ovirt.engine.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.bll.quota.QuotaClusterConsumptionParameter;
+import org.ovirt.engine.core.bll.quota.QuotaConsumptionParameter.QuotaAction;
+import org.ovirt.engine.core.bll.quota.QuotaConsumptionParametersWrapper;
+import org.ovirt.engine.core.bll.quota.QuotaManager;
+import org.ovirt.engine.core.bll.quota.QuotaManagerAuditLogger;
+import org.ovirt.engine.core.common.AuditLogType;
+import org.ovirt.engine.core.common.businessentities.Quota;
+import org.ovirt.engine.core.common.businessentities.QuotaCluster;
+import org.ovirt.engine.core.common.businessentities.QuotaEnforcementTypeEnum;
+import org.ovirt.engine.core.common.businessentities.StoragePool;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableBase;
+import org.ovirt.engine.core.dao.QuotaDao;
+
+/**
+ * <p> Benchmark's the {@link QuotaManager} under contention: many threads consume and then release the CPU and memory
+ * of one VM from the quotas of a single data center, the way mass starts and stops of pool VMs do.</p>
+ * <p> With a single quota all the threads contend for the same quota lock, and with more quotas their requests spread
+ * over the lock stripes, so comparing them shows how much of the accounting runs concurrently.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class QuotaConsumptionBenchmark {
+
+    private static final int REQUESTS_PER_THREAD = 64;
+
+    @Benchmark
+    public void consumeAndRelease(QuotaManagerState quotaManagerState, ThreadState threadState,
+            Blackhole blackhole) {
+        int next = threadState.next();
+        QuotaManager quotaManager = quotaManagerState.quotaManager;
+        boolean consumed = quotaManager.consume(threadState.consumeRequests[next]);
+        blackhole.consume(consumed);
+        if (consumed) {
+            quotaManager.consume(threadState.releaseRequests[next]);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class QuotaManagerState {
+        @Param({ "1", "16", "256" })
+        private int quotas;
+
+        private StoragePool storagePool;
+
+        private Guid clusterId;
+
+        private Guid[] quotaIds;
+
+        private QuotaManager quotaManager;
+
+        @Setup
+        public void setUp() {
+            storagePool = new StoragePool();
+            storagePool.setId(Guid.newGuid());
+            storagePool.setQuotaEnforcementType(QuotaEnforcementTypeEnum.HARD_ENFORCEMENT);
+            clusterId = Guid.newGuid();
+
+            Map<Guid, Quota> quotasById = new HashMap<>();
+            quotaIds = new Guid[quotas];
+            for (int i = 0; i < quotaIds.length; i++) {
+                Quota quota = createQuota();
+                quotasById.put(quota.getId(), quota);
+                quotaIds[i] = quota.getId();
+            }
+            quotaManager = new InMemoryQuotaManager(createQuotaDao(quotasById, quotasById.get(quotaIds[0])));
+        }
+
+        /**
+         * Creates a quota with limits that the benchmark never reaches, so that every request is approved and the
+         * usage returns to zero when it is released.
+         */
+        private Quota createQuota() {
+            QuotaCluster quotaCluster = new QuotaCluster();
+            quotaCluster.setVirtualCpu(Integer.MAX_VALUE / 2);
+            quotaCluster.setVirtualCpuUsage(0);
+            quotaCluster.setMemSizeMB(Long.MAX_VALUE / 2);
+            quotaCluster.setMemSizeMBUsage(0L);
+            quotaCluster.setClusterId(clusterId);
+
+            Quota quota = new Quota();
+            quota.setId(Guid.newGuid());
+            quota.setStoragePoolId(storagePool.getId());
+            quota.setQuotaName("quota");
+            quota.setGraceClusterPercentage(20);
+            quota.setThresholdClusterPercentage(80);
+            quota.setGraceStoragePercentage(20);
+            quota.setThresholdStoragePercentage(80);
+            quota.setQuotaEnforcementType(QuotaEnforcementTypeEnum.HARD_ENFORCEMENT);
+            quota.setGlobalQuotaCluster(quotaCluster);
+            return quota;
+        }
+
+        /**
+         * The quota manager only reads the quotas and the default quota of the data center from the database.
+         */
+        private static QuotaDao createQuotaDao(Map<Guid, Quota> quotasById, Quota defaultQuota) {
+            return (QuotaDao) Proxy.newProxyInstance(QuotaDao.class.getClassLoader(),
+                    new Class<?>[] { QuotaDao.class },
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                        case "getById":
+                            return quotasById.get(args[0]);
+                        case "getDefaultQuotaForStoragePool":
+                            return defaultQuota;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+        private QuotaConsumptionParametersWrapper createRequest(Guid quotaId, QuotaAction action) {
+            AuditLogableBase auditLogable = new AuditLogableBase();
+            auditLogable.setStoragePool(storagePool);
+            QuotaConsumptionParametersWrapper request =
+                    new QuotaConsumptionParametersWrapper(auditLogable, new ArrayList<>());
+            request.setParameters(new ArrayList<>(Collections.singletonList(
+                    new QuotaClusterConsumptionParameter(quotaId, null, action, clusterId, 1, 1024))));
+            return request;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private QuotaConsumptionParametersWrapper[] consumeRequests;
+        private QuotaConsumptionParametersWrapper[] releaseRequests;
+        private int next;
+
+        @Setup
+        public void setUp(QuotaManagerState quotaManagerState) {
+            Random random = new Random();
+            consumeRequests = new QuotaConsumptionParametersWrapper[REQUESTS_PER_THREAD];
+            releaseRequests = new QuotaConsumptionParametersWrapper[REQUESTS_PER_THREAD];
+            for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                Guid quotaId = quotaManagerState.quotaIds[random.nextInt(quotaManagerState.quotaIds.length)];
+                consumeRequests[i] = quotaManagerState.createRequest(quotaId, QuotaAction.CONSUME);
+                releaseRequests[i] = quotaManagerState.createRequest(quotaId, QuotaAction.RELEASE);
+            }
+        }
+
+        int next() {
+            next = (next + 1) % REQUESTS_PER_THREAD;
+            return next;
+        }
+    }
+
+    /**
+     * A quota manager that reads the quotas from memory and doesn't write audit logs.
+     */
+    private static class InMemoryQuotaManager extends QuotaManager {
+        private final QuotaDao quotaDao;
+
+        private final QuotaManagerAuditLogger auditLogger = new QuotaManagerAuditLogger() {
+            @Override
+            public void auditLog(AuditLogType auditLogType, AuditLogableBase auditLogable) {
+            }
+        };
+
+        private InMemoryQuotaManager(QuotaDao quotaDao) {
+            this.quotaDao = quotaDao;
+        }
+
+        @Override
+        protected QuotaDao getQuotaDao() {
+            return quotaDao;
+        }
+
+        @Override
+        protected QuotaManagerAuditLogger getQuotaManagerAuditLogger() {
+            return auditLogger;
+        }
+    }
+}
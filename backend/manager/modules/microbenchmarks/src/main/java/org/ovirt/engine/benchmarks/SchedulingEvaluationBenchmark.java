@@ -0,0 +1,274 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.bll.scheduling.ParallelPolicyUnitEvaluator;
+import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
+import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.scheduling.PerHostMessages;
+import org.ovirt.engine.core.common.scheduling.PolicyUnitType;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.dbbroker.generic.DBConfigUtils;
+
+/**
+ * <p> Benchmark's the placement of a VM in a synthetic cluster, evaluating the filters and weights one after the other
+ * on the scheduling thread, as the scheduler does by default, and with a {@link ParallelPolicyUnitEvaluator}.</p>
+ * <p> The policy units are synthetic: each of them spends a fixed amount of CPU time on every host, standing for the
+ * expensive internal units, like the NUMA, CPU pinning and affinity checks, without their database access. The host
+ * with the lowest total score is selected, as the default rank selector does.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SchedulingEvaluationBenchmark {
+
+    @Benchmark
+    public Guid sequential(BenchmarkState state) {
+        return state.place(null);
+    }
+
+    @Benchmark
+    public Guid parallel(BenchmarkState state) {
+        return state.place(state.evaluator);
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param("1000")
+        private int hostCount;
+
+        /**
+         * The CPU time each unit spends on a host, in the units of {@link Blackhole#consumeCPU(long)}.
+         */
+        @Param({ "10", "1000" })
+        private long hostCost;
+
+        @Param("4")
+        private int threads;
+
+        private ParallelPolicyUnitEvaluator evaluator;
+
+        private SchedulingContext context;
+
+        private VM vm;
+
+        private List<VDS> hosts;
+
+        private List<PolicyUnitImpl> filters;
+
+        private List<PolicyUnitImpl> weights;
+
+        @Setup
+        public void setup() {
+            // The policy units read the maximal weight from the configuration
+            Config.setConfigUtils(new DBConfigUtils(Collections.emptyList()));
+
+            evaluator = new ParallelPolicyUnitEvaluator(threads, 100);
+            context = new SchedulingContext(new Cluster(), new HashMap<>());
+            vm = new VM();
+            vm.setId(Guid.newGuid());
+
+            hosts = new ArrayList<>();
+            for (int i = 0; i < hostCount; i++) {
+                VDS host = new VDS();
+                host.setId(Guid.newGuid());
+                host.setCpuCores(1 + i % 16);
+                host.setVmActive(i % 7);
+                hosts.add(host);
+            }
+
+            filters = Arrays.asList(new CoresFilter(hostCost), new ExpensiveFilter(hostCost));
+            weights = Arrays.asList(new CoresWeight(hostCost), new VmCountWeight(hostCost),
+                    new RelativeVmCountWeight(hostCost));
+        }
+
+        private Guid place(ParallelPolicyUnitEvaluator evaluator) {
+            List<VDS> candidates = hosts;
+            for (PolicyUnitImpl filter : filters) {
+                candidates = evaluator != null
+                        ? evaluator.filter(filter, context, candidates, vm, new PerHostMessages())
+                        : filter.filter(context, candidates, vm, new PerHostMessages());
+            }
+
+            List<List<Pair<Guid, Integer>>> scores;
+            if (evaluator != null) {
+                scores = evaluator.score(weights, context, candidates, vm);
+            } else {
+                scores = new ArrayList<>();
+                for (PolicyUnitImpl weight : weights) {
+                    scores.add(weight.score(context, candidates, vm));
+                }
+            }
+
+            Map<Guid, Integer> totals = new LinkedHashMap<>();
+            for (List<Pair<Guid, Integer>> unitScores : scores) {
+                for (Pair<Guid, Integer> score : unitScores) {
+                    totals.merge(score.getFirst(), score.getSecond(), Integer::sum);
+                }
+            }
+            return totals.entrySet()
+                    .stream()
+                    .min(Map.Entry.comparingByValue())
+                    .map(Map.Entry::getKey)
+                    .orElse(null);
+        }
+    }
+
+    private abstract static class SyntheticUnit extends PolicyUnitImpl {
+        private final long hostCost;
+
+        private SyntheticUnit(long hostCost) {
+            super(null, new PendingResourceManager());
+            this.hostCost = hostCost;
+        }
+
+        protected void evaluate() {
+            Blackhole.consumeCPU(hostCost);
+        }
+    }
+
+    @SchedulingUnit(
+            guid = "0a6bd3a5-0f0e-4f55-a34e-5f3a1a7e5c01",
+            name = "BenchmarkCores",
+            type = PolicyUnitType.FILTER,
+            hostIndependent = true
+    )
+    private static class CoresFilter extends SyntheticUnit {
+        private CoresFilter(long hostCost) {
+            super(hostCost);
+        }
+
+        @Override
+        public List<VDS> filter(SchedulingContext context, List<VDS> hosts, VM vm, PerHostMessages messages) {
+            List<VDS> result = new ArrayList<>();
+            for (VDS host : hosts) {
+                evaluate();
+                if (host.getCpuCores() > 2) {
+                    result.add(host);
+                }
+            }
+            return result;
+        }
+    }
+
+    @SchedulingUnit(
+            guid = "0a6bd3a5-0f0e-4f55-a34e-5f3a1a7e5c02",
+            name = "BenchmarkExpensive",
+            type = PolicyUnitType.FILTER,
+            hostIndependent = true
+    )
+    private static class ExpensiveFilter extends SyntheticUnit {
+        private ExpensiveFilter(long hostCost) {
+            super(hostCost);
+        }
+
+        @Override
+        public List<VDS> filter(SchedulingContext context, List<VDS> hosts, VM vm, PerHostMessages messages) {
+            List<VDS> result = new ArrayList<>();
+            for (VDS host : hosts) {
+                evaluate();
+                evaluate();
+                evaluate();
+                result.add(host);
+            }
+            return result;
+        }
+    }
+
+    @SchedulingUnit(
+            guid = "0a6bd3a5-0f0e-4f55-a34e-5f3a1a7e5c03",
+            name = "BenchmarkCoresWeight",
+            type = PolicyUnitType.WEIGHT,
+            hostIndependent = true
+    )
+    private static class CoresWeight extends SyntheticUnit {
+        private CoresWeight(long hostCost) {
+            super(hostCost);
+        }
+
+        @Override
+        public List<Pair<Guid, Integer>> score(SchedulingContext context, List<VDS> hosts, VM vm) {
+            List<Pair<Guid, Integer>> scores = new ArrayList<>();
+            for (VDS host : hosts) {
+                evaluate();
+                scores.add(new Pair<>(host.getId(), 16 - host.getCpuCores()));
+            }
+            return scores;
+        }
+    }
+
+    @SchedulingUnit(
+            guid = "0a6bd3a5-0f0e-4f55-a34e-5f3a1a7e5c04",
+            name = "BenchmarkVmCountWeight",
+            type = PolicyUnitType.WEIGHT,
+            hostIndependent = true
+    )
+    private static class VmCountWeight extends SyntheticUnit {
+        private VmCountWeight(long hostCost) {
+            super(hostCost);
+        }
+
+        @Override
+        public List<Pair<Guid, Integer>> score(SchedulingContext context, List<VDS> hosts, VM vm) {
+            List<Pair<Guid, Integer>> scores = new ArrayList<>();
+            for (VDS host : hosts) {
+                evaluate();
+                scores.add(new Pair<>(host.getId(), host.getVmActive()));
+            }
+            return scores;
+        }
+    }
+
+    /**
+     * Scores each host relative to the others, so it's never split, but still runs concurrently with the other
+     * weights.
+     */
+    @SchedulingUnit(
+            guid = "0a6bd3a5-0f0e-4f55-a34e-5f3a1a7e5c05",
+            name = "BenchmarkRelativeVmCountWeight",
+            type = PolicyUnitType.WEIGHT
+    )
+    private static class RelativeVmCountWeight extends SyntheticUnit {
+        private RelativeVmCountWeight(long hostCost) {
+            super(hostCost);
+        }
+
+        @Override
+        public List<Pair<Guid, Integer>> score(SchedulingContext context, List<VDS> hosts, VM vm) {
+            int maxVms = hosts.stream().mapToInt(VDS::getVmActive).max().orElse(0);
+            List<Pair<Guid, Integer>> scores = new ArrayList<>();
+            for (VDS host : hosts) {
+                evaluate();
+                scores.add(new Pair<>(host.getId(), maxVms - host.getVmActive()));
+            }
+            return scores;
+        }
+    }
+}
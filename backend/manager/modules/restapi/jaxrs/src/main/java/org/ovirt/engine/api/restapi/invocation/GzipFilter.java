@@ -0,0 +1,281 @@
+/*
+Copyright (c) 2017 Red Hat, Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package org.ovirt.engine.api.restapi.invocation;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * This filter compresses the body of the responses with {@code gzip} when the client accepts it. The body is compressed
+ * while it is written, so the responses that the providers write as they go, like large collections, are also sent as
+ * they go. The encoding is only announced once the first byte of the body is written, so responses without body, and
+ * errors sent before the body, aren't affected.
+ */
+public class GzipFilter implements Filter {
+
+    private static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+    private static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+    private static final String CONTENT_LENGTH_HEADER = "Content-Length";
+    private static final String VARY_HEADER = "Vary";
+    private static final String GZIP = "gzip";
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        doFilter((HttpServletRequest) request, (HttpServletResponse) response, chain);
+    }
+
+    private void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        response.addHeader(VARY_HEADER, ACCEPT_ENCODING_HEADER);
+        if (!acceptsGzip(request) || response.containsHeader(CONTENT_ENCODING_HEADER)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        GzipResponse gzipResponse = new GzipResponse(response);
+        try {
+            chain.doFilter(request, gzipResponse);
+        }
+        finally {
+            gzipResponse.finish();
+        }
+    }
+
+    /**
+     * Checks if the {@code Accept-Encoding} headers of the request contain {@code gzip} with a quality value other
+     * than zero.
+     */
+    static boolean acceptsGzip(HttpServletRequest request) {
+        for (String header : Collections.list(request.getHeaders(ACCEPT_ENCODING_HEADER))) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.split(";");
+                if (!GZIP.equalsIgnoreCase(parts[0].trim())) {
+                    continue;
+                }
+                boolean accepted = true;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            accepted = Double.parseDouble(parameter.substring(2)) > 0;
+                        }
+                        catch (NumberFormatException exception) {
+                            accepted = false;
+                        }
+                    }
+                }
+                if (accepted) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the output stream of the response with one that compresses what is written to it. The length of the
+     * body set by the servlet is ignored, as it isn't the length of the compressed body.
+     */
+    private static class GzipResponse extends HttpServletResponseWrapper {
+        private GzipOutputStream stream;
+        private PrintWriter writer;
+
+        GzipResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("The writer of the response has already been obtained.");
+            }
+            if (stream == null) {
+                stream = new GzipOutputStream((HttpServletResponse) getResponse());
+            }
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (stream != null) {
+                    throw new IllegalStateException("The output stream of the response has already been obtained.");
+                }
+                stream = new GzipOutputStream((HttpServletResponse) getResponse());
+                writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (!CONTENT_LENGTH_HEADER.equalsIgnoreCase(name)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (!CONTENT_LENGTH_HEADER.equalsIgnoreCase(name)) {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (stream != null) {
+                stream.flush();
+            }
+            super.flushBuffer();
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (stream != null && stream.isStarted()) {
+                throw new IllegalStateException("The compressed body of the response has already been started.");
+            }
+            super.resetBuffer();
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (stream != null) {
+                stream.finish();
+            }
+        }
+    }
+
+    /**
+     * Compresses what is written to the output stream of the response. The compressor is created, and the encoding
+     * announced, when the first byte is written.
+     */
+    private static class GzipOutputStream extends ServletOutputStream {
+        private final HttpServletResponse response;
+        private GZIPOutputStream compressor;
+        private boolean closed;
+
+        GzipOutputStream(HttpServletResponse response) {
+            this.response = response;
+        }
+
+        boolean isStarted() {
+            return compressor != null;
+        }
+
+        private GZIPOutputStream getCompressor() throws IOException {
+            if (closed) {
+                throw new IOException("The output stream of the response has already been closed.");
+            }
+            if (compressor == null) {
+                response.setHeader(CONTENT_ENCODING_HEADER, GZIP);
+                compressor = new GZIPOutputStream(response.getOutputStream(), true);
+            }
+            return compressor;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            getCompressor().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > 0) {
+                getCompressor().write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (compressor != null && !closed) {
+                compressor.flush();
+            }
+        }
+
+        void finish() throws IOException {
+            if (compressor != null && !closed) {
+                compressor.finish();
+                compressor.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                finish();
+                closed = true;
+                response.getOutputStream().close();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            try {
+                return response.getOutputStream().isReady();
+            }
+            catch (IOException exception) {
+                return false;
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            try {
+                response.getOutputStream().setWriteListener(listener);
+            }
+            catch (IOException exception) {
+                throw new IllegalStateException(exception);
+            }
+        }
+    }
+}
@@ -25,10 +25,14 @@ import org.codehaus.jackson.xc.JaxbAnnotationIntrospector;
 
 public class CustomObjectMapper extends ObjectMapper {
     public static CustomObjectMapper get() {
+        return get(true);
+    }
+
+    public static CustomObjectMapper get(boolean indent) {
         CustomObjectMapper mapper = new CustomObjectMapper();
         mapper.setSerializer(new CustomBeanFactory())
                 .includeDefaults(false)
-                .indent(true)
+                .indent(indent)
                 .addSerializationConfig();
         return mapper;
     }
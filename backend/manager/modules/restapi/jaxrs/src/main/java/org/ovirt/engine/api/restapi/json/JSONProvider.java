@@ -20,11 +20,16 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.UriInfo;
 import javax.ws.rs.ext.Provider;
 
 import org.codehaus.jackson.jaxrs.JacksonJsonProvider;
+import org.codehaus.jackson.map.ObjectMapper;
 import org.ovirt.engine.api.restapi.invocation.CurrentManager;
+import org.ovirt.engine.api.restapi.util.ParametersHelper;
+import org.ovirt.engine.api.restapi.xml.JAXBProvider;
 
 @Provider
 @Consumes(MediaType.APPLICATION_JSON)
@@ -33,11 +38,25 @@ public class JSONProvider extends JacksonJsonProvider {
     // The version of the API supported by this provider:
     public static final String SUPPORTED_VERSION = "4";
 
+    // The mapper used when the client asks for output without indentation:
+    private final ObjectMapper compactMapper = CustomObjectMapper.get(false);
+
+    @Context
+    private UriInfo uriInfo;
+
     public JSONProvider() {
         super();
         setMapper(CustomObjectMapper.get());
     }
 
+    @Override
+    public ObjectMapper locateMapper(Class<?> type, MediaType mediaType) {
+        if (!ParametersHelper.getBooleanParameter(null, uriInfo, JAXBProvider.PRETTY, true, true)) {
+            return compactMapper;
+        }
+        return super.locateMapper(type, mediaType);
+    }
+
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
         if (!SUPPORTED_VERSION.equals(CurrentManager.get().getVersion())) {
@@ -10,6 +10,7 @@ import org.ovirt.engine.api.resource.ActionResource;
 import org.ovirt.engine.api.resource.EventResource;
 import org.ovirt.engine.api.resource.EventsResource;
 import org.ovirt.engine.api.restapi.types.ExternalStatusMapper;
+import org.ovirt.engine.api.restapi.util.MappedList;
 import org.ovirt.engine.core.common.action.AddExternalEventParameters;
 import org.ovirt.engine.core.common.action.VdcActionParametersBase;
 import org.ovirt.engine.core.common.action.VdcActionType;
@@ -34,9 +35,7 @@ public class BackendEventsResource
 
     private Events mapCollection(List<AuditLog> entities) {
         Events collection = new Events();
-        for (AuditLog entity : entities) {
-            collection.getEvents().add(addLinks(map(entity)));
-        }
+        collection.setEvents(new MappedList<>(entities, entity -> addLinks(map(entity))));
         return collection;
     }
 
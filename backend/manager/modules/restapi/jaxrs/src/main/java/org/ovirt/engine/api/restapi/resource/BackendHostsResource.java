@@ -8,6 +8,7 @@ import org.ovirt.engine.api.model.HostedEngine;
 import org.ovirt.engine.api.model.Hosts;
 import org.ovirt.engine.api.resource.HostResource;
 import org.ovirt.engine.api.resource.HostsResource;
+import org.ovirt.engine.api.restapi.util.MappedList;
 import org.ovirt.engine.core.common.action.VdcActionType;
 import org.ovirt.engine.core.common.action.VdsOperationActionParameters;
 import org.ovirt.engine.core.common.action.hostdeploy.AddVdsActionParameters;
@@ -94,9 +95,7 @@ public class BackendHostsResource extends AbstractBackendCollectionResource<Host
 
     private Hosts mapCollection(List<VDS> entities) {
         Hosts collection = new Hosts();
-        for (VDS entity : entities) {
-            collection.getHosts().add(addLinks(populate(map(entity), entity)));
-        }
+        collection.setHosts(new MappedList<>(entities, entity -> addLinks(populate(map(entity), entity))));
         return collection;
     }
 
@@ -1,6 +1,9 @@
 package org.ovirt.engine.api.restapi.resource;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.ws.rs.core.Response;
 
@@ -16,7 +19,9 @@ import org.ovirt.engine.api.restapi.util.DisplayHelper;
 import org.ovirt.engine.api.restapi.util.VmHelper;
 import org.ovirt.engine.core.common.action.AddVmTemplateParameters;
 import org.ovirt.engine.core.common.action.VdcActionType;
+import org.ovirt.engine.core.common.businessentities.GraphicsDevice;
 import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.VmDevice;
 import org.ovirt.engine.core.common.businessentities.VmEntityType;
 import org.ovirt.engine.core.common.businessentities.VmRngDevice;
 import org.ovirt.engine.core.common.businessentities.VmStatic;
@@ -31,6 +36,12 @@ public class BackendInstanceTypesResource
     extends AbstractBackendCollectionResource<InstanceType, org.ovirt.engine.core.common.businessentities.InstanceType>
     implements InstanceTypesResource {
 
+    /**
+     * The devices of the instance types of the collection being listed, retrieved at once for populating all of them,
+     * or <code>null</code> when a single instance type is populated.
+     */
+    private Map<Guid, List<VmDevice>> collectionDevices;
+
     public BackendInstanceTypesResource() {
         super(InstanceType.class, org.ovirt.engine.core.common.businessentities.InstanceType.class);
     }
@@ -99,10 +110,20 @@ public class BackendInstanceTypesResource
     }
 
     protected InstanceTypes mapCollection(List<org.ovirt.engine.core.common.businessentities.InstanceType> entities) {
+        // optimization of DB access: retrieve the devices of all the instance types at once
+        List<Guid> ids = entities.stream()
+                .map(org.ovirt.engine.core.common.businessentities.InstanceType::getId)
+                .collect(Collectors.toList());
+        Map<Guid, List<GraphicsDevice>> instanceTypesGraphicsDevices =
+                DisplayHelper.getGraphicsDevicesForMultipleEntities(this, ids);
+        if (isPopulate()) {
+            collectionDevices = BackendVmDeviceHelper.getDevicesForMultipleEntities(this, ids);
+        }
+
         InstanceTypes collection = new InstanceTypes();
         for (org.ovirt.engine.core.common.businessentities.InstanceType entity : entities) {
             InstanceType instanceType = map(entity);
-            DisplayHelper.adjustDisplayData(this, instanceType);
+            DisplayHelper.adjustDisplayData(this, instanceType, instanceTypesGraphicsDevices);
             collection.getInstanceTypes().add(addLinks(populate(instanceType, entity)));
         }
         return collection;
@@ -110,6 +131,11 @@ public class BackendInstanceTypesResource
 
     @Override
     protected InstanceType doPopulate(InstanceType model, org.ovirt.engine.core.common.businessentities.InstanceType entity) {
+        if (collectionDevices != null) {
+            BackendVmDeviceHelper.setDevices(model,
+                    collectionDevices.getOrDefault(entity.getId(), Collections.emptyList()));
+            return model;
+        }
         if (!model.isSetConsole()) {
             model.setConsole(new Console());
         }
@@ -2,6 +2,7 @@ package org.ovirt.engine.api.restapi.resource;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +31,8 @@ import org.ovirt.engine.core.common.action.AddVmTemplateParameters;
 import org.ovirt.engine.core.common.action.VdcActionType;
 import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.Entities;
+import org.ovirt.engine.core.common.businessentities.GraphicsDevice;
+import org.ovirt.engine.core.common.businessentities.VmDevice;
 import org.ovirt.engine.core.common.businessentities.VmInit;
 import org.ovirt.engine.core.common.businessentities.VmRngDevice;
 import org.ovirt.engine.core.common.businessentities.VmStatic;
@@ -54,6 +57,12 @@ public class BackendTemplatesResource
     public static final String CLONE_PERMISSIONS = "clone_permissions";
     public static final String SEAL = "seal";
 
+    /**
+     * The devices of the templates of the collection being listed, retrieved at once for populating all of them, or
+     * <code>null</code> when a single template is populated.
+     */
+    private Map<Guid, List<VmDevice>> collectionDevices;
+
     public BackendTemplatesResource() {
         super(Template.class, VmTemplate.class);
     }
@@ -217,10 +226,10 @@ public class BackendTemplatesResource
         boolean includeData = details.contains(DetailHelper.MAIN);
         boolean includeSize = details.contains("size");
 
+        List<Guid> ids = entities.stream().map(VmTemplate::getId).collect(Collectors.toList());
         if (includeData) {
             // Fill VmInit for entities - the search query no join the VmInit to Templates
             IdsQueryParameters params = new IdsQueryParameters();
-            List<Guid> ids = entities.stream().map(VmTemplate::getId).collect(Collectors.toList());
             params.setId(ids);
             VdcQueryReturnValue queryReturnValue = runQuery(VdcQueryType.GetVmsInit, params);
             if (queryReturnValue.getSucceeded() && queryReturnValue.getReturnValue() != null) {
@@ -234,10 +243,17 @@ public class BackendTemplatesResource
 
         Templates collection = new Templates();
         if (includeData) {
+            // optimization of DB access: retrieve the devices of all the templates at once
+            Map<Guid, List<GraphicsDevice>> templatesGraphicsDevices =
+                    DisplayHelper.getGraphicsDevicesForMultipleEntities(this, ids);
+            if (isPopulate()) {
+                collectionDevices = BackendVmDeviceHelper.getDevicesForMultipleEntities(this, ids);
+            }
+
             for (VmTemplate entity : entities) {
                 Template template = map(entity);
                 collection.getTemplates().add(addLinks(populate(template, entity)));
-                DisplayHelper.adjustDisplayData(this, template);
+                DisplayHelper.adjustDisplayData(this, template, templatesGraphicsDevices);
             }
         }
         if (includeSize) {
@@ -282,6 +298,11 @@ public class BackendTemplatesResource
 
     @Override
     protected Template doPopulate(Template model, VmTemplate entity) {
+        if (collectionDevices != null) {
+            BackendVmDeviceHelper.setDevices(model,
+                    collectionDevices.getOrDefault(entity.getId(), Collections.emptyList()));
+            return model;
+        }
         if (!model.isSetConsole()) {
             model.setConsole(new Console());
         }
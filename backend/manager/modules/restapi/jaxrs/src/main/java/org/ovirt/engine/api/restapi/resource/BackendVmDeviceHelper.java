@@ -17,24 +17,31 @@
 package org.ovirt.engine.api.restapi.resource;
 
 import java.util.List;
+import java.util.Map;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
 
+import org.apache.commons.codec.binary.Base64;
 import org.ovirt.engine.api.model.Certificate;
 import org.ovirt.engine.api.model.Console;
 import org.ovirt.engine.api.model.Display;
 import org.ovirt.engine.api.model.Payload;
 import org.ovirt.engine.api.model.Payloads;
+import org.ovirt.engine.api.model.Template;
 import org.ovirt.engine.api.model.VirtioScsi;
 import org.ovirt.engine.api.model.Vm;
 import org.ovirt.engine.api.restapi.types.RngDeviceMapper;
 import org.ovirt.engine.api.restapi.util.VmHelper;
+import org.ovirt.engine.core.common.businessentities.VmDevice;
+import org.ovirt.engine.core.common.businessentities.VmDeviceGeneralType;
 import org.ovirt.engine.core.common.businessentities.VmPayload;
 import org.ovirt.engine.core.common.businessentities.VmRngDevice;
 import org.ovirt.engine.core.common.queries.IdQueryParameters;
+import org.ovirt.engine.core.common.queries.IdsQueryParameters;
 import org.ovirt.engine.core.common.queries.VdcQueryReturnValue;
 import org.ovirt.engine.core.common.queries.VdcQueryType;
+import org.ovirt.engine.core.common.utils.VmDeviceType;
 import org.ovirt.engine.core.compat.Guid;
 
 public class BackendVmDeviceHelper {
@@ -96,11 +103,7 @@ public class BackendVmDeviceHelper {
                         new IdQueryParameters(resouce.asGuid(vm.getId())));
 
         if (result != null && result.getSucceeded() && result.getReturnValue() != null) {
-            if (!vm.isSetDisplay()) {
-                vm.setDisplay(new Display());
-            }
-            vm.getDisplay().setCertificate(new Certificate());
-            vm.getDisplay().getCertificate().setSubject(result.getReturnValue().toString());
+            setCertificateSubject(vm, result.getReturnValue());
         }
     }
 
@@ -114,4 +117,141 @@ public class BackendVmDeviceHelper {
             vm.setRngDevice(RngDeviceMapper.map(rngDevices.get(0), null));
         }
     }
+
+    /**
+     * Retrieves the devices of all the given VMs or templates at once, so a collection can be populated without
+     * querying the devices of each of its entities separately. The methods below which accept the devices of an
+     * entity set the same data as their counterparts which query it.
+     */
+    public static Map<Guid, List<VmDevice>> getDevicesForMultipleEntities(BackendResource resouce, List<Guid> ids) {
+        Map<Guid, List<VmDevice>> devices = resouce.getEntity(Map.class,
+                VdcQueryType.GetVmDevicesMultiple,
+                new IdsQueryParameters(ids),
+                "GetVmDevicesMultiple", true);
+        return devices;
+    }
+
+    public static void setPayload(BackendResource resouce, Vm vm, List<VmDevice> devices) {
+        VmPayload payload = null;
+        for (VmDevice device : devices) {
+            if (device.getType() == VmDeviceGeneralType.DISK && VmPayload.isPayload(device.getSpecParams())) {
+                payload = new VmPayload(device);
+                for (Map.Entry<String, String> entry : payload.getFiles().entrySet()) {
+                    entry.setValue(new String(Base64.decodeBase64(entry.getValue())));
+                }
+            }
+        }
+
+        if (payload != null) {
+            Payload p = resouce.getMappingLocator().getMapper(VmPayload.class, Payload.class).map(payload, null);
+            Payloads payloads = new Payloads();
+            payloads.getPayloads().add(p);
+            vm.setPayloads(payloads);
+        }
+    }
+
+    public static void setConsoleDevice(Vm vm, List<VmDevice> devices) {
+        if (!vm.isSetConsole()) {
+            vm.setConsole(new Console());
+        }
+        vm.getConsole().setEnabled(containsDevice(devices, VmDeviceGeneralType.CONSOLE, null));
+    }
+
+    public static void setVirtioScsiController(Vm vm, List<VmDevice> devices) {
+        if (!vm.isSetVirtioScsi()) {
+            vm.setVirtioScsi(new VirtioScsi());
+        }
+        vm.getVirtioScsi().setEnabled(
+                containsDevice(devices, VmDeviceGeneralType.CONTROLLER, VmDeviceType.VIRTIOSCSI.getName()));
+    }
+
+    public static void setSoundcard(Vm vm, List<VmDevice> devices) {
+        vm.setSoundcardEnabled(containsDevice(devices, VmDeviceGeneralType.SOUND, null));
+    }
+
+    public static void setRngDevice(Vm vm, List<VmDevice> devices) {
+        VmRngDevice rngDevice = getRngDevice(devices);
+        if (rngDevice != null) {
+            vm.setRngDevice(RngDeviceMapper.map(rngDevice, null));
+        }
+    }
+
+    /**
+     * Sets the certificate info of a VM of a collection, querying the subject of the certificate once for each of the
+     * hosts the VMs of the collection run on instead of once for each VM.
+     *
+     * @param subjectsByHost the subjects already retrieved for the collection, by the id of their host
+     */
+    public static void setCertificateInfo(BackendResource resouce, Vm vm, Guid hostId,
+            Map<Guid, Object> subjectsByHost) {
+        if (hostId == null) {
+            return;
+        }
+        if (!subjectsByHost.containsKey(hostId)) {
+            subjectsByHost.put(hostId, getCertificateSubject(resouce, vm));
+        }
+        Object subject = subjectsByHost.get(hostId);
+        if (subject != null) {
+            setCertificateSubject(vm, subject);
+        }
+    }
+
+    private static Object getCertificateSubject(BackendResource resouce, Vm vm) {
+        VdcQueryReturnValue result =
+                resouce.runQuery(VdcQueryType.GetVdsCertificateSubjectByVmId,
+                        new IdQueryParameters(resouce.asGuid(vm.getId())));
+        return result != null && result.getSucceeded() ? result.getReturnValue() : null;
+    }
+
+    private static void setCertificateSubject(Vm vm, Object subject) {
+        if (!vm.isSetDisplay()) {
+            vm.setDisplay(new Display());
+        }
+        vm.getDisplay().setCertificate(new Certificate());
+        vm.getDisplay().getCertificate().setSubject(subject.toString());
+    }
+
+    /**
+     * Sets the device related data of a template or an instance type, as its <code>doPopulate()</code> does, from its
+     * devices.
+     */
+    public static void setDevices(Template template, List<VmDevice> devices) {
+        if (!template.isSetConsole()) {
+            template.setConsole(new Console());
+        }
+        template.getConsole().setEnabled(containsDevice(devices, VmDeviceGeneralType.CONSOLE, null));
+        if (!template.isSetVirtioScsi()) {
+            template.setVirtioScsi(new VirtioScsi());
+        }
+        template.getVirtioScsi().setEnabled(
+                containsDevice(devices, VmDeviceGeneralType.CONTROLLER, VmDeviceType.VIRTIOSCSI.getName()));
+        template.setSoundcardEnabled(containsDevice(devices, VmDeviceGeneralType.SOUND, null));
+        VmRngDevice rngDevice = getRngDevice(devices);
+        if (rngDevice != null) {
+            template.setRngDevice(RngDeviceMapper.map(rngDevice, null));
+        }
+        MemoryPolicyHelper.setupMemoryBalloon(template, isMemoryBalloonEnabled(devices));
+    }
+
+    private static VmRngDevice getRngDevice(List<VmDevice> devices) {
+        VmDevice rngDevice = findDevice(devices, VmDeviceGeneralType.RNG, VmDeviceType.VIRTIO.getName());
+        return rngDevice != null ? new VmRngDevice(rngDevice) : null;
+    }
+
+    public static boolean isMemoryBalloonEnabled(List<VmDevice> devices) {
+        return containsDevice(devices, VmDeviceGeneralType.BALLOON, VmDeviceType.MEMBALLOON.getName());
+    }
+
+    private static boolean containsDevice(List<VmDevice> devices, VmDeviceGeneralType type, String device) {
+        return findDevice(devices, type, device) != null;
+    }
+
+    private static VmDevice findDevice(List<VmDevice> devices, VmDeviceGeneralType type, String device) {
+        for (VmDevice vmDevice : devices) {
+            if (vmDevice.getType() == type && (device == null || device.equals(vmDevice.getDevice()))) {
+                return vmDevice;
+            }
+        }
+        return null;
+    }
 }
@@ -18,6 +18,7 @@ package org.ovirt.engine.api.restapi.resource;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -58,6 +59,7 @@ import org.ovirt.engine.api.restapi.types.RngDeviceMapper;
 import org.ovirt.engine.api.restapi.types.VmMapper;
 import org.ovirt.engine.api.restapi.util.DisplayHelper;
 import org.ovirt.engine.api.restapi.util.IconHelper;
+import org.ovirt.engine.api.restapi.util.MappedList;
 import org.ovirt.engine.api.restapi.util.ParametersHelper;
 import org.ovirt.engine.api.restapi.util.VmHelper;
 import org.ovirt.engine.core.common.action.AddVmFromSnapshotParameters;
@@ -103,6 +105,13 @@ public class BackendVmsResource extends
     public static final String CLONE = "clone";
     public static final String CLONE_PERMISSIONS = "clone_permissions";
 
+    /**
+     * The devices of the VMs of the collection being listed, retrieved at once for populating all of them, or
+     * <code>null</code> when a single VM is populated.
+     */
+    private Map<Guid, List<VmDevice>> collectionDevices;
+    private Map<Guid, Object> certificateSubjectsByHost;
+
     public BackendVmsResource() {
         super(Vm.class, org.ovirt.engine.core.common.businessentities.VM.class);
     }
@@ -618,13 +627,17 @@ public class BackendVmsResource extends
             // optimization of DB access: retrieve GraphicsDevices for all VMs at once
             Map<Guid, List<GraphicsDevice>> vmsGraphicsDevices =
                     DisplayHelper.getGraphicsDevicesForMultipleEntities(this, vmIds);
+            if (isPopulate()) {
+                collectionDevices = BackendVmDeviceHelper.getDevicesForMultipleEntities(this, vmIds);
+                certificateSubjectsByHost = new HashMap<>();
+            }
 
-            for (org.ovirt.engine.core.common.businessentities.VM entity : entities) {
+            collection.setVms(new MappedList<>(entities, entity -> {
                 Vm vm = map(entity);
                 DisplayHelper.adjustDisplayData(this, vm, vmsGraphicsDevices, false);
                 removeRestrictedInfo(vm);
-                collection.getVms().add(addLinks(populate(vm, entity)));
-            }
+                return addLinks(populate(vm, entity));
+            }));
         }
         if (includeSize) {
             collection.setSize((long) entities.size());
@@ -710,6 +723,9 @@ public class BackendVmsResource extends
 
     @Override
     protected Vm doPopulate(Vm model, org.ovirt.engine.core.common.businessentities.VM entity) {
+        if (collectionDevices != null) {
+            return doPopulate(model, entity, collectionDevices.getOrDefault(entity.getId(), Collections.emptyList()));
+        }
         BackendVmDeviceHelper.setPayload(this, model);
         MemoryPolicyHelper.setupMemoryBalloon(model, this);
         BackendVmDeviceHelper.setConsoleDevice(this, model);
@@ -721,6 +737,23 @@ public class BackendVmsResource extends
         return model;
     }
 
+    private Vm doPopulate(Vm model, org.ovirt.engine.core.common.businessentities.VM entity, List<VmDevice> devices) {
+        BackendVmDeviceHelper.setPayload(this, model, devices);
+        if (entity.isNextRunConfigurationExists()) {
+            // the ballooning of the next run is taken from the configuration of the snapshot
+            MemoryPolicyHelper.setupMemoryBalloon(model, this);
+        } else {
+            MemoryPolicyHelper.setupMemoryBalloon(model, BackendVmDeviceHelper.isMemoryBalloonEnabled(devices));
+        }
+        BackendVmDeviceHelper.setConsoleDevice(model, devices);
+        BackendVmDeviceHelper.setVirtioScsiController(model, devices);
+        BackendVmDeviceHelper.setSoundcard(model, devices);
+        BackendVmDeviceHelper.setCertificateInfo(this, model, entity.getRunOnVds(), certificateSubjectsByHost);
+        BackendVmDeviceHelper.setRngDevice(model, devices);
+        setVmOvfConfiguration(model, entity);
+        return model;
+    }
+
     private List<String> getConsoleDevicesForEntity(Guid id) {
         return getEntity(List.class,
                 VdcQueryType.GetConsoleDevices,
@@ -14,6 +14,10 @@ public class MemoryPolicyHelper {
                 new IdQueryParameters(new Guid(vmBase.getId())),
                 null,
                 true);
+        setupMemoryBalloon(vmBase, balloonEnabled);
+    }
+
+    public static void setupMemoryBalloon(VmBase vmBase, Boolean balloonEnabled) {
         if (!vmBase.isSetMemoryPolicy()) {
             vmBase.setMemoryPolicy(new MemoryPolicy());
         }
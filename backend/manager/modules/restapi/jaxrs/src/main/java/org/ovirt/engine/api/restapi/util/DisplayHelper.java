@@ -100,6 +100,11 @@ public class DisplayHelper {
         adjustDisplayDataInternal(res, template, null, false);
     }
 
+    public static void adjustDisplayData(BackendResource res, Template template,
+            Map<Guid, List<GraphicsDevice>> templatesGraphicsDevices) {
+        adjustDisplayDataInternal(res, template, templatesGraphicsDevices, false);
+    }
+
     /**
      * Sets static display info (derived from graphics device) to the VM.
      * Serves for BC purposes as VM can have more graphics devices, but old restapi allows us to set only one.
@@ -0,0 +1,45 @@
+package org.ovirt.engine.api.restapi.util;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * A read only list whose elements are built from the elements of another list, only when they are requested. Only the
+ * last built element is kept by the list, so when it's traversed, as the providers do when they write a response, only
+ * the element being written needs to be in memory, instead of the complete collection of model objects.
+ *
+ * Requesting the same element again returns the element already built, so it can be inspected and then written
+ * without being mapped twice. Going back to an element built before the last one builds it again.
+ *
+ * @param <E> the type of the elements of the source list
+ * @param <M> the type of the elements of this list
+ */
+public class MappedList<E, M> extends AbstractList<M> implements RandomAccess {
+    private final List<E> entities;
+    private final Function<? super E, ? extends M> mapper;
+
+    // The index and value of the last built element:
+    private int lastIndex = -1;
+    private M lastElement;
+
+    public MappedList(List<E> entities, Function<? super E, ? extends M> mapper) {
+        this.entities = entities;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public M get(int index) {
+        if (index != lastIndex) {
+            lastElement = mapper.apply(entities.get(index));
+            lastIndex = index;
+        }
+        return lastElement;
+    }
+
+    @Override
+    public int size() {
+        return entities.size();
+    }
+}
@@ -28,8 +28,10 @@ import java.util.Map;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.UriInfo;
 import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.Provider;
@@ -46,6 +48,7 @@ import javax.xml.stream.XMLStreamReader;
 import org.ovirt.engine.api.model.Api;
 import org.ovirt.engine.api.model.ObjectFactory;
 import org.ovirt.engine.api.restapi.invocation.CurrentManager;
+import org.ovirt.engine.api.restapi.util.ParametersHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,6 +66,11 @@ public class JAXBProvider implements MessageBodyReader<Object>, MessageBodyWrite
      */
     private static final String SUPPORTED_VERSION = "4";
 
+    /**
+     * The name of the parameter that indicates if the generated XML documents should be indented.
+     */
+    public static final String PRETTY = "pretty";
+
     /**
      * The logger used by this class.
      */
@@ -98,6 +106,12 @@ public class JAXBProvider implements MessageBodyReader<Object>, MessageBodyWrite
      */
     private ValidationEventHandler jaxbHandler = new JAXBValidationEventHandler();
 
+    /**
+     * The information of the request URI, used to check if the output should be indented.
+     */
+    @Context
+    private UriInfo uriInfo;
+
     public JAXBProvider() {
         // In order to create the JAXB element that wraps the object we need to call the method of the object factory
         // that uses the correct element name, and in order to avoid doing this with every request we populate this
@@ -221,15 +235,25 @@ public class JAXBProvider implements MessageBodyReader<Object>, MessageBodyWrite
             throw new IOException("Error invoking factory method for type \"" +  type.getName() + "\".", exception);
         }
 
-        // Marshal the element:
+        // Marshal the element. Note that the items of large collections are usually mapped from the backend entities
+        // while they are written, so this writes the document to the stream as it goes, and doesn't need to build it
+        // in memory first:
         try {
             Marshaller marshaller = jaxbContext.createMarshaller();
             marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, isPretty());
             marshaller.marshal(element, entityStream);
         }
         catch (JAXBException exception) {
             throw new IOException("Can't marshall JAXB element of type \"" + type.getName() + "\".", exception);
         }
     }
+
+    /**
+     * Checks if the generated document should be indented. It is by default, but it can be disabled using the
+     * {@code pretty=false} parameter, which reduces the size of large responses.
+     */
+    private boolean isPretty() {
+        return ParametersHelper.getBooleanParameter(null, uriInfo, PRETTY, true, true);
+    }
 }
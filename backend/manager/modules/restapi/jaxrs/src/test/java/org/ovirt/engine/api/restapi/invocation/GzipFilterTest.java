@@ -0,0 +1,167 @@
+package org.ovirt.engine.api.restapi.invocation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GzipFilterTest {
+    private static final byte[] BODY = "<vms><vm id=\"123\"/></vms>".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    private final GzipFilter filter = new GzipFilter();
+
+    private void captureBody() throws IOException {
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+            }
+        });
+    }
+
+    @Test
+    public void testStreamIsCompressedWhenAccepted() throws Exception {
+        captureBody();
+        acceptEncoding("deflate, gzip");
+
+        filter.doFilter(request, response, writeBody());
+
+        verify(response).setHeader("Content-Encoding", "gzip");
+        assertArrayEquals(BODY, decompress(body.toByteArray()));
+    }
+
+    @Test
+    public void testWriterIsCompressedWhenAccepted() throws Exception {
+        captureBody();
+        acceptEncoding("gzip;q=0.5");
+        when(response.getCharacterEncoding()).thenReturn("UTF-8");
+
+        FilterChain chain = (request, response) -> response.getWriter().write(new String(BODY, StandardCharsets.UTF_8));
+        filter.doFilter(request, response, chain);
+
+        verify(response).setHeader("Content-Encoding", "gzip");
+        assertArrayEquals(BODY, decompress(body.toByteArray()));
+    }
+
+    @Test
+    public void testResponseIsPassedUnchangedWhenNotAccepted() throws Exception {
+        acceptEncoding("deflate", "gzip;q=0");
+
+        ServletResponse[] passed = new ServletResponse[1];
+        filter.doFilter(request, response, (request, response) -> passed[0] = response);
+
+        assertSame(response, passed[0]);
+        verify(response).addHeader("Vary", "Accept-Encoding");
+        verify(response, never()).setHeader("Content-Encoding", "gzip");
+    }
+
+    @Test
+    public void testEmptyBodyIsNotEncoded() throws Exception {
+        captureBody();
+        acceptEncoding("gzip");
+
+        ServletResponse[] passed = new ServletResponse[1];
+        filter.doFilter(request, response, (request, response) -> {
+            passed[0] = response;
+            response.getOutputStream().close();
+        });
+
+        assertNotSame(response, passed[0]);
+        verify(response, never()).setHeader("Content-Encoding", "gzip");
+        assertEquals(0, body.size());
+    }
+
+    @Test
+    public void testContentLengthIsIgnoredWhenCompressing() throws Exception {
+        captureBody();
+        acceptEncoding("gzip");
+
+        filter.doFilter(request, response, (request, response) -> {
+            response.setContentLength(BODY.length);
+            ((HttpServletResponse) response).setHeader("Content-Length", String.valueOf(BODY.length));
+            response.getOutputStream().write(BODY);
+        });
+
+        verify(response, never()).setContentLength(BODY.length);
+        verify(response, never()).setHeader("Content-Length", String.valueOf(BODY.length));
+        verify(response).setHeader("Content-Encoding", "gzip");
+    }
+
+    @Test
+    public void testAcceptedEncodings() {
+        acceptEncoding("GZIP");
+        assertTrue(GzipFilter.acceptsGzip(request));
+        acceptEncoding("br, gzip ; q=1.0");
+        assertTrue(GzipFilter.acceptsGzip(request));
+        acceptEncoding("gzip; q=0.0");
+        assertFalse(GzipFilter.acceptsGzip(request));
+        acceptEncoding("identity");
+        assertFalse(GzipFilter.acceptsGzip(request));
+        when(request.getHeaders(anyString())).thenReturn(Collections.emptyEnumeration());
+        assertFalse(GzipFilter.acceptsGzip(request));
+    }
+
+    private void acceptEncoding(String... values) {
+        when(request.getHeaders("Accept-Encoding")).thenReturn(Collections.enumeration(Arrays.asList(values)));
+    }
+
+    private static FilterChain writeBody() {
+        return (request, response) -> response.getOutputStream().write(BODY);
+    }
+
+    private static byte[] decompress(byte[] compressed) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] buffer = new byte[1024];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                result.write(buffer, 0, count);
+            }
+        }
+        return result.toByteArray();
+    }
+}
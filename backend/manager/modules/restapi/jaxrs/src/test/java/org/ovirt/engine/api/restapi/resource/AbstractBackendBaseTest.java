@@ -49,6 +49,9 @@ import org.ovirt.engine.core.common.action.VdcActionParametersBase;
 import org.ovirt.engine.core.common.action.VdcActionType;
 import org.ovirt.engine.core.common.action.VdcReturnValueBase;
 import org.ovirt.engine.core.common.businessentities.AsyncTaskStatus;
+import org.ovirt.engine.core.common.businessentities.VmDevice;
+import org.ovirt.engine.core.common.businessentities.VmDeviceGeneralType;
+import org.ovirt.engine.core.common.businessentities.VmDeviceId;
 import org.ovirt.engine.core.common.businessentities.aaa.DbUser;
 import org.ovirt.engine.core.common.interfaces.BackendLocal;
 import org.ovirt.engine.core.common.interfaces.ErrorTranslator;
@@ -58,10 +61,12 @@ import org.ovirt.engine.core.common.job.JobExecutionStatus;
 import org.ovirt.engine.core.common.queries.GetPermissionsForObjectParameters;
 import org.ovirt.engine.core.common.queries.GetTasksStatusesByTasksIDsParameters;
 import org.ovirt.engine.core.common.queries.IdQueryParameters;
+import org.ovirt.engine.core.common.queries.IdsQueryParameters;
 import org.ovirt.engine.core.common.queries.SearchParameters;
 import org.ovirt.engine.core.common.queries.VdcQueryParametersBase;
 import org.ovirt.engine.core.common.queries.VdcQueryReturnValue;
 import org.ovirt.engine.core.common.queries.VdcQueryType;
+import org.ovirt.engine.core.common.utils.VmDeviceType;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.utils.MockConfigRule;
 
@@ -329,6 +334,23 @@ public abstract class AbstractBackendBaseTest extends Assert {
         }
     }
 
+    protected void setUpGetDevicesMultipleExpectations(int times) throws Exception {
+        Map<Guid, List<VmDevice>> devices = new HashMap<>();
+        for (int i = 0; i < times; i++) {
+            VmDevice console = new VmDevice();
+            console.setId(new VmDeviceId(Guid.newGuid(), GUIDS[i]));
+            console.setType(VmDeviceGeneralType.CONSOLE);
+            console.setDevice(VmDeviceType.CONSOLE.getName());
+            devices.put(GUIDS[i], Collections.singletonList(console));
+        }
+
+        setUpGetEntityExpectations(VdcQueryType.GetVmDevicesMultiple,
+                IdsQueryParameters.class,
+                new String[] {},
+                new Object[] {},
+                devices);
+    }
+
     protected void setUpGetRngDeviceExpectations(int... idxs) throws Exception {
         for (int i = 0; i < idxs.length; i++) {
             setUpGetEntityExpectations(VdcQueryType.GetRngDevice,
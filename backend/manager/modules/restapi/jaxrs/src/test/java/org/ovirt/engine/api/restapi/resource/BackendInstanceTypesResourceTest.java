@@ -101,13 +101,13 @@ public class BackendInstanceTypesResourceTest
 
     @Override
     public void testQuery() throws Exception {
-        setUpGetGraphicsExpectations(3);
+        setUpGetGraphicsMultipleExpectations(3);
         super.testQuery();
     }
 
     @Override
     public void testList() throws Exception {
-        setUpGetGraphicsExpectations(3);
+        setUpGetGraphicsMultipleExpectations(3);
         super.testList();
     }
 
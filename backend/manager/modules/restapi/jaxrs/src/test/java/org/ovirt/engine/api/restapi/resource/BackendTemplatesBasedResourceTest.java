@@ -4,7 +4,9 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
@@ -20,8 +22,10 @@ import org.ovirt.engine.core.common.businessentities.GraphicsDevice;
 import org.ovirt.engine.core.common.interfaces.SearchType;
 import org.ovirt.engine.core.common.queries.GetVmTemplateParameters;
 import org.ovirt.engine.core.common.queries.IdQueryParameters;
+import org.ovirt.engine.core.common.queries.IdsQueryParameters;
 import org.ovirt.engine.core.common.queries.VdcQueryType;
 import org.ovirt.engine.core.common.utils.VmDeviceType;
+import org.ovirt.engine.core.compat.Guid;
 
 public abstract class BackendTemplatesBasedResourceTest<R extends Template, Q, C extends AbstractBackendCollectionResource<R, Q>>
         extends AbstractBackendCollectionResourceTest<R, Q, C> {
@@ -110,14 +114,10 @@ public abstract class BackendTemplatesBasedResourceTest<R extends Template, Q, C
             List<String> populates = new ArrayList<>();
             populates.add("true");
             when(httpHeaders.getRequestHeader(BackendResource.POPULATE)).thenReturn(populates);
-            setUpGetConsoleExpectations(0, 1, 2);
-            setUpGetVirtioScsiExpectations(0, 1, 2);
-            setUpGetSoundcardExpectations(0, 1, 2);
-            setUpGetRngDeviceExpectations(0, 1, 2);
-            setUpGetBallooningExpectations(3);
+            setUpGetDevicesMultipleExpectations(3);
         }
 
-        setUpGetGraphicsExpectations(3);
+        setUpGetGraphicsMultipleExpectations(3);
         setUpQueryExpectations("");
         collection.setUriInfo(uriInfo);
         verifyCollection(getCollection());
@@ -132,6 +132,9 @@ public abstract class BackendTemplatesBasedResourceTest<R extends Template, Q, C
 
         for (R template : collection) {
             assertTrue(populated ? template.isSetConsole() : !template.isSetConsole());
+            if (populated) {
+                assertTrue(template.getConsole().isEnabled());
+            }
         }
     }
 
@@ -163,6 +166,19 @@ public abstract class BackendTemplatesBasedResourceTest<R extends Template, Q, C
                 getEntity(index));
     }
 
+    protected void setUpGetGraphicsMultipleExpectations(int times) throws Exception {
+        Map<Guid, List<GraphicsDevice>> graphicsDevices = new HashMap<>();
+        for (int i = 0; i < times; i++) {
+            graphicsDevices.put(GUIDS[i], Collections.singletonList(new GraphicsDevice(VmDeviceType.SPICE)));
+        }
+
+        setUpGetEntityExpectations(VdcQueryType.GetGraphicsDevicesMultiple,
+                IdsQueryParameters.class,
+                new String[] {},
+                new Object[] {},
+                graphicsDevices);
+    }
+
     protected void setUpGetGraphicsExpectations(int times) throws Exception {
         for (int i = 0; i < times; i++) {
             setUpGetEntityExpectations(VdcQueryType.GetGraphicsDevices,
@@ -172,14 +172,14 @@ public class BackendTemplatesResourceTest
     @Override
     @Test
     public void testQuery() throws Exception {
-        setUpGetGraphicsExpectations(3);
+        setUpGetGraphicsMultipleExpectations(3);
         super.testQuery();
     }
 
     @Override
     @Test
     public void testList() throws Exception {
-        setUpGetGraphicsExpectations(3);
+        setUpGetGraphicsMultipleExpectations(3);
         super.testList();
     }
 
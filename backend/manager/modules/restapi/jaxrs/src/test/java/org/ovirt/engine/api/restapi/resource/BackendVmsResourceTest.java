@@ -1151,14 +1151,8 @@ public class BackendVmsResourceTest
             List<String> populates = new ArrayList<>();
             populates.add("true");
             when(httpHeaders.getRequestHeader(BackendResource.POPULATE)).thenReturn(populates);
-            setUpGetPayloadExpectations(3);
-            setUpGetBallooningExpectations(3);
-            setUpGetConsoleExpectations(0, 1, 2);
+            setUpGetDevicesMultipleExpectations(3);
             setUpGetVmOvfExpectations(0, 1, 2);
-            setUpGetVirtioScsiExpectations(0, 1, 2);
-            setUpGetSoundcardExpectations(0, 1, 2);
-            setUpGetRngDeviceExpectations(0, 1, 2);
-            setUpGetCertuficateExpectations(3);
         }
 
         setUpQueryExpectations("");
@@ -1172,28 +1166,17 @@ public class BackendVmsResourceTest
         List<String> populates = new ArrayList<>();
         populates.add("true");
         when(httpHeaders.getRequestHeader(BackendResource.POPULATE)).thenReturn(populates);
-        setUpGetPayloadExpectations(3);
-        setUpGetBallooningExpectations(3);
         setUpGetGraphicsMultipleExpectations(3);
-        setUpGetConsoleExpectations(0, 1, 2);
+        setUpGetDevicesMultipleExpectations(3);
         setUpGetVmOvfExpectations(0, 1, 2);
-        setUpGetVirtioScsiExpectations(0, 1, 2);
-        setUpGetSoundcardExpectations(0, 1, 2);
-        setUpGetRngDeviceExpectations(0, 1, 2);
-        setUpGetCertuficateExpectations(3);
         setUpQueryExpectations("");
         collection.setUriInfo(uriInfo);
-        verifyCollection(getCollection());
-    }
-
-    private void setUpGetCertuficateExpectations(int times) throws Exception {
-        for (int i = 0; i < times; i++) {
-            setUpGetEntityExpectations(VdcQueryType.GetVdsCertificateSubjectByVmId,
-                    IdQueryParameters.class,
-                    new String[] { "Id" },
-                    new Object[] { GUIDS[i] },
-                    CERTIFICATE);
+        List<Vm> vms = getCollection();
+        for (Vm vm : vms) {
+            assertTrue(vm.getConsole().isEnabled());
+            assertFalse(vm.getMemoryPolicy().isBallooning());
         }
+        verifyCollection(vms);
     }
 
     private void setUpGetCertuficateExpectations(int times, int index) throws Exception {
@@ -1544,17 +1527,6 @@ public class BackendVmsResourceTest
                 template);
     }
 
-    protected void setUpGetPayloadExpectations(int times) throws Exception {
-        VmPayload payload = new VmPayload();
-        for (int i = 0; i < times; i++) {
-            setUpGetEntityExpectations(VdcQueryType.GetVmPayload,
-                    IdQueryParameters.class,
-                    new String[] { "Id" },
-                    new Object[] { GUIDS[i] },
-                    payload);
-        }
-    }
-
     protected void setUpGetPayloadExpectations(int times, int index) throws Exception {
         VmPayload payload = new VmPayload();
         for (int i = 0; i < times; i++) {
@@ -1566,16 +1538,6 @@ public class BackendVmsResourceTest
         }
     }
 
-    private void setUpGetBallooningExpectations(int times) throws Exception {
-        for (int i = 0; i < times; i++) {
-            setUpGetEntityExpectations(VdcQueryType.IsBalloonEnabled,
-                    IdQueryParameters.class,
-                    new String[] { "Id" },
-                    new Object[] { GUIDS[i] },
-                    true);
-        }
-    }
-
     private void setUpGetBallooningExpectations(int times, int index) throws Exception {
         for (int i = 0; i < times; i++) {
             setUpGetEntityExpectations(VdcQueryType.IsBalloonEnabled,
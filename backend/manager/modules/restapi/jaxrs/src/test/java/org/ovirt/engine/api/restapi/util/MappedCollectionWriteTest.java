@@ -0,0 +1,100 @@
+package org.ovirt.engine.api.restapi.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+import org.junit.Test;
+import org.ovirt.engine.api.model.Vm;
+import org.ovirt.engine.api.model.Vms;
+import org.ovirt.engine.api.restapi.json.JSONProvider;
+import org.ovirt.engine.api.restapi.xml.JAXBProvider;
+
+/**
+ * Writes a large mapped collection through the XML and JSON providers, and checks that the heap retained while it's
+ * written stays far below the size of the complete collection of model objects.
+ */
+public class MappedCollectionWriteTest {
+    private static final int ENTITY_COUNT = 50000;
+    private static final int DESCRIPTION_SIZE = 1024;
+    private static final int SAMPLE_INTERVAL = 5000;
+
+    @Test
+    public void testXmlCollectionIsNotRetained() throws Exception {
+        assertCollectionIsNotRetained(new JAXBProvider(), MediaType.APPLICATION_XML_TYPE);
+    }
+
+    @Test
+    public void testJsonCollectionIsNotRetained() throws Exception {
+        assertCollectionIsNotRetained(new JSONProvider(), MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    /**
+     * Samples the retained heap while the items are mapped, so the high-water mark includes everything the provider
+     * keeps of the items it has already written, and checks that it's below a quarter of what the descriptions of all
+     * the items alone take.
+     */
+    private void assertCollectionIsNotRetained(MessageBodyWriter<Object> provider, MediaType mediaType)
+            throws Exception {
+        List<Integer> entities = new ArrayList<>(ENTITY_COUNT);
+        for (int i = 0; i < ENTITY_COUNT; i++) {
+            entities.add(i);
+        }
+        char[] description = new char[DESCRIPTION_SIZE];
+        Arrays.fill(description, 'x');
+        CountingOutputStream stream = new CountingOutputStream();
+        long[] writtenWhenMapped = new long[ENTITY_COUNT];
+        long[] highWaterMark = new long[1];
+
+        Vms collection = new Vms();
+        collection.setVms(new MappedList<>(entities, entity -> {
+            writtenWhenMapped[entity] = stream.count;
+            if (entity % SAMPLE_INTERVAL == 0) {
+                highWaterMark[0] = Math.max(highWaterMark[0], retainedHeap());
+            }
+            Vm vm = new Vm();
+            vm.setId(String.valueOf(entity));
+            vm.setDescription(new String(description));
+            return vm;
+        }));
+        long baseline = retainedHeap();
+        provider.writeTo(collection, Vms.class, Vms.class, new Annotation[0], mediaType, null, stream);
+        highWaterMark[0] = Math.max(highWaterMark[0], retainedHeap());
+
+        long descriptionsSize = (long) ENTITY_COUNT * DESCRIPTION_SIZE;
+        assertEquals(ENTITY_COUNT, collection.getVms().size());
+        assertTrue(stream.count > descriptionsSize);
+        assertTrue(writtenWhenMapped[ENTITY_COUNT - 1] > stream.count / 2);
+        assertTrue(highWaterMark[0] - baseline < descriptionsSize / 4);
+    }
+
+    private static long retainedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Discards the document, so only what the provider retains is measured, and counts its bytes.
+     */
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.ovirt.engine.api.restapi.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class MappedListTest {
+
+    @Test
+    public void testItemsAreMappedWhenRequested() {
+        AtomicInteger mapped = new AtomicInteger();
+        List<String> items = new MappedList<>(Arrays.asList(1, 2, 3), entity -> {
+            mapped.incrementAndGet();
+            return "item" + entity;
+        });
+
+        assertEquals(0, mapped.get());
+        assertEquals(3, items.size());
+        assertEquals("item2", items.get(1));
+        assertEquals(Arrays.asList("item1", "item2", "item3"), new ArrayList<>(items));
+        assertEquals(4, mapped.get());
+    }
+
+    @Test
+    public void testLastItemIsNotMappedAgain() {
+        AtomicInteger mapped = new AtomicInteger();
+        List<Object> items = new MappedList<>(Arrays.asList(1, 2), entity -> {
+            mapped.incrementAndGet();
+            return new Object();
+        });
+
+        Object first = items.get(0);
+        assertSame(first, items.get(0));
+        assertEquals(1, mapped.get());
+
+        items.get(1);
+        items.get(0);
+        assertEquals(3, mapped.get());
+    }
+
+    @Test
+    public void testFailedItemIsMappedAgain() {
+        AtomicInteger mapped = new AtomicInteger();
+        List<String> items = new MappedList<>(Arrays.asList(1), entity -> {
+            if (mapped.incrementAndGet() == 1) {
+                throw new IllegalStateException();
+            }
+            return "item" + entity;
+        });
+
+        try {
+            items.get(0);
+        } catch (IllegalStateException expected) {
+            // The first attempt fails.
+        }
+        assertEquals("item1", items.get(0));
+        assertEquals(2, mapped.get());
+    }
+}
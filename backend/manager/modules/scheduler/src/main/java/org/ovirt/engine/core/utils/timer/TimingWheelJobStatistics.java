@@ -0,0 +1,65 @@
+package org.ovirt.engine.core.utils.timer;
+
+/**
+ * Snapshot of the runs of the jobs of the {@link TimingWheelScheduler} sharing a name
+ */
+public class TimingWheelJobStatistics {
+
+    private final String name;
+    private final long runs;
+    private final long overruns;
+    private final long totalLagMillis;
+    private final long maxLagMillis;
+    private final long totalRunTimeMillis;
+    private final long maxRunTimeMillis;
+
+    public TimingWheelJobStatistics(String name,
+            long runs,
+            long overruns,
+            long totalLagMillis,
+            long maxLagMillis,
+            long totalRunTimeMillis,
+            long maxRunTimeMillis) {
+        this.name = name;
+        this.runs = runs;
+        this.overruns = overruns;
+        this.totalLagMillis = totalLagMillis;
+        this.maxLagMillis = maxLagMillis;
+        this.totalRunTimeMillis = totalRunTimeMillis;
+        this.maxRunTimeMillis = maxRunTimeMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    /**
+     * @return number of runs of fixed-delay jobs which took longer than their delay
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * @return average time the runs started after they were due
+     */
+    public long getAverageLagMillis() {
+        return runs == 0 ? 0 : totalLagMillis / runs;
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
+    public long getAverageRunTimeMillis() {
+        return runs == 0 ? 0 : totalRunTimeMillis / runs;
+    }
+
+    public long getMaxRunTimeMillis() {
+        return maxRunTimeMillis;
+    }
+}
@@ -0,0 +1,367 @@
+package org.ovirt.engine.core.utils.timer;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs frequent jobs which only live in memory, such as the monitoring of the hosts and of the storage pools, without
+ * the overhead of Quartz triggers and reflective invocations. Quartz remains in use for the jobs which need its
+ * persistence or cron expressions.
+ *
+ * The jobs are kept in a hashed timing wheel: a single ticker thread advances over the buckets of the wheel, one
+ * bucket per tick, and hands the jobs which are due to a pool of threads. A job is placed in the bucket of the tick it
+ * is due at, along with the number of full rotations of the wheel left until then, so scheduling and cancelling a job
+ * takes constant time regardless of the number of jobs.
+ *
+ * A fixed-delay job is scheduled again once a run is over, so runs of the same job never overlap, unless the run
+ * failed with an {@link Error}. A job with an initial delay has its first run delayed by a random part of its delay,
+ * up to the initial delay, so the jobs of the many hosts scheduled together don't run all at once.
+ *
+ * The lag of the runs behind their due time and the runs which took longer than their delay are collected per job
+ * name and exposed by JMX.
+ */
+@Singleton
+public class TimingWheelScheduler implements TimingWheelSchedulerMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TimingWheelScheduler.class);
+
+    static final long DEFAULT_TICK_MILLIS = 50;
+    static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final long tickNanos;
+    private final List<LinkedList<Job>> wheel;
+    private final Queue<Job> newJobs = new ConcurrentLinkedQueue<>();
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, JobStatistics> statistics = new ConcurrentHashMap<>();
+    private final AtomicLong sequenceNumber = new AtomicLong();
+    private ExecutorService executor;
+    private Thread ticker;
+    private volatile boolean running;
+    private long startTime;
+    private long tick;
+
+    private ObjectName objectName;
+    private MBeanServer platformMBeanServer;
+
+    public TimingWheelScheduler() {
+        this(DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+    }
+
+    TimingWheelScheduler(long tickMillis, int wheelSize) {
+        tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(new LinkedList<>());
+        }
+    }
+
+    @PostConstruct
+    public void create() {
+        start(Config.<Integer> getValue(ConfigValues.TimingWheelThreadPoolSize));
+        registerInJMX();
+    }
+
+    @PreDestroy
+    public void teardown() {
+        unregisterFromJMX();
+        shutdown();
+    }
+
+    void start(int threads) {
+        executor = new ThreadPoolExecutor(threads,
+                threads,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new TimingWheelThreadFactory());
+        running = true;
+        startTime = System.nanoTime();
+        ticker = new Thread(this::runTicker, "TimingWheelScheduler");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    void shutdown() {
+        running = false;
+        if (ticker != null) {
+            LockSupport.unpark(ticker);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void registerInJMX() {
+        try {
+            objectName = new ObjectName("Scheduler:type=" + getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            log.warn("Failed to register the timing wheel scheduler in JMX: {}", e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    private void unregisterFromJMX() {
+        try {
+            if (platformMBeanServer != null) {
+                platformMBeanServer.unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            log.debug("Failed to unregister the timing wheel scheduler from JMX: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Schedules a job to run repeatedly, with a fixed delay between the end of a run and the start of the next one.
+     * The first run is delayed by a random part of the delay, up to the initial delay, on top of the initial delay. A
+     * job with no initial delay is due right away.
+     *
+     * @param name
+     *            - the name the statistics of the job are collected by, shared by the same job of different instances
+     * @param task
+     *            - the job to run
+     * @param initialDelay
+     *            - the initial delay before the first run
+     * @param delay
+     *            - the delay between runs
+     * @param timeUnit
+     *            - the unit of time used for initialDelay and delay
+     * @return the scheduled job id
+     */
+    public String scheduleAFixedDelayJob(String name,
+            Runnable task,
+            long initialDelay,
+            long delay,
+            TimeUnit timeUnit) {
+        long delayNanos = timeUnit.toNanos(delay);
+        long initialDelayNanos = timeUnit.toNanos(initialDelay);
+        long maxSpread = Math.min(delayNanos, initialDelayNanos);
+        long spread = maxSpread > 0 ? ThreadLocalRandom.current().nextLong(maxSpread) : 0;
+        return schedule(name, task, initialDelayNanos + spread, delayNanos);
+    }
+
+    /**
+     * Schedules a job to run once.
+     *
+     * @param name
+     *            - the name the statistics of the job are collected by, shared by the same job of different instances
+     * @param task
+     *            - the job to run
+     * @param delay
+     *            - the delay before the run
+     * @param timeUnit
+     *            - the unit of time used for delay
+     * @return the scheduled job id
+     */
+    public String scheduleAOneTimeJob(String name, Runnable task, long delay, TimeUnit timeUnit) {
+        return schedule(name, task, timeUnit.toNanos(delay), 0);
+    }
+
+    private String schedule(String name, Runnable task, long initialDelayNanos, long delayNanos) {
+        Job job = new Job(name + "." + sequenceNumber.incrementAndGet(),
+                statistics.computeIfAbsent(name, JobStatistics::new),
+                task,
+                delayNanos);
+        job.deadline = System.nanoTime() + initialDelayNanos;
+        jobs.put(job.id, job);
+        newJobs.add(job);
+        return job.id;
+    }
+
+    /**
+     * Deletes the job with the given id. A run of the job which already started is not interrupted, but the job isn't
+     * run again.
+     *
+     * @param jobId
+     *            - the id of the job to delete
+     */
+    public void deleteJob(String jobId) {
+        Job job = jobs.remove(jobId);
+        if (job != null) {
+            job.cancelled = true;
+        }
+    }
+
+    private void runTicker() {
+        while (running) {
+            long tickTime = startTime + tick * tickNanos;
+            long wait;
+            while (running && (wait = tickTime - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+            if (!running) {
+                break;
+            }
+            placeNewJobs();
+            runDueJobs(wheel.get((int) (tick % wheel.size())));
+            tick++;
+        }
+    }
+
+    private void placeNewJobs() {
+        Job job;
+        while ((job = newJobs.poll()) != null) {
+            if (job.cancelled) {
+                continue;
+            }
+            // a job which is already due is run on the current tick
+            long dueTick = Math.max((job.deadline - startTime + tickNanos - 1) / tickNanos, tick);
+            job.remainingRounds = (dueTick - tick) / wheel.size();
+            wheel.get((int) (dueTick % wheel.size())).add(job);
+        }
+    }
+
+    private void runDueJobs(LinkedList<Job> bucket) {
+        Iterator<Job> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Job job = iterator.next();
+            if (job.cancelled) {
+                iterator.remove();
+            } else if (job.remainingRounds > 0) {
+                job.remainingRounds--;
+            } else {
+                iterator.remove();
+                executor.execute(() -> run(job));
+            }
+        }
+    }
+
+    private void run(Job job) {
+        long start = System.nanoTime();
+        try {
+            job.task.run();
+        } catch (RuntimeException e) {
+            log.error("Failed to run scheduled job '{}': {}", job.id, e.getMessage());
+            log.debug("Exception", e);
+        } catch (Error e) {
+            log.error("Scheduled job '{}' failed with an error and won't run again: {}", job.id, e.getMessage());
+            job.cancelled = true;
+            throw e;
+        } finally {
+            long end = System.nanoTime();
+            job.statistics.add(start - job.deadline, end - start, job.delay > 0 && end - start > job.delay);
+            if (job.delay > 0 && !job.cancelled) {
+                job.deadline = end + job.delay;
+                newJobs.add(job);
+            } else {
+                jobs.remove(job.id, job);
+            }
+        }
+    }
+
+    @Override
+    public int getScheduledJobs() {
+        return jobs.size();
+    }
+
+    @Override
+    public List<TimingWheelJobStatistics> getJobStatistics() {
+        return statistics.values().stream().map(JobStatistics::snapshot).collect(Collectors.toList());
+    }
+
+    @Override
+    public void resetStatistics() {
+        statistics.values().forEach(JobStatistics::reset);
+    }
+
+    private static class Job {
+        private final String id;
+        private final JobStatistics statistics;
+        private final Runnable task;
+        private final long delay;
+        private volatile long deadline;
+        private volatile boolean cancelled;
+        // accessed by the ticker thread only
+        private long remainingRounds;
+
+        Job(String id, JobStatistics statistics, Runnable task, long delay) {
+            this.id = id;
+            this.statistics = statistics;
+            this.task = task;
+            this.delay = delay;
+        }
+    }
+
+    private static class JobStatistics {
+        private final String name;
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder overruns = new LongAdder();
+        private final LongAdder totalLagNanos = new LongAdder();
+        private final AtomicLong maxLagNanos = new AtomicLong();
+        private final LongAdder totalRunNanos = new LongAdder();
+        private final AtomicLong maxRunNanos = new AtomicLong();
+
+        JobStatistics(String name) {
+            this.name = name;
+        }
+
+        void add(long lagNanos, long runNanos, boolean overrun) {
+            runs.increment();
+            if (overrun) {
+                overruns.increment();
+            }
+            totalLagNanos.add(lagNanos);
+            maxLagNanos.accumulateAndGet(lagNanos, Math::max);
+            totalRunNanos.add(runNanos);
+            maxRunNanos.accumulateAndGet(runNanos, Math::max);
+        }
+
+        void reset() {
+            runs.reset();
+            overruns.reset();
+            totalLagNanos.reset();
+            maxLagNanos.set(0);
+            totalRunNanos.reset();
+            maxRunNanos.set(0);
+        }
+
+        TimingWheelJobStatistics snapshot() {
+            return new TimingWheelJobStatistics(name,
+                    runs.sum(),
+                    overruns.sum(),
+                    TimeUnit.NANOSECONDS.toMillis(totalLagNanos.sum()),
+                    TimeUnit.NANOSECONDS.toMillis(maxLagNanos.get()),
+                    TimeUnit.NANOSECONDS.toMillis(totalRunNanos.sum()),
+                    TimeUnit.NANOSECONDS.toMillis(maxRunNanos.get()));
+        }
+    }
+
+    private static class TimingWheelThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            return new Thread(r, "TimingWheelScheduler-" + threadNumber.getAndIncrement());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.ovirt.engine.core.utils.timer;
+
+import java.util.List;
+
+/**
+ * JMX view of the jobs run by the {@link TimingWheelScheduler}
+ */
+public interface TimingWheelSchedulerMXBean {
+
+    /**
+     * @return number of jobs currently scheduled
+     */
+    int getScheduledJobs();
+
+    /**
+     * @return the lag and run times of the jobs, per job name
+     */
+    List<TimingWheelJobStatistics> getJobStatistics();
+
+    /**
+     * Clears all the collected statistics
+     */
+    void resetStatistics();
+}
@@ -0,0 +1,147 @@
+package org.ovirt.engine.core.utils.timer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TimingWheelSchedulerTest {
+
+    private static final long TICK_MILLIS = 5;
+    private static final int WHEEL_SIZE = 8;
+
+    private TimingWheelScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new TimingWheelScheduler(TICK_MILLIS, WHEEL_SIZE);
+        scheduler.start(2);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void oneTimeJobRunsAfterDelay() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        // longer than a full rotation of the wheel
+        long delay = TICK_MILLIS * WHEEL_SIZE * 3;
+
+        scheduler.scheduleAOneTimeJob("oneTime", latch::countDown, delay, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(delay));
+    }
+
+    @Test
+    public void fixedDelayJobRunsRepeatedly() throws Exception {
+        CountDownLatch latch = new CountDownLatch(3);
+
+        scheduler.scheduleAFixedDelayJob("fixedDelay", latch::countDown, 0, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1, scheduler.getScheduledJobs());
+    }
+
+    @Test
+    public void failingJobIsRunAgain() throws Exception {
+        CountDownLatch latch = new CountDownLatch(2);
+
+        scheduler.scheduleAFixedDelayJob("failing", () -> {
+            latch.countDown();
+            throw new IllegalStateException();
+        }, 0, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void firstRunWithoutInitialDelayIsNotSpread() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+
+        scheduler.scheduleAFixedDelayJob("noInitialDelay", latch::countDown, 0, 1, TimeUnit.HOURS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void jobFailingWithErrorIsNotRunAgain() throws Exception {
+        useSingleThread();
+        AtomicInteger runs = new AtomicInteger();
+
+        scheduler.scheduleAFixedDelayJob("error", () -> {
+            runs.incrementAndGet();
+            throw new AssertionError();
+        }, 0, 10, TimeUnit.MILLISECONDS);
+        awaitJobsScheduledBefore(TICK_MILLIS * WHEEL_SIZE);
+
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void deletedJobIsNotRun() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+
+        String jobId = scheduler.scheduleAOneTimeJob("deleted", runs::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+        scheduler.deleteJob(jobId);
+        assertEquals(0, scheduler.getScheduledJobs());
+        awaitJobsScheduledBefore(100);
+
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void statisticsAreCollectedPerName() throws Exception {
+        useSingleThread();
+
+        scheduler.scheduleAOneTimeJob("statistics", () -> {}, 0, TimeUnit.MILLISECONDS);
+        scheduler.scheduleAOneTimeJob("statistics", () -> {}, 0, TimeUnit.MILLISECONDS);
+        // the statistics of a run are recorded right after it's over, before the thread runs the next job
+        awaitJobsScheduledBefore(TICK_MILLIS);
+
+        // the statistics of the jobs and of the marker
+        assertEquals(2, scheduler.getJobStatistics().size());
+        TimingWheelJobStatistics statistics = getStatistics("statistics");
+        assertEquals("statistics", statistics.getName());
+        assertEquals(2, statistics.getRuns());
+        assertEquals(0, statistics.getOverruns());
+
+        scheduler.resetStatistics();
+        assertEquals(0, getStatistics("statistics").getRuns());
+    }
+
+    /**
+     * Runs the jobs by a single thread, so a job runs only once the jobs due before it are over.
+     */
+    private void useSingleThread() {
+        scheduler.shutdown();
+        scheduler = new TimingWheelScheduler(TICK_MILLIS, WHEEL_SIZE);
+        scheduler.start(1);
+    }
+
+    /**
+     * Waits for a job scheduled after the given delay to run, by when the jobs due before it have been handled.
+     */
+    private void awaitJobsScheduledBefore(long delayMillis) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        scheduler.scheduleAOneTimeJob("marker", latch::countDown, delayMillis, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    private TimingWheelJobStatistics getStatistics(String name) {
+        return scheduler.getJobStatistics()
+                .stream()
+                .filter(statistics -> statistics.getName().equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -334,19 +334,19 @@ public class SearchObjectAutoCompleter extends SearchObjectsBaseAutoCompleter {
                             "vds",
                             "vds_with_tags",
                             "vds_id",
-                            "vds_name ASC "));
+                            "vds_name ASC, vds_id ASC "));
                     put(SearchObjects.VM_OBJ_NAME, new EntitySearchInfo(new VmCrossRefAutoCompleter(),
                             new VmConditionFieldAutoCompleter(),
                             "vms",
                             "vms_with_tags",
                             "vm_guid",
-                            "vm_name ASC "));
+                            "vm_name ASC, vm_guid ASC "));
                     put(SearchObjects.VDC_CLUSTER_OBJ_NAME, new EntitySearchInfo(new ClusterCrossRefAutoCompleter(),
                             new ClusterConditionFieldAutoCompleter(),
                             "cluster_view",
                             "cluster_storage_domain",
                             "cluster_id",
-                            "name ASC"));
+                            "name ASC, cluster_id ASC"));
                     put(SearchObjects.QUOTA_OBJ_NAME, new EntitySearchInfo(new QuotaConditionFieldAutoCompleter(),
                             new QuotaConditionFieldAutoCompleter(),
                             "quota_view",
@@ -359,7 +359,7 @@ public class SearchObjectAutoCompleter extends SearchObjectsBaseAutoCompleter {
                                     "storage_pool",
                                     "storage_pool_with_storage_domain",
                                     "id",
-                                    "name ASC "));
+                                    "name ASC, id ASC "));
                     put(SearchObjects.DISK_OBJ_NAME, new EntitySearchInfo(new DiskCrossRefAutoCompleter(),
                             new DiskConditionFieldAutoCompleter(),
                             "all_disks",
@@ -394,7 +394,7 @@ public class SearchObjectAutoCompleter extends SearchObjectsBaseAutoCompleter {
                             null,
                             "vm_pools_full_view",
                             "vm_pool_id",
-                            "vm_pool_name ASC "));
+                            "vm_pool_name ASC, vm_pool_id ASC "));
                     put(SearchObjects.NETWORK_OBJ_NAME, new EntitySearchInfo(new NetworkCrossRefAutoCompleter(),
                             new NetworkConditionFieldAutoCompleter(),
                             "network_view",
@@ -431,7 +431,7 @@ public class SearchObjectAutoCompleter extends SearchObjectsBaseAutoCompleter {
                             "providers",
                             "providers",
                             "id",
-                            "name ASC"));
+                            "name ASC, id ASC"));
                     put(SearchObjects.SESSION_OBJ_NAME, new EntitySearchInfo(null,
                             new SessionConditionFieldAutoCompleter(),
                             "engine_sessions",
@@ -468,6 +468,24 @@ public class SearchObjectAutoCompleter extends SearchObjectsBaseAutoCompleter {
         }
     });
 
+    /**
+     * The search objects whose default sort ends with their primary key, so a search of them can continue right after
+     * a given entity, mapped to the table the sort columns of that entity are read from.
+     */
+    @SuppressWarnings("serial")
+    private static final Map<String, String> keysetPagedObjects = Collections.unmodifiableMap(
+            new HashMap<String, String>() {
+                {
+                    put(SearchObjects.AUDIT_OBJ_NAME, "audit_log");
+                    put(SearchObjects.VDS_OBJ_NAME, "vds_static");
+                    put(SearchObjects.VM_OBJ_NAME, "vm_static");
+                    put(SearchObjects.VDC_CLUSTER_OBJ_NAME, "cluster");
+                    put(SearchObjects.VDC_STORAGE_POOL_OBJ_NAME, "storage_pool");
+                    put(SearchObjects.VDC_POOL_OBJ_NAME, "vm_pools");
+                    put(SearchObjects.PROVIDER_OBJ_NAME, "providers");
+                }
+            });
+
     static String singular(String key) {
         return singulars.containsKey(key) ? singulars.get(key) : key;
     }
@@ -591,6 +609,14 @@ public class SearchObjectAutoCompleter extends SearchObjectsBaseAutoCompleter {
         return "";
     }
 
+    public boolean isKeysetPagingSupported(String obj) {
+        return obj != null && keysetPagedObjects.containsKey(singular(obj));
+    }
+
+    public String getKeysetPagingTableName(String obj) {
+        return obj != null ? keysetPagedObjects.get(singular(obj)) : null;
+    }
+
     public List<String> getCommaDelimitedListColumns(String obj) {
         return getEntitySearchInfo(obj).commaDelimitedListColumns;
     }
@@ -44,6 +44,7 @@ public class SyntaxChecker implements ISyntaxChecker {
 
     private final Regex firstDQRegexp;
     private final Regex nonSpaceRegexp;
+    private final Regex searchAfterRegexp;
     private final List<Character> disAllowedChars;
     private SqlInjectionChecker sqlInjectionChecker;
 
@@ -62,6 +63,7 @@ public class SyntaxChecker implements ISyntaxChecker {
 
         firstDQRegexp = new Regex("^\\s*\"$");
         nonSpaceRegexp = new Regex("^\\S+$");
+        searchAfterRegexp = new Regex("^[0-9a-fA-F-]+$");
 
         stateMap = new HashMap<>();
         stateMap.put(SyntaxObjectType.BEGIN, new SyntaxObjectType[] { SyntaxObjectType.SEARCH_OBJECT });
@@ -934,6 +936,15 @@ public class SyntaxChecker implements ISyntaxChecker {
             if (syntax.getSearchFrom() > 0) {
                 inQuery = StringFormat.format("%1$s and  %2$s >  %3$s", inQuery, primeryKey, syntax.getSearchFrom());
             }
+            if (syntax.getSearchAfter() != null) {
+                if (sortByElements != null || !"".equals(pageNumber)) {
+                    throw new IllegalArgumentException("A search continued after an entity can't be sorted or paged");
+                }
+                inQuery = StringFormat.format("%1$s %2$s %3$s",
+                        inQuery,
+                        useTags || wherePhrase.length() > 0 ? "and" : "WHERE",
+                        getSearchAfterCondition(searchObjStr, primeryKey, syntax.getSearchAfter()));
+            }
             retval =
                     StringFormat.format(Config.<String> getValue(ConfigValues.DBSearchTemplate),
                             sortExpr.toString(),
@@ -950,6 +961,49 @@ public class SyntaxChecker implements ISyntaxChecker {
         return retval;
     }
 
+    /**
+     * Generates the condition which selects the entities following the given one in the default sort, so a page is
+     * read by seeking to its first entity rather than by skipping the ones before it. The default sort of the entities
+     * which support it ends with their primary key, so the tuple of its columns is unique and the entities sharing a
+     * name are neither skipped nor repeated. When the given entity doesn't exist anymore nothing follows it.
+     */
+    private String getSearchAfterCondition(String searchObjStr, String primeryKey, String searchAfter) {
+        if (!searchObjectAC.isKeysetPagingSupported(searchObjStr)) {
+            throw new IllegalArgumentException(
+                    StringFormat.format("A search of '%1$s' can't be continued after an entity", searchObjStr));
+        }
+        if (!searchAfterRegexp.isMatch(searchAfter)) {
+            throw new SqlInjectionException();
+        }
+
+        String tableName = searchObjectAC.getRelatedTableName(searchObjStr, false);
+        List<String> columns = new ArrayList<>();
+        List<String> qualifiedColumns = new ArrayList<>();
+        String relation = null;
+        for (String sortElement : searchObjectAC.getDefaultSort(searchObjStr).split(",")) {
+            String[] parts = sortElement.trim().split("\\s+");
+            String elementRelation = parts.length > 1 && SORTDIR_DESC.equalsIgnoreCase(parts[1]) ? "<" : ">";
+            if (relation != null && !relation.equals(elementRelation)) {
+                throw new IllegalStateException(StringFormat.format(
+                        "The default sort of '%1$s' mixes directions, so it can't be sought", searchObjStr));
+            }
+            relation = elementRelation;
+            columns.add(parts[0]);
+            qualifiedColumns.add(tableName + "." + parts[0]);
+        }
+
+        if (columns.size() == 1 && columns.get(0).equals(primeryKey)) {
+            return StringFormat.format("%1$s.%2$s %3$s '%4$s'", tableName, primeryKey, relation, searchAfter);
+        }
+        return StringFormat.format("(%1$s) %2$s (SELECT %3$s FROM %4$s WHERE %5$s = '%6$s')",
+                String.join(", ", qualifiedColumns),
+                relation,
+                String.join(", ", columns),
+                searchObjectAC.getKeysetPagingTableName(searchObjStr),
+                primeryKey,
+                searchAfter);
+    }
+
     private String getInnerQuery(String tableName, String primeryKey, String fromStatement, StringBuilder wherePhrase, StringBuilder sortExpr) {
         // prevent using distinct when the sort expression has a function call since when distinct is used it is performed first and sorting
         // is done on the result, so all fields in the sort clause should appear in the result set after distinct is applied
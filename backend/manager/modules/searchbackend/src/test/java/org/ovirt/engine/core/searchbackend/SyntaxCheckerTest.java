@@ -15,6 +15,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.ovirt.engine.core.common.businessentities.Tags;
 import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.errors.SqlInjectionException;
 import org.ovirt.engine.core.common.interfaces.ITagsHandler;
 import org.ovirt.engine.core.utils.MockConfigRule;
 
@@ -23,6 +24,7 @@ public class SyntaxCheckerTest {
 
     private static final String TAG_NAME = "'tag1'";
     private static final String TAG_NAME_WITH_CHILDREN = "'tag1','all'";
+    private static final String VM_ID = "77296e00-0cad-4e5a-9299-008a7b6f4354";
 
     @Rule
     public MockConfigRule mcr = new MockConfigRule(
@@ -108,51 +110,51 @@ public class SyntaxCheckerTest {
     @Test
     public void testHost() {
         testValidSql("Host: sortby cpu_usage desc",
-                "SELECT * FROM ((SELECT distinct vds.* FROM  vds  )  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct vds.* FROM  vds  )  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC, vds_id ASC ) as T1 OFFSET (1 -1) LIMIT 0");
         // Before: 19ms
         // "SELECT * FROM (SELECT * FROM vds WHERE ( vds_id IN (SELECT vds_with_tags.vds_id FROM  vds_with_tags   WHERE  vds_with_tags.vds_name LIKE 'test1' ))  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC ) as T1 OFFSET (1 -1) LIMIT 0"
         // Current: 5ms
         testValidSql("Host: name =\"test1\" sortby cpu_usage desc",
-                "SELECT * FROM ((SELECT distinct vds.* FROM  vds   WHERE  (vds.vds_name IS NULL OR vds.vds_name LIKE test1) )  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct vds.* FROM  vds   WHERE  (vds.vds_name IS NULL OR vds.vds_name LIKE test1) )  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC, vds_id ASC ) as T1 OFFSET (1 -1) LIMIT 0");
         // Before: 17ms
         // "SELECT * FROM (SELECT * FROM vds WHERE ( vds_id IN (SELECT vds_with_tags.vds_id FROM  vds_with_tags   WHERE  vds_with_tags.usage_cpu_percent > 80 ))  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC ) as T1 OFFSET (1 -1) LIMIT 0"
         // Current: 5ms
         testValidSql("Host: CPU_USAGE > 80 sortby cpu_usage desc",
-                "SELECT * FROM ((SELECT distinct vds.* FROM  vds   WHERE  vds.usage_cpu_percent > 80 )  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct vds.* FROM  vds   WHERE  vds.usage_cpu_percent > 80 )  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC, vds_id ASC ) as T1 OFFSET (1 -1) LIMIT 0");
         // Before: 25ms
         // "SELECT * FROM (SELECT * FROM vds WHERE ( vds_id IN (SELECT vds_with_tags.vds_id FROM  vds_with_tags   LEFT OUTER JOIN vdc_users_with_tags ON vds_with_tags.vds_id=vdc_users_with_tags.vm_guid    WHERE  vdc_users_with_tags.name LIKE user1 ))  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC ) as T1 OFFSET (1 -1) LIMIT 0"
         // Current: 10ms
         testValidSql("Host: user.name = \"user1\" sortby cpu_usage desc",
-                "SELECT * FROM ((SELECT distinct vds.* FROM  vds   LEFT OUTER JOIN vdc_users_with_tags ON vds.vds_id=vdc_users_with_tags.vm_guid    WHERE  (vdc_users_with_tags.name IS NULL OR vdc_users_with_tags.name LIKE user1) )  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct vds.* FROM  vds   LEFT OUTER JOIN vdc_users_with_tags ON vds.vds_id=vdc_users_with_tags.vm_guid    WHERE  (vdc_users_with_tags.name IS NULL OR vdc_users_with_tags.name LIKE user1) )  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC, vds_id ASC ) as T1 OFFSET (1 -1) LIMIT 0");
         // Before: 63ms
         // "SELECT * FROM (SELECT * FROM vds WHERE ( storage_pool_id IN (SELECT storage_pool_id FROM storage_domains WHERE  storage_domains.storage_name LIKE 'pool1'))  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC ) as T1 OFFSET (1 -1) LIMIT 0"
         // Current: 68ms
         testValidSql("Host: STORAGE.name = \"sd1\" sortby cpu_usage desc",
-                "SELECT * FROM (SELECT * FROM vds WHERE ( vds_id IN (SELECT distinct vds_with_tags.vds_id FROM  vds_with_tags   LEFT OUTER JOIN storage_domains_with_hosts_view ON vds_with_tags.storage_id=storage_domains_with_hosts_view.id    WHERE  (storage_domains_with_hosts_view.storage_name IS NULL OR storage_domains_with_hosts_view.storage_name LIKE sd1) ))  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM (SELECT * FROM vds WHERE ( vds_id IN (SELECT distinct vds_with_tags.vds_id FROM  vds_with_tags   LEFT OUTER JOIN storage_domains_with_hosts_view ON vds_with_tags.storage_id=storage_domains_with_hosts_view.id    WHERE  (storage_domains_with_hosts_view.storage_name IS NULL OR storage_domains_with_hosts_view.storage_name LIKE sd1) ))  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC, vds_id ASC ) as T1 OFFSET (1 -1) LIMIT 0");
         // Before: 23ms
         // "SELECT * FROM (SELECT * FROM vds WHERE ( vds_id IN (SELECT vds_with_tags.vds_id FROM  vds_with_tags   LEFT OUTER JOIN audit_log ON vds_with_tags.vds_id=audit_log.vds_id    WHERE (  audit_log.severity = '2'  AND  vds_with_tags.usage_cpu_percent > 80  )))  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC ) as T1 OFFSET (1 -1) LIMIT 0"
         // Current: 9ms
         testValidSql("Host: EVENT.severity=error and CPU_USAGE > 80 sortby cpu_usage desc",
-                "SELECT * FROM ((SELECT distinct vds.* FROM  vds   LEFT OUTER JOIN audit_log ON vds.vds_id=audit_log.vds_id    WHERE (  audit_log.severity = '2'  AND  vds.usage_cpu_percent > 80  ))  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct vds.* FROM  vds   LEFT OUTER JOIN audit_log ON vds.vds_id=audit_log.vds_id    WHERE (  audit_log.severity = '2'  AND  vds.usage_cpu_percent > 80  ))  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC, vds_id ASC ) as T1 OFFSET (1 -1) LIMIT 0");
         testValidSql("Host: EVENT.severity=error and tag=tag1 sortby cpu_usage desc",
-                "SELECT * FROM (SELECT * FROM vds WHERE ( vds_id IN (SELECT distinct vds_with_tags.vds_id FROM  vds_with_tags   LEFT OUTER JOIN audit_log ON vds_with_tags.vds_id=audit_log.vds_id    WHERE (  audit_log.severity = '2'  AND  vds_with_tags.tag_name IN ('tag1','all')  )))  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM (SELECT * FROM vds WHERE ( vds_id IN (SELECT distinct vds_with_tags.vds_id FROM  vds_with_tags   LEFT OUTER JOIN audit_log ON vds_with_tags.vds_id=audit_log.vds_id    WHERE (  audit_log.severity = '2'  AND  vds_with_tags.tag_name IN ('tag1','all')  )))  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC, vds_id ASC ) as T1 OFFSET (1 -1) LIMIT 0");
         testValidSql("Host: tag=\"tag1\"",
-                "SELECT * FROM (SELECT * FROM vds WHERE ( vds_id IN (SELECT distinct vds_with_tags.vds_id FROM  vds_with_tags   WHERE  vds_with_tags.tag_name IN ('tag1','all') ))  ORDER BY vds_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM (SELECT * FROM vds WHERE ( vds_id IN (SELECT distinct vds_with_tags.vds_id FROM  vds_with_tags   WHERE  vds_with_tags.tag_name IN ('tag1','all') ))  ORDER BY vds_name ASC, vds_id ASC ) as T1 OFFSET (1 -1) LIMIT 0");
         // Before: 22ms
         // "SELECT * FROM (SELECT * FROM vds WHERE ( vds_id IN (SELECT vds_with_tags.vds_id FROM  vds_with_tags   LEFT OUTER JOIN vms_with_tags ON vds_with_tags.vds_id=vms_with_tags.run_on_vds    WHERE  vms_with_tags.vm_name LIKE 'vm1' ))  ORDER BY vds_name ASC ) as T1 OFFSET (1 -1) LIMIT 0"
         // Current: 11ms
         testValidSql("Host: vm.name=\"vm1\"",
-                "SELECT * FROM ((SELECT distinct vds.* FROM  vds   LEFT OUTER JOIN vms_with_tags ON vds.vds_id=vms_with_tags.run_on_vds    WHERE  (vms_with_tags.vm_name IS NULL OR vms_with_tags.vm_name LIKE vm1) )  ORDER BY vds_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct vds.* FROM  vds   LEFT OUTER JOIN vms_with_tags ON vds.vds_id=vms_with_tags.run_on_vds    WHERE  (vms_with_tags.vm_name IS NULL OR vms_with_tags.vm_name LIKE vm1) )  ORDER BY vds_name ASC, vds_id ASC ) as T1 OFFSET (1 -1) LIMIT 0");
         testValidSql("Vms: cluster = default and Templates.name = template_1 and Storage.name = storage_1",
-                "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   LEFT OUTER JOIN vm_templates_storage_domain ON vms_with_tags.vmt_guid=vm_templates_storage_domain.vmt_guid    LEFT OUTER JOIN storage_domains_with_hosts_view ON vms_with_tags.storage_id=storage_domains_with_hosts_view.id    WHERE ( (  (vms.cluster_name IS NULL OR vms.cluster_name LIKE default)  AND  (vm_templates_storage_domain.name IS NULL OR vm_templates_storage_domain.name LIKE template\\_1)  ) AND  (storage_domains_with_hosts_view.storage_name IS NULL OR storage_domains_with_hosts_view.storage_name LIKE storage\\_1)  )))  ORDER BY vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   LEFT OUTER JOIN vm_templates_storage_domain ON vms_with_tags.vmt_guid=vm_templates_storage_domain.vmt_guid    LEFT OUTER JOIN storage_domains_with_hosts_view ON vms_with_tags.storage_id=storage_domains_with_hosts_view.id    WHERE ( (  (vms.cluster_name IS NULL OR vms.cluster_name LIKE default)  AND  (vm_templates_storage_domain.name IS NULL OR vm_templates_storage_domain.name LIKE template\\_1)  ) AND  (storage_domains_with_hosts_view.storage_name IS NULL OR storage_domains_with_hosts_view.storage_name LIKE storage\\_1)  )))  ORDER BY vm_name ASC, vm_guid ASC ) as T1 OFFSET (1 -1) LIMIT 0");
         testValidSql("Vms: cluster = default and Templates.name = template_1 and Storage.name = storage_1 and Vnic.network_name = vnic_1",
-                "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   LEFT OUTER JOIN vm_templates_storage_domain ON vms_with_tags.vmt_guid=vm_templates_storage_domain.vmt_guid    LEFT OUTER JOIN storage_domains_with_hosts_view ON vms_with_tags.storage_id=storage_domains_with_hosts_view.id    LEFT OUTER JOIN vm_interface_view ON vms_with_tags.vm_guid=vm_interface_view.vm_guid    WHERE ( ( (  (vms.cluster_name IS NULL OR vms.cluster_name LIKE default)  AND  (vm_templates_storage_domain.name IS NULL OR vm_templates_storage_domain.name LIKE template\\_1)  ) AND  (storage_domains_with_hosts_view.storage_name IS NULL OR storage_domains_with_hosts_view.storage_name LIKE storage\\_1)  ) AND  (vm_interface_view.network_name IS NULL OR vm_interface_view.network_name LIKE vnic\\_1)  )))  ORDER BY vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   LEFT OUTER JOIN vm_templates_storage_domain ON vms_with_tags.vmt_guid=vm_templates_storage_domain.vmt_guid    LEFT OUTER JOIN storage_domains_with_hosts_view ON vms_with_tags.storage_id=storage_domains_with_hosts_view.id    LEFT OUTER JOIN vm_interface_view ON vms_with_tags.vm_guid=vm_interface_view.vm_guid    WHERE ( ( (  (vms.cluster_name IS NULL OR vms.cluster_name LIKE default)  AND  (vm_templates_storage_domain.name IS NULL OR vm_templates_storage_domain.name LIKE template\\_1)  ) AND  (storage_domains_with_hosts_view.storage_name IS NULL OR storage_domains_with_hosts_view.storage_name LIKE storage\\_1)  ) AND  (vm_interface_view.network_name IS NULL OR vm_interface_view.network_name LIKE vnic\\_1)  )))  ORDER BY vm_name ASC, vm_guid ASC ) as T1 OFFSET (1 -1) LIMIT 0");
     }
 
     @Test
     public void testHosts() {
         testValidSql("Hosts: sortby cpu_usage desc",
-                "SELECT * FROM ((SELECT distinct vds.* FROM  vds  )  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct vds.* FROM  vds  )  ORDER BY usage_cpu_percent DESC NULLS LAST,vds_name ASC, vds_id ASC ) as T1 OFFSET (1 -1) LIMIT 0");
     }
 
     @Test
@@ -161,37 +163,37 @@ public class SyntaxCheckerTest {
         // "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT vms_with_tags.vm_guid FROM  vms_with_tags   WHERE ( ( ( ( ( ( (  vms_with_tags.status = '1'  OR  vms_with_tags.status = '2'  ) OR  vms_with_tags.status = '6'  ) OR  vms_with_tags.status = '9'  ) OR  vms_with_tags.status = '10'  ) OR  vms_with_tags.status = '16'  ) OR  vms_with_tags.status = '4'  ) OR  vms_with_tags.status = '7'  )))  ORDER BY usage_cpu_percent DESC NULLS LAST,vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0"
         // Current - 15ms
         testValidSql("Vm: status=Up or status=PoweringUp or status=MigratingTo or status=WaitForLaunch or status=RebootInProgress or status=PoweringDown or status=Paused or status=Unknown sortby cpu_usage desc",
-                "SELECT * FROM ((SELECT distinct vms.* FROM  vms   WHERE ( ( ( ( ( ( (  vms.status = '1'  OR  vms.status = '2'  ) OR  vms.status = '6'  ) OR  vms.status = '9'  ) OR  vms.status = '10'  ) OR  vms.status = '16'  ) OR  vms.status = '4'  ) OR  vms.status = '7'  ))  ORDER BY usage_cpu_percent DESC NULLS LAST,vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct vms.* FROM  vms   WHERE ( ( ( ( ( ( (  vms.status = '1'  OR  vms.status = '2'  ) OR  vms.status = '6'  ) OR  vms.status = '9'  ) OR  vms.status = '10'  ) OR  vms.status = '16'  ) OR  vms.status = '4'  ) OR  vms.status = '7'  ))  ORDER BY usage_cpu_percent DESC NULLS LAST,vm_name ASC, vm_guid ASC ) as T1 OFFSET (1 -1) LIMIT 0");
         // Before - 20ms
         // "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT vms_with_tags.vm_guid FROM  vms_with_tags  ))  ORDER BY vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0"
         // Current - 16ms
         testValidSql("Vm:",
-                "SELECT * FROM ((SELECT distinct vms.* FROM  vms  )  ORDER BY vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct vms.* FROM  vms  )  ORDER BY vm_name ASC, vm_guid ASC ) as T1 OFFSET (1 -1) LIMIT 0");
         // Before - 203ms
         // "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT vms_with_tags.vm_guid FROM  vms_with_tags   LEFT OUTER JOIN vdc_users_with_tags ON vms_with_tags.vm_guid=vdc_users_with_tags.vm_guid    WHERE  vdc_users_with_tags.name LIKE user1 ))  ORDER BY vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0"
         // Current - 15ms
         testValidSql("Vm: user.name = user1",
-                "SELECT * FROM ((SELECT distinct vms.* FROM  vms   LEFT OUTER JOIN vdc_users_with_tags ON vms.vm_guid=vdc_users_with_tags.vm_guid    WHERE  (vdc_users_with_tags.name IS NULL OR vdc_users_with_tags.name LIKE user1) )  ORDER BY vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct vms.* FROM  vms   LEFT OUTER JOIN vdc_users_with_tags ON vms.vm_guid=vdc_users_with_tags.vm_guid    WHERE  (vdc_users_with_tags.name IS NULL OR vdc_users_with_tags.name LIKE user1) )  ORDER BY vm_name ASC, vm_guid ASC ) as T1 OFFSET (1 -1) LIMIT 0");
         testValidSql("Vm: user.name = \"user1\" and user.tag=\"tag1\"",
-                "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   LEFT OUTER JOIN vdc_users_with_tags ON vms_with_tags.vm_guid=vdc_users_with_tags.vm_guid    WHERE (  (vdc_users_with_tags.name IS NULL OR vdc_users_with_tags.name LIKE user1)  AND  vdc_users_with_tags.tag_name IN ('tag1','all')  )))  ORDER BY vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   LEFT OUTER JOIN vdc_users_with_tags ON vms_with_tags.vm_guid=vdc_users_with_tags.vm_guid    WHERE (  (vdc_users_with_tags.name IS NULL OR vdc_users_with_tags.name LIKE user1)  AND  vdc_users_with_tags.tag_name IN ('tag1','all')  )))  ORDER BY vm_name ASC, vm_guid ASC ) as T1 OFFSET (1 -1) LIMIT 0");
 
         // Used to validate that searching values not in fields search all fields
         testValidSql("Vm: mac=00:1a:4a:d4:53:94",
-                "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   WHERE  (  vms_with_tags.cluster_compatibility_version LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.cluster_name LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.custom_cpu_name LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.custom_emulated_machine LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.description LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.free_text_comment LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.guest_cur_user_name LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.quota_name LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.run_on_vds_name LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.storage_pool_name LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.tag_name LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.vm_fqdn LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.vm_host LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.vm_ip LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.vm_name LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.vm_pool_name LIKE '%mac=00:1a:4a:d4:53:94%' ) ))  ORDER BY vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   WHERE  (  vms_with_tags.cluster_compatibility_version LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.cluster_name LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.custom_cpu_name LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.custom_emulated_machine LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.description LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.free_text_comment LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.guest_cur_user_name LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.quota_name LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.run_on_vds_name LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.storage_pool_name LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.tag_name LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.vm_fqdn LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.vm_host LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.vm_ip LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.vm_name LIKE '%mac=00:1a:4a:d4:53:94%' OR  vms_with_tags.vm_pool_name LIKE '%mac=00:1a:4a:d4:53:94%' ) ))  ORDER BY vm_name ASC, vm_guid ASC ) as T1 OFFSET (1 -1) LIMIT 0");
         // Testing that in case that function is used in the ORDER BY clause then it is converted with a computed field
         testValidSql("Vms: SORTBY IP DESC",
-                "SELECT * FROM ((SELECT distinct vms.* FROM  vms  )  ORDER BY vm_ip_inet_array DESC NULLS LAST,vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct vms.* FROM  vms  )  ORDER BY vm_ip_inet_array DESC NULLS LAST,vm_name ASC, vm_guid ASC ) as T1 OFFSET (1 -1) LIMIT 0");
 
     }
 
     @Test
     public void testVms() {
         testValidSql("Vms:",
-                "SELECT * FROM ((SELECT distinct vms.* FROM  vms  )  ORDER BY vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct vms.* FROM  vms  )  ORDER BY vm_name ASC, vm_guid ASC ) as T1 OFFSET (1 -1) LIMIT 0");
         testValidSql("Vms: storage.name = 111",
-                "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   LEFT OUTER JOIN storage_domains_with_hosts_view ON vms_with_tags.storage_id=storage_domains_with_hosts_view.id    WHERE  (storage_domains_with_hosts_view.storage_name IS NULL OR storage_domains_with_hosts_view.storage_name LIKE 111) ))  ORDER BY vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   LEFT OUTER JOIN storage_domains_with_hosts_view ON vms_with_tags.storage_id=storage_domains_with_hosts_view.id    WHERE  (storage_domains_with_hosts_view.storage_name IS NULL OR storage_domains_with_hosts_view.storage_name LIKE 111) ))  ORDER BY vm_name ASC, vm_guid ASC ) as T1 OFFSET (1 -1) LIMIT 0");
         testValidSql("Vm: template.name = temp1",
-                "SELECT * FROM ((SELECT distinct vms.* FROM  vms   LEFT OUTER JOIN vm_templates_storage_domain ON vms.vmt_guid=vm_templates_storage_domain.vmt_guid    WHERE  (vm_templates_storage_domain.name IS NULL OR vm_templates_storage_domain.name LIKE temp1) )  ORDER BY vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct vms.* FROM  vms   LEFT OUTER JOIN vm_templates_storage_domain ON vms.vmt_guid=vm_templates_storage_domain.vmt_guid    WHERE  (vm_templates_storage_domain.name IS NULL OR vm_templates_storage_domain.name LIKE temp1) )  ORDER BY vm_name ASC, vm_guid ASC ) as T1 OFFSET (1 -1) LIMIT 0");
     }
 
     @Test
@@ -275,13 +277,13 @@ public class SyntaxCheckerTest {
     @Test
     public void testPool() {
         testValidSql("Pool: ",
-                "SELECT * FROM ((SELECT distinct vm_pools_full_view.* FROM  vm_pools_full_view  )  ORDER BY vm_pool_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct vm_pools_full_view.* FROM  vm_pools_full_view  )  ORDER BY vm_pool_name ASC, vm_pool_id ASC ) as T1 OFFSET (1 -1) LIMIT 0");
     }
 
     @Test
     public void testPools() {
         testValidSql("Pools: ",
-                "SELECT * FROM ((SELECT distinct vm_pools_full_view.* FROM  vm_pools_full_view  )  ORDER BY vm_pool_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct vm_pools_full_view.* FROM  vm_pools_full_view  )  ORDER BY vm_pool_name ASC, vm_pool_id ASC ) as T1 OFFSET (1 -1) LIMIT 0");
     }
 
     @Test
@@ -290,9 +292,9 @@ public class SyntaxCheckerTest {
         // "SELECT * FROM (SELECT * FROM cluster_view WHERE ( cluster_id IN (SELECT cluster_storage_domain.cluster_id FROM  cluster_storage_domain  ))  ORDER BY name ASC ) as T1 OFFSET (1 -1) LIMIT 0"
         // Current: 1ms
         testValidSql("Cluster: ",
-                "SELECT * FROM ((SELECT distinct cluster_view.* FROM  cluster_view  )  ORDER BY name ASC) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct cluster_view.* FROM  cluster_view  )  ORDER BY name ASC, cluster_id ASC) as T1 OFFSET (1 -1) LIMIT 0");
         testValidSql("Cluster: storage.name = 111",
-                "SELECT * FROM (SELECT * FROM cluster_view WHERE ( cluster_id IN (SELECT distinct cluster_storage_domain.cluster_id FROM  cluster_storage_domain   LEFT OUTER JOIN storage_domains_with_hosts_view ON cluster_storage_domain.storage_id=storage_domains_with_hosts_view.id    WHERE  (storage_domains_with_hosts_view.storage_name IS NULL OR storage_domains_with_hosts_view.storage_name LIKE 111) ))  ORDER BY name ASC) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM (SELECT * FROM cluster_view WHERE ( cluster_id IN (SELECT distinct cluster_storage_domain.cluster_id FROM  cluster_storage_domain   LEFT OUTER JOIN storage_domains_with_hosts_view ON cluster_storage_domain.storage_id=storage_domains_with_hosts_view.id    WHERE  (storage_domains_with_hosts_view.storage_name IS NULL OR storage_domains_with_hosts_view.storage_name LIKE 111) ))  ORDER BY name ASC, cluster_id ASC) as T1 OFFSET (1 -1) LIMIT 0");
     }
 
     @Test
@@ -301,7 +303,7 @@ public class SyntaxCheckerTest {
         // "SELECT * FROM (SELECT * FROM cluster_view WHERE ( cluster_id IN (SELECT cluster_storage_domain.cluster_id FROM  cluster_storage_domain  ))  ORDER BY name ASC ) as T1 OFFSET (1 -1) LIMIT 0"
         // Current: 1ms
         testValidSql("Clusters: ",
-                "SELECT * FROM ((SELECT distinct cluster_view.* FROM  cluster_view  )  ORDER BY name ASC) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct cluster_view.* FROM  cluster_view  )  ORDER BY name ASC, cluster_id ASC) as T1 OFFSET (1 -1) LIMIT 0");
     }
 
     @Test
@@ -310,9 +312,9 @@ public class SyntaxCheckerTest {
         // "SELECT * FROM (SELECT * FROM storage_pool WHERE ( id IN (SELECT storage_pool_with_storage_domain.id FROM  storage_pool_with_storage_domain  ))  ORDER BY name,name ASC ) as T1 OFFSET (1 -1) LIMIT 0"
         // Current: 1ms
         testValidSql("DataCenter: sortby name",
-                "SELECT * FROM ((SELECT distinct storage_pool.* FROM  storage_pool  )  ORDER BY name ASC NULLS FIRST) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct storage_pool.* FROM  storage_pool  )  ORDER BY name ASC NULLS FIRST,name ASC, id ASC ) as T1 OFFSET (1 -1) LIMIT 0");
         testValidSql("DataCenter: Clusters.name =Default",
-                "SELECT * FROM ((SELECT distinct storage_pool.* FROM  storage_pool   LEFT OUTER JOIN cluster_storage_domain ON storage_pool.id=cluster_storage_domain.storage_pool_id    WHERE  (cluster_storage_domain.name IS NULL OR cluster_storage_domain.name LIKE Default) )  ORDER BY name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct storage_pool.* FROM  storage_pool   LEFT OUTER JOIN cluster_storage_domain ON storage_pool.id=cluster_storage_domain.storage_pool_id    WHERE  (cluster_storage_domain.name IS NULL OR cluster_storage_domain.name LIKE Default) )  ORDER BY name ASC, id ASC ) as T1 OFFSET (1 -1) LIMIT 0");
     }
 
     @Test
@@ -408,12 +410,12 @@ public class SyntaxCheckerTest {
         // "SELECT * FROM (SELECT * FROM providers WHERE ( id IN (SELECT providers.id FROM  providers  ))  ORDER BY name ASC) as T1 OFFSET (1 -1) LIMIT 0"
         // Current: 1ms
         testValidSql("provider: ",
-                "SELECT * FROM ((SELECT distinct providers.* FROM  providers  )  ORDER BY name ASC) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct providers.* FROM  providers  )  ORDER BY name ASC, id ASC) as T1 OFFSET (1 -1) LIMIT 0");
         // Before: 1.2ms
         // "SELECT * FROM (SELECT * FROM providers WHERE ( id IN (SELECT providers.id FROM  providers   WHERE  providers.name LIKE 'prov1' ))  ORDER BY name ASC) as T1 OFFSET (1 -1) LIMIT 0"
         // Current: 0.7ms
         testValidSql("provider: name=\"prov1\"",
-                "SELECT * FROM ((SELECT distinct providers.* FROM  providers   WHERE  (providers.name IS NULL OR providers.name LIKE prov1) )  ORDER BY name ASC) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct providers.* FROM  providers   WHERE  (providers.name IS NULL OR providers.name LIKE prov1) )  ORDER BY name ASC, id ASC) as T1 OFFSET (1 -1) LIMIT 0");
     }
 
     @Test
@@ -422,7 +424,7 @@ public class SyntaxCheckerTest {
         // "SELECT * FROM (SELECT * FROM providers WHERE ( id IN (SELECT providers.id FROM  providers  ))  ORDER BY name ASC) as T1 OFFSET (1 -1) LIMIT 0"
         // Current: 1ms
         testValidSql("providers: ",
-                "SELECT * FROM ((SELECT distinct providers.* FROM  providers  )  ORDER BY name ASC) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM ((SELECT distinct providers.* FROM  providers  )  ORDER BY name ASC, id ASC) as T1 OFFSET (1 -1) LIMIT 0");
     }
 
     @Test
@@ -453,13 +455,61 @@ public class SyntaxCheckerTest {
     @Test
     public void testVmWithTags() {
         testValidSql("VMs:tag=all",
-                "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   WHERE  vms_with_tags.tag_name IN ('tag1','all') ))  ORDER BY vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+                "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   WHERE  vms_with_tags.tag_name IN ('tag1','all') ))  ORDER BY vm_name ASC, vm_guid ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+    }
+
+    @Test
+    public void testVmsAfter() {
+        testValidSql("Vms:", VM_ID,
+                "SELECT * FROM ((SELECT distinct vms.* FROM  vms   WHERE (vms.vm_name, vms.vm_guid) > (SELECT vm_name, vm_guid FROM vm_static WHERE vm_guid = '77296e00-0cad-4e5a-9299-008a7b6f4354'))  ORDER BY vm_name ASC, vm_guid ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+        testValidSql("Vms: status=Up", VM_ID,
+                "SELECT * FROM ((SELECT distinct vms.* FROM  vms   WHERE  vms.status = '1'  and (vms.vm_name, vms.vm_guid) > (SELECT vm_name, vm_guid FROM vm_static WHERE vm_guid = '77296e00-0cad-4e5a-9299-008a7b6f4354'))  ORDER BY vm_name ASC, vm_guid ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+        testValidSql("Vms: tag=tag1", VM_ID,
+                "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   WHERE  vms_with_tags.tag_name IN ('tag1','all') ) and (vms.vm_name, vms.vm_guid) > (SELECT vm_name, vm_guid FROM vm_static WHERE vm_guid = '77296e00-0cad-4e5a-9299-008a7b6f4354'))  ORDER BY vm_name ASC, vm_guid ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+    }
+
+    @Test
+    public void testClustersAfter() {
+        testValidSql("Clusters:", VM_ID,
+                "SELECT * FROM ((SELECT distinct cluster_view.* FROM  cluster_view   WHERE (cluster_view.name, cluster_view.cluster_id) > (SELECT name, cluster_id FROM cluster WHERE cluster_id = '77296e00-0cad-4e5a-9299-008a7b6f4354'))  ORDER BY name ASC, cluster_id ASC) as T1 OFFSET (1 -1) LIMIT 0");
+    }
+
+    @Test
+    public void testPoolsAfter() {
+        testValidSql("Pools:", VM_ID,
+                "SELECT * FROM ((SELECT distinct vm_pools_full_view.* FROM  vm_pools_full_view   WHERE (vm_pools_full_view.vm_pool_name, vm_pools_full_view.vm_pool_id) > (SELECT vm_pool_name, vm_pool_id FROM vm_pools WHERE vm_pool_id = '77296e00-0cad-4e5a-9299-008a7b6f4354'))  ORDER BY vm_pool_name ASC, vm_pool_id ASC ) as T1 OFFSET (1 -1) LIMIT 0");
+    }
+
+    @Test
+    public void testEventsAfter() {
+        testValidSql("Events: ", "1000",
+                "SELECT * FROM ((SELECT distinct audit_log.* FROM  audit_log   WHERE not deleted and audit_log.audit_log_id < '1000')  ORDER BY audit_log_id DESC ) as T1 OFFSET (1 -1) LIMIT 0");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSortedVmsAfter() {
+        testValidSql("Vms: sortby cpu_usage desc", VM_ID, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTemplatesAfter() {
+        testValidSql("Templates: ", VM_ID, null);
+    }
+
+    @Test(expected = SqlInjectionException.class)
+    public void testVmsAfterInjection() {
+        testValidSql("Vms:", "' or 1=1", null);
     }
 
     private void testValidSql(String dynamicQuery, String exepctedSQLResult) {
+        testValidSql(dynamicQuery, null, exepctedSQLResult);
+    }
+
+    private void testValidSql(String dynamicQuery, String searchAfter, String exepctedSQLResult) {
         SyntaxChecker chkr = new SyntaxChecker(20);
         ISyntaxChecker curSyntaxChecker = SyntaxCheckerFactory.createBackendSyntaxChecker("foo");
         SyntaxContainer res = curSyntaxChecker.analyzeSyntaxState(dynamicQuery, true);
+        res.setSearchAfter(searchAfter);
         assertTrue("Invalid syntax: " + dynamicQuery, res.getvalid());
         String query = chkr.generateQueryFromSyntaxContainer(res, true);
         assertEquals(exepctedSQLResult, query);
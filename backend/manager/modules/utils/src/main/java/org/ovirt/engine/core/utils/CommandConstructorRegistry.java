@@ -0,0 +1,116 @@
+package org.ovirt.engine.core.utils;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Maps the constants of an enum of command types to the classes implementing them, and caches the constructors of
+ * these classes per the types of the arguments they are created with.
+ *
+ * Creating a command then doesn't require a class lookup nor a constructor search, which are both costly when done on
+ * every invocation. The class of each constant is resolved once, either on first use or for all the constants at once
+ * by {@link #resolveAll()}, and a constructor is searched once for each combination of argument types.
+ *
+ * @param <E>
+ *            the enum of command types
+ * @param <T>
+ *            the base type of the commands
+ */
+public class CommandConstructorRegistry<E extends Enum<E>, T> {
+
+    private static final Entry<?> MISSING = new Entry<>(null);
+
+    private final Class<E> commandTypes;
+    private final Function<E, Class<? extends T>> classResolver;
+    private final AtomicReferenceArray<Entry<? extends T>> entries;
+
+    /**
+     * @param commandTypes
+     *            the enum of command types
+     * @param classResolver
+     *            returns the class implementing the given command type, or <code>null</code> if there's none
+     */
+    public CommandConstructorRegistry(Class<E> commandTypes, Function<E, Class<? extends T>> classResolver) {
+        this.commandTypes = commandTypes;
+        this.classResolver = classResolver;
+        entries = new AtomicReferenceArray<>(commandTypes.getEnumConstants().length);
+    }
+
+    /**
+     * Resolves the classes of all the command types.
+     *
+     * @return the command types which have no implementing class
+     */
+    public List<E> resolveAll() {
+        List<E> missing = new ArrayList<>();
+        for (E commandType : commandTypes.getEnumConstants()) {
+            if (getType(commandType) == null) {
+                missing.add(commandType);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * @return the class implementing the given command type, or <code>null</code> if there's none
+     */
+    public Class<? extends T> getType(E commandType) {
+        return getEntry(commandType).type;
+    }
+
+    /**
+     * Returns the constructor of the class implementing the given command type which accepts arguments of the given
+     * types.
+     *
+     * @return the constructor, or <code>null</code> if there's no such class or constructor
+     *
+     * @see ReflectionUtils#findConstructor(Class, Class...)
+     */
+    public Constructor<? extends T> getConstructor(E commandType, Class<?>... argumentTypes) {
+        return getEntry(commandType).getConstructor(argumentTypes);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Entry<? extends T> getEntry(E commandType) {
+        int index = commandType.ordinal();
+        Entry<? extends T> entry = entries.get(index);
+        if (entry == null) {
+            Class<? extends T> type = classResolver.apply(commandType);
+            entry = type == null ? (Entry<? extends T>) MISSING : new Entry<>(type);
+            // a concurrent resolution of the same command type yields an equivalent entry, so either may be kept
+            entries.compareAndSet(index, null, entry);
+        }
+        return entry;
+    }
+
+    private static class Entry<T> {
+        private final Class<T> type;
+        private final Map<List<Class<?>>, Constructor<T>> constructors = new ConcurrentHashMap<>();
+
+        Entry(Class<T> type) {
+            this.type = type;
+        }
+
+        Constructor<T> getConstructor(Class<?>... argumentTypes) {
+            if (type == null) {
+                return null;
+            }
+
+            List<Class<?>> key = Arrays.asList(argumentTypes);
+            Constructor<T> constructor = constructors.get(key);
+            if (constructor == null) {
+                constructor = ReflectionUtils.findConstructor(type, argumentTypes);
+                if (constructor != null) {
+                    constructors.putIfAbsent(key, constructor);
+                }
+            }
+            return constructor;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.function.Function;
 
 import org.apache.commons.lang.StringUtils;
 import org.ovirt.engine.core.common.businessentities.VdcOption;
@@ -58,6 +59,14 @@ public abstract class ConfigUtilsBase implements IConfigUtilsInterface {
      * Returns the typed value of the given option. returns default value if option.option_value is null
      */
     protected Object getValue(VdcOption option) {
+        return parseOption(option, name -> getValue(name, ConfigCommon.defaultConfigurationVersion));
+    }
+
+    /**
+     * Returns the typed value of the given option. returns default value if option.option_value is null. The values
+     * that value dependent options depend on are taken from the given function.
+     */
+    protected static Object parseOption(VdcOption option, Function<ConfigValues, Object> dependencies) {
         Object result = option.getOptionValue();
         EnumValue enumValue = parseEnumValue(option.getOptionName());
         if (enumValue != null) {
@@ -89,11 +98,11 @@ public abstract class ConfigUtilsBase implements IConfigUtilsInterface {
                         break;
                     case ValueDependent:
                         // get the config that this value depends on
-                        String prefix = getValue(optionBehaviour.dependentOn(), ConfigCommon.defaultConfigurationVersion);
+                        String prefix = (String) dependencies.apply(optionBehaviour.dependentOn());
                         // combine the prefix with the 'real value'
                         if (prefix != null) {
                             String realName = String.format("%1$s%2$s", prefix, optionBehaviour.realValue());
-                            result = getValue(ConfigValues.valueOf(realName), ConfigCommon.defaultConfigurationVersion);
+                            result = dependencies.apply(ConfigValues.valueOf(realName));
                         }
                         break;
                     case CommaSeparatedVersionArray:
@@ -33,6 +33,16 @@ public class MacAddressRangeUtils {
         return result;
     }
 
+    public static List<String> macAddressesToStrings(long[] macAddresses) {
+        final List<String> result = new ArrayList<>(macAddresses.length);
+
+        for (long macAddress : macAddresses) {
+            result.add(macToString(macAddress));
+        }
+
+        return result;
+    }
+
     public static Collection<LongRange> parseRangeString(String ranges) {
         if (StringUtils.isEmpty(ranges)) {
             return Collections.emptyList();
@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.utils;
 
+import org.ovirt.engine.core.utils.serialization.json.CompactJsonObjectSerializer;
 import org.ovirt.engine.core.utils.serialization.json.JsonObjectDeserializer;
 import org.ovirt.engine.core.utils.serialization.json.JsonObjectSerializer;
 
@@ -7,12 +8,20 @@ import org.ovirt.engine.core.utils.serialization.json.JsonObjectSerializer;
 public class SerializationFactory {
 
     private static final JsonObjectSerializer serializer = new JsonObjectSerializer();
+    private static final CompactJsonObjectSerializer compactSerializer = new CompactJsonObjectSerializer();
     private static final JsonObjectDeserializer deserializer = new JsonObjectDeserializer();
 
     public static JsonObjectSerializer getSerializer() {
         return serializer;
     }
 
+    /**
+     * @return serializer producing the compact format, which is read back by {@link #getDeserializer()} as well
+     */
+    public static CompactJsonObjectSerializer getCompactSerializer() {
+        return compactSerializer;
+    }
+
     public static JsonObjectDeserializer getDeserializer() {
         return deserializer;
     }
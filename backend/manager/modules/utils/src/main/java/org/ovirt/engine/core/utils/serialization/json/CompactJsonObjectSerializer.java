@@ -0,0 +1,64 @@
+package org.ovirt.engine.core.utils.serialization.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.lang.SerializationException;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.ovirt.engine.core.utils.SerializationExeption;
+import org.ovirt.engine.core.utils.Serializer;
+
+/**
+ * {@link Serializer} implementation producing a compact form of the JSON written by {@link JsonObjectSerializer},
+ * meant for payloads which are persisted often, such as the command entities.
+ *
+ * The payload is written as JSON without indentation, which any version of {@link JsonObjectDeserializer} reads, so
+ * the rows stay readable by the tools and by older engines. Only payloads longer than {@link #COMPRESSION_THRESHOLD}
+ * characters are gzip compressed and Base64 encoded, so they still fit in a text column, and are stored as
+ * <pre>
+ * Z1:&lt;Base64 of the gzip compressed JSON&gt;
+ * </pre>
+ * They can be read by hand with {@code base64 -d | gunzip}, and {@code taskcleaner.sh} decodes them when displaying
+ * the commands.
+ */
+public class CompactJsonObjectSerializer implements Serializer {
+
+    /**
+     * Marks a payload stored as Base64 encoded, gzip compressed JSON.
+     */
+    static final String GZIP_PREFIX = "Z1:";
+
+    /**
+     * Length of the JSON above which it is compressed. Smaller payloads gain little from the compression, and are
+     * kept readable in the database.
+     */
+    static final int COMPRESSION_THRESHOLD = 8192;
+
+    private static final ObjectMapper compactMapper = JsonObjectSerializer.createTypedMapper();
+
+    @Override
+    public String serialize(Object payload) throws SerializationExeption {
+        if (payload == null) {
+            return null;
+        }
+
+        String json = JsonObjectSerializer.writeJsonAsString(payload, compactMapper);
+        if (json.length() <= COMPRESSION_THRESHOLD) {
+            return json;
+        }
+        return GZIP_PREFIX + Base64.getEncoder().encodeToString(compress(json));
+    }
+
+    private static byte[] compress(String json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length() / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new SerializationException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
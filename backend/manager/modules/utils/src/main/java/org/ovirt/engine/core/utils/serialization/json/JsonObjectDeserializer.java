@@ -1,7 +1,11 @@
 package org.ovirt.engine.core.utils.serialization.json;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.lang.SerializationException;
 import org.apache.commons.lang.StringUtils;
@@ -22,7 +26,8 @@ import org.ovirt.engine.core.utils.SerializationExeption;
 import org.ovirt.engine.core.utils.SerializationFactory;
 
 /**
- * {@link Deserializer} implementation for deserializing JSON content.
+ * {@link Deserializer} implementation for deserializing JSON content, either in its plain form or in the compact form
+ * written by {@link CompactJsonObjectSerializer}.
  */
 public class JsonObjectDeserializer implements Deserializer {
 
@@ -55,7 +60,12 @@ public class JsonObjectDeserializer implements Deserializer {
         if (source == null) {
             return null;
         }
-        return readJsonString(source, type, formattedMapper);
+
+        String content = source.toString();
+        if (content.startsWith(CompactJsonObjectSerializer.GZIP_PREFIX)) {
+            return readCompressedJson(content.substring(CompactJsonObjectSerializer.GZIP_PREFIX.length()), type);
+        }
+        return readJsonString(content, type, formattedMapper);
     }
 
     /**
@@ -94,6 +104,14 @@ public class JsonObjectDeserializer implements Deserializer {
     }
 
 
+    private <T> T readCompressedJson(String encoded, Class<T> type) {
+        try (InputStream json = new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(encoded)))) {
+            return formattedMapper.readValue(json, type);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new SerializationException(e);
+        }
+    }
+
     private <T> T readJsonString(Object source, Class<T> type, ObjectMapper mapper) {
         try {
             return mapper.readValue(source.toString(), type);
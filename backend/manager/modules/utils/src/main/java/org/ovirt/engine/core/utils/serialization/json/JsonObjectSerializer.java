@@ -33,26 +33,34 @@ public class JsonObjectSerializer implements Serializer {
     private static final ObjectMapper unformattedMapper = new ObjectMapper();
     private static final ObjectMapper formattedMapper;
     static {
-        formattedMapper = new ObjectMapper();
-        formattedMapper.getSerializationConfig().addMixInAnnotations(Guid.class, JsonGuidMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(VdcActionParametersBase.class,
+        formattedMapper = createTypedMapper();
+        formattedMapper.configure(Feature.INDENT_OUTPUT, true);
+    }
+
+    /**
+     * Creates a mapper which writes the engine entities with the mix-ins and the type information required for
+     * reading them back by {@link JsonObjectDeserializer}.
+     */
+    static ObjectMapper createTypedMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.getSerializationConfig().addMixInAnnotations(Guid.class, JsonGuidMixIn.class);
+        mapper.getSerializationConfig().addMixInAnnotations(VdcActionParametersBase.class,
                 JsonVdcActionParametersBaseMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(IVdcQueryable.class, JsonIVdcQueryableMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(VM.class, JsonVmMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(AddVmTemplateParameters.class,
+        mapper.getSerializationConfig().addMixInAnnotations(IVdcQueryable.class, JsonIVdcQueryableMixIn.class);
+        mapper.getSerializationConfig().addMixInAnnotations(VM.class, JsonVmMixIn.class);
+        mapper.getSerializationConfig().addMixInAnnotations(AddVmTemplateParameters.class,
                 JsonAddVmTemplateParametersMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(VmManagementParametersBase.class,
+        mapper.getSerializationConfig().addMixInAnnotations(VmManagementParametersBase.class,
                 JsonVmManagementParametersBaseMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(VmBase.class, JsonVmBaseMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(VmStatic.class, JsonVmStaticMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(VmPayload.class, JsonVmPayloadMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(RunVmParams.class, JsonRunVmParamsMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(EngineFault.class, JsonEngineFaultMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(Collection.class, JsonCollectionMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(Map.class, JsonMapMixIn.class);
-
-        formattedMapper.configure(Feature.INDENT_OUTPUT, true);
-        formattedMapper.enableDefaultTyping();
+        mapper.getSerializationConfig().addMixInAnnotations(VmBase.class, JsonVmBaseMixIn.class);
+        mapper.getSerializationConfig().addMixInAnnotations(VmStatic.class, JsonVmStaticMixIn.class);
+        mapper.getSerializationConfig().addMixInAnnotations(VmPayload.class, JsonVmPayloadMixIn.class);
+        mapper.getSerializationConfig().addMixInAnnotations(RunVmParams.class, JsonRunVmParamsMixIn.class);
+        mapper.getSerializationConfig().addMixInAnnotations(EngineFault.class, JsonEngineFaultMixIn.class);
+        mapper.getSerializationConfig().addMixInAnnotations(Collection.class, JsonCollectionMixIn.class);
+        mapper.getSerializationConfig().addMixInAnnotations(Map.class, JsonMapMixIn.class);
+        mapper.enableDefaultTyping();
+        return mapper;
     }
 
     @Override
@@ -73,7 +81,7 @@ public class JsonObjectSerializer implements Serializer {
      *            - The ObjectMapper.
      * @return Parsed string of the serialized object.
      */
-    private String writeJsonAsString(Object payload, ObjectMapper mapper) {
+    static String writeJsonAsString(Object payload, ObjectMapper mapper) {
         try {
             return mapper.writeValueAsString(payload);
         } catch (IOException e) {
@@ -0,0 +1,104 @@
+package org.ovirt.engine.core.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Constructor;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link CommandConstructorRegistry} class.
+ */
+public class CommandConstructorRegistryTest {
+
+    private enum CommandType {
+        Run,
+        Stop,
+        Missing
+    }
+
+    private abstract static class Command {
+    }
+
+    @SuppressWarnings("unused")
+    private static class RunCommand extends Command {
+        public RunCommand(Number parameters) {
+        }
+
+        public RunCommand(Number parameters, String context) {
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class StopCommand extends Command {
+        public StopCommand(Integer parameters) {
+        }
+    }
+
+    private AtomicInteger resolutions;
+    private CommandConstructorRegistry<CommandType, Command> registry;
+
+    @Before
+    public void setUp() {
+        resolutions = new AtomicInteger();
+        registry = new CommandConstructorRegistry<>(CommandType.class, this::resolve);
+    }
+
+    private Class<? extends Command> resolve(CommandType commandType) {
+        resolutions.incrementAndGet();
+        switch (commandType) {
+        case Run:
+            return RunCommand.class;
+        case Stop:
+            return StopCommand.class;
+        default:
+            return null;
+        }
+    }
+
+    @Test
+    public void resolveAllReportsMissingClasses() {
+        assertEquals(Collections.singletonList(CommandType.Missing), registry.resolveAll());
+    }
+
+    @Test
+    public void classIsResolvedOnce() {
+        registry.resolveAll();
+        registry.getType(CommandType.Run);
+        registry.getConstructor(CommandType.Stop, Integer.class);
+        registry.getType(CommandType.Missing);
+
+        assertEquals(CommandType.values().length, resolutions.get());
+    }
+
+    @Test
+    public void constructorMatchesArgumentTypes() throws Exception {
+        Constructor<? extends Command> constructor = registry.getConstructor(CommandType.Run, Integer.class);
+
+        assertEquals(RunCommand.class.getDeclaredConstructor(Number.class), constructor);
+        assertEquals(RunCommand.class.getDeclaredConstructor(Number.class, String.class),
+                registry.getConstructor(CommandType.Run, Long.class, String.class));
+    }
+
+    @Test
+    public void constructorIsCached() {
+        assertSame(registry.getConstructor(CommandType.Run, Integer.class),
+                registry.getConstructor(CommandType.Run, Integer.class));
+    }
+
+    @Test
+    public void noConstructorForIncompatibleArguments() {
+        assertNull(registry.getConstructor(CommandType.Stop, Long.class));
+    }
+
+    @Test
+    public void noConstructorForMissingClass() {
+        assertNull(registry.getType(CommandType.Missing));
+        assertNull(registry.getConstructor(CommandType.Missing, Integer.class));
+    }
+}
@@ -0,0 +1,82 @@
+package org.ovirt.engine.core.utils.serialization.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.ovirt.engine.core.common.action.LockProperties;
+import org.ovirt.engine.core.common.action.LockProperties.Scope;
+import org.ovirt.engine.core.common.action.VdcActionParametersBase;
+import org.ovirt.engine.core.common.action.VdcActionType;
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * Tests for {@link CompactJsonObjectSerializer}.
+ */
+public class CompactJsonObjectSerializerTest {
+
+    private final CompactJsonObjectSerializer serializer = new CompactJsonObjectSerializer();
+    private final JsonObjectDeserializer deserializer = new JsonObjectDeserializer();
+
+    @Test
+    public void testNullSerialize() {
+        assertNull(serializer.serialize(null));
+    }
+
+    @Test
+    public void smallPayloadIsWrittenAsPlainJson() {
+        String serialized = serializer.serialize(createParameters());
+
+        assertTrue(serialized.startsWith("{"));
+        assertTrue(serialized.length() < new JsonObjectSerializer().serialize(createParameters()).length());
+    }
+
+    @Test
+    public void smallPayloadIsReadBack() {
+        VdcActionParametersBase params = createParameters();
+
+        VdcActionParametersBase deserialized =
+                deserializer.deserialize(serializer.serialize(params), VdcActionParametersBase.class);
+
+        assertEquals(params.getCommandId(), deserialized.getCommandId());
+        assertEquals(params.getParentCommand(), deserialized.getParentCommand());
+        assertEquals(params.getLockProperties().getScope(), deserialized.getLockProperties().getScope());
+    }
+
+    @Test
+    public void largePayloadIsCompressedAndReadBack() {
+        HashMap<String, Serializable> data = new HashMap<>();
+        for (int i = 0; i < 400; i++) {
+            data.put("key" + i, Guid.newGuid().toString());
+        }
+        data.put("NEXT_COMMAND_TYPE", VdcActionType.DestroyImage);
+
+        String serialized = serializer.serialize(data);
+
+        assertTrue(serialized.startsWith(CompactJsonObjectSerializer.GZIP_PREFIX));
+        assertEquals(data, deserializer.deserialize(serialized, HashMap.class));
+    }
+
+    @Test
+    public void legacyJsonIsStillRead() {
+        Map<String, Serializable> data = new HashMap<>();
+        data.put("NEXT_COMMAND_TYPE", VdcActionType.DestroyImage);
+
+        String legacy = new JsonObjectSerializer().serialize(data);
+
+        assertEquals(data, deserializer.deserialize(legacy, HashMap.class));
+    }
+
+    private static VdcActionParametersBase createParameters() {
+        VdcActionParametersBase params = new VdcActionParametersBase();
+        params.setCommandId(Guid.newGuid());
+        params.setParentCommand(VdcActionType.AddDisk);
+        params.setLockProperties(LockProperties.create(Scope.Execution).withWait(true));
+        return params;
+    }
+}
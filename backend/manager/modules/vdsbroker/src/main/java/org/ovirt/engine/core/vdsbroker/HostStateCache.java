@@ -0,0 +1,173 @@
+package org.ovirt.engine.core.vdsbroker;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.dbbroker.VdsChangeTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decides whether the host kept in memory by a {@link VdsManager} has to be re-read from the database on a monitoring
+ * cycle.
+ *
+ * A host is re-read when the {@link VdsChangeTracker} reports that another engine component modified it since the
+ * last read, and periodically according to {@code VdsStateCacheMaxAge}. A modification is reported when it is written
+ * and again when its transaction completes, so a read which saw the host before the modification was committed is
+ * followed by another one. A read which follows a modification is also repeated once before the cached state is
+ * trusted, for the writes made outside of a managed transaction. Writes made by the {@link VdsManager} itself are applied to its in-memory host as well, and therefore are
+ * run through {@link #runOwnChange(Guid, Runnable)} so they don't invalidate it.
+ */
+@Singleton
+public class HostStateCache implements HostStateCacheMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(HostStateCache.class);
+
+    private final Map<Guid, ReadState> readStates = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private final VdsChangeTracker changeTracker;
+    private final boolean enabled;
+    private final long maxAgeMillis;
+
+    private ObjectName objectName;
+    private MBeanServer platformMBeanServer;
+
+    @Inject
+    HostStateCache(VdsChangeTracker changeTracker) {
+        this(changeTracker,
+                Config.<Boolean> getValue(ConfigValues.VdsStateCacheEnabled),
+                TimeUnit.SECONDS.toMillis(Config.<Integer> getValue(ConfigValues.VdsStateCacheMaxAge)));
+    }
+
+    HostStateCache(VdsChangeTracker changeTracker, boolean enabled, long maxAgeMillis) {
+        this.changeTracker = changeTracker;
+        this.enabled = enabled;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    @PostConstruct
+    private void registerInJMX() {
+        try {
+            objectName = new ObjectName("HostStateCache:type=" + getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            log.warn("Failed to register the host state cache in JMX: {}", e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    @PreDestroy
+    private void unregisterFromJMX() {
+        try {
+            if (platformMBeanServer != null) {
+                platformMBeanServer.unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            log.debug("Failed to unregister the host state cache from JMX: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return whether the given host has to be read from the database rather than taken from memory
+     */
+    public boolean isReadNeeded(Guid vdsId) {
+        if (!enabled) {
+            return true;
+        }
+
+        ReadState state = readStates.get(vdsId);
+        if (state == null
+                || !state.confirmed
+                || state.version != changeTracker.getVersion(vdsId)
+                || System.currentTimeMillis() - state.readTime > maxAgeMillis) {
+            misses.increment();
+            return true;
+        }
+
+        hits.increment();
+        return false;
+    }
+
+    /**
+     * @return the version which has to be passed to {@link #readCompleted(Guid, long)}. It must be taken before the
+     *         host is read from the database.
+     */
+    public long getVersion(Guid vdsId) {
+        return changeTracker.getVersion(vdsId);
+    }
+
+    /**
+     * Records that the given host was read from the database.
+     *
+     * @param versionBeforeRead
+     *            the version of the host as returned by {@link #getVersion(Guid)} before it was read
+     */
+    public void readCompleted(Guid vdsId, long versionBeforeRead) {
+        readStates.compute(vdsId,
+                (id, previous) -> new ReadState(versionBeforeRead,
+                        previous != null && previous.version == versionBeforeRead));
+    }
+
+    /**
+     * Runs a write of the given host which is applied to its in-memory copy as well.
+     */
+    public void runOwnChange(Guid vdsId, Runnable write) {
+        changeTracker.runUntracked(vdsId, write);
+    }
+
+    /**
+     * Forces the given host to be read from the database on its next monitoring cycle, to be used when its in-memory
+     * copy was modified without being saved.
+     */
+    public void invalidate(Guid vdsId) {
+        readStates.remove(vdsId);
+    }
+
+    @Override
+    public void invalidateAll() {
+        readStates.clear();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private static class ReadState {
+        private final long version;
+        private final long readTime;
+        private final boolean confirmed;
+
+        ReadState(long version, boolean confirmed) {
+            this.version = version;
+            this.confirmed = confirmed;
+            readTime = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.ovirt.engine.core.vdsbroker;
+
+/**
+ * JMX view of the {@link HostStateCache}
+ */
+public interface HostStateCacheMXBean {
+
+    /**
+     * @return whether monitoring may use the cached host state instead of reading it from the database
+     */
+    boolean isEnabled();
+
+    /**
+     * @return number of monitoring cycles which used the cached host state
+     */
+    long getHits();
+
+    /**
+     * @return number of monitoring cycles which had to read the host from the database
+     */
+    long getMisses();
+
+    /**
+     * Forces all the hosts to be read from the database on their next monitoring cycle
+     */
+    void invalidateAll();
+}
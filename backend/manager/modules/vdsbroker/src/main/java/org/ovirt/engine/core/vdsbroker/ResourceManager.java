@@ -47,7 +47,7 @@ import org.ovirt.engine.core.dao.VdsDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
 import org.ovirt.engine.core.di.Injector;
-import org.ovirt.engine.core.utils.ReflectionUtils;
+import org.ovirt.engine.core.utils.CommandConstructorRegistry;
 import org.ovirt.engine.core.utils.collections.MultiValueMapUtils;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.FutureVDSCommand;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsCommandExecutor;
@@ -70,6 +70,16 @@ public class ResourceManager implements BackendService {
     private static final Logger log = LoggerFactory.getLogger(ResourceManager.class);
     private int parallelism;
 
+    private final CommandConstructorRegistry<VDSCommandType, VDSCommandBase<?>> commandConstructors =
+            new CommandConstructorRegistry<>(VDSCommandType.class,
+                    commandType -> ResourceManager.<VDSCommandBase<?>> loadCommandClass(
+                            getCommandTypeName(commandType)));
+
+    private final CommandConstructorRegistry<FutureVDSCommandType, FutureVDSCommand<?>> futureCommandConstructors =
+            new CommandConstructorRegistry<>(FutureVDSCommandType.class,
+                    commandType -> ResourceManager.<FutureVDSCommand<?>> loadCommandClass(
+                            commandType.getFullyQualifiedClassName()));
+
     @Inject
     private Instance<IVdsEventListener> eventListener;
 
@@ -94,6 +104,9 @@ public class ResourceManager implements BackendService {
     @Inject
     private VdsManagerFactory vdsManagerFactory;
 
+    @Inject
+    private HostStateCache hostStateCache;
+
     private ResourceManager() {
         this.parallelism = Config.getValue(ConfigValues.EventProcessingPoolSize);
     }
@@ -101,6 +114,7 @@ public class ResourceManager implements BackendService {
     @PostConstruct
     private void init() {
         log.info("Start initializing {}", getClass().getSimpleName());
+        resolveCommandClasses();
         populateVdsAndVmsList();
 
         // Populate the VDS dictionary
@@ -112,6 +126,17 @@ public class ResourceManager implements BackendService {
         log.info("Finished initializing {}", getClass().getSimpleName());
     }
 
+    private void resolveCommandClasses() {
+        List<VDSCommandType> missingCommands = commandConstructors.resolveAll();
+        if (!missingCommands.isEmpty()) {
+            log.error("Unable to find the classes of the following VDS commands: {}", missingCommands);
+        }
+        List<FutureVDSCommandType> missingFutureCommands = futureCommandConstructors.resolveAll();
+        if (!missingFutureCommands.isEmpty()) {
+            log.error("Unable to find the classes of the following future VDS commands: {}", missingFutureCommands);
+        }
+    }
+
     private void populateVdsAndVmsList() {
         final List<VmDynamic> vms = vmDynamicDao.getAll();
         for (VmDynamic vm : vms) {
@@ -157,7 +182,10 @@ public class ResourceManager implements BackendService {
     public void removeVmFromDownVms(Guid vdsId, Guid vmId) {
         HashSet<Guid> vms = vdsAndVmsList.get(vdsId);
         if (vms != null) {
-            vms.remove(vmId);
+            // VMs of a host may be analyzed in parallel
+            synchronized (vms) {
+                vms.remove(vmId);
+            }
         }
     }
 
@@ -212,6 +240,7 @@ public class ResourceManager implements BackendService {
         if (vdsManager != null) {
             vdsManager.dispose();
             vdsManagersDict.remove(vdsId);
+            hostStateCache.invalidate(vdsId);
         }
     }
 
@@ -321,22 +350,34 @@ public class ResourceManager implements BackendService {
         return commandName;
     }
 
+    @SuppressWarnings("unchecked")
+    private static <T> Class<? extends T> loadCommandClass(String className) {
+        try {
+            // the class is initialized when the first command is created rather than when it's resolved
+            return (Class<? extends T>) Class.forName(className, false, ResourceManager.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
     /**
      * Create the command which needs to run.
      * @return The command, or null if it can't be created.
      */
+    @SuppressWarnings("unchecked")
     private <P extends VDSParametersBase> VDSCommandBase<P> createCommand(
             VDSCommandType commandType, P parameters) {
         try {
-            @SuppressWarnings("unchecked")
-            Class<VDSCommandBase<P>> type =
-                    (Class<VDSCommandBase<P>>) Class.forName(getCommandTypeName(commandType));
             Constructor<VDSCommandBase<P>> constructor =
-                    ReflectionUtils.findConstructor(type, parameters.getClass());
+                    (Constructor<VDSCommandBase<P>>) commandConstructors.getConstructor(commandType,
+                            parameters.getClass());
 
             if (constructor != null) {
                 return instantiateInjectedCommand(parameters, constructor);
             }
+            log.error("createCommand failed: no constructor of '{}' accepts '{}'",
+                    commandType,
+                    parameters.getClass().getName());
         } catch (Exception e) {
             if (e.getCause() != null) {
                 log.error("createCommand failed: {}", e.getCause().getMessage());
@@ -356,16 +397,20 @@ public class ResourceManager implements BackendService {
         return cmd;
     }
 
+    @SuppressWarnings("unchecked")
     private <P extends VdsIdVDSCommandParametersBase> FutureVDSCommand<P> createFutureCommand(FutureVDSCommandType commandType,
             P parameters) {
         try {
-            Class<FutureVDSCommand<P>> type =
-                    (Class<FutureVDSCommand<P>>) Class.forName(commandType.getFullyQualifiedClassName());
-            Constructor<FutureVDSCommand<P>> constructor = ReflectionUtils.findConstructor(type, parameters.getClass());
+            Constructor<FutureVDSCommand<P>> constructor =
+                    (Constructor<FutureVDSCommand<P>>) futureCommandConstructors.getConstructor(commandType,
+                            parameters.getClass());
 
             if (constructor != null) {
                 return instantiateInjectedCommand(parameters, constructor);
             }
+            log.error("CreateFutureCommand failed: no constructor of '{}' accepts '{}'",
+                    commandType,
+                    parameters.getClass().getName());
         } catch (Exception e) {
             if (e.getCause() != null) {
                 log.error("CreateFutureCommand failed: {}", e.getCause().getMessage());
@@ -62,6 +62,7 @@ import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
 import org.ovirt.engine.core.utils.timer.SchedulerUtil;
 import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
+import org.ovirt.engine.core.utils.timer.TimingWheelScheduler;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
 import org.ovirt.engine.core.vdsbroker.irsbroker.IRSErrorException;
 import org.ovirt.engine.core.vdsbroker.irsbroker.IrsProxy;
@@ -99,6 +100,9 @@ public class VdsManager {
     @Inject
     private SchedulerUtilQuartzImpl schedulerUtil;
 
+    @Inject
+    private TimingWheelScheduler timingWheelScheduler;
+
     @Inject
     private DbFacade dbFacade;
 
@@ -126,6 +130,9 @@ public class VdsManager {
     @Inject
     private Instance<IrsProxyManager> irsProxyManager;
 
+    @Inject
+    private HostStateCache hostStateCache;
+
     private final AtomicInteger failedToRunVmAttempts;
     private final AtomicInteger unrespondedAttempts;
     private final Guid vdsId;
@@ -201,14 +208,11 @@ public class VdsManager {
     }
 
     public void scheduleJobs() {
-        SchedulerUtil sched = getSchedulUtil();
         int refreshRate = Config.<Integer> getValue(ConfigValues.VdsRefreshRate) * 1000;
 
-        registeredJobs.add(sched.scheduleAFixedDelayJob(
-                this,
-                "onTimer",
-                new Class[0],
-                new Object[0],
+        registeredJobs.add(timingWheelScheduler.scheduleAFixedDelayJob(
+                "VdsManager.onTimer",
+                this::onTimer,
                 refreshRate,
                 refreshRate,
                 TimeUnit.MILLISECONDS));
@@ -245,7 +249,6 @@ public class VdsManager {
                 heartbeat);
     }
 
-    @OnTimerMethodAnnotation("onTimer")
     public void onTimer() {
         if (lockManager.acquireLock(monitoringLock).getFirst()) {
             try {
@@ -276,10 +279,13 @@ public class VdsManager {
                             setLastUpdate();
                         }
                     } catch (VDSNetworkException e) {
+                        hostStateCache.invalidate(getVdsId());
                         logNetworkException(e);
                     } catch (VDSRecoveringException ex) {
+                        hostStateCache.invalidate(getVdsId());
                         handleVdsRecoveringException(ex);
                     } catch (RuntimeException ex) {
+                        hostStateCache.invalidate(getVdsId());
                         logFailureMessage(ex);
                     }
                     try {
@@ -333,8 +339,16 @@ public class VdsManager {
         }
     }
 
+    /**
+     * Re-reads the host from the database, unless the {@link HostStateCache} reports that the in-memory host is up to
+     * date.
+     */
     private void refreshCachedVds() {
-        cachedVds = vdsDao.get(getVdsId());
+        if (cachedVds == null || hostStateCache.isReadNeeded(getVdsId())) {
+            long version = hostStateCache.getVersion(getVdsId());
+            cachedVds = vdsDao.get(getVdsId());
+            hostStateCache.readCompleted(getVdsId(), version);
+        }
         setMonitoringNeeded();
     }
 
@@ -349,6 +363,10 @@ public class VdsManager {
         return cachedVds.getStatus();
     }
 
+    public boolean isBalloonEnabled() {
+        return cachedVds.isBalloonEnabled();
+    }
+
     public String getVdsName() {
         return cachedVds.getName();
     }
@@ -440,26 +458,28 @@ public class VdsManager {
      * Save dynamic data to cache and DB.
      */
     public void updateDynamicData(VdsDynamic dynamicData) {
-        vdsDynamicDao.updateIfNeeded(dynamicData);
+        hostStateCache.runOwnChange(getVdsId(), () -> vdsDynamicDao.updateIfNeeded(dynamicData));
         cachedVds.setDynamicData(dynamicData);
     }
 
     public void updatePartialDynamicData(NonOperationalReason nonOperationalReason, String maintenanceReason) {
         cachedVds.getDynamicData().setNonOperationalReason(nonOperationalReason);
         cachedVds.getDynamicData().setMaintenanceReason(maintenanceReason);
-        vdsDynamicDao.updateStatusAndReasons(cachedVds.getDynamicData());
+        hostStateCache.runOwnChange(getVdsId(),
+                () -> vdsDynamicDao.updateStatusAndReasons(cachedVds.getDynamicData()));
     }
 
     public void updateUpdateAvailable(boolean updatesAvailable) {
         cachedVds.getDynamicData().setUpdateAvailable(updatesAvailable);
-        vdsDynamicDao.updateUpdateAvailable(cachedVds.getId(), updatesAvailable);
+        hostStateCache.runOwnChange(getVdsId(),
+                () -> vdsDynamicDao.updateUpdateAvailable(cachedVds.getId(), updatesAvailable));
     }
 
     /**
      * Save statistics data to cache and DB.
      */
     public void updateStatisticsData(VdsStatistics statisticsData) {
-        vdsStatisticsDao.update(statisticsData);
+        hostStateCache.runOwnChange(getVdsId(), () -> vdsStatisticsDao.update(statisticsData));
         cachedVds.setStatisticsData(statisticsData);
     }
 
@@ -604,6 +624,9 @@ public class VdsManager {
             default:
                 break;
             }
+
+            // the in-memory host is not saved here, so it has to be re-read on the next monitoring cycle
+            hostStateCache.invalidate(getVdsId());
         }
     }
 
@@ -912,7 +935,7 @@ public class VdsManager {
     public void dispose() {
         log.info("vdsManager::disposing");
         for (String jobId : registeredJobs) {
-            getSchedulUtil().deleteJob(jobId);
+            timingWheelScheduler.deleteJob(jobId);
         }
 
         vmsRefresher.stopMonitoring();
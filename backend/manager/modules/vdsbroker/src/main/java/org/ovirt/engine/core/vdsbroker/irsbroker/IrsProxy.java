@@ -83,6 +83,7 @@ import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
 import org.ovirt.engine.core.utils.timer.SchedulerUtil;
 import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
+import org.ovirt.engine.core.utils.timer.TimingWheelScheduler;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.TransportFactory;
@@ -201,19 +202,21 @@ public class IrsProxy {
     public IrsProxy(Guid storagePoolId) {
         _storagePoolId = storagePoolId;
         int storagePoolRefreshTime = Config.<Integer> getValue(ConfigValues.StoragePoolRefreshTimeInSeconds);
-        storagePoolRefreshJobId = getSchedulUtil().scheduleAFixedDelayJob(this,
-                "updatingTimerElapsed", new Class[0], new Object[0], storagePoolRefreshTime,
-                storagePoolRefreshTime, TimeUnit.SECONDS);
+        storagePoolRefreshJobId = getTimingWheelScheduler().scheduleAFixedDelayJob("IrsProxy.updatingTimerElapsed",
+                this::updatingTimerElapsed, storagePoolRefreshTime, storagePoolRefreshTime, TimeUnit.SECONDS);
         domainRecoverOnHostJobId =
-                getSchedulUtil().scheduleAFixedDelayJob(this,
-                        "hostsStorageConnectionsAndPoolMetadataRefresh",
-                        new Class[0],
-                        new Object[0],
+                getTimingWheelScheduler().scheduleAFixedDelayJob(
+                        "IrsProxy.hostsStorageConnectionsAndPoolMetadataRefresh",
+                        this::hostsStorageConnectionsAndPoolMetadataRefresh,
                         Config.<Integer>getValue(ConfigValues.HostStorageConnectionAndPoolRefreshTimeInSeconds),
                         storagePoolRefreshTime,
                         TimeUnit.SECONDS);
     }
 
+    protected TimingWheelScheduler getTimingWheelScheduler() {
+        return Injector.get(TimingWheelScheduler.class);
+    }
+
     protected SchedulerUtil getSchedulUtil() {
         return Injector.get(SchedulerUtilQuartzImpl.class);
     }
@@ -222,7 +225,6 @@ public class IrsProxy {
         getEventListener().storagePoolStatusChange(poolId, status, auditLogType, error);
     }
 
-    @OnTimerMethodAnnotation("updatingTimerElapsed")
     public void updatingTimerElapsed() {
         runInControlledConcurrency(() -> {
             try {
@@ -1540,7 +1542,6 @@ public class IrsProxy {
         return reportsToHandle;
     }
 
-    @OnTimerMethodAnnotation("hostsStorageConnectionsAndPoolMetadataRefresh")
     public void hostsStorageConnectionsAndPoolMetadataRefresh() {
         Map<Guid, Guid> reportsToHandle = procceedReportsThreatmenet();
 
@@ -1830,8 +1831,8 @@ public class IrsProxy {
         runInControlledConcurrency(() -> {
             log.info("IrsProxy::disposing");
             resetIrs();
-            getSchedulUtil().deleteJob(storagePoolRefreshJobId);
-            getSchedulUtil().deleteJob(domainRecoverOnHostJobId);
+            getTimingWheelScheduler().deleteJob(storagePoolRefreshJobId);
+            getTimingWheelScheduler().deleteJob(domainRecoverOnHostJobId);
             _disposed = true;
         });
     }
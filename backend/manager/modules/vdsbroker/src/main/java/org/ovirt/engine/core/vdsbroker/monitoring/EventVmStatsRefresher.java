@@ -1,40 +1,79 @@
 package org.ovirt.engine.core.vdsbroker.monitoring;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
 import org.ovirt.engine.core.common.businessentities.VmDynamic;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.di.Injector;
+import org.ovirt.engine.core.utils.timer.TimingWheelScheduler;
 import org.ovirt.engine.core.vdsbroker.ObjectDescriptor;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsBrokerObjectsBuilder;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsProperties;
 import org.ovirt.vdsm.jsonrpc.client.events.EventSubscriber;
 import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Monitors the VMs reported by the VM status events of a host.
+ *
+ * The events which arrive within {@code VmStatusEventCoalescingWindowInMillis} of the first pending one, up to
+ * {@code VmStatusEventMaxBatchSize} of them, are coalesced: only the newest state reported for each VM is kept, and
+ * the VMs of the whole batch are monitored in a single pass. An event reporting another status of a pending VM is
+ * not coalesced, the pending events are monitored first, so every status a VM passes through is monitored. A window
+ * of 0 monitors the VMs of each event on its own.
+ */
 public class EventVmStatsRefresher extends VmStatsRefresher {
 
     private static final Logger log = LoggerFactory.getLogger(EventVmStatsRefresher.class);
     private Subscription subscription;
     @Inject
     private VmDynamicDao vmDynamicDao;
+    @Inject
+    private TimingWheelScheduler scheduler;
     private final ResourceManager resourceManager;
     private final PollVmStatsRefresher allVmStatsOnlyRefresher;
+    private final int coalescingWindow;
+    private final int maxBatchSize;
+
+    private final Object pendingLock = new Object();
+    private final Object monitoringLock = new Object();
+    private Map<Guid, PendingVm> pendingVms = new HashMap<>();
+    private int pendingEvents;
+    private long pendingSince;
+    private boolean flushScheduled;
 
     @SuppressWarnings("deprecation")
     public EventVmStatsRefresher(VdsManager manager, ResourceManager resourceManager) {
-        super(manager);
         // we still want to fetch GetAllVmStats as we did before
-        allVmStatsOnlyRefresher = Injector.injectMembers(new PollVmStatsRefresher(vdsManager));
+        this(manager, resourceManager, Injector.injectMembers(new PollVmStatsRefresher(manager)));
+    }
+
+    EventVmStatsRefresher(VdsManager manager,
+            ResourceManager resourceManager,
+            PollVmStatsRefresher allVmStatsOnlyRefresher) {
+        super(manager);
+        this.allVmStatsOnlyRefresher = allVmStatsOnlyRefresher;
         this.resourceManager = resourceManager;
+        coalescingWindow = Config.<Integer> getValue(ConfigValues.VmStatusEventCoalescingWindowInMillis);
+        maxBatchSize = coalescingWindow > 0 ? Config.<Integer> getValue(ConfigValues.VmStatusEventMaxBatchSize) : 1;
     }
 
     @Override
@@ -46,19 +85,16 @@ public class EventVmStatsRefresher extends VmStatsRefresher {
             @Override
             public void onSubscribe(Subscription sub) {
                 subscription = sub;
-                subscription.request(1);
+                // a full batch may be delivered while the previous one is monitored
+                subscription.request(maxBatchSize);
             }
 
             @Override
             public void onNext(Map<String, Object> map) {
                 try {
-                    long fetchTime = System.nanoTime();
+                    getVmsMonitoring().getStatistics().eventReceived();
                     printEventInDebug(map);
-                    List<Pair<VmDynamic, VdsmVm>> vms = convertEvent(map);
-                    if (!vms.isEmpty()) {
-                        getVmsMonitoring().perform(vms, fetchTime, vdsManager, false);
-                        processDevices(vms.stream().map(Pair::getSecond), fetchTime);
-                    }
+                    processEvent(map);
                 } finally {
                     subscription.request(1);
                 }
@@ -74,40 +110,6 @@ public class EventVmStatsRefresher extends VmStatsRefresher {
                 log.debug("processing event for host {} data:\n{}", vdsManager.getVdsName(), sb);
             }
 
-            @SuppressWarnings("unchecked")
-            private List<Pair<VmDynamic, VdsmVm>> convertEvent(Map<String, Object> map) {
-                Double notifyTime = VdsBrokerObjectsBuilder.removeNotifyTimeFromVmStatusEvent(map);
-                return map.entrySet().stream()
-                        .map(idToMap -> toMonitoredVm(
-                                new Guid(idToMap.getKey()),
-                                (Map<String, Object>) idToMap.getValue(),
-                                notifyTime))
-                        .collect(Collectors.toList());
-            }
-
-            private Pair<VmDynamic, VdsmVm> toMonitoredVm(Guid vmId, Map<String, Object> vmMap, Double notifyTime) {
-                VmDynamic dbVm = vmDynamicDao.get(vmId);
-                VdsmVm vdsmVm = dbVm == null ?
-                        createVdsmVm(vmId, vmMap, notifyTime)
-                        : createVdsmVm(dbVm, vmMap, notifyTime);
-                return new Pair<>(dbVm, vdsmVm);
-            }
-
-            private VdsmVm createVdsmVm(Guid vmId, Map<String, Object> struct, Double notifyTime) {
-                VmDynamic fakeVm = new VmDynamic();
-                fakeVm.setId(vmId);
-                return createVdsmVm(fakeVm, struct, notifyTime);
-            }
-
-            private VdsmVm createVdsmVm(VmDynamic dbVmDynamic, Map<String, Object> struct, Double notifyTime) {
-                // send a clone of vm dynamic to be overridden with new data
-                VmDynamic clonedVmDynamic = new VmDynamic(dbVmDynamic);
-                VdsBrokerObjectsBuilder.updateVMDynamicData(clonedVmDynamic, struct, vdsManager.getCopyVds());
-                return new VdsmVm(notifyTime)
-                        .setVmDynamic(clonedVmDynamic)
-                        .setDevicesHash(VdsBrokerObjectsBuilder.getVmDevicesHash(struct));
-            }
-
             @Override
             public void onError(Throwable t) {
                 // communication issue is delivered as a message so we need to request for more
@@ -124,6 +126,179 @@ public class EventVmStatsRefresher extends VmStatsRefresher {
     public void stopMonitoring() {
         allVmStatsOnlyRefresher.stopMonitoring();
         subscription.cancel();
+        synchronized (pendingLock) {
+            pendingVms = new HashMap<>();
+            pendingEvents = 0;
+        }
+    }
+
+    private void processEvent(Map<String, Object> map) {
+        Double notifyTime = VdsBrokerObjectsBuilder.removeNotifyTimeFromVmStatusEvent(map);
+        if (changesPendingStatus(map)) {
+            flushPendingEvents();
+        }
+        if (addPendingEvent(map, notifyTime)) {
+            flushPendingEvents();
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the given event reports a status of a pending VM other than its pending one
+     */
+    @SuppressWarnings("unchecked")
+    private boolean changesPendingStatus(Map<String, Object> map) {
+        synchronized (pendingLock) {
+            return map.entrySet().stream().anyMatch(idToVm -> {
+                PendingVm pendingVm = pendingVms.get(new Guid(idToVm.getKey()));
+                return pendingVm != null && !Objects.equals(pendingVm.getStatus(),
+                        ((Map<String, Object>) idToVm.getValue()).get(VdsProperties.status));
+            });
+        }
+    }
+
+    /**
+     * Adds the VMs reported by the given event to the pending ones, replacing the states reported by older events.
+     *
+     * @return <code>true</code> if the pending VMs should be monitored right away, otherwise they are monitored once
+     *         the coalescing window is over
+     */
+    @SuppressWarnings("unchecked")
+    private boolean addPendingEvent(Map<String, Object> map, Double notifyTime) {
+        synchronized (pendingLock) {
+            if (pendingEvents++ == 0) {
+                pendingSince = System.nanoTime();
+            }
+            map.forEach((vmId, vmMap) -> pendingVms.merge(new Guid(vmId),
+                    new PendingVm((Map<String, Object>) vmMap, notifyTime),
+                    PendingVm::newer));
+            if (pendingEvents >= maxBatchSize) {
+                return true;
+            }
+            if (!flushScheduled) {
+                flushScheduled = true;
+                scheduleFlush();
+            }
+            return false;
+        }
+    }
+
+    void scheduleFlush() {
+        scheduler.scheduleAOneTimeJob("EventVmStatsRefresher.flushPendingEvents",
+                this::flushPendingEvents,
+                coalescingWindow,
+                TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Monitors the VMs reported by the pending events in a single pass. The passes of a host are serialized, while
+     * the events arriving meanwhile are collected for the next one.
+     */
+    void flushPendingEvents() {
+        synchronized (monitoringLock) {
+            Map<Guid, PendingVm> vms;
+            long fetchTime;
+            synchronized (pendingLock) {
+                flushScheduled = false;
+                if (pendingEvents == 0) {
+                    return;
+                }
+                vms = pendingVms;
+                // the earliest arrival, so data changed by the engine since is not overridden by the events
+                fetchTime = pendingSince;
+                pendingVms = new HashMap<>();
+                pendingEvents = 0;
+            }
+
+            monitorVms(vms, fetchTime);
+        }
+    }
+
+    void monitorVms(Map<Guid, PendingVm> vms, long fetchTime) {
+        long convertTime = System.nanoTime();
+        List<Pair<VmDynamic, VdsmVm>> monitoredVms = toMonitoredVms(vms);
+        if (!monitoredVms.isEmpty()) {
+            getVmsMonitoring().getStatistics().fetched(System.nanoTime() - convertTime);
+            getVmsMonitoring().perform(monitoredVms, fetchTime, vdsManager, false);
+            processDevices(monitoredVms.stream().map(Pair::getSecond), fetchTime);
+            getVmsMonitoring().getStatistics().eventProcessed(System.nanoTime() - fetchTime,
+                    monitoredVms.size());
+        }
+    }
+
+    private List<Pair<VmDynamic, VdsmVm>> toMonitoredVms(Map<Guid, PendingVm> vms) {
+        Map<Guid, VmDynamic> dbVms = getDbVms(vms.keySet());
+        return vms.entrySet().stream()
+                .map(idToVm -> toMonitoredVm(idToVm.getKey(), idToVm.getValue(), dbVms))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reads all the VMs reported by the events at once rather than one by one.
+     */
+    private Map<Guid, VmDynamic> getDbVms(Set<Guid> vmIds) {
+        if (vmIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return vmDynamicDao.getByIds(new ArrayList<>(vmIds))
+                .stream()
+                .collect(Collectors.toMap(VmDynamic::getId, Function.identity()));
+    }
+
+    private Pair<VmDynamic, VdsmVm> toMonitoredVm(Guid vmId, PendingVm vm, Map<Guid, VmDynamic> dbVms) {
+        VmDynamic dbVm = dbVms.get(vmId);
+        VdsmVm vdsmVm = dbVm == null ?
+                createVdsmVm(vmId, vm.vmMap, vm.notifyTime)
+                : createVdsmVm(dbVm, vm.vmMap, vm.notifyTime);
+        return new Pair<>(dbVm, vdsmVm);
+    }
+
+    private VdsmVm createVdsmVm(Guid vmId, Map<String, Object> struct, Double notifyTime) {
+        VmDynamic fakeVm = new VmDynamic();
+        fakeVm.setId(vmId);
+        return createVdsmVm(fakeVm, struct, notifyTime);
+    }
+
+    private VdsmVm createVdsmVm(VmDynamic dbVmDynamic, Map<String, Object> struct, Double notifyTime) {
+        // send a clone of vm dynamic to be overridden with new data
+        VmDynamic clonedVmDynamic = new VmDynamic(dbVmDynamic);
+        VdsBrokerObjectsBuilder.updateVMDynamicData(clonedVmDynamic, struct, vdsManager.getCopyVds());
+        return new VdsmVm(notifyTime)
+                .setVmDynamic(clonedVmDynamic)
+                .setDevicesHash(VdsBrokerObjectsBuilder.getVmDevicesHash(struct));
+    }
+
+    /**
+     * The state of a VM as reported by the newest event of the pending ones.
+     */
+    static class PendingVm {
+        private final Map<String, Object> vmMap;
+        private final Double notifyTime;
+
+        PendingVm(Map<String, Object> vmMap, Double notifyTime) {
+            this.vmMap = vmMap;
+            this.notifyTime = notifyTime;
+        }
+
+        Map<String, Object> getVmMap() {
+            return vmMap;
+        }
+
+        Double getNotifyTime() {
+            return notifyTime;
+        }
+
+        Object getStatus() {
+            return vmMap.get(VdsProperties.status);
+        }
+
+        /**
+         * @return the state reported later by the host, or the one which arrived later if that's unknown
+         */
+        PendingVm newer(PendingVm other) {
+            if (notifyTime != null && other.notifyTime != null && notifyTime > other.notifyTime) {
+                return this;
+            }
+            return other;
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+/**
+ * Snapshot of the timings of a single stage of the VMs monitoring cycle
+ */
+public class MonitoringStageStatistics {
+
+    private final long count;
+    private final long totalTimeMillis;
+    private final long maxTimeMillis;
+    private final long lastTimeMillis;
+
+    public MonitoringStageStatistics(long count, long totalTimeMillis, long maxTimeMillis, long lastTimeMillis) {
+        this.count = count;
+        this.totalTimeMillis = totalTimeMillis;
+        this.maxTimeMillis = maxTimeMillis;
+        this.lastTimeMillis = lastTimeMillis;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalTimeMillis() {
+        return totalTimeMillis;
+    }
+
+    public long getAverageTimeMillis() {
+        return count == 0 ? 0 : totalTimeMillis / count;
+    }
+
+    public long getMaxTimeMillis() {
+        return maxTimeMillis;
+    }
+
+    public long getLastTimeMillis() {
+        return lastTimeMillis;
+    }
+}
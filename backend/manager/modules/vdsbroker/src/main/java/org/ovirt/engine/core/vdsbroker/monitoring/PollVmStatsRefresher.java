@@ -9,8 +9,7 @@ import org.ovirt.engine.core.common.businessentities.VDSStatus;
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.utils.Pair;
-import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
-import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
+import org.ovirt.engine.core.utils.timer.TimingWheelScheduler;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,20 +21,20 @@ public class PollVmStatsRefresher extends VmStatsRefresher {
     protected static final int NUMBER_VMS_REFRESHES_BEFORE_SAVE = Config.<Integer> getValue(ConfigValues.NumberVmRefreshesBeforeSave);
 
     @Inject
-    private SchedulerUtilQuartzImpl scheduler;
+    private TimingWheelScheduler scheduler;
     private String vmsMonitoringJobId;
 
     public PollVmStatsRefresher(VdsManager vdsManager) {
         super(vdsManager);
     }
 
-    @OnTimerMethodAnnotation("poll")
     public void poll() {
         if (isMonitoringNeeded(vdsManager.getStatus())) {
             VmsListFetcher fetcher = new VmsStatisticsFetcher(vdsManager);
 
             long fetchTime = System.nanoTime();
             if (fetcher.fetch()) {
+                getVmsMonitoring().getStatistics().fetched(System.nanoTime() - fetchTime);
                 getVmsMonitoring().perform(fetcher.getChangedVms(), fetchTime, vdsManager, true);
                 //we only want to monitor vm devices for vms that already exist in the db
                 Stream<VdsmVm> vdsmVmsToMonitor = fetcher.getChangedVms().stream().
@@ -51,10 +50,8 @@ public class PollVmStatsRefresher extends VmStatsRefresher {
     public void startMonitoring() {
         vmsMonitoringJobId =
                 scheduler.scheduleAFixedDelayJob(
-                        this,
-                        "poll",
-                        new Class[0],
-                        new Object[0],
+                        "PollVmStatsRefresher.poll",
+                        this::poll,
                         0,
                         VMS_REFRESH_RATE * NUMBER_VMS_REFRESHES_BEFORE_SAVE,
                         TimeUnit.MILLISECONDS);
@@ -481,7 +481,7 @@ public class VmAnalyzer {
             return;
         }
 
-        if (!vdsManager.getCopyVds().isBalloonEnabled()) {
+        if (!vdsManager.isBalloonEnabled()) {
             return;
         }
 
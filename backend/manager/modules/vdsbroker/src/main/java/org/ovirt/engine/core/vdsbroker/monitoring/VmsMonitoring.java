@@ -6,9 +6,18 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -16,6 +25,8 @@ import org.ovirt.engine.core.common.BackendService;
 import org.ovirt.engine.core.common.businessentities.IVdsEventListener;
 import org.ovirt.engine.core.common.businessentities.VmDynamic;
 import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.compat.TransactionScopeOption;
@@ -27,6 +38,7 @@ import org.ovirt.engine.core.dao.VmGuestAgentInterfaceDao;
 import org.ovirt.engine.core.dao.VmStatisticsDao;
 import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
 import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
+import org.ovirt.engine.core.utils.CorrelationIdTracker;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
@@ -38,6 +50,13 @@ import org.slf4j.LoggerFactory;
  * invoke all Vm analyzers in hand and iterate over their report
  * and take actions - fire VDSM commands (destroy,run/rerun,migrate), report complete actions,
  * hand-over migration and save-to-db
+ *
+ * Hosts which report many VMs have them analyzed in parallel, in shards of {@code VmsMonitoringAnalysisShardSize}
+ * VMs, by a thread pool shared by all the hosts and bounded by {@code VmsMonitoringAnalysisParallelism}. The
+ * monitoring thread analyzes the first shard itself, and the correlation id of the monitoring thread is set on the
+ * threads of the pool while they analyze the other shards, since the analysis may run VDS commands and write audit
+ * logs. The VMs are still locked and unlocked by the monitoring thread, which owns their locks, and the analyzed VMs
+ * are flushed and post-processed by the monitoring thread as well.
  */
 @Singleton
 public class VmsMonitoring implements BackendService {
@@ -67,23 +86,46 @@ public class VmsMonitoring implements BackendService {
     private VmNetworkInterfaceDao vmNetworkInterfaceDao;
     @Inject
     private VdsDynamicDao vdsDynamicDao;
+    @Inject
+    private VmsMonitoringStatistics statistics;
 
     private static final Logger log = LoggerFactory.getLogger(VmsMonitoring.class);
 
     private static VmsMonitoring instance;
 
+    private ExecutorService analysisPool;
+    private int analysisShardSize;
+
     public VmsMonitoring() {
     }
 
     @PostConstruct
-    private void init() {
+    void init() {
         instance = this;
+        analysisShardSize = Math.max(1, Config.<Integer> getValue(ConfigValues.VmsMonitoringAnalysisShardSize));
+        int parallelism = Config.<Integer> getValue(ConfigValues.VmsMonitoringAnalysisParallelism);
+        if (parallelism > 1) {
+            AtomicInteger threadIndex = new AtomicInteger();
+            analysisPool = Executors.newFixedThreadPool(parallelism,
+                    job -> new Thread(job, "org.ovirt.thread.vms-monitoring-" + threadIndex.getAndIncrement()));
+        }
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        if (analysisPool != null) {
+            analysisPool.shutdownNow();
+        }
     }
 
     public static VmsMonitoring getInstance() {
         return instance;
     }
 
+    public VmsMonitoringStatistics getStatistics() {
+        return statistics;
+    }
+
     /**
      * analyze and react upon changes on the monitoredVms. relevant changes would
      * be persisted and state transitions and internal commands would
@@ -107,12 +149,25 @@ public class VmsMonitoring implements BackendService {
 
         List<VmAnalyzer> vmAnalyzers = Collections.emptyList();
         try {
+            long start = System.nanoTime();
             vmAnalyzers = analyzeVms(monitoredVms, fetchTime, vdsManager, updateStatistics);
             // It is important to add the unmanaged VMs before flushing the dynamic data into the database
             addUnmanagedVms(vmAnalyzers, vdsManager.getVdsId());
+            long analyzed = System.nanoTime();
             flush(vmAnalyzers);
+            long flushed = System.nanoTime();
+            statistics.flushed(flushed - analyzed);
             postFlush(vmAnalyzers, vdsManager);
             vdsManager.vmsMonitoringInitFinished();
+            long end = System.nanoTime();
+            statistics.postFlushed(end - flushed);
+            log.debug("Monitoring of {} VMs on host '{}' took {} ms (analyze {} ms, flush {} ms, post-flush {} ms)",
+                    vmAnalyzers.size(),
+                    vdsManager.getVdsName(),
+                    TimeUnit.NANOSECONDS.toMillis(end - start),
+                    TimeUnit.NANOSECONDS.toMillis(analyzed - start),
+                    TimeUnit.NANOSECONDS.toMillis(flushed - analyzed),
+                    TimeUnit.NANOSECONDS.toMillis(end - flushed));
         } catch (RuntimeException ex) {
             log.error("Failed during vms monitoring on host {} error is: {}", vdsManager.getVdsName(), ex);
             log.error("Exception:", ex);
@@ -142,26 +197,95 @@ public class VmsMonitoring implements BackendService {
             long fetchTime,
             VdsManager vdsManager,
             boolean updateStatistics) {
+        long start = System.nanoTime();
         VmAnalyzerFactory vmAnalyzerFactory = getVmAnalyzerFactory(vdsManager, updateStatistics);
-        List<VmAnalyzer> vmAnalyzers = new ArrayList<>(monitoredVms.size());
-        monitoredVms.forEach(vm -> {
-            // TODO filter out migratingTo VMs if no action is taken on them
-            if (shouldAnalyzeVm(vm, fetchTime, vdsManager.getVdsId())) {
+        // the locks are taken (and released) by this thread since a lock can only be released by its owner
+        List<Pair<VmDynamic, VdsmVm>> vmsToAnalyze = monitoredVms.stream()
+                // TODO filter out migratingTo VMs if no action is taken on them
+                .filter(vm -> shouldAnalyzeVm(vm, fetchTime, vdsManager.getVdsId()))
+                .collect(Collectors.toList());
+
+        Queue<Guid> failedVms = new ConcurrentLinkedQueue<>();
+        boolean parallel = analysisPool != null && vmsToAnalyze.size() > analysisShardSize;
+        List<VmAnalyzer> vmAnalyzers = parallel ?
+                analyzeVmsInParallel(vmAnalyzerFactory, vmsToAnalyze, failedVms)
+                : analyzeVms(vmAnalyzerFactory, vmsToAnalyze, failedVms);
+        failedVms.forEach(vmId -> resourceManager.getVmManager(vmId).unlock());
+
+        vmAnalyzers.sort(Comparator.comparing(VmAnalyzer::getVmId));
+        statistics.analyzed(System.nanoTime() - start, vmAnalyzers.size(), parallel);
+        return vmAnalyzers;
+    }
+
+    private List<VmAnalyzer> analyzeVms(
+            VmAnalyzerFactory vmAnalyzerFactory,
+            List<Pair<VmDynamic, VdsmVm>> vms,
+            Queue<Guid> failedVms) {
+        List<VmAnalyzer> vmAnalyzers = new ArrayList<>(vms.size());
+        vms.forEach(vm -> {
+            try {
+                VmAnalyzer vmAnalyzer = vmAnalyzerFactory.getVmAnalyzer(vm);
+                vmAnalyzer.analyze();
+                vmAnalyzers.add(vmAnalyzer);
+            } catch (RuntimeException ex) {
+                Guid vmId = getVmId(vm.getFirst(), vm.getSecond());
+                failedVms.add(vmId);
+
+                log.error("Failed during monitoring vm: {} , error is: {}", vmId, ex);
+                log.error("Exception:", ex);
+            }
+        });
+        return vmAnalyzers;
+    }
+
+    /**
+     * Splits the VMs into shards of {@link #analysisShardSize} VMs, analyzes the first one on the calling thread and
+     * the others by the pool's threads
+     */
+    private List<VmAnalyzer> analyzeVmsInParallel(
+            VmAnalyzerFactory vmAnalyzerFactory,
+            List<Pair<VmDynamic, VdsmVm>> vms,
+            Queue<Guid> failedVms) {
+        String correlationId = CorrelationIdTracker.getCorrelationId();
+        List<List<Pair<VmDynamic, VdsmVm>>> shards = new ArrayList<>();
+        List<Future<List<VmAnalyzer>>> results = new ArrayList<>();
+        for (int from = analysisShardSize; from < vms.size(); from += analysisShardSize) {
+            List<Pair<VmDynamic, VdsmVm>> shard = vms.subList(from, Math.min(from + analysisShardSize, vms.size()));
+            shards.add(shard);
+            results.add(analysisPool.submit(() -> {
+                CorrelationIdTracker.setCorrelationId(correlationId);
                 try {
-                    VmAnalyzer vmAnalyzer = vmAnalyzerFactory.getVmAnalyzer(vm);
-                    vmAnalyzer.analyze();
-                    vmAnalyzers.add(vmAnalyzer);
-                } catch (RuntimeException ex) {
-                    Guid vmId = getVmId(vm.getFirst(), vm.getSecond());
-                    VmManager vmManager = resourceManager.getVmManager(vmId);
-                    vmManager.unlock();
-
-                    log.error("Failed during monitoring vm: {} , error is: {}", vmId, ex);
+                    return analyzeVms(vmAnalyzerFactory, shard, failedVms);
+                } finally {
+                    CorrelationIdTracker.clean();
+                }
+            }));
+        }
+
+        List<VmAnalyzer> vmAnalyzers = analyzeVms(vmAnalyzerFactory, vms.subList(0, analysisShardSize), failedVms);
+        boolean interrupted = false;
+        for (int i = 0; i < results.size(); i++) {
+            // the VMs are unlocked by this thread, so it has to wait for all the shards to be analyzed
+            while (true) {
+                try {
+                    vmAnalyzers.addAll(results.get(i).get());
+                    break;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                } catch (ExecutionException ex) {
+                    shards.get(i).stream()
+                            .map(vm -> getVmId(vm.getFirst(), vm.getSecond()))
+                            .filter(vmId -> !failedVms.contains(vmId))
+                            .forEach(failedVms::add);
+                    log.error("Failed during monitoring of {} vms, error is: {}", shards.get(i).size(), ex);
                     log.error("Exception:", ex);
+                    break;
                 }
             }
-        });
-        vmAnalyzers.sort(Comparator.comparing(VmAnalyzer::getVmId));
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
         return vmAnalyzers;
     }
 
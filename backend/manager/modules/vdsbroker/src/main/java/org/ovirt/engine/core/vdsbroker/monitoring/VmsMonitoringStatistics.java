@@ -0,0 +1,177 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the time spent in each stage of the VMs monitoring cycle: fetching the VMs from the host, analyzing them,
+ * flushing them to the database and the post-flush processing, and the overall time spent processing VM status events.
+ */
+@Singleton
+public class VmsMonitoringStatistics implements VmsMonitoringStatisticsMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(VmsMonitoringStatistics.class);
+
+    private final Stage fetch = new Stage();
+    private final Stage analyze = new Stage();
+    private final Stage flush = new Stage();
+    private final Stage postFlush = new Stage();
+    private final Stage event = new Stage();
+    private final LongAdder analyzedVms = new LongAdder();
+    private final LongAdder parallelAnalyzedVms = new LongAdder();
+    private final LongAdder eventVms = new LongAdder();
+    private final LongAdder receivedEvents = new LongAdder();
+
+    private ObjectName objectName;
+    private MBeanServer platformMBeanServer;
+
+    @PostConstruct
+    private void registerInJMX() {
+        try {
+            objectName = new ObjectName("VmsMonitoring:type=" + getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            log.warn("Failed to register the VMs monitoring statistics in JMX: {}", e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    @PreDestroy
+    private void unregisterFromJMX() {
+        try {
+            if (platformMBeanServer != null) {
+                platformMBeanServer.unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            log.debug("Failed to unregister the VMs monitoring statistics from JMX: {}", e.getMessage());
+        }
+    }
+
+    public void fetched(long nanos) {
+        fetch.add(nanos);
+    }
+
+    public void analyzed(long nanos, int vms, boolean parallel) {
+        analyze.add(nanos);
+        analyzedVms.add(vms);
+        if (parallel) {
+            parallelAnalyzedVms.add(vms);
+        }
+    }
+
+    public void flushed(long nanos) {
+        flush.add(nanos);
+    }
+
+    public void postFlushed(long nanos) {
+        postFlush.add(nanos);
+    }
+
+    public void eventReceived() {
+        receivedEvents.increment();
+    }
+
+    public void eventProcessed(long nanos, int vms) {
+        event.add(nanos);
+        eventVms.add(vms);
+    }
+
+    @Override
+    public MonitoringStageStatistics getFetch() {
+        return fetch.snapshot();
+    }
+
+    @Override
+    public MonitoringStageStatistics getAnalyze() {
+        return analyze.snapshot();
+    }
+
+    @Override
+    public MonitoringStageStatistics getFlush() {
+        return flush.snapshot();
+    }
+
+    @Override
+    public MonitoringStageStatistics getPostFlush() {
+        return postFlush.snapshot();
+    }
+
+    @Override
+    public MonitoringStageStatistics getEvent() {
+        return event.snapshot();
+    }
+
+    @Override
+    public long getEventVms() {
+        return eventVms.sum();
+    }
+
+    @Override
+    public long getReceivedEvents() {
+        return receivedEvents.sum();
+    }
+
+    @Override
+    public long getAnalyzedVms() {
+        return analyzedVms.sum();
+    }
+
+    @Override
+    public long getParallelAnalyzedVms() {
+        return parallelAnalyzedVms.sum();
+    }
+
+    @Override
+    public void reset() {
+        fetch.reset();
+        analyze.reset();
+        flush.reset();
+        postFlush.reset();
+        event.reset();
+        analyzedVms.reset();
+        parallelAnalyzedVms.reset();
+        eventVms.reset();
+        receivedEvents.reset();
+    }
+
+    private static class Stage {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private volatile long lastNanos;
+
+        void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            lastNanos = nanos;
+        }
+
+        void reset() {
+            count.reset();
+            totalNanos.reset();
+            maxNanos.set(0);
+            lastNanos = 0;
+        }
+
+        MonitoringStageStatistics snapshot() {
+            return new MonitoringStageStatistics(
+                    count.sum(),
+                    TimeUnit.NANOSECONDS.toMillis(totalNanos.sum()),
+                    TimeUnit.NANOSECONDS.toMillis(maxNanos.get()),
+                    TimeUnit.NANOSECONDS.toMillis(lastNanos));
+        }
+    }
+}
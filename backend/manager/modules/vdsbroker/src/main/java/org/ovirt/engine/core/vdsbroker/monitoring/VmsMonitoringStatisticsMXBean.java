@@ -0,0 +1,59 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+/**
+ * JMX view of the time spent in each stage of the VMs monitoring cycle, accumulated over all the hosts
+ */
+public interface VmsMonitoringStatisticsMXBean {
+
+    /**
+     * @return time spent fetching the VMs from the hosts
+     */
+    MonitoringStageStatistics getFetch();
+
+    /**
+     * @return time spent analyzing the fetched VMs
+     */
+    MonitoringStageStatistics getAnalyze();
+
+    /**
+     * @return time spent saving the analyzed VMs to the database
+     */
+    MonitoringStageStatistics getFlush();
+
+    /**
+     * @return time spent acting upon the saved VMs
+     */
+    MonitoringStageStatistics getPostFlush();
+
+    /**
+     * @return time spent processing VM status events, from the arrival of the first event of a batch until the VMs
+     *         reported by the batch were monitored, counted once per batch
+     */
+    MonitoringStageStatistics getEvent();
+
+    /**
+     * @return number of VMs monitored for the processed batches of VM status events, each VM counted once per batch
+     */
+    long getEventVms();
+
+    /**
+     * @return number of VM status events received from the hosts, compared to the count of {@link #getEvent()} it
+     *         tells how many events were coalesced
+     */
+    long getReceivedEvents();
+
+    /**
+     * @return number of VMs which were analyzed
+     */
+    long getAnalyzedVms();
+
+    /**
+     * @return number of VMs which were analyzed in parallel
+     */
+    long getParallelAnalyzedVms();
+
+    /**
+     * Clears all the collected statistics
+     */
+    void reset();
+}
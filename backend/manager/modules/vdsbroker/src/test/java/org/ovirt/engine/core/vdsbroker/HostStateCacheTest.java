@@ -0,0 +1,111 @@
+package org.ovirt.engine.core.vdsbroker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.dbbroker.VdsChangeTracker;
+
+public class HostStateCacheTest {
+
+    private static final long MAX_AGE = 60000;
+
+    private VdsChangeTracker changeTracker;
+    private HostStateCache cache;
+    private Guid vdsId;
+
+    @Before
+    public void setUp() {
+        changeTracker = new VdsChangeTracker();
+        cache = new HostStateCache(changeTracker, true, MAX_AGE);
+        vdsId = Guid.newGuid();
+    }
+
+    private void read() {
+        cache.readCompleted(vdsId, cache.getVersion(vdsId));
+    }
+
+    @Test
+    public void readNeededBeforeFirstRead() {
+        assertTrue(cache.isReadNeeded(vdsId));
+    }
+
+    @Test
+    public void firstReadIsConfirmedByAnotherRead() {
+        read();
+        assertTrue(cache.isReadNeeded(vdsId));
+        read();
+        assertFalse(cache.isReadNeeded(vdsId));
+    }
+
+    @Test
+    public void externalChangeInvalidates() {
+        read();
+        read();
+        changeTracker.markChanged(vdsId);
+        assertTrue(cache.isReadNeeded(vdsId));
+    }
+
+    @Test
+    public void globalChangeInvalidates() {
+        read();
+        read();
+        changeTracker.markAllChanged();
+        assertTrue(cache.isReadNeeded(vdsId));
+    }
+
+    @Test
+    public void changeOfAnotherHostDoesNotInvalidate() {
+        read();
+        read();
+        changeTracker.markChanged(Guid.newGuid());
+        assertFalse(cache.isReadNeeded(vdsId));
+    }
+
+    @Test
+    public void ownChangeDoesNotInvalidate() {
+        read();
+        read();
+        cache.runOwnChange(vdsId, () -> changeTracker.markChanged(vdsId));
+        assertFalse(cache.isReadNeeded(vdsId));
+    }
+
+    @Test
+    public void invalidate() {
+        read();
+        read();
+        cache.invalidate(vdsId);
+        assertTrue(cache.isReadNeeded(vdsId));
+    }
+
+    @Test
+    public void expiredStateIsReadAgain() {
+        cache = new HostStateCache(changeTracker, true, -1);
+        read();
+        read();
+        assertTrue(cache.isReadNeeded(vdsId));
+    }
+
+    @Test
+    public void disabledCacheAlwaysReads() {
+        cache = new HostStateCache(changeTracker, false, MAX_AGE);
+        read();
+        read();
+        assertTrue(cache.isReadNeeded(vdsId));
+        assertEquals(0, cache.getHits() + cache.getMisses());
+    }
+
+    @Test
+    public void hitsAndMissesAreCounted() {
+        cache.isReadNeeded(vdsId);
+        read();
+        read();
+        cache.isReadNeeded(vdsId);
+        cache.isReadNeeded(vdsId);
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+}
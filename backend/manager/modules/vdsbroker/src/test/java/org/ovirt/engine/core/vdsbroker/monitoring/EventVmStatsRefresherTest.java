@@ -0,0 +1,188 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.ovirt.engine.core.utils.MockConfigRule.mockConfig;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.di.InjectorRule;
+import org.ovirt.engine.core.utils.MockConfigRule;
+import org.ovirt.engine.core.vdsbroker.ResourceManager;
+import org.ovirt.engine.core.vdsbroker.VdsManager;
+import org.ovirt.engine.core.vdsbroker.monitoring.EventVmStatsRefresher.PendingVm;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsProperties;
+import org.ovirt.vdsm.jsonrpc.client.events.EventSubscriber;
+import org.reactivestreams.Subscription;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EventVmStatsRefresherTest {
+
+    private static final int MAX_BATCH_SIZE = 3;
+
+    @ClassRule
+    public static MockConfigRule mcr = new MockConfigRule(
+            mockConfig(ConfigValues.VmStatusEventCoalescingWindowInMillis, 100),
+            mockConfig(ConfigValues.VmStatusEventMaxBatchSize, MAX_BATCH_SIZE));
+
+    @ClassRule
+    public static InjectorRule injectorRule = new InjectorRule();
+
+    @Mock
+    private VdsManager vdsManager;
+
+    @Mock
+    private ResourceManager resourceManager;
+
+    @Mock
+    private PollVmStatsRefresher allVmStatsOnlyRefresher;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private VmsMonitoring vmsMonitoring;
+
+    @Mock
+    private Subscription subscription;
+
+    private TestEventVmStatsRefresher refresher;
+
+    private EventSubscriber subscriber;
+
+    private final Guid vmId = Guid.newGuid();
+
+    @Before
+    public void setUp() {
+        when(vdsManager.getVdsHostname()).thenReturn("host");
+        refresher = new TestEventVmStatsRefresher(vdsManager, resourceManager, allVmStatsOnlyRefresher, vmsMonitoring);
+        refresher.startMonitoring();
+
+        ArgumentCaptor<EventSubscriber> captor = ArgumentCaptor.forClass(EventSubscriber.class);
+        verify(resourceManager).subscribe(captor.capture());
+        subscriber = captor.getValue();
+        subscriber.onSubscribe(subscription);
+    }
+
+    @Test
+    public void newestStateByNotifyTimeIsMonitored() {
+        subscriber.onNext(createEvent(vmId, "Up", 20L, "newer"));
+        subscriber.onNext(createEvent(vmId, "Up", 10L, "older"));
+
+        refresher.runScheduledFlush();
+
+        assertEquals(1, refresher.batches.size());
+        PendingVm vm = refresher.batches.get(0).get(vmId);
+        assertEquals(20.0, vm.getNotifyTime(), 0);
+        assertEquals("newer", vm.getVmMap().get(VdsProperties.vm_guid));
+    }
+
+    @Test
+    public void fullBatchIsMonitoredRightAway() {
+        for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+            subscriber.onNext(createEvent(Guid.newGuid(), "Up", (long) i, null));
+        }
+
+        assertEquals(1, refresher.batches.size());
+        assertEquals(MAX_BATCH_SIZE, refresher.batches.get(0).size());
+        assertEquals(1, refresher.scheduledFlushes);
+    }
+
+    @Test
+    public void pendingEventsAreMonitoredWhenTheWindowExpires() {
+        subscriber.onNext(createEvent(vmId, "Up", 10L, null));
+        subscriber.onNext(createEvent(Guid.newGuid(), "Up", 11L, null));
+        assertTrue(refresher.batches.isEmpty());
+
+        refresher.runScheduledFlush();
+
+        assertEquals(1, refresher.batches.size());
+        assertEquals(2, refresher.batches.get(0).size());
+    }
+
+    @Test
+    public void statusChangeIsNotCoalesced() {
+        subscriber.onNext(createEvent(vmId, "Powering up", 10L, null));
+        subscriber.onNext(createEvent(vmId, "Up", 20L, null));
+
+        assertEquals(1, refresher.batches.size());
+        assertEquals("Powering up", refresher.batches.get(0).get(vmId).getStatus());
+
+        refresher.runScheduledFlush();
+
+        assertEquals(2, refresher.batches.size());
+        assertEquals("Up", refresher.batches.get(1).get(vmId).getStatus());
+    }
+
+    @Test
+    public void pendingEventsAreDroppedOnStop() {
+        subscriber.onNext(createEvent(vmId, "Up", 10L, null));
+
+        refresher.stopMonitoring();
+        refresher.runScheduledFlush();
+
+        assertTrue(refresher.batches.isEmpty());
+        verify(subscription).cancel();
+        verify(allVmStatsOnlyRefresher).stopMonitoring();
+    }
+
+    private Map<String, Object> createEvent(Guid vmId, String status, Long notifyTime, String tag) {
+        Map<String, Object> vmMap = new HashMap<>();
+        vmMap.put(VdsProperties.status, status);
+        if (tag != null) {
+            vmMap.put(VdsProperties.vm_guid, tag);
+        }
+        Map<String, Object> event = new HashMap<>();
+        event.put(vmId.toString(), vmMap);
+        event.put(VdsProperties.notify_time, notifyTime);
+        return event;
+    }
+
+    /**
+     * Records the monitored batches instead of monitoring them, and runs the scheduled flush on demand.
+     */
+    private static class TestEventVmStatsRefresher extends EventVmStatsRefresher {
+        private final List<Map<Guid, PendingVm>> batches = new ArrayList<>();
+        private final VmsMonitoring vmsMonitoring;
+        private int scheduledFlushes;
+
+        TestEventVmStatsRefresher(VdsManager vdsManager,
+                ResourceManager resourceManager,
+                PollVmStatsRefresher allVmStatsOnlyRefresher,
+                VmsMonitoring vmsMonitoring) {
+            super(vdsManager, resourceManager, allVmStatsOnlyRefresher);
+            this.vmsMonitoring = vmsMonitoring;
+        }
+
+        @Override
+        void scheduleFlush() {
+            scheduledFlushes++;
+        }
+
+        void runScheduledFlush() {
+            flushPendingEvents();
+        }
+
+        @Override
+        void monitorVms(Map<Guid, PendingVm> vms, long fetchTime) {
+            batches.add(vms);
+        }
+
+        @Override
+        protected VmsMonitoring getVmsMonitoring() {
+            return vmsMonitoring;
+        }
+    }
+}
@@ -32,7 +32,6 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.ovirt.engine.core.common.AuditLogType;
-import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VDSStatus;
 import org.ovirt.engine.core.common.businessentities.VMStatus;
 import org.ovirt.engine.core.common.businessentities.VdsDynamic;
@@ -80,8 +79,6 @@ public class VmAnalyzerTest {
     @Mock
     private VmManager vmManager;
     @Mock
-    private VDS vdsManagerVds;
-    @Mock
     private ResourceManager resourceManager;
 
     @Rule
@@ -194,7 +191,7 @@ public class VmAnalyzerTest {
     public void vmNotRunningOnHostWithBalloonEnabled(VmTestPairs data) {
         //given
         initMocks(data, false);
-        when(vdsManagerVds.isBalloonEnabled()).thenReturn(true);
+        when(vdsManager.isBalloonEnabled()).thenReturn(true);
         //when
         assumeTrue(data.vdsmVm() == null);
         //then
@@ -315,7 +312,6 @@ public class VmAnalyzerTest {
         stubDaos();
         when(vdsManager.getVdsId()).thenReturn(VmTestPairs.SRC_HOST_ID);
         when(vdsManager.getClusterId()).thenReturn(VmTestPairs.CLUSTER_ID);
-        when(vdsManager.getCopyVds()).thenReturn(vdsManagerVds);
         when(vmManager.isColdReboot()).thenReturn(false);
         when(vmManager.isAutoStart()).thenReturn(vmData.dbVm() != null ? vmData.dbVm().isAutoStartup() : false);
         when(vmManager.getStatistics()).thenReturn(new VmStatistics());
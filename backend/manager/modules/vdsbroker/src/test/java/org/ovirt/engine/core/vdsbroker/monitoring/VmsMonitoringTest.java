@@ -0,0 +1,137 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.ovirt.engine.core.utils.MockConfigRule.mockConfig;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner.Silent;
+import org.ovirt.engine.core.common.businessentities.IVdsEventListener;
+import org.ovirt.engine.core.common.businessentities.VmDynamic;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.MockConfigRule;
+import org.ovirt.engine.core.vdsbroker.ResourceManager;
+import org.ovirt.engine.core.vdsbroker.VdsManager;
+import org.ovirt.engine.core.vdsbroker.VmManager;
+
+@RunWith(Silent.class)
+public class VmsMonitoringTest {
+
+    private static final int NUMBER_OF_VMS = 40;
+    private static final long FETCH_TIME = 1;
+
+    @ClassRule
+    public static MockConfigRule mcr = new MockConfigRule(
+            mockConfig(ConfigValues.VmsMonitoringAnalysisParallelism, 4),
+            mockConfig(ConfigValues.VmsMonitoringAnalysisShardSize, 5));
+
+    @Mock
+    private ResourceManager resourceManager;
+    @Mock
+    private VdsManager vdsManager;
+    @Mock
+    private VmAnalyzerFactory vmAnalyzerFactory;
+    @Spy
+    private VmsMonitoringStatistics statistics;
+    @Spy
+    @InjectMocks
+    private VmsMonitoring vmsMonitoring;
+    @Captor
+    private ArgumentCaptor<List<VmAnalyzer>> analyzersCaptor;
+
+    private Map<Guid, VmManager> vmManagers = new HashMap<>();
+    private List<Pair<VmDynamic, VdsmVm>> monitoredVms = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        vmsMonitoring.init();
+        when(vdsManager.getVdsId()).thenReturn(Guid.newGuid());
+        when(resourceManager.getEventListener()).thenReturn(mock(IVdsEventListener.class));
+        when(resourceManager.getVmManager(any())).then(invocation -> vmManagers.get(invocation.getArgument(0)));
+        doReturn(vmAnalyzerFactory).when(vmsMonitoring).getVmAnalyzerFactory(any(), anyBoolean());
+        doNothing().when(vmsMonitoring).addUnmanagedVms(analyzersCaptor.capture(), any());
+
+        for (int i = 0; i < NUMBER_OF_VMS; ++i) {
+            Guid vmId = Guid.newGuid();
+            VmDynamic vmDynamic = new VmDynamic();
+            vmDynamic.setId(vmId);
+            Pair<VmDynamic, VdsmVm> monitoredVm = new Pair<>(vmDynamic, new VdsmVm(0.0).setVmDynamic(vmDynamic));
+            monitoredVms.add(monitoredVm);
+
+            VmManager vmManager = mock(VmManager.class);
+            when(vmManager.trylock()).thenReturn(true);
+            when(vmManager.isLatestData(any(), any())).thenReturn(true);
+            vmManagers.put(vmId, vmManager);
+
+            VmAnalyzer vmAnalyzer = mock(VmAnalyzer.class);
+            when(vmAnalyzer.getVmId()).thenReturn(vmId);
+            when(vmAnalyzerFactory.getVmAnalyzer(monitoredVm)).thenReturn(vmAnalyzer);
+        }
+    }
+
+    @Test
+    public void vmsAreAnalyzedInParallelAndSorted() {
+        vmsMonitoring.perform(monitoredVms, FETCH_TIME, vdsManager, true);
+
+        List<Guid> sortedVmIds = monitoredVms.stream()
+                .map(vm -> vm.getFirst().getId())
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(sortedVmIds, analyzedVmIds());
+        assertEquals(NUMBER_OF_VMS, statistics.getParallelAnalyzedVms());
+        vmManagers.values().forEach(vmManager -> verify(vmManager).unlock());
+    }
+
+    @Test
+    public void failedVmIsUnlockedAndSkipped() {
+        Pair<VmDynamic, VdsmVm> failedVm = monitoredVms.get(NUMBER_OF_VMS / 2);
+        Guid failedVmId = failedVm.getFirst().getId();
+        when(vmAnalyzerFactory.getVmAnalyzer(failedVm)).thenThrow(new RuntimeException());
+
+        vmsMonitoring.perform(monitoredVms, FETCH_TIME, vdsManager, true);
+
+        List<Guid> analyzedVmIds = analyzedVmIds();
+        assertEquals(NUMBER_OF_VMS - 1, analyzedVmIds.size());
+        assertEquals(-1, analyzedVmIds.indexOf(failedVmId));
+        verify(vmManagers.get(failedVmId)).unlock();
+    }
+
+    @Test
+    public void smallNumberOfVmsIsAnalyzedSerially() {
+        vmsMonitoring.perform(monitoredVms.subList(0, 5), FETCH_TIME, vdsManager, true);
+
+        assertEquals(5, analyzedVmIds().size());
+        assertEquals(0, statistics.getParallelAnalyzedVms());
+        assertEquals(5, statistics.getAnalyzedVms());
+    }
+
+    private List<Guid> analyzedVmIds() {
+        List<Guid> vmIds = analyzersCaptor.getValue().stream()
+                .map(VmAnalyzer::getVmId)
+                .collect(Collectors.toList());
+        assertEquals(vmIds.stream().sorted().collect(Collectors.toList()), vmIds);
+        return vmIds;
+    }
+}
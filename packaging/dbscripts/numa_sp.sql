@@ -133,6 +133,23 @@ BEGIN
 END;$PROCEDURE$
 LANGUAGE plpgsql;
 
+CREATE OR REPLACE FUNCTION GetNumaNodeByClusterId (v_cluster_id UUID)
+RETURNS SETOF numa_node_cpus_view STABLE AS $PROCEDURE$
+BEGIN
+    BEGIN
+        RETURN QUERY
+
+        SELECT numa_node_cpus_view.*
+        FROM numa_node_cpus_view
+        INNER JOIN vds_static
+            ON numa_node_cpus_view.vds_id = vds_static.vds_id
+        WHERE vds_static.cluster_id = v_cluster_id;
+    END;
+
+    RETURN;
+END;$PROCEDURE$
+LANGUAGE plpgsql;
+
 CREATE OR REPLACE FUNCTION GetNumaNodeByVmId (v_vm_id UUID)
 RETURNS SETOF numa_node_cpus_view STABLE AS $PROCEDURE$
 BEGIN
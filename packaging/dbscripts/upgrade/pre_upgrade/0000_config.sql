@@ -60,12 +60,18 @@ select fn_db_add_config_value('AsyncTaskStatusCacheRefreshRateInSeconds','30','g
 select fn_db_add_config_value('AsyncTaskStatusCachingTimeInMinutes','1','general');
 select fn_db_add_config_value('AsyncTaskZombieTaskLifeInMinutes','300','general');
 select fn_db_add_config_value('AuditLogAgingThreshold','30','general');
+select fn_db_add_config_value('AuditLogAsyncBatchSize','500','general');
+select fn_db_add_config_value('AuditLogAsyncEnqueueTimeoutInMillis','100','general');
+select fn_db_add_config_value('AuditLogAsyncFlushIntervalInMillis','1000','general');
+select fn_db_add_config_value('AuditLogAsyncQueueSize','10000','general');
+select fn_db_add_config_value('AuditLogAsyncWriteEnabled','false','general');
 select fn_db_add_config_value('AuditLogCleanupTime','03:35:35','general');
 select fn_db_add_config_value('CoCoLifeInMinutes','3000','general');
 select fn_db_add_config_value('CoCoWaitForEventInMinutes','300','general');
 select fn_db_add_config_value('CommandCoordinatorThreadPoolSize','10','general');
 select fn_db_add_config_value('CommandEntityAgingThreshold','30','general');
 select fn_db_add_config_value('CommandEntityCleanupTime','03:35:35','general');
+select fn_db_add_config_value('CommandStatusWriteDelayInMillis','500','general');
 select fn_db_add_config_value('OnlyRequiredNetworksMandatoryForVdsSelection','false','general');
 --Handling Auto Approve Patterns
 select fn_db_add_config_value('AutoApprovePatterns','','general');
@@ -384,6 +390,9 @@ select fn_db_add_config_value('MaxSchedulerWeight','1000','general');
 select fn_db_add_config_value('SpeedOptimizationSchedulingThreshold','10','general');
 select fn_db_add_config_value('SchedulerAllowOverBooking','false','general');
 select fn_db_add_config_value('SchedulerOverBookingThreshold','10','general');
+select fn_db_add_config_value('SchedulerParallelEvaluation','false','general');
+select fn_db_add_config_value('SchedulerParallelEvaluationMinHosts','100','general');
+select fn_db_add_config_value('SchedulerParallelEvaluationThreads','4','general');
 select fn_db_add_config_value('UploadFileMaxTimeInMinutes','5','general');
 select fn_db_add_config_value('RetrieveDataMaxTimeInMinutes','5','general');
 select fn_db_add_config_value('StorageDomainOvfStoreCount','2','general');
@@ -419,6 +428,7 @@ select fn_db_add_config_value('QuotaThresholdCluster','80','general');
 select fn_db_add_config_value('RhevhLocalFSPath','/data/images/','general');
 select fn_db_add_config_value('SANWipeAfterDelete','false','general');
 --Handling SASL QOP
+select fn_db_add_config_value('SearchQueryCacheSize','1000','general');
 select fn_db_add_config_value('SearchResultsLimit','100','general');
 select fn_db_add_config_value('SendSMPOnRunVm','true','general');
 select fn_db_add_config_value('ServerCPUList','3:Intel Conroe Family:vmx,nx,model_Conroe:Conroe:x86_64; 4:Intel Penryn Family:vmx,nx,model_Penryn:Penryn:x86_64; 5:Intel Nehalem Family:vmx,nx,model_Nehalem:Nehalem:x86_64; 6:Intel Westmere Family:aes,vmx,nx,model_Westmere:Westmere:x86_64; 7:Intel SandyBridge Family:vmx,nx,model_SandyBridge:SandyBridge:x86_64; 8:Intel Haswell Family:vmx,nx,model_Haswell:Haswell:x86_64; 2:AMD Opteron G1:svm,nx,model_Opteron_G1:Opteron_G1:x86_64; 3:AMD Opteron G2:svm,nx,model_Opteron_G2:Opteron_G2:x86_64; 4:AMD Opteron G3:svm,nx,model_Opteron_G3:Opteron_G3:x86_64; 5:AMD Opteron G4:svm,nx,model_Opteron_G4:Opteron_G4:x86_64; 6:AMD Opteron G5:svm,nx,model_Opteron_G5:Opteron_G5:x86_64; 3:IBM POWER8:powernv,model_power8:power8:ppc64;','3.6');
@@ -475,6 +485,7 @@ select fn_db_add_config_value('IrsResponseQueueName','jms.topic.vdsm_irs_respons
 select fn_db_add_config_value('EventQueueName','jms.queue.events','general');
 select fn_db_add_config_value('EventProcessingPoolSize','10','general');
 select fn_db_add_config_value('TimeToReduceFailedRunOnVdsInMinutes','30','general');
+select fn_db_add_config_value('TimingWheelThreadPoolSize','50','general');
 select fn_db_add_config_value('UnknownTaskPrePollingLapse','60000','general');
 select fn_db_add_config_value('UserSessionHardLimit','600','general');
 select fn_db_add_config_value_for_versions_up_to('UserDefinedVMProperties', '','4.2');
@@ -496,10 +507,15 @@ select fn_db_add_config_value('VdsFenceOptionTypes','encrypt_options=bool,secure
 select fn_db_add_config_value('CustomVdsFenceType','','general');
 select fn_db_add_config_value('vdsHeartbeatInSeconds','30','general');
 select fn_db_add_config_value('VdsLoadBalancingIntervalInMinutes','1','general');
+select fn_db_add_config_value('VdsLoadBalancingMaxMigrationsPerCluster','1','general');
+select fn_db_add_config_value('VdsLoadBalancingMaxMigrationsPerHost','2','general');
+select fn_db_add_config_value('VdsLoadBalancingThreads','1','general');
 select fn_db_add_config_value('VdsLocalDisksCriticallyLowFreeSpace','100','general');
 select fn_db_add_config_value('VdsLocalDisksLowFreeSpace','500','general');
 select fn_db_add_config_value('VdsRecoveryTimeoutInMinutes','3','general');
 select fn_db_add_config_value('VdsRefreshRate','2','general');
+select fn_db_add_config_value('VdsStateCacheEnabled','true','general');
+select fn_db_add_config_value('VdsStateCacheMaxAge','60','general');
 select fn_db_add_config_value('vdsRetries','0','general');
 select fn_db_add_config_value('vdsTimeout','180','general');
 --Handling Virtual Machine Domain Name
@@ -513,6 +529,10 @@ select fn_db_add_config_value('VmPoolMonitorBatchSize','5','general');
 select fn_db_add_config_value('VmPoolMonitorIntervalInMinutes','5','general');
 select fn_db_add_config_value('VmPoolMonitorMaxAttempts','3','general');
 select fn_db_add_config_value('VmPriorityMaxValue','100','general');
+select fn_db_add_config_value('VmsMonitoringAnalysisParallelism','4','general');
+select fn_db_add_config_value('VmsMonitoringAnalysisShardSize','25','general');
+select fn_db_add_config_value('VmStatusEventCoalescingWindowInMillis','100','general');
+select fn_db_add_config_value('VmStatusEventMaxBatchSize','32','general');
 --How often we'll go over the HA VMs that went down and try to restart them
 select fn_db_add_config_value('AutoStartVmsRunnerIntervalInSeconds','1','general');
 --How often we'll try to run HA VM that we couldn't run before
@@ -580,9 +600,14 @@ select fn_db_add_config_value('QoSOutboundBurstDefaultValue','100','general');
 
 --external scheduler
 select fn_db_add_config_value('ExternalSchedulerServiceURL','http://localhost:18781/','general');
+select fn_db_add_config_value('ExternalSchedulerCircuitBreakerErrorPercentage','50','general');
+select fn_db_add_config_value('ExternalSchedulerCircuitBreakerSleepWindow','30000','general');
 select fn_db_add_config_value('ExternalSchedulerConnectionTimeout','100','general');
+select fn_db_add_config_value('ExternalSchedulerDeadline','10000','general');
 select fn_db_add_config_value('ExternalSchedulerEnabled','false','general');
+select fn_db_add_config_value('ExternalSchedulerQueueSize','100','general');
 select fn_db_add_config_value('ExternalSchedulerResponseTimeout','120000','general');
+select fn_db_add_config_value('ExternalSchedulerThreads','10','general');
 
 select fn_db_add_config_value('DwhHeartBeatInterval', '30', 'general');
 select fn_db_add_config_value('DisconnectDwh', '0', 'general');
@@ -287,6 +287,37 @@ BEGIN
 END;$PROCEDURE$
 LANGUAGE plpgsql;
 
+-- Returns all the devices of the given VMs and templates
+CREATE OR REPLACE FUNCTION GetVmDevicesByVmIds (
+    v_vm_ids UUID[],
+    v_user_id UUID,
+    v_is_filtered BOOLEAN
+    )
+RETURNS SETOF vm_device_view STABLE AS $PROCEDURE$
+BEGIN
+    RETURN QUERY
+
+    SELECT *
+    FROM vm_device_view
+    WHERE vm_id = ANY(v_vm_ids)
+        AND (
+            NOT v_is_filtered
+            OR EXISTS (
+                SELECT 1
+                FROM user_vm_permissions_view
+                WHERE user_id = v_user_id
+                    AND entity_id = vm_id
+                UNION
+                SELECT 1
+                FROM user_vm_template_permissions_view
+                WHERE user_id = v_user_id
+                    AND entity_id = vm_id
+                )
+            )
+    ORDER BY vm_id, NULLIF(alias, '') NULLS LAST;
+END;$PROCEDURE$
+LANGUAGE plpgsql;
+
 CREATE OR REPLACE FUNCTION GetVmUnmanagedDevicesByVmId (v_vm_id UUID)
 RETURNS SETOF vm_device_view STABLE AS $PROCEDURE$
 BEGIN
@@ -599,6 +599,17 @@ BEGIN
 END;$PROCEDURE$
 LANGUAGE plpgsql;
 
+CREATE OR REPLACE FUNCTION GetVmDynamicByIds (v_vm_ids UUID[])
+RETURNS SETOF vm_dynamic STABLE AS $PROCEDURE$
+BEGIN
+    RETURN QUERY
+
+    SELECT vm_dynamic.*
+    FROM vm_dynamic
+    WHERE vm_guid = ANY(v_vm_ids);
+END;$PROCEDURE$
+LANGUAGE plpgsql;
+
 DROP TYPE IF EXISTS GetAllHashesFromVmDynamic_rs CASCADE;
 CREATE TYPE GetAllHashesFromVmDynamic_rs AS (vm_guid UUID, hash VARCHAR);
 CREATE OR REPLACE FUNCTION GetAllHashesFromVmDynamic ()
@@ -48,6 +48,7 @@ CLEAR_JOB_STEPS_AND_COMPENSATION=
 QUITE_MODE=
 TASKS_FIELDS="task_id,task_type,status,started_at,result,action_type as command_type,command_id,step_id,storage_pool_id as DC"
 COMMANDS_FIELDS="command_id,command_type,root_command_id,command_parameters,command_params_class,created_at,status,return_value,return_value_class,executed"
+DECODE_PAYLOADS=
 
 usage() {
     cat << __EOF__
@@ -101,6 +102,26 @@ while getopts hvl:s:p:u:d:t:c:zZrRCJAToq option; do
 	esac
 done
 
+# The command payloads are stored as JSON, except for the large ones which are stored as "Z1:" followed by the
+# Base64 encoded, gzip compressed JSON (see CompactJsonObjectSerializer). Displays all of them as JSON.
+decode_payloads() {
+	awk '{
+		line = $0
+		decoded = ""
+		while (match(line, /Z1:[A-Za-z0-9+\/=]+/)) {
+			cmd = "echo " substr(line, RSTART + 3, RLENGTH - 3) " | base64 -d | gzip -dc"
+			json = ""
+			while ((cmd | getline part) > 0) {
+				json = json part
+			}
+			close(cmd)
+			decoded = decoded substr(line, 1, RSTART - 1) json
+			line = substr(line, RSTART + RLENGTH)
+		}
+		print decoded line
+	}'
+}
+
 caution() {
 	if [ -z "${QUITE_MODE}" ]; then
 		# Highlight the expected results of selected operation.
@@ -251,8 +272,10 @@ elif [ -n "${ZOMBIES_ONLY}" ]; then #only display operations block
 	CMD1="SELECT ${TASKS_FIELDS} FROM GetAsyncTasksZombies();"
 elif [ -n "${ALL_COMMANDS}" ]; then #only display commands
 	CMD1="SELECT ${COMMANDS_FIELDS} FROM GetAllCommands();"
+	DECODE_PAYLOADS=1
 elif [ -n "${COMMANDS_WITH_RUNNING_TASKS_ONLY}" ]; then
 	CMD1="SELECT ${COMMANDS_FIELDS} FROM GetAllCommandsWithRunningTasks();"
+	DECODE_PAYLOADS=1
 elif [ -n "${CLEAR_COMMANDS}" ]; then
 	if [ -n "${COMMANDS_WITH_RUNNING_TASKS_ONLY}" ]; then
 		CMD1="SELECT DeleteAllCommandsWithRunningTasks();"
@@ -263,6 +286,7 @@ elif [ -n "${CLEAR_COMMANDS}" ]; then
 	fi
 elif [ -n "${ZOMBIE_COMMANDS_ONLY}" ]; then
 	CMD1="SELECT ${COMMANDS_FIELDS} FROM GetAllCommandsWithZombieTasks();"
+	DECODE_PAYLOADS=1
 else
 	CMD1="SELECT ${TASKS_FIELDS} FROM GetAllFromasync_tasks();"
 fi
@@ -272,7 +296,12 @@ dbfunc_psql_die --file="$(dirname "$0")/taskcleaner_sp.sql" > /dev/null
 dbfunc_psql_die --file="$(dirname "$0")/taskcleaner_sp_3_5.sql" > /dev/null
 
 # Execute
-dbfunc_psql_die --command="${CMD1}${CMD2}"
+if [ -n "${DECODE_PAYLOADS}" ]; then
+	OUTPUT="$(dbfunc_psql_die --command="${CMD1}${CMD2}")" || exit 1
+	echo "${OUTPUT}" | decode_payloads
+else
+	dbfunc_psql_die --command="${CMD1}${CMD2}"
+fi
 
 # Drop taskcleaner procedures
 dbfunc_psql_die --file="$(dirname "$0")/taskcleaner_sp_drop.sql" > /dev/null